@@ -0,0 +1,261 @@
+package com.example.kitchensink.tokenverifier;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A strict reader for the small JSON documents this library meets: token headers and payloads,
+ * and JWKS documents. Objects become {@code Map}s, arrays {@code List}s, integers {@code Long}s
+ * and other numbers {@code BigDecimal}s. Duplicate member names, trailing content and nesting
+ * deeper than {@value #MAX_DEPTH} are rejected, since none of them occur in a genuine token.
+ */
+final class Json {
+
+    private static final int MAX_DEPTH = 16;
+
+    private final String text;
+
+    private int at;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a JSON object.
+     *
+     * @throws IllegalArgumentException if {@code text} is not exactly one valid JSON object
+     */
+    static Map<String, Object> parseObject(String text) {
+        Json json = new Json(text);
+        json.skipWhitespace();
+        if (!json.peek('{')) {
+            throw json.error("expected an object");
+        }
+        Map<String, Object> object = json.object(0);
+        json.skipWhitespace();
+        if (json.at != text.length()) {
+            throw json.error("unexpected trailing content");
+        }
+        return object;
+    }
+
+    private Object value(int depth) {
+        skipWhitespace();
+        if (at >= text.length()) {
+            throw error("unexpected end");
+        }
+        char c = text.charAt(at);
+        return switch (c) {
+            case '{' -> object(depth + 1);
+            case '[' -> array(depth + 1);
+            case '"' -> string();
+            case 't' -> literal("true", Boolean.TRUE);
+            case 'f' -> literal("false", Boolean.FALSE);
+            case 'n' -> literal("null", null);
+            default -> {
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    yield number();
+                }
+                throw error("unexpected character");
+            }
+        };
+    }
+
+    private Map<String, Object> object(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw error("nested too deeply");
+        }
+        at++;
+        Map<String, Object> object = new LinkedHashMap<>();
+        skipWhitespace();
+        if (peek('}')) {
+            at++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (!peek('"')) {
+                throw error("expected a member name");
+            }
+            String name = string();
+            skipWhitespace();
+            expect(':');
+            Object value = value(depth);
+            if (object.containsKey(name)) {
+                throw error("duplicate member " + name);
+            }
+            object.put(name, value);
+            skipWhitespace();
+            if (peek(',')) {
+                at++;
+            } else {
+                expect('}');
+                return object;
+            }
+        }
+    }
+
+    private List<Object> array(int depth) {
+        if (depth > MAX_DEPTH) {
+            throw error("nested too deeply");
+        }
+        at++;
+        List<Object> array = new ArrayList<>();
+        skipWhitespace();
+        if (peek(']')) {
+            at++;
+            return array;
+        }
+        while (true) {
+            array.add(value(depth));
+            skipWhitespace();
+            if (peek(',')) {
+                at++;
+            } else {
+                expect(']');
+                return array;
+            }
+        }
+    }
+
+    private String string() {
+        at++;
+        int start = at;
+        // Most strings have no escapes and can be cut straight out of the text
+        while (at < text.length()) {
+            char c = text.charAt(at);
+            if (c == '"') {
+                return text.substring(start, at++);
+            }
+            if (c == '\\') {
+                break;
+            }
+            if (c < 0x20) {
+                throw error("control character in string");
+            }
+            at++;
+        }
+        StringBuilder value = new StringBuilder(text.length() - start);
+        value.append(text, start, at);
+        while (at < text.length()) {
+            char c = text.charAt(at++);
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c < 0x20) {
+                throw error("control character in string");
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            if (at >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(at++);
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (at + 4 > text.length()) {
+                        throw error("truncated escape");
+                    }
+                    int code = 0;
+                    for (int i = 0; i < 4; i++) {
+                        int digit = Character.digit(text.charAt(at++), 16);
+                        if (digit < 0) {
+                            throw error("bad escape");
+                        }
+                        code = code << 4 | digit;
+                    }
+                    value.append((char) code);
+                }
+                default -> throw error("bad escape");
+            }
+        }
+        throw error("unterminated string");
+    }
+
+    private Object number() {
+        int start = at;
+        if (peek('-')) {
+            at++;
+        }
+        int digits = digits();
+        if (digits == 0 || (digits > 1 && text.charAt(at - digits) == '0')) {
+            throw error("bad number");
+        }
+        boolean integral = true;
+        if (peek('.')) {
+            at++;
+            integral = false;
+            if (digits() == 0) {
+                throw error("bad number");
+            }
+        }
+        if (peek('e') || peek('E')) {
+            at++;
+            integral = false;
+            if (peek('+') || peek('-')) {
+                at++;
+            }
+            if (digits() == 0) {
+                throw error("bad number");
+            }
+        }
+        String number = text.substring(start, at);
+        if (integral && number.length() <= 18) {
+            return Long.parseLong(number);
+        }
+        return new BigDecimal(number);
+    }
+
+    private int digits() {
+        int start = at;
+        while (at < text.length() && text.charAt(at) >= '0' && text.charAt(at) <= '9') {
+            at++;
+        }
+        return at - start;
+    }
+
+    private Object literal(String literal, Object value) {
+        if (!text.startsWith(literal, at)) {
+            throw error("unexpected literal");
+        }
+        at += literal.length();
+        return value;
+    }
+
+    private void skipWhitespace() {
+        while (at < text.length()) {
+            char c = text.charAt(at);
+            if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                return;
+            }
+            at++;
+        }
+    }
+
+    private boolean peek(char c) {
+        return at < text.length() && text.charAt(at) == c;
+    }
+
+    private void expect(char c) {
+        if (!peek(c)) {
+            throw error("expected '" + c + "'");
+        }
+        at++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON at " + at + ": " + message);
+    }
+}
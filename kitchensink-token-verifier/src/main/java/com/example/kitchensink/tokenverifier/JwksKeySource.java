@@ -0,0 +1,188 @@
+package com.example.kitchensink.tokenverifier;
+
+import java.io.IOException;
+import java.lang.System.Logger.Level;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keys loaded from a JWKS document and reloaded every refresh interval.
+ * <p>
+ * kitchensink signs with a shared HMAC secret, so the only keys that apply are symmetric
+ * {@code "kty":"oct"} keys for HS256; others in the document are skipped. Such a document holds
+ * the secret itself, so serve it only to trusted services over an authenticated channel, and
+ * pass a request carrying the credentials.
+ * <p>
+ * Keys are answered from memory. When they are due for a reload, one caller fetches the document
+ * while the others carry on with the keys they have; the first load is the only one callers wait
+ * for. If a fetch fails, the previous keys stay in use and the fetch is retried after
+ * {@code min(refreshInterval, 30s)}. A token naming an unknown {@code kid} triggers an early
+ * reload, at most once per that same retry delay.
+ */
+public final class JwksKeySource implements KeySource {
+
+    private static final System.Logger LOG = System.getLogger(JwksKeySource.class.getName());
+
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+
+    private final HttpRequest request;
+
+    private final Duration refreshInterval;
+
+    private final Duration retryDelay;
+
+    private final Clock clock;
+
+    private final ReentrantLock loading = new ReentrantLock();
+
+    private volatile List<VerificationKey> keys;
+
+    private volatile long nextLoad;
+
+    private volatile long lastAttempt = Long.MIN_VALUE;
+
+    public JwksKeySource(URI uri, Duration refreshInterval) {
+        this(HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build(),
+                HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(5)).GET().build(),
+                refreshInterval);
+    }
+
+    /**
+     * @param request the request for the JWKS document, with whatever credentials it needs
+     */
+    public JwksKeySource(HttpClient client, HttpRequest request, Duration refreshInterval) {
+        this(client, request, refreshInterval, Clock.systemUTC());
+    }
+
+    JwksKeySource(HttpClient client, HttpRequest request, Duration refreshInterval, Clock clock) {
+        if (!refreshInterval.isPositive()) {
+            throw new IllegalArgumentException("refreshInterval must be positive");
+        }
+        this.client = client;
+        this.request = request;
+        this.refreshInterval = refreshInterval;
+        this.retryDelay = refreshInterval.compareTo(MAX_RETRY_DELAY) < 0
+                ? refreshInterval : MAX_RETRY_DELAY;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<VerificationKey> keys() {
+        List<VerificationKey> current = keys;
+        if (current == null) {
+            loading.lock();
+            try {
+                if (keys == null) {
+                    load();
+                }
+            } finally {
+                loading.unlock();
+            }
+            current = keys;
+        } else if (clock.millis() >= nextLoad && loading.tryLock()) {
+            try {
+                if (clock.millis() >= nextLoad) {
+                    load();
+                }
+            } finally {
+                loading.unlock();
+            }
+            current = keys;
+        }
+        return current;
+    }
+
+    @Override
+    public void refresh() {
+        if (clock.millis() - lastAttempt >= retryDelay.toMillis() && loading.tryLock()) {
+            try {
+                load();
+            } finally {
+                loading.unlock();
+            }
+        }
+    }
+
+    /** Fetches the document, keeping the previous keys (or none) if that fails. */
+    private void load() {
+        long now = clock.millis();
+        lastAttempt = now;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            List<VerificationKey> loaded = parse(response.body());
+            if (keys == null || !sameKeys(keys, loaded)) {
+                // A new list makes verifiers drop their cached outcomes, so only hand one out on a change
+                keys = loaded;
+            }
+            nextLoad = now + refreshInterval.toMillis();
+        } catch (IOException | RuntimeException e) {
+            LOG.log(Level.WARNING, "Could not load JWKS from {0}: {1}", request.uri(), e.getMessage());
+            if (keys == null) {
+                keys = List.of();
+            }
+            nextLoad = now + retryDelay.toMillis();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (keys == null) {
+                keys = List.of();
+            }
+        }
+    }
+
+    /**
+     * Reads the HS256 keys of a JWKS document.
+     *
+     * @throws IllegalArgumentException if the document is not a JWKS document
+     */
+    static List<VerificationKey> parse(String document) {
+        Object keys = Json.parseObject(document).get("keys");
+        if (!(keys instanceof List<?> entries)) {
+            throw new IllegalArgumentException("JWKS document has no keys array");
+        }
+        List<VerificationKey> parsed = new ArrayList<>();
+        for (Object entry : entries) {
+            if (entry instanceof Map<?, ?> jwk && "oct".equals(jwk.get("kty"))
+                    && (jwk.get("alg") == null || "HS256".equals(jwk.get("alg")))
+                    && (jwk.get("use") == null || "sig".equals(jwk.get("use")))
+                    && jwk.get("k") instanceof String secret) {
+                Object keyId = jwk.get("kid");
+                try {
+                    parsed.add(new VerificationKey(keyId instanceof String id ? id : null,
+                            Base64.getUrlDecoder().decode(secret)));
+                } catch (IllegalArgumentException e) {
+                    LOG.log(Level.WARNING, "Skipping JWKS key {0}: {1}", keyId, e.getMessage());
+                }
+            }
+        }
+        return List.copyOf(parsed);
+    }
+
+    private static boolean sameKeys(List<VerificationKey> a, List<VerificationKey> b) {
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!Objects.equals(a.get(i).keyId(), b.get(i).keyId())
+                    || !Arrays.equals(a.get(i).secret(), b.get(i).secret())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
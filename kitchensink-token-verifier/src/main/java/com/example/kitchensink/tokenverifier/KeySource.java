@@ -0,0 +1,36 @@
+package com.example.kitchensink.tokenverifier;
+
+import java.util.List;
+
+/**
+ * Supplies the keys a {@link TokenVerifier} checks signatures with.
+ * <p>
+ * {@link #keys()} is called for every verification that misses the verdict cache, so
+ * implementations must answer from memory. They must also return the same list instance for as
+ * long as the keys are unchanged: a new instance tells the verifier to rebuild its MACs and to
+ * re-verify every cached token.
+ */
+@FunctionalInterface
+public interface KeySource {
+
+    /** The keys tokens may currently be signed with; empty if none are known yet. */
+    List<VerificationKey> keys();
+
+    /**
+     * Asks the source to reload its keys because a token named a {@code kid} it does not have.
+     * Sources that cannot reload ignore this; the default does.
+     */
+    default void refresh() {
+    }
+
+    /** A fixed set of keys. */
+    static KeySource of(VerificationKey... keys) {
+        List<VerificationKey> fixed = List.of(keys);
+        return () -> fixed;
+    }
+
+    /** The application's {@code jwt.secret.key}; see {@link VerificationKey#ofSecret}. */
+    static KeySource secret(String secret) {
+        return of(VerificationKey.ofSecret(secret));
+    }
+}
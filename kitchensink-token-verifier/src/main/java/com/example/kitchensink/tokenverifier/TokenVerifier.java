@@ -0,0 +1,441 @@
+package com.example.kitchensink.tokenverifier;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Verifies the access and refresh tokens kitchensink issues, in-process, so a service holding
+ * the signing key never has to call {@code /api/auth/validate}.
+ * <p>
+ * A token is accepted on the same terms the application's {@code JwtTokenService.verify} accepts
+ * it: an HS256 signature by one of the {@link KeySource}'s keys, and an {@code exp} that has not
+ * passed. A {@code nbf}, if present, is honoured as JJWT does. Compressed tokens, other algorithms
+ * and headers with {@code crit} are refused.
+ * <p>
+ * The outcome of checking a token's signature and parsing its claims is cached per token, so a
+ * token presented again costs one map lookup and a clock read; expiry is still checked on every
+ * call. Cached outcomes are tied to the keys they were computed with and are discarded when the
+ * key source hands out new ones.
+ * <p>
+ * Instances are thread-safe and meant to be shared.
+ */
+public final class TokenVerifier {
+
+    /** How many tokens' outcomes are cached unless configured otherwise. */
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    /** Base64URL of {@code {"alg":"HS256"}}, the header every kitchensink token carries. */
+    private static final String HS256_HEADER = "eyJhbGciOiJIUzI1NiJ9";
+
+    private static final int SIGNATURE_BYTES = 32;
+
+    // Far longer than any token the application issues; longer ones are refused unread
+    private static final int MAX_TOKEN_LENGTH = 8192;
+
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            DECODE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final KeySource keySource;
+
+    private final long clockSkewMillis;
+
+    private final Clock clock;
+
+    private final Map<String, Verdict> verdicts;
+
+    private volatile Keyring keyring;
+
+    /** A verifier with no clock skew allowance and a cache of {@value #DEFAULT_CACHE_SIZE} tokens. */
+    public TokenVerifier(KeySource keySource) {
+        this(keySource, Duration.ZERO, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param clockSkew how far past its expiry (or before its {@code nbf}) a token is still
+     *     accepted; the application itself allows none
+     * @param cacheSize how many tokens' outcomes to keep; 0 to verify every call from scratch
+     */
+    public TokenVerifier(KeySource keySource, Duration clockSkew, int cacheSize) {
+        this(keySource, clockSkew, cacheSize, Clock.systemUTC());
+    }
+
+    TokenVerifier(KeySource keySource, Duration clockSkew, int cacheSize, Clock clock) {
+        if (clockSkew.isNegative()) {
+            throw new IllegalArgumentException("clockSkew must not be negative");
+        }
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize must not be negative");
+        }
+        this.keySource = keySource;
+        this.clockSkewMillis = clockSkew.toMillis();
+        this.clock = clock;
+        this.verdicts = cacheSize == 0 ? null : Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Verdict> eldest) {
+                        return size() > cacheSize;
+                    }
+                });
+    }
+
+    /**
+     * Verifies a token.
+     *
+     * @return the token's claims, or empty if it is malformed, forged, signed with an unknown key,
+     *     expired, not yet valid or has no expiry
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return Optional.empty();
+        }
+        Keyring keys = keyring();
+        Verdict verdict = verdicts != null ? verdicts.get(token) : null;
+        if (verdict == null || verdict.keys() != keys) {
+            verdict = check(token, keys, true);
+            if (verdicts != null && verdict.keys() != null) {
+                verdicts.put(token, verdict);
+            }
+        }
+        return verdict.at(clock.millis(), clockSkewMillis);
+    }
+
+    /**
+     * Verifies the token of an {@code Authorization: Bearer} header value.
+     *
+     * @return the token's claims, or empty if the header is missing, not a bearer token, or the
+     *     token does not verify
+     */
+    public Optional<VerifiedToken> verifyBearer(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return Optional.empty();
+        }
+        return verify(authorization.substring(7).trim());
+    }
+
+    /** Forgets every cached outcome. */
+    public void clearCache() {
+        if (verdicts != null) {
+            verdicts.clear();
+        }
+    }
+
+    private Keyring keyring() {
+        List<VerificationKey> keys = keySource.keys();
+        Keyring current = keyring;
+        if (current == null || current.source() != keys) {
+            current = new Keyring(keys);
+            keyring = current;
+        }
+        return current;
+    }
+
+    private Verdict check(String token, Keyring keys, boolean mayRefresh) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            return Verdict.invalid(keys);
+        }
+        String keyId;
+        try {
+            keyId = HS256_HEADER.length() == headerEnd && token.startsWith(HS256_HEADER)
+                    ? null : keyId(token.substring(0, headerEnd));
+        } catch (IllegalArgumentException e) {
+            return Verdict.invalid(keys);
+        }
+        byte[] signature = decode(token, payloadEnd + 1, token.length());
+        if (signature == null || signature.length != SIGNATURE_BYTES) {
+            return Verdict.invalid(keys);
+        }
+        byte[] signed = new byte[payloadEnd];
+        for (int i = 0; i < payloadEnd; i++) {
+            // Both signed parts decode as Base64URL below, so anything outside ASCII fails there
+            signed[i] = (byte) token.charAt(i);
+        }
+
+        if (mayRefresh && keyId != null && !keys.hasKeyId(keyId)) {
+            // Signed with a key we have not seen yet; the source may have it after a reload
+            keySource.refresh();
+            Keyring reloaded = keyring();
+            if (reloaded != keys) {
+                return check(token, reloaded, false);
+            }
+        }
+        if (!keys.verify(keyId, signed, signature)) {
+            // A key the source has not loaded yet may turn up later, so that outcome is not cached
+            return Verdict.invalid(keyId != null && !keys.hasKeyId(keyId) ? null : keys);
+        }
+
+        byte[] payload = decode(token, headerEnd + 1, payloadEnd);
+        try {
+            return payload != null ? Verdict.valid(keys, Json.parseObject(utf8(payload)))
+                    : Verdict.invalid(keys);
+        } catch (IllegalArgumentException | CharacterCodingException e) {
+            return Verdict.invalid(keys);
+        }
+    }
+
+    /**
+     * Reads a header other than the plain {@code {"alg":"HS256"}}: another member order, a
+     * {@code typ} or a {@code kid}.
+     *
+     * @return the {@code kid}, or null if there is none
+     * @throws IllegalArgumentException if the header is not for an HS256 token this verifier can
+     *     check
+     */
+    private static String keyId(String header) {
+        byte[] decoded = decode(header, 0, header.length());
+        if (decoded == null) {
+            throw new IllegalArgumentException("header is not Base64URL");
+        }
+        Map<String, Object> fields;
+        try {
+            fields = Json.parseObject(utf8(decoded));
+        } catch (CharacterCodingException e) {
+            throw new IllegalArgumentException("header is not UTF-8", e);
+        }
+        if (!"HS256".equals(fields.get("alg")) || fields.containsKey("crit")
+                || fields.containsKey("zip")) {
+            throw new IllegalArgumentException("unsupported header");
+        }
+        Object keyId = fields.get("kid");
+        if (keyId != null && !(keyId instanceof String)) {
+            throw new IllegalArgumentException("kid is not a string");
+        }
+        return (String) keyId;
+    }
+
+    private static String utf8(byte[] bytes) throws CharacterCodingException {
+        return StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(bytes))
+                .toString();
+    }
+
+    /**
+     * Decodes unpadded Base64URL {@code src[from, to)}, or returns null if it is not canonical
+     * Base64URL.
+     */
+    private static byte[] decode(String src, int from, int to) {
+        int length = to - from;
+        if (length % 4 == 1) {
+            return null;
+        }
+        byte[] dst = new byte[length / 4 * 3 + (length % 4 == 0 ? 0 : length % 4 - 1)];
+        int at = 0;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            char c = src.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0) {
+                return null;
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                dst[at++] = (byte) (bits >>> 16);
+                dst[at++] = (byte) (bits >>> 8);
+                dst[at++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 2) {
+            if ((bits & 0xf) != 0) {
+                return null;
+            }
+            dst[at] = (byte) (bits >>> 4);
+        } else if (count == 3) {
+            if ((bits & 0x3) != 0) {
+                return null;
+            }
+            dst[at++] = (byte) (bits >>> 10);
+            dst[at] = (byte) (bits >>> 2);
+        }
+        return dst;
+    }
+
+    /**
+     * The outcome of checking one token against one set of keys: the verified claims with the
+     * times they are valid between, or invalid. Outcomes with no keys are not cached.
+     */
+    private record Verdict(Keyring keys, Optional<VerifiedToken> token, long notBefore,
+            long expiresAt) {
+
+        static Verdict invalid(Keyring keys) {
+            return new Verdict(keys, Optional.empty(), 0, 0);
+        }
+
+        /** The verdict for a token whose signature checked out, judged on its claims. */
+        static Verdict valid(Keyring keys, Map<String, Object> claims) {
+            Object subject = claims.get("sub");
+            Object role = claims.get("role");
+            if ((subject != null && !(subject instanceof String))
+                    || (role != null && !(role instanceof String))) {
+                return invalid(keys);
+            }
+            Long expiresAt = millis(claims, "exp");
+            Long issuedAt = millis(claims, "iat");
+            Long notBefore = millis(claims, "nbf");
+            if (expiresAt == null || (issuedAt == null && claims.containsKey("iat"))
+                    || (notBefore == null && claims.containsKey("nbf"))) {
+                // The application treats tokens without an expiry as invalid
+                return invalid(keys);
+            }
+            VerifiedToken token = new VerifiedToken((String) subject, (String) role,
+                    issuedAt != null ? Instant.ofEpochMilli(issuedAt) : null,
+                    Instant.ofEpochMilli(expiresAt));
+            return new Verdict(keys, Optional.of(token),
+                    notBefore != null ? notBefore : Long.MIN_VALUE, expiresAt);
+        }
+
+        Optional<VerifiedToken> at(long nowMillis, long skewMillis) {
+            if (token.isEmpty() || nowMillis - skewMillis > expiresAt
+                    || nowMillis + skewMillis < notBefore) {
+                return Optional.empty();
+            }
+            return token;
+        }
+
+        /** A NumericDate claim in milliseconds, or null if it is missing or not a number. */
+        private static Long millis(Map<String, Object> claims, String name) {
+            Object seconds = claims.get(name);
+            try {
+                if (seconds instanceof Long whole) {
+                    return Math.multiplyExact(whole, 1000);
+                }
+                if (seconds instanceof BigDecimal fractional) {
+                    return fractional.movePointRight(3).longValueExact();
+                }
+            } catch (ArithmeticException e) {
+                return null;
+            }
+            return null;
+        }
+    }
+
+    /** The MACs for one list of keys from the key source. */
+    private static final class Keyring {
+
+        private final List<VerificationKey> source;
+
+        private final List<MacPool> macs = new ArrayList<>();
+
+        Keyring(List<VerificationKey> source) {
+            this.source = source;
+            for (VerificationKey key : source) {
+                macs.add(new MacPool(key));
+            }
+        }
+
+        List<VerificationKey> source() {
+            return source;
+        }
+
+        boolean hasKeyId(String keyId) {
+            for (MacPool mac : macs) {
+                if (keyId.equals(mac.keyId)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Whether any key that may have signed the token produces {@code signature}. A token with
+         * a {@code kid} is checked against the key with that ID and keys without one.
+         */
+        boolean verify(String keyId, byte[] signed, byte[] signature) {
+            for (MacPool mac : macs) {
+                if ((mac.keyId == null || mac.keyId.equals(keyId))
+                        && MessageDigest.isEqual(mac.sign(signed), signature)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * {@code Mac} instances for one key. Pooled rather than thread-local, because callers may
+     * verify on short-lived virtual threads.
+     */
+    private static final class MacPool {
+
+        private final String keyId;
+
+        private final SecretKeySpec key;
+
+        private final Queue<Mac> pool = new ConcurrentLinkedQueue<>();
+
+        private final AtomicInteger pooled = new AtomicInteger();
+
+        private final int maxPooled = Runtime.getRuntime().availableProcessors() * 4;
+
+        MacPool(VerificationKey key) {
+            this.keyId = key.keyId();
+            this.key = new SecretKeySpec(key.secret(), "HmacSHA256");
+            // Fail when the keys are loaded rather than on the first token if HmacSHA256 is unavailable
+            release(newMac());
+        }
+
+        byte[] sign(byte[] signed) {
+            Mac mac = pool.poll();
+            if (mac == null) {
+                mac = newMac();
+            } else {
+                pooled.decrementAndGet();
+            }
+            try {
+                return mac.doFinal(signed);
+            } finally {
+                release(mac);
+            }
+        }
+
+        private Mac newMac() {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        }
+
+        private void release(Mac mac) {
+            if (pooled.incrementAndGet() <= maxPooled) {
+                pool.offer(mac);
+            } else {
+                pooled.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.kitchensink.tokenverifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * An HMAC-SHA256 key tokens may be signed with.
+ *
+ * @param keyId the JWKS {@code kid}, matched against a token's {@code kid} header; null for a
+ *     key that is tried for every token
+ * @param secret the raw key bytes
+ */
+public record VerificationKey(String keyId, byte[] secret) {
+
+    public VerificationKey {
+        Objects.requireNonNull(secret, "secret");
+        if (secret.length < 32) {
+            // JJWT refuses shorter keys for HS256, so the application cannot have signed with one
+            throw new IllegalArgumentException("HS256 keys must be at least 256 bits");
+        }
+        secret = secret.clone();
+    }
+
+    /**
+     * The key for the application's {@code jwt.secret.key}. The application signs with the UTF-8
+     * bytes of the configured string, not its Base64 decoding, and so does this key.
+     */
+    public static VerificationKey ofSecret(String secret) {
+        return new VerificationKey(null, secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public byte[] secret() {
+        return secret.clone();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.kitchensink.tokenverifier;
+
+import java.time.Instant;
+
+/**
+ * The claims of a token that verified and is currently valid.
+ *
+ * @param subject the member's email
+ * @param role the role claim, such as {@code ROLE_USER}; null for refresh tokens
+ * @param issuedAt when the token was issued; null if it carries no {@code iat}
+ * @param expiresAt when the token expires
+ */
+public record VerifiedToken(String subject, String role, Instant issuedAt, Instant expiresAt) {
+
+    /** Whether this is an access token, which carries a role, rather than a refresh token. */
+    public boolean isAccessToken() {
+        return role != null;
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.kitchensink.tokenverifier;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.CompressionCodecs;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The verifier must accept exactly the tokens the application's {@code JwtTokenService.verify}
+ * accepts. Checked against tokens the application minted (recorded in {@code app-tokens.tsv}) and,
+ * differentially, against JJWT parsing tokens minted the way the application mints them.
+ */
+class AppTokenCompatibilityTest {
+
+    private static final String SECRET = "Srgl71VAmMhSVI+8Bb5eQB6HFr3HdUbidBb/xoTWZAM=";
+
+    private static final long ISSUED_AT = 1_792_420_557L;
+
+    private static final long NOW = ISSUED_AT * 1000 + 1_000;
+
+    private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    private final TokenVerifier verifier = verifierAt(NOW);
+
+    @Test
+    void appMintedTokens_ShouldVerifyWithTheirClaims() throws IOException {
+        List<String[]> fixtures = fixtures();
+        assertFalse(fixtures.isEmpty());
+
+        for (String[] fixture : fixtures) {
+            VerifiedToken token = verifier.verify(fixture[3]).orElseThrow(() -> new AssertionError(fixture[0]));
+
+            assertEquals(fixture[0], token.subject());
+            assertEquals(fixture[1].equals("-") ? null : fixture[1], token.role());
+            assertEquals(Instant.ofEpochSecond(ISSUED_AT), token.issuedAt());
+            assertEquals(Instant.ofEpochSecond(Long.parseLong(fixture[2])), token.expiresAt());
+        }
+    }
+
+    @Test
+    void appMintedTokens_ShouldBeRefusedOnceExpired() throws IOException {
+        for (String[] fixture : fixtures()) {
+            long expiresAt = Long.parseLong(fixture[2]) * 1000;
+
+            assertTrue(verifierAt(expiresAt).verify(fixture[3]).isPresent(), fixture[0]);
+            assertTrue(verifierAt(expiresAt + 1).verify(fixture[3]).isEmpty(), fixture[0]);
+        }
+    }
+
+    @Test
+    void appMintedTokens_ShouldBeRefusedWithAnotherSecret() throws IOException {
+        TokenVerifier other = new TokenVerifier(KeySource.secret("another-secret-that-is-long-enough-32b"),
+                Duration.ZERO, 0, Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC));
+
+        for (String[] fixture : fixtures()) {
+            assertTrue(other.verify(fixture[3]).isEmpty(), fixture[0]);
+        }
+    }
+
+    @Test
+    void verify_ShouldAgreeWithJjwtOnTokensMintedTheApplicationsWay() {
+        Random random = new Random(11);
+        for (int i = 0; i < 2_000; i++) {
+            String subject = randomSubject(random, 1 + random.nextInt(40));
+            String role = random.nextBoolean() ? null : "ROLE_USER";
+            long expiresIn = random.nextInt(3) == 0 ? -60_000 : 900_000;
+            String token = mint(subject, role, expiresIn);
+
+            Optional<VerifiedToken> verified = verifier.verify(token);
+
+            Claims expected = jjwt(token);
+            if (expected == null) {
+                assertTrue(verified.isEmpty(), token);
+            } else {
+                assertTrue(verified.isPresent(), token);
+                assertEquals(expected.getSubject(), verified.get().subject());
+                assertEquals(expected.get("role", String.class), verified.get().role());
+                assertEquals(expected.getExpiration().toInstant(), verified.get().expiresAt());
+            }
+        }
+    }
+
+    @Test
+    void verify_ShouldAcceptOtherShapesJjwtAccepts() {
+        Date expiration = new Date(NOW + 900_000);
+        String extraClaim = Jwts.builder().setSubject("user@example.com").claim("scope", "all")
+                .setExpiration(expiration).signWith(key, SignatureAlgorithm.HS256).compact();
+        String notBefore = Jwts.builder().setSubject("user@example.com").setNotBefore(new Date(NOW))
+                .setExpiration(expiration).signWith(key, SignatureAlgorithm.HS256).compact();
+        String typedHeader = Jwts.builder().setHeaderParam("typ", "JWT").setSubject("user@example.com")
+                .setExpiration(expiration).signWith(key, SignatureAlgorithm.HS256).compact();
+
+        for (String token : new String[] {extraClaim, notBefore, typedHeader}) {
+            assertNotNull(jjwt(token), token);
+            assertEquals("user@example.com", verifier.verify(token).map(VerifiedToken::subject).orElse(null));
+        }
+    }
+
+    @Test
+    void verify_ShouldRefuseWhatTheApplicationRefuses() {
+        Date expiration = new Date(NOW + 900_000);
+        String token = mint("user@example.com", "ROLE_USER", 900_000);
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + base64("{\"role\":\"ROLE_ADMIN\",\"sub\":\"user@example.com\",\"exp\":"
+                + (NOW / 1000 + 900) + "}") + "." + parts[2];
+        String unsigned = base64("{\"alg\":\"none\"}") + "." + parts[1] + ".";
+        String notYetValid = Jwts.builder().setSubject("user@example.com").setNotBefore(new Date(NOW + 60_000))
+                .setExpiration(expiration).signWith(key, SignatureAlgorithm.HS256).compact();
+        String noExpiry = Jwts.builder().setSubject("user@example.com")
+                .signWith(key, SignatureAlgorithm.HS256).compact();
+        String roleNotAString = Jwts.builder().setSubject("user@example.com").claim("role", 7)
+                .setExpiration(expiration).signWith(key, SignatureAlgorithm.HS256).compact();
+        String compressed = Jwts.builder().setSubject("user@example.com").setExpiration(expiration)
+                .compressWith(CompressionCodecs.DEFLATE).signWith(key, SignatureAlgorithm.HS256).compact();
+        String hs384 = Jwts.builder().setSubject("user@example.com").setExpiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(new byte[48]), SignatureAlgorithm.HS384).compact();
+
+        for (String refused : new String[] {forged, unsigned, notYetValid, noExpiry, roleNotAString,
+                compressed, hs384, token.substring(0, token.length() - 1), token + "A", parts[0] + "." + parts[1],
+                "", "not.a.token", null}) {
+            assertTrue(verifier.verify(refused).isEmpty(), refused);
+        }
+    }
+
+    /** Mints a token exactly as {@code JwtTokenService.generateToken} does through JJWT. */
+    private String mint(String subject, String role, long expiration) {
+        Map<String, Object> claims = new HashMap<>();
+        if (role != null) {
+            claims.put("role", role);
+        }
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(subject)
+                .setIssuedAt(new Date(NOW))
+                .setExpiration(new Date(NOW + expiration))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /** The claims as {@code JwtTokenService.verify} would read them, or null if it would refuse the token. */
+    private Claims jjwt(String token) {
+        try {
+            Jws<Claims> parsed = Jwts.parserBuilder().setSigningKey(key).setClock(() -> new Date(NOW))
+                    .build().parseClaimsJws(token);
+            Claims claims = parsed.getBody();
+            claims.get("role", String.class);
+            return claims.getExpiration() != null ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static TokenVerifier verifierAt(long millis) {
+        return new TokenVerifier(KeySource.secret(SECRET), Duration.ZERO, TokenVerifier.DEFAULT_CACHE_SIZE,
+                Clock.fixed(Instant.ofEpochMilli(millis), ZoneOffset.UTC));
+    }
+
+    private static List<String[]> fixtures() throws IOException {
+        List<String[]> fixtures = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                AppTokenCompatibilityTest.class.getResourceAsStream("/app-tokens.tsv"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("#") && !line.isBlank()) {
+                    fixtures.add(line.split("\t"));
+                }
+            }
+        }
+        return fixtures;
+    }
+
+    private static String base64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Mostly printable ASCII, with the occasional quote, backslash, control, accented or CJK character. */
+    private static String randomSubject(Random random, int length) {
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            int pick = random.nextInt(100);
+            value.append(pick == 0 ? '"' : pick == 1 ? '\\' : pick == 2 ? '\n' : pick == 3 ? 'é'
+                    : pick == 4 ? '名' : pick == 5 ? '/' : (char) (0x20 + random.nextInt(0x5f)));
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.kitchensink.tokenverifier;
+
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwksKeySourceTest {
+
+    private static final byte[] SECRET = "Srgl71VAmMhSVI+8Bb5eQB6HFr3HdUbidBb/xoTWZAM=".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] NEXT_SECRET = "another-secret-that-is-long-enough-32b".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicReference<String> document = new AtomicReference<>();
+
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    private final AtomicReference<String> authorization = new AtomicReference<>();
+
+    private HttpServer server;
+
+    private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/jwks", exchange -> {
+            fetches.incrementAndGet();
+            authorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            byte[] body = document.get().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void keys_ShouldLoadTheHs256KeysAndSkipOthers() {
+        document.set(jwks(jwk("current", SECRET)
+                + ",{\"kty\":\"RSA\",\"kid\":\"rsa\",\"n\":\"AQAB\",\"e\":\"AQAB\"}"
+                + ",{\"kty\":\"oct\",\"kid\":\"hs512\",\"alg\":\"HS512\",\"k\":\"" + base64(SECRET) + "\"}"));
+        JwksKeySource source = source(Duration.ofMinutes(10));
+
+        List<VerificationKey> keys = source.keys();
+
+        assertEquals(1, keys.size());
+        assertEquals("current", keys.get(0).keyId());
+        assertArrayEquals(SECRET, keys.get(0).secret());
+        assertEquals("Bearer jwks-reader", authorization.get());
+    }
+
+    @Test
+    void keys_ShouldAnswerFromMemoryUntilTheRefreshIntervalPasses() {
+        document.set(jwks(jwk("current", SECRET)));
+        JwksKeySource source = source(Duration.ofMinutes(10));
+
+        List<VerificationKey> first = source.keys();
+        now = now.plus(Duration.ofMinutes(9));
+        assertSame(first, source.keys());
+        assertEquals(1, fetches.get());
+
+        now = now.plus(Duration.ofMinutes(1));
+        // An unchanged document keeps the same list, so verifiers keep their cached outcomes
+        assertSame(first, source.keys());
+        assertEquals(2, fetches.get());
+
+        document.set(jwks(jwk("current", SECRET) + "," + jwk("next", NEXT_SECRET)));
+        now = now.plus(Duration.ofMinutes(10));
+        assertEquals(2, source.keys().size());
+    }
+
+    @Test
+    void keys_WhenAFetchFails_ShouldKeepThePreviousKeysAndRetrySooner() {
+        document.set(jwks(jwk("current", SECRET)));
+        JwksKeySource source = source(Duration.ofMinutes(10));
+        List<VerificationKey> loaded = source.keys();
+
+        status.set(500);
+        now = now.plus(Duration.ofMinutes(10));
+        assertSame(loaded, source.keys());
+        assertEquals(2, fetches.get());
+
+        status.set(200);
+        document.set(jwks(jwk("next", NEXT_SECRET)));
+        now = now.plus(Duration.ofSeconds(30));
+        assertEquals("next", source.keys().get(0).keyId());
+    }
+
+    @Test
+    void keys_WhenTheFirstFetchFails_ShouldHaveNoKeys() {
+        document.set("not json");
+        JwksKeySource source = source(Duration.ofMinutes(10));
+
+        assertTrue(source.keys().isEmpty());
+    }
+
+    @Test
+    void refresh_ShouldReloadAtMostOncePerRetryDelay() {
+        document.set(jwks(jwk("current", SECRET)));
+        JwksKeySource source = source(Duration.ofMinutes(10));
+        source.keys();
+
+        source.refresh();
+        assertEquals(1, fetches.get());
+
+        now = now.plus(Duration.ofSeconds(30));
+        source.refresh();
+        source.refresh();
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void tokenVerifier_ShouldPickUpARotatedKeyByItsId() {
+        document.set(jwks(jwk("current", SECRET)));
+        JwksKeySource source = source(Duration.ofMinutes(10));
+        TokenVerifier verifier = new TokenVerifier(source, Duration.ZERO, 100, clock());
+        String token = Jwts.builder().setHeaderParam("kid", "next")
+                .setSubject("user@example.com").setExpiration(Date.from(now.plusSeconds(900)))
+                .signWith(Keys.hmacShaKeyFor(NEXT_SECRET)).compact();
+
+        assertTrue(verifier.verify(token).isEmpty());
+
+        document.set(jwks(jwk("current", SECRET) + "," + jwk("next", NEXT_SECRET)));
+        now = now.plus(Duration.ofSeconds(30));
+
+        assertEquals("user@example.com", verifier.verify(token).orElseThrow().subject());
+    }
+
+    private JwksKeySource source(Duration refreshInterval) {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/jwks"))
+                .header("Authorization", "Bearer jwks-reader").build();
+        return new JwksKeySource(HttpClient.newHttpClient(), request, refreshInterval, clock());
+    }
+
+    /** A clock reading {@link #now}, so tests can move time forward. */
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public Instant instant() {
+                return now;
+            }
+
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+        };
+    }
+
+    private static String jwks(String keys) {
+        return "{\"keys\":[" + keys + "]}";
+    }
+
+    private static String jwk(String keyId, byte[] secret) {
+        return "{\"kty\":\"oct\",\"kid\":\"" + keyId + "\",\"alg\":\"HS256\",\"use\":\"sig\",\"k\":\""
+                + base64(secret) + "\"}";
+    }
+
+    private static String base64(byte[] secret) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.kitchensink.tokenverifier;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * What a downstream service pays to check a kitchensink token: JJWT parsing (what such a service
+ * would otherwise embed), {@link TokenVerifier} without its cache (a token seen for the first
+ * time) and with it (a token seen before), single-threaded and with the cache shared by eight
+ * threads. Prints operations per second and bytes allocated per operation. For comparison, a
+ * round trip to {@code /api/auth/validate} costs a network hop, typically hundreds of
+ * microseconds. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class TokenVerifierBenchmark {
+
+    private static final String SECRET = "Srgl71VAmMhSVI+8Bb5eQB6HFr3HdUbidBb/xoTWZAM=";
+    private static final long WARMUP_MILLIS = 2_000;
+    private static final long MEASURE_MILLIS = 5_000;
+    private static final int THREADS = 8;
+
+    private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+
+    @Test
+    void compareJjwtAndVerifier() throws Exception {
+        String token = mint();
+        TokenVerifier uncached = new TokenVerifier(KeySource.secret(SECRET), Duration.ZERO, 0);
+        TokenVerifier cached = new TokenVerifier(KeySource.secret(SECRET));
+        assertEquals("member@example.com", uncached.verify(token).orElseThrow().subject());
+
+        Result jjwt = run(() -> Jwts.parserBuilder().setSigningKey(key).build()
+                .parseClaimsJws(token).getBody().getSubject().length());
+        Result cold = run(() -> uncached.verify(token).orElseThrow().subject().length());
+        Result warm = run(() -> cached.verify(token).orElseThrow().subject().length());
+        double warmShared = runShared(() -> cached.verify(token).orElseThrow().subject().length());
+
+        System.out.printf("%-26s %14s %16s%n", "operation", "ops/s", "bytes/op");
+        print("jjwt parse", jjwt);
+        print("verifier, uncached", cold);
+        print("verifier, cached", warm);
+        System.out.printf("%-26s %,14.0f %16s%n", "verifier, cached, " + THREADS + " thr", warmShared, "-");
+    }
+
+    /** A token as the application mints it. */
+    private String mint() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", "ROLE_USER");
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject("member@example.com")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 900_000))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static Result run(IntSupplier operation) {
+        measure(operation, WARMUP_MILLIS);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long operations = measure(operation, MEASURE_MILLIS);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(operations * 1000.0 / MEASURE_MILLIS, (double) allocated / operations);
+    }
+
+    /** Total operations per second across {@value #THREADS} threads sharing one verifier. */
+    private static double runShared(IntSupplier operation) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            Future<?>[] warmup = new Future<?>[THREADS];
+            for (int i = 0; i < THREADS; i++) {
+                warmup[i] = pool.submit(() -> measure(operation, WARMUP_MILLIS));
+            }
+            for (Future<?> future : warmup) {
+                future.get();
+            }
+            @SuppressWarnings("unchecked")
+            Future<Long>[] counts = new Future[THREADS];
+            for (int i = 0; i < THREADS; i++) {
+                counts[i] = pool.submit(() -> measure(operation, MEASURE_MILLIS));
+            }
+            long operations = 0;
+            for (Future<Long> count : counts) {
+                operations += count.get();
+            }
+            return operations * 1000.0 / MEASURE_MILLIS;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long measure(IntSupplier operation, long millis) {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        long operations = 0;
+        int sink = 0;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 100; i++) {
+                sink += operation.getAsInt();
+            }
+            operations += 100;
+        }
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return operations;
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-26s %,14.0f %,16.1f%n", name, result.opsPerSecond, result.bytesPerOp);
+    }
+
+    private record Result(double opsPerSecond, double bytesPerOp) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.kitchensink.tokenverifier;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenVerifierTest {
+
+    private static final String SECRET = "Srgl71VAmMhSVI+8Bb5eQB6HFr3HdUbidBb/xoTWZAM=";
+
+    private static final String OTHER_SECRET = "another-secret-that-is-long-enough-32b";
+
+    private static final long NOW = 1_767_225_600_000L;
+
+    private final MutableClock clock = new MutableClock(NOW);
+
+    @Test
+    void verify_ShouldReturnTheClaims() {
+        TokenVerifier verifier = verifier(KeySource.secret(SECRET), Duration.ZERO);
+
+        VerifiedToken token = verifier.verify(mint(SECRET, null, "ROLE_ADMIN", 900)).orElseThrow();
+
+        assertEquals("admin@admin.com", token.subject());
+        assertEquals("ROLE_ADMIN", token.role());
+        assertTrue(token.isAccessToken());
+        assertEquals(Instant.ofEpochMilli(NOW), token.issuedAt());
+        assertEquals(Instant.ofEpochMilli(NOW + 900_000), token.expiresAt());
+    }
+
+    @Test
+    void verify_WhenCached_ShouldStillCheckExpiry() {
+        TokenVerifier verifier = verifier(KeySource.secret(SECRET), Duration.ZERO);
+        String token = mint(SECRET, null, "ROLE_USER", 60);
+
+        assertTrue(verifier.verify(token).isPresent());
+        clock.millis = NOW + 60_001;
+
+        assertTrue(verifier.verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_ShouldAllowTheConfiguredClockSkew() {
+        TokenVerifier verifier = verifier(KeySource.secret(SECRET), Duration.ofSeconds(30));
+        String token = mint(SECRET, null, "ROLE_USER", 60);
+
+        clock.millis = NOW + 90_000;
+        assertTrue(verifier.verify(token).isPresent());
+        clock.millis = NOW + 90_001;
+        assertTrue(verifier.verify(token).isEmpty());
+    }
+
+    @Test
+    void verify_WhenKeysChange_ShouldNotTrustCachedOutcomes() {
+        AtomicReference<List<VerificationKey>> keys =
+                new AtomicReference<>(List.of(VerificationKey.ofSecret(SECRET)));
+        TokenVerifier verifier = verifier(keys::get, Duration.ZERO);
+        String token = mint(SECRET, null, "ROLE_USER", 900);
+        String rotated = mint(OTHER_SECRET, null, "ROLE_USER", 900);
+
+        assertTrue(verifier.verify(token).isPresent());
+        assertTrue(verifier.verify(rotated).isEmpty());
+
+        keys.set(List.of(VerificationKey.ofSecret(OTHER_SECRET)));
+
+        assertTrue(verifier.verify(token).isEmpty());
+        assertTrue(verifier.verify(rotated).isPresent());
+    }
+
+    @Test
+    void verify_ShouldTryEveryKeyWithoutAnId() {
+        TokenVerifier verifier = verifier(KeySource.of(VerificationKey.ofSecret(OTHER_SECRET),
+                VerificationKey.ofSecret(SECRET)), Duration.ZERO);
+
+        assertTrue(verifier.verify(mint(SECRET, null, "ROLE_USER", 900)).isPresent());
+        assertTrue(verifier.verify(mint(OTHER_SECRET, null, "ROLE_USER", 900)).isPresent());
+    }
+
+    @Test
+    void verify_WithKeyId_ShouldOnlyUseThatKeyAndReloadForAnUnknownOne() {
+        byte[] current = SECRET.getBytes(StandardCharsets.UTF_8);
+        byte[] next = OTHER_SECRET.getBytes(StandardCharsets.UTF_8);
+        AtomicInteger refreshes = new AtomicInteger();
+        AtomicReference<List<VerificationKey>> keys =
+                new AtomicReference<>(List.of(new VerificationKey("current", current)));
+        KeySource source = new KeySource() {
+            @Override
+            public List<VerificationKey> keys() {
+                return keys.get();
+            }
+
+            @Override
+            public void refresh() {
+                refreshes.incrementAndGet();
+                keys.set(List.of(new VerificationKey("current", current), new VerificationKey("next", next)));
+            }
+        };
+        TokenVerifier verifier = verifier(source, Duration.ZERO);
+
+        assertTrue(verifier.verify(mint(SECRET, "current", "ROLE_USER", 900)).isPresent());
+        assertTrue(verifier.verify(mint(SECRET, "next", "ROLE_USER", 900)).isEmpty());
+        assertEquals(1, refreshes.get());
+        assertTrue(verifier.verify(mint(OTHER_SECRET, "next", "ROLE_USER", 900)).isPresent());
+        assertEquals(1, refreshes.get());
+    }
+
+    @Test
+    void verify_WithoutACache_ShouldVerifyEveryCall() {
+        AtomicInteger lookups = new AtomicInteger();
+        List<VerificationKey> keys = List.of(VerificationKey.ofSecret(SECRET));
+        TokenVerifier verifier = new TokenVerifier(() -> {
+            lookups.incrementAndGet();
+            return keys;
+        }, Duration.ZERO, 0, clock);
+        String token = mint(SECRET, null, "ROLE_USER", 900);
+
+        assertTrue(verifier.verify(token).isPresent());
+        assertTrue(verifier.verify(token).isPresent());
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void verifyBearer_ShouldStripTheScheme() {
+        TokenVerifier verifier = verifier(KeySource.secret(SECRET), Duration.ZERO);
+        String token = mint(SECRET, null, "ROLE_USER", 900);
+
+        assertTrue(verifier.verifyBearer("Bearer " + token).isPresent());
+        assertTrue(verifier.verifyBearer("bearer " + token).isPresent());
+        assertTrue(verifier.verifyBearer("Basic " + token).isEmpty());
+        assertTrue(verifier.verifyBearer(token).isEmpty());
+        assertTrue(verifier.verifyBearer(null).isEmpty());
+    }
+
+    @Test
+    void verificationKey_ShouldRefuseKeysTooShortForHs256() {
+        assertThrows(IllegalArgumentException.class, () -> VerificationKey.ofSecret("short"));
+    }
+
+    @Test
+    void constructor_ShouldRefuseNegativeSettings() {
+        KeySource keys = KeySource.secret(SECRET);
+        assertThrows(IllegalArgumentException.class, () -> new TokenVerifier(keys, Duration.ofSeconds(-1), 10));
+        assertThrows(IllegalArgumentException.class, () -> new TokenVerifier(keys, Duration.ZERO, -1));
+    }
+
+    private TokenVerifier verifier(KeySource keys, Duration clockSkew) {
+        return new TokenVerifier(keys, clockSkew, 100, clock);
+    }
+
+    private static String mint(String secret, String keyId, String role, long seconds) {
+        var builder = Jwts.builder();
+        if (keyId != null) {
+            builder.setHeaderParam("kid", keyId);
+        }
+        return builder.claim("role", role)
+                .setSubject("admin@admin.com")
+                .setIssuedAt(new Date(NOW))
+                .setExpiration(new Date(NOW + seconds * 1000))
+                .signWith(Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile long millis;
+
+        MutableClock(long millis) {
+            this.millis = millis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
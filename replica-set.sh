@@ -0,0 +1,42 @@
+#!/bin/bash
+
+# Starts a three-member MongoDB replica set (rs0) in one container, on localhost:27117-27119,
+# for ReadRoutingReplicaSetTest:
+#   ./replica-set.sh && mvn test -Dtest=ReadRoutingReplicaSetTest
+# Stop it with: docker rm -f kitchensink-rs
+
+echo "🍃 Starting replica set rs0..."
+docker rm -f kitchensink-rs > /dev/null 2>&1
+docker run -d --name kitchensink-rs -p 27117-27119:27117-27119 --entrypoint bash mongo:7 -c '
+  for port in 27117 27118 27119; do
+    mkdir -p /data/rs/$port
+    mongod --replSet rs0 --port $port --bind_ip_all --dbpath /data/rs/$port --fork --logpath /data/rs/$port.log
+  done
+  tail -f /dev/null' > /dev/null
+
+if [ $? -ne 0 ]; then
+    echo "❌ Could not start the container"
+    exit 1
+fi
+
+echo "⏳ Initiating replica set..."
+for attempt in $(seq 1 30); do
+    docker exec kitchensink-rs mongosh --quiet --port 27117 --eval '
+      rs.initiate({_id: "rs0", members: [
+        {_id: 0, host: "localhost:27117", priority: 2},
+        {_id: 1, host: "localhost:27118"},
+        {_id: 2, host: "localhost:27119"}
+      ]})' > /dev/null 2>&1 && break
+    sleep 1
+done
+
+for attempt in $(seq 1 30); do
+    if docker exec kitchensink-rs mongosh --quiet --port 27117 --eval 'db.hello().isWritablePrimary' 2>/dev/null | grep -q true; then
+        echo "✅ Replica set ready: mongodb://localhost:27117,localhost:27118,localhost:27119/?replicaSet=rs0"
+        exit 0
+    fi
+    sleep 1
+done
+
+echo "❌ Replica set did not elect a primary"
+exit 1
@@ -0,0 +1,173 @@
+package com.example.kitchensink.cache;
+
+/**
+ * Fixed-capacity open-addressing table (linear probing) from a 64-bit email hash to a member's
+ * ObjectId, version and role ordinal. Each slot is four adjacent longs in one array (hash, first
+ * eight ObjectId bytes, last four ObjectId bytes with the role, version): 32 bytes, one cache line
+ * per probe, and no per-entry objects. Deletes shift later entries back instead of leaving
+ * tombstones.
+ * <p>
+ * Not thread-safe, and never resized: {@link MemberDirectory} copies into a larger table when
+ * {@link #isFull()}, so a reader that captured this table never sees its array change size.
+ */
+class EmailHashTable {
+
+  static final long EMPTY = 0;
+
+  private static final double MAX_LOAD = 0.75;
+
+  private static final int STRIDE = 4;
+  private static final int HASH = 0;
+  private static final int ID_HIGH = 1;
+  private static final int ID_LOW_AND_ROLE = 2;
+  private static final int VERSION = 3;
+
+  private final long[] slots;
+
+  private final int mask;
+  private final int threshold;
+  private int size;
+
+  EmailHashTable(int expectedEntries) {
+    int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedEntries / MAX_LOAD)) - 1) << 1;
+    slots = new long[capacity * STRIDE];
+    mask = capacity - 1;
+    threshold = (int) (capacity * MAX_LOAD);
+  }
+
+  /**
+   * 64-bit FNV-1a over the email's chars, finished with the MurmurHash3 mixer. Never returns
+   * {@link #EMPTY}.
+   */
+  static long hash(String email) {
+    long h = 0xcbf29ce484222325L;
+    for (int i = 0; i < email.length(); i++) {
+      h ^= email.charAt(i);
+      h *= 0x100000001b3L;
+    }
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h == EMPTY ? 1 : h;
+  }
+
+  /**
+   * Returns the slot holding {@code hash}, or -1. Probes at most the whole table, so a read racing
+   * a writer (and discarded afterwards) cannot loop forever.
+   */
+  int find(long hash) {
+    int slot = (int) hash & mask;
+    for (int probes = 0; probes <= mask; probes++) {
+      long stored = slots[slot * STRIDE + HASH];
+      if (stored == hash) {
+        return slot;
+      }
+      if (stored == EMPTY) {
+        return -1;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /** Returns the slot holding the given ObjectId, or -1. Scans the table. */
+  int findById(long high, int low) {
+    for (int slot = 0; slot <= mask; slot++) {
+      int base = slot * STRIDE;
+      if (slots[base + HASH] != EMPTY && slots[base + ID_HIGH] == high
+          && (int) (slots[base + ID_LOW_AND_ROLE] >>> 32) == low) {
+        return slot;
+      }
+    }
+    return -1;
+  }
+
+  /** Inserts or overwrites the entry for {@code hash}; the caller checks {@link #isFull()}. */
+  void put(long hash, long high, int low, long version, byte role) {
+    int slot = (int) hash & mask;
+    while (hash(slot) != EMPTY && hash(slot) != hash) {
+      slot = (slot + 1) & mask;
+    }
+    if (hash(slot) == EMPTY) {
+      size++;
+    }
+    int base = slot * STRIDE;
+    slots[base + HASH] = hash;
+    slots[base + ID_HIGH] = high;
+    slots[base + ID_LOW_AND_ROLE] = ((long) low << 32) | (role & 0xff);
+    slots[base + VERSION] = version;
+  }
+
+  void remove(int slot) {
+    // Backward-shift deletion: move each later entry of the probe run into the gap if the gap lies
+    // between its home slot and where it sits now
+    int gap = slot;
+    int next = (gap + 1) & mask;
+    while (hash(next) != EMPTY) {
+      int home = (int) hash(next) & mask;
+      if (((next - home) & mask) >= ((next - gap) & mask)) {
+        System.arraycopy(slots, next * STRIDE, slots, gap * STRIDE, STRIDE);
+        gap = next;
+      }
+      next = (next + 1) & mask;
+    }
+    slots[gap * STRIDE + HASH] = EMPTY;
+    size--;
+  }
+
+  /** Copies every entry into a table twice this one's capacity. */
+  EmailHashTable grow() {
+    EmailHashTable grown = new EmailHashTable(threshold * 2);
+    for (int slot = 0; slot <= mask; slot++) {
+      if (hash(slot) != EMPTY) {
+        grown.put(hash(slot), idHigh(slot), idLow(slot), version(slot), role(slot));
+      }
+    }
+    return grown;
+  }
+
+  boolean isFull() {
+    return size >= threshold;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int capacity() {
+    return mask + 1;
+  }
+
+  /** Bytes held by the slot array. */
+  long sizeInBytes() {
+    return (long) slots.length * Long.BYTES;
+  }
+
+  long idHigh(int slot) {
+    return slots[slot * STRIDE + ID_HIGH];
+  }
+
+  int idLow(int slot) {
+    return (int) (slots[slot * STRIDE + ID_LOW_AND_ROLE] >>> 32);
+  }
+
+  long version(int slot) {
+    return slots[slot * STRIDE + VERSION];
+  }
+
+  byte role(int slot) {
+    return (byte) slots[slot * STRIDE + ID_LOW_AND_ROLE];
+  }
+
+  void setVersionAndRole(int slot, long version, byte role) {
+    int base = slot * STRIDE;
+    slots[base + ID_LOW_AND_ROLE] = (slots[base + ID_LOW_AND_ROLE] & ~0xffL) | (role & 0xff);
+    slots[base + VERSION] = version;
+  }
+
+  private long hash(int slot) {
+    return slots[slot * STRIDE + HASH];
+  }
+}
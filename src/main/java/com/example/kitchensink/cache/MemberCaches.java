@@ -0,0 +1,111 @@
+package com.example.kitchensink.cache;
+
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.lifecycle.BackgroundWork;
+import com.example.kitchensink.model.Member;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.springframework.context.event.EventListener;
+
+/**
+ * The member read caches: members by ID, members by email (with unknown emails cached as misses)
+ * and the full member list. Built by {@code CacheConfig}.
+ * <p>
+ * A member change evicts the affected entries on this node and in the shared cache; a created or
+ * updated member replaces its entries instead, so the next read does not reload it from a replica
+ * that has not seen the write. Other nodes keep serving their own first-level copies until those
+ * expire, so the first-level TTL bounds how stale another node can be.
+ * <p>
+ * On shutdown, {@link #flush} lets early refreshes that are already loading finish.
+ */
+public class MemberCaches implements BackgroundWork {
+
+  public static final String BY_ID = "members-by-id";
+  public static final String BY_EMAIL = "members-by-email";
+  public static final String ALL = "members-all";
+
+  private static final String ALL_KEY = "all";
+
+  private final TieredCache<Member> byId;
+
+  private final TieredCache<Member> byEmail;
+
+  private final TieredCache<List<Member>> all;
+
+  private final ExecutorService refreshExecutor;
+
+  public MemberCaches(TieredCache<Member> byId, TieredCache<Member> byEmail,
+      TieredCache<List<Member>> all) {
+    this(byId, byEmail, all, null);
+  }
+
+  /**
+   * @param refreshExecutor the executor the caches refresh entries early on, shut down by
+   *     {@link #flush}
+   */
+  public MemberCaches(TieredCache<Member> byId, TieredCache<Member> byEmail,
+      TieredCache<List<Member>> all, ExecutorService refreshExecutor) {
+    this.byId = byId;
+    this.byEmail = byEmail;
+    this.all = all;
+    this.refreshExecutor = refreshExecutor;
+  }
+
+  /**
+   * Caches that always call the loader, for {@code kitchensink.cache.enabled=false} and for
+   * callers that must observe every read.
+   */
+  public static MemberCaches disabled() {
+    return new MemberCaches(null, null, null);
+  }
+
+  public Member byId(String id, Function<String, Member> loader) {
+    return byId != null ? byId.get(id, loader) : loader.apply(id);
+  }
+
+  public Member byEmail(String email, Function<String, Member> loader) {
+    return byEmail != null ? byEmail.get(email, loader) : loader.apply(email);
+  }
+
+  public List<Member> all(Supplier<List<Member>> loader) {
+    return all != null ? all.get(ALL_KEY, key -> List.copyOf(loader.get())) : loader.get();
+  }
+
+  /**
+   * Evicts what a member change can affect. The email cache is cleared rather than evicted by key
+   * because updates and deletes do not carry the previous email; a bulk change clears everything.
+   * A created or updated member is then put back under its ID and email as written.
+   */
+  @EventListener
+  public void onMemberChanged(MemberChangedEvent event) {
+    if (byId == null) {
+      return;
+    }
+    Member member = event.getMember();
+    if (event.getType() == MemberChangedEvent.Type.BULK) {
+      byId.clear();
+    } else if (member != null) {
+      byId.put(event.getMemberId(), member);
+    } else {
+      byId.evict(event.getMemberId());
+    }
+    byEmail.clear();
+    if (member != null && member.getEmail() != null) {
+      byEmail.put(member.getEmail(), member);
+    }
+    all.clear();
+  }
+
+  @Override
+  public boolean flush(Duration timeout) throws InterruptedException {
+    if (refreshExecutor == null) {
+      return true;
+    }
+    refreshExecutor.shutdown();
+    return refreshExecutor.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS);
+  }
+}
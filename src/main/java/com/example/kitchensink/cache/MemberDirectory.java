@@ -0,0 +1,342 @@
+package com.example.kitchensink.cache;
+
+import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.model.Member;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Compact in-process index from email to member ID, role and version, for existence and ETag
+ * checks that should not load the member. Built by {@code CacheConfig} when
+ * {@code kitchensink.member-directory.enabled=true}.
+ * <p>
+ * Entries live in an {@link EmailHashTable} keyed by a 64-bit email hash, at 43-85 bytes per
+ * member depending on how full the table is, instead of a few hundred for a map of documents.
+ * Lookups take an optimistic read and only lock when a write overlapped them. The directory is
+ * rebuilt by streaming the collection once the application is ready and every
+ * {@code refresh-interval}, and kept current from this node's member change events in between.
+ * <p>
+ * A miss is not authoritative: the member may be newer than the last rebuild, written by another
+ * node, or have an ID that is not an ObjectId. Callers fall back to the database on a miss. A hit
+ * is only as current as the last rebuild for members changed on other nodes, so without a
+ * positive {@code refresh-interval} the directory is not {@linkplain #isKeptCurrent() kept
+ * current} and is neither built nor updated.
+ */
+@Slf4j
+public class MemberDirectory {
+
+  /** What the directory knows about a member. */
+  public record Entry(String id, String role, long version) {
+  }
+
+  private static final int MAX_ROLES = 127;
+
+  private static final HexFormat HEX = HexFormat.of();
+
+  private final MongoTemplate mongoTemplate;
+
+  private final Duration refreshInterval;
+
+  private final StampedLock lock = new StampedLock();
+
+  // Role strings by ordinal; there are only a handful
+  private final List<String> roles = new CopyOnWriteArrayList<>();
+
+  private final ScheduledExecutorService rebuilder;
+
+  private final Timer rebuildTimer;
+
+  private volatile EmailHashTable table = new EmailHashTable(0);
+
+  private volatile boolean ready;
+
+  // Changes seen while a rebuild streams the collection, replayed onto the rebuilt table
+  private List<MemberChangedEvent> pending;
+
+  public MemberDirectory(MongoTemplate mongoTemplate, MeterRegistry registry,
+      Duration refreshInterval) {
+    this.mongoTemplate = mongoTemplate;
+    this.refreshInterval = refreshInterval;
+    this.rebuilder = mongoTemplate != null ? Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().daemon().name("member-directory").factory()) : null;
+    this.rebuildTimer = Timer.builder("kitchensink.member.directory.rebuild")
+        .description("Time to rebuild the member directory from the collection")
+        .register(registry);
+    Gauge.builder("kitchensink.member.directory.size", this, directory -> directory.table.size())
+        .description("Members in the member directory")
+        .register(registry);
+    Gauge.builder("kitchensink.member.directory.bytes", this,
+            directory -> directory.table.sizeInBytes())
+        .description("Heap held by the member directory table")
+        .baseUnit("bytes")
+        .register(registry);
+  }
+
+  /**
+   * A directory that is never built and finds nothing, for
+   * {@code kitchensink.member-directory.enabled=false}.
+   */
+  public static MemberDirectory disabled() {
+    return new MemberDirectory();
+  }
+
+  private MemberDirectory() {
+    this.mongoTemplate = null;
+    this.refreshInterval = Duration.ZERO;
+    this.rebuilder = null;
+    this.rebuildTimer = null;
+  }
+
+  /**
+   * Whether hits reflect changes made on every node, to within {@code refresh-interval}. Events
+   * only reach the node that made the change, so that takes periodic rebuilds.
+   */
+  public boolean isKeptCurrent() {
+    return rebuilder != null && refreshInterval.isPositive();
+  }
+
+  /**
+   * Returns what the directory holds for {@code email}, or null if it has no entry (or has not
+   * been built yet).
+   */
+  public Entry lookup(String email) {
+    if (!ready || email == null) {
+      return null;
+    }
+    long hash = EmailHashTable.hash(email);
+    long stamp = lock.tryOptimisticRead();
+    Entry entry = read(table, hash);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        entry = read(table, hash);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return entry;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (rebuilder == null) {
+      return;
+    }
+    if (!isKeptCurrent()) {
+      log.warn("Member directory not built: kitchensink.member-directory.refresh-interval must be"
+          + " positive for it to see changes made on other nodes");
+      return;
+    }
+    rebuilder.scheduleWithFixedDelay(this::rebuildQuietly, 0, refreshInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  public void shutdown() {
+    if (rebuilder != null) {
+      rebuilder.shutdownNow();
+    }
+  }
+
+  /**
+   * Applies a member change. A bulk change does not say which members it touched, so lookups find
+   * nothing until a rebuild has run after it.
+   */
+  @EventListener
+  public void onMemberChanged(MemberChangedEvent event) {
+    if (!isKeptCurrent()) {
+      return;
+    }
+    long stamp = lock.writeLock();
+    try {
+      if (event.getType() == MemberChangedEvent.Type.BULK) {
+        ready = false;
+        rebuilder.execute(this::rebuildQuietly);
+      } else {
+        table = apply(table, event);
+      }
+      if (pending != null) {
+        pending.add(event);
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Streams the ID, email, role and version of every member into a new table and swaps it in.
+   */
+  void rebuild() {
+    long stamp = lock.writeLock();
+    try {
+      pending = new ArrayList<>();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+
+    EmailHashTable rebuilt = null;
+    try {
+      rebuilt = rebuildTimer.record(this::load);
+    } finally {
+      stamp = lock.writeLock();
+      try {
+        if (rebuilt != null) {
+          for (MemberChangedEvent event : pending) {
+            rebuilt = apply(rebuilt, event);
+          }
+          table = rebuilt;
+          // A bulk change during the stream may be half missing; the rebuild it queued fixes that
+          ready = pending.stream()
+              .noneMatch(event -> event.getType() == MemberChangedEvent.Type.BULK);
+        }
+        pending = null;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+    log.info("Member directory rebuilt with {} members ({} KiB)", rebuilt.size(),
+        rebuilt.sizeInBytes() / 1024);
+  }
+
+  private EmailHashTable load() {
+    Query query = new Query();
+    query.fields().include("email", "role", "version");
+    EmailHashTable loaded = new EmailHashTable(table.size());
+    try (Stream<MemberDocument> members = mongoTemplate.stream(query, MemberDocument.class)) {
+      for (MemberDocument member : (Iterable<MemberDocument>) members::iterator) {
+        if (loaded.isFull()) {
+          loaded = loaded.grow();
+        }
+        put(loaded, member.getId(), member.getEmail(), member.getRole(), member.getVersion());
+      }
+    }
+    return loaded;
+  }
+
+  private void rebuildQuietly() {
+    try {
+      rebuild();
+    } catch (RuntimeException e) {
+      log.warn("Member directory rebuild failed: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * Applies one change under the write lock, returning the table to use from now on (a grown copy
+   * if it was full).
+   */
+  private EmailHashTable apply(EmailHashTable target, MemberChangedEvent event) {
+    if (event.getType() == MemberChangedEvent.Type.DELETED) {
+      if (event.getDeletedEmail() != null) {
+        remove(target, event.getDeletedEmail(), event.getMemberId());
+      } else {
+        removeById(target, event.getMemberId());
+      }
+      return target;
+    }
+    Member member = event.getMember();
+    if (member == null || member.getEmail() == null || !ObjectId.isValid(member.getId())) {
+      return target;
+    }
+    long hash = EmailHashTable.hash(member.getEmail());
+    int slot = target.find(hash);
+    ByteBuffer id = ByteBuffer.wrap(new ObjectId(member.getId()).toByteArray());
+    long high = id.getLong();
+    int low = id.getInt();
+    long version = member.getVersion() != null ? member.getVersion() : 0;
+    if (slot >= 0 && target.idHigh(slot) == high && target.idLow(slot) == low) {
+      // Same member, same email: the common update. Ignore events that arrive out of order
+      if (version >= target.version(slot)) {
+        target.setVersionAndRole(slot, version, roleOrdinal(member.getRole()));
+      }
+      return target;
+    }
+    if (event.getType() == MemberChangedEvent.Type.UPDATED) {
+      // The email changed, and the event does not say from what: find the old entry by its ID
+      removeById(target, member.getId());
+    }
+    if (target.isFull()) {
+      target = target.grow();
+    }
+    target.put(hash, high, low, version, roleOrdinal(member.getRole()));
+    return target;
+  }
+
+  private void put(EmailHashTable target, String id, String email, String role, Long version) {
+    if (email == null || !ObjectId.isValid(id)) {
+      return;
+    }
+    ByteBuffer bytes = ByteBuffer.wrap(new ObjectId(id).toByteArray());
+    target.put(EmailHashTable.hash(email), bytes.getLong(), bytes.getInt(),
+        version != null ? version : 0, roleOrdinal(role));
+  }
+
+  /** Removes the entry for {@code email}, unless another member has taken that email since. */
+  private static void remove(EmailHashTable target, String email, String id) {
+    int slot = target.find(EmailHashTable.hash(email));
+    if (slot < 0 || !ObjectId.isValid(id)) {
+      return;
+    }
+    ByteBuffer bytes = ByteBuffer.wrap(new ObjectId(id).toByteArray());
+    if (target.idHigh(slot) == bytes.getLong() && target.idLow(slot) == bytes.getInt()) {
+      target.remove(slot);
+    }
+  }
+
+  /** Removes the member's entry wherever it is; scans the whole table. */
+  private static void removeById(EmailHashTable target, String id) {
+    if (!ObjectId.isValid(id)) {
+      return;
+    }
+    ByteBuffer bytes = ByteBuffer.wrap(new ObjectId(id).toByteArray());
+    int slot = target.findById(bytes.getLong(), bytes.getInt());
+    if (slot >= 0) {
+      target.remove(slot);
+    }
+  }
+
+  private Entry read(EmailHashTable source, long hash) {
+    int slot = source.find(hash);
+    if (slot < 0) {
+      return null;
+    }
+    // An ObjectId's hex string is its 12 bytes in order
+    String id = HEX.toHexDigits(source.idHigh(slot)) + HEX.toHexDigits(source.idLow(slot));
+    int role = source.role(slot);
+    return new Entry(id, role >= 0 && role < roles.size() ? roles.get(role) : null,
+        source.version(slot));
+  }
+
+  private synchronized byte roleOrdinal(String role) {
+    if (role == null) {
+      return -1;
+    }
+    int ordinal = roles.indexOf(role);
+    if (ordinal < 0) {
+      if (roles.size() == MAX_ROLES) {
+        return -1;
+      }
+      roles.add(role);
+      ordinal = roles.size() - 1;
+    }
+    return (byte) ordinal;
+  }
+}
@@ -0,0 +1,69 @@
+package com.example.kitchensink.cache;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.ReplaceOptions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * {@link SharedCache} kept in the {@code cache_entries} collection, for deployments without a
+ * dedicated cache server. A TTL index removes expired entries; reads also check the expiry since
+ * the TTL monitor only runs once a minute. Enabled with {@code kitchensink.cache.shared=mongo}.
+ */
+public class MongoSharedCache implements SharedCache {
+
+  static final String COLLECTION = "cache_entries";
+
+  private final MongoTemplate mongoTemplate;
+
+  private final AtomicBoolean indexed = new AtomicBoolean();
+
+  public MongoSharedCache(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  @Override
+  public byte[] get(String key) {
+    Document entry = collection()
+        .find(Filters.and(Filters.eq("_id", key), Filters.gt("expiresAt", new Date())))
+        .first();
+    return entry != null ? entry.get("value", Binary.class).getData() : null;
+  }
+
+  @Override
+  public void put(String key, byte[] value, Duration ttl) {
+    MongoCollection<Document> collection = collection();
+    if (indexed.compareAndSet(false, true)) {
+      collection.createIndex(Indexes.ascending("expiresAt"),
+          new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+    }
+    Document entry = new Document("_id", key)
+        .append("value", new Binary(value))
+        .append("expiresAt", Date.from(Instant.now().plus(ttl)));
+    collection.replaceOne(Filters.eq("_id", key), entry, new ReplaceOptions().upsert(true));
+  }
+
+  @Override
+  public void evict(String key) {
+    collection().deleteOne(Filters.eq("_id", key));
+  }
+
+  @Override
+  public void evictAll(String prefix) {
+    collection().deleteMany(Filters.regex("_id", "^" + Pattern.quote(prefix)));
+  }
+
+  private MongoCollection<Document> collection() {
+    return mongoTemplate.getCollection(COLLECTION);
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.kitchensink.cache;
+
+import java.time.Duration;
+
+/**
+ * Second-level cache shared by every node, holding serialized values under namespaced keys
+ * ({@code <cache>:<key>}). Implementations may lose entries at any time; {@link TieredCache}
+ * treats every failure as a miss.
+ */
+public interface SharedCache {
+
+  /**
+   * Returns the stored value, or null if there is none or it has expired.
+   */
+  byte[] get(String key);
+
+  void put(String key, byte[] value, Duration ttl);
+
+  void evict(String key);
+
+  /**
+   * Removes every entry whose key starts with {@code prefix}.
+   */
+  void evictAll(String prefix);
+}
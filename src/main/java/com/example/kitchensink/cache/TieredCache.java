@@ -0,0 +1,345 @@
+package com.example.kitchensink.cache;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-through cache with an on-heap first level per node and an optional {@link SharedCache}
+ * second level.
+ * <ul>
+ *   <li>Concurrent misses on one key share a single load: the first caller loads, the rest wait
+ *   for its result.</li>
+ *   <li>Hits close to expiry refresh the entry early in the background, with a probability that
+ *   grows as expiry nears and with how long the last load took (XFetch), so a hot key is
+ *   reloaded once before it expires instead of by every caller after.</li>
+ *   <li>A loader returning null is cached as a miss for {@code negativeTtl}; the second level
+ *   only holds values.</li>
+ *   <li>Loads that overlap an eviction are returned but not stored, the same generation check
+ *   the members table cache uses.</li>
+ * </ul>
+ * Values are shared between callers and must not be modified.
+ *
+ * @param <V> the cached value type
+ */
+@Slf4j
+public class TieredCache<V> {
+
+  /**
+   * Per-cache settings.
+   *
+   * @param maxEntries first-level capacity; a sampled entry is dropped to make room
+   * @param ttl how long a value stays in the first level
+   * @param negativeTtl how long a null result stays in the first level; zero disables it
+   * @param sharedTtl how long a value stays in the second level
+   * @param earlyRefreshBeta XFetch aggressiveness; zero disables early refresh
+   */
+  public record Settings(int maxEntries, Duration ttl, Duration negativeTtl, Duration sharedTtl,
+      double earlyRefreshBeta) {
+  }
+
+  private record Entry<V>(V value, long expiresAt, long loadNanos) {
+  }
+
+  private final String name;
+
+  private final Settings settings;
+
+  private final SharedCache shared;
+
+  private final ObjectMapper objectMapper;
+
+  private final JavaType valueType;
+
+  private final Executor refreshExecutor;
+
+  private final LongSupplier nanoClock;
+
+  private final DoubleSupplier random;
+
+  private final Map<String, Entry<V>> entries = new ConcurrentHashMap<>();
+
+  private final Map<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter sharedHits;
+  private final Counter sharedMisses;
+  private final Counter coalesced;
+  private final Counter earlyRefreshes;
+  private final Counter evictions;
+  private final Timer loads;
+
+  /**
+   * @param shared second level, or null for a first level only
+   * @param valueType how values are serialized into the second level
+   */
+  public TieredCache(String name, Settings settings, SharedCache shared, ObjectMapper objectMapper,
+      JavaType valueType, MeterRegistry registry, Executor refreshExecutor) {
+    this(name, settings, shared, objectMapper, valueType, registry, refreshExecutor,
+        System::nanoTime, () -> ThreadLocalRandom.current().nextDouble());
+  }
+
+  TieredCache(String name, Settings settings, SharedCache shared, ObjectMapper objectMapper,
+      JavaType valueType, MeterRegistry registry, Executor refreshExecutor, LongSupplier nanoClock,
+      DoubleSupplier random) {
+    this.name = name;
+    this.settings = settings;
+    this.shared = shared;
+    this.objectMapper = objectMapper;
+    this.valueType = valueType;
+    this.refreshExecutor = refreshExecutor;
+    this.nanoClock = nanoClock;
+    this.random = random;
+
+    hits = getsCounter(registry, "l1", "hit");
+    misses = getsCounter(registry, "l1", "miss");
+    sharedHits = getsCounter(registry, "l2", "hit");
+    sharedMisses = getsCounter(registry, "l2", "miss");
+    coalesced = Counter.builder("kitchensink.cache.coalesced")
+        .description("Misses that waited for another caller's load")
+        .tag("cache", name).register(registry);
+    earlyRefreshes = Counter.builder("kitchensink.cache.refreshes")
+        .description("Entries reloaded before they expired")
+        .tag("cache", name).register(registry);
+    evictions = Counter.builder("kitchensink.cache.evictions")
+        .description("Entries dropped to stay within capacity")
+        .tag("cache", name).register(registry);
+    loads = Timer.builder("kitchensink.cache.loads")
+        .description("Time spent loading values from the database")
+        .tag("cache", name)
+        .publishPercentiles(0.5, 0.99)
+        .register(registry);
+    Gauge.builder("kitchensink.cache.size", entries, Map::size)
+        .description("Entries in the first level")
+        .tag("cache", name).register(registry);
+    Gauge.builder("kitchensink.cache.hit.ratio", this, TieredCache::hitRatio)
+        .description("Share of gets answered without a database load")
+        .tag("cache", name).register(registry);
+  }
+
+  /**
+   * Returns the cached value for {@code key}, loading it with {@code loader} on a miss.
+   */
+  public V get(String key, Function<String, V> loader) {
+    Entry<V> entry = entries.get(key);
+    long now = nanoClock.getAsLong();
+    if (entry != null && now < entry.expiresAt()) {
+      hits.increment();
+      if (shouldRefreshEarly(entry, now)) {
+        refreshInBackground(key, loader);
+      }
+      return entry.value();
+    }
+    misses.increment();
+
+    CompletableFuture<V> load = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, load);
+    if (existing != null) {
+      coalesced.increment();
+      return join(existing);
+    }
+    try {
+      V value = loadThrough(key, loader, true);
+      load.complete(value);
+      return value;
+    } catch (RuntimeException e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, load);
+    }
+  }
+
+  /**
+   * Replaces the value for {@code key} in both levels with one the caller just wrote, so the next
+   * get does not reload it from a replica that may not have the write yet. Loads already running
+   * for any key are not stored, as after an eviction.
+   */
+  public void put(String key, V value) {
+    long putGeneration = generation.incrementAndGet();
+    inFlight.remove(key);
+    if (store(key, value, 0, putGeneration) && value != null && shared != null) {
+      sharedCall(() -> shared.put(sharedKey(key), objectMapper.writeValueAsBytes(value),
+          settings.sharedTtl()));
+    }
+  }
+
+  public void evict(String key) {
+    generation.incrementAndGet();
+    entries.remove(key);
+    inFlight.remove(key);
+    if (shared != null) {
+      sharedCall(() -> shared.evict(sharedKey(key)));
+    }
+  }
+
+  public void clear() {
+    generation.incrementAndGet();
+    entries.clear();
+    inFlight.clear();
+    if (shared != null) {
+      sharedCall(() -> shared.evictAll(name + ":"));
+    }
+  }
+
+  double hitRatio() {
+    double gets = hits.count() + misses.count();
+    return gets == 0 ? 0 : (hits.count() + sharedHits.count()) / gets;
+  }
+
+  private V loadThrough(String key, Function<String, V> loader, boolean readShared) {
+    long loadGeneration = generation.get();
+    if (shared != null && readShared) {
+      V value = readShared(key);
+      if (value != null) {
+        sharedHits.increment();
+        store(key, value, 0, loadGeneration);
+        return value;
+      }
+      sharedMisses.increment();
+    }
+
+    long start = nanoClock.getAsLong();
+    V value = loader.apply(key);
+    long loadNanos = nanoClock.getAsLong() - start;
+    loads.record(loadNanos, TimeUnit.NANOSECONDS);
+
+    if (store(key, value, loadNanos, loadGeneration) && value != null && shared != null) {
+      sharedCall(() -> shared.put(sharedKey(key), objectMapper.writeValueAsBytes(value),
+          settings.sharedTtl()));
+    }
+    return value;
+  }
+
+  private boolean store(String key, V value, long loadNanos, long loadGeneration) {
+    Duration ttl = value != null ? settings.ttl() : settings.negativeTtl();
+    if (ttl.isZero() || generation.get() != loadGeneration) {
+      return false;
+    }
+    if (!entries.containsKey(key) && entries.size() >= settings.maxEntries()) {
+      evictOne();
+    }
+    Entry<V> entry = new Entry<>(value, nanoClock.getAsLong() + ttl.toNanos(), loadNanos);
+    entries.put(key, entry);
+    // An eviction between the check and the put would otherwise leave a stale entry behind
+    if (generation.get() != loadGeneration) {
+      entries.remove(key, entry);
+      return false;
+    }
+    return true;
+  }
+
+  private void evictOne() {
+    Iterator<String> keys = entries.keySet().iterator();
+    if (keys.hasNext()) {
+      keys.next();
+      keys.remove();
+      evictions.increment();
+    }
+  }
+
+  /**
+   * XFetch: refresh when {@code now - loadTime * beta * ln(random)} reaches expiry. The log of a
+   * uniform random number is negative, so the chance rises towards expiry and for slow loads.
+   */
+  private boolean shouldRefreshEarly(Entry<V> entry, long now) {
+    if (settings.earlyRefreshBeta() <= 0 || entry.value() == null) {
+      return false;
+    }
+    double gap = -entry.loadNanos() * settings.earlyRefreshBeta() * Math.log(random.getAsDouble());
+    return now + gap >= entry.expiresAt();
+  }
+
+  private void refreshInBackground(String key, Function<String, V> loader) {
+    CompletableFuture<V> refresh = new CompletableFuture<>();
+    if (inFlight.putIfAbsent(key, refresh) != null) {
+      return;
+    }
+    earlyRefreshes.increment();
+    Runnable task = () -> {
+      try {
+        refresh.complete(loadThrough(key, loader, false));
+      } catch (RuntimeException e) {
+        log.warn("Early refresh of {} entry failed: {}", name, e.getMessage());
+        refresh.completeExceptionally(e);
+      } finally {
+        inFlight.remove(key, refresh);
+      }
+    };
+    try {
+      refreshExecutor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // The executor was flushed for shutdown; requests still draining refresh on their own thread
+      task.run();
+    }
+  }
+
+  private V readShared(String key) {
+    try {
+      byte[] bytes = shared.get(sharedKey(key));
+      return bytes != null ? objectMapper.readValue(bytes, valueType) : null;
+    } catch (IOException | RuntimeException e) {
+      log.warn("Shared cache read for {} failed: {}", name, e.getMessage());
+      return null;
+    }
+  }
+
+  private void sharedCall(SharedCall call) {
+    try {
+      call.run();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Shared cache update for {} failed: {}", name, e.getMessage());
+    }
+  }
+
+  private String sharedKey(String key) {
+    return name + ":" + key;
+  }
+
+  private static <V> V join(CompletableFuture<V> load) {
+    try {
+      return load.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private Counter getsCounter(MeterRegistry registry, String level, String result) {
+    return Counter.builder("kitchensink.cache.gets")
+        .description("Cache lookups by level and result")
+        .tag("cache", name)
+        .tag("level", level)
+        .tag("result", result)
+        .register(registry);
+  }
+
+  @FunctionalInterface
+  private interface SharedCall {
+    void run() throws IOException;
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.kitchensink.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concurrency limit that adapts to latency by additive increase, multiplicative decrease, the
+ * way TCP adapts its congestion window to packet loss.
+ * <p>
+ * A request that completes within the latency threshold while the limit is at least half used
+ * raises the limit by {@code 1/limit}, so the limit grows by about one per limit's worth of
+ * completions, up to the maximum; an idle limit does not grow, since it has shown nothing about
+ * capacity. A request slower than the threshold cuts the limit by the backoff
+ * ratio, down to the minimum. Only the first slow completion among requests admitted before a cut
+ * counts: those were admitted under the old limit, and cutting once per request would collapse
+ * the limit after a single slow burst.
+ */
+public class AimdLimit {
+
+  private final int minLimit;
+
+  private final int maxLimit;
+
+  private final double backoffRatio;
+
+  private final long latencyThresholdNanos;
+
+  private final AtomicInteger inflight = new AtomicInteger();
+
+  private volatile double limit;
+
+  private boolean cut;
+
+  private long lastCutNanos;
+
+  /**
+   * @param backoffRatio what the limit is multiplied by on a slow completion, between 0 and 1
+   * @param latencyThreshold completions slower than this count as a sign of overload
+   */
+  public AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+      Duration latencyThreshold) {
+    if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+      throw new IllegalArgumentException(
+          "Limits must satisfy 1 <= min <= initial <= max, got " + minLimit + ", " + initialLimit
+              + ", " + maxLimit);
+    }
+    if (backoffRatio <= 0 || backoffRatio >= 1) {
+      throw new IllegalArgumentException("Backoff ratio must be between 0 and 1, got " + backoffRatio);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.latencyThresholdNanos = latencyThreshold.toNanos();
+    this.limit = initialLimit;
+  }
+
+  /**
+   * Admits a request if fewer than the limit are in flight. Never waits: a request that is not
+   * admitted should be rejected, not queued.
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inflight.get();
+      if (current >= (int) limit) {
+        return false;
+      }
+      if (inflight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Releases an admitted request and adjusts the limit by how long it took.
+   *
+   * @param startNanos {@link System#nanoTime} when the request was admitted
+   * @param endNanos {@link System#nanoTime} when it completed
+   */
+  public void release(long startNanos, long endNanos) {
+    int inflightBefore = inflight.getAndDecrement();
+    synchronized (this) {
+      if (endNanos - startNanos > latencyThresholdNanos) {
+        if (!cut || startNanos - lastCutNanos > 0) {
+          limit = Math.max(minLimit, Math.floor(limit * backoffRatio));
+          cut = true;
+          lastCutNanos = endNanos;
+        }
+      } else if (inflightBefore * 2 >= limit) {
+        limit = Math.min(maxLimit, limit + 1 / limit);
+      }
+    }
+  }
+
+  /**
+   * Releases an admitted request without adjusting the limit, for requests whose latency says
+   * nothing about load, such as one that went asynchronous.
+   */
+  public void release() {
+    inflight.decrementAndGet();
+  }
+
+  public int getLimit() {
+    return (int) limit;
+  }
+
+  public int getInflight() {
+    return inflight.get();
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.kitchensink.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A fixed number of slots for one workload, with a bounded queue in front of them. A request
+ * takes a free slot, or waits in the queue up to the maximum wait if there is room in it, or is
+ * turned away. Requests run on virtual threads, so a waiting request parks on the semaphore
+ * without holding a platform thread.
+ */
+public class Bulkhead {
+
+  /** What became of a request that asked for a slot. */
+  public enum Admission {
+    ADMITTED,
+    QUEUE_FULL,
+    TIMED_OUT
+  }
+
+  private final int maxConcurrent;
+
+  private final int maxQueue;
+
+  private final long maxWaitNanos;
+
+  private final Semaphore slots;
+
+  private final AtomicInteger queued = new AtomicInteger();
+
+  /**
+   * @param maxQueue how many requests may wait for a slot; 0 to turn away any request that finds
+   *     every slot taken
+   * @param maxWait how long a queued request waits for a slot before it is turned away
+   */
+  public Bulkhead(int maxConcurrent, int maxQueue, Duration maxWait) {
+    if (maxConcurrent < 1 || maxQueue < 0) {
+      throw new IllegalArgumentException("A bulkhead needs at least one slot and a non-negative "
+          + "queue, got " + maxConcurrent + " and " + maxQueue);
+    }
+    this.maxConcurrent = maxConcurrent;
+    this.maxQueue = maxQueue;
+    this.maxWaitNanos = maxWait.toNanos();
+    // Fair, so queued requests get slots in arrival order
+    this.slots = new Semaphore(maxConcurrent, true);
+  }
+
+  /**
+   * Takes a slot, waiting in the queue if every slot is taken and the queue has room. Call
+   * {@link #release} once the request is done if, and only if, this returns {@code ADMITTED}.
+   *
+   * @throws InterruptedException if the thread is interrupted while queued
+   */
+  public Admission acquire() throws InterruptedException {
+    if (slots.tryAcquire()) {
+      return Admission.ADMITTED;
+    }
+    if (queued.incrementAndGet() > maxQueue) {
+      queued.decrementAndGet();
+      return Admission.QUEUE_FULL;
+    }
+    try {
+      return slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)
+          ? Admission.ADMITTED : Admission.TIMED_OUT;
+    } finally {
+      queued.decrementAndGet();
+    }
+  }
+
+  public void release() {
+    slots.release();
+  }
+
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  /** Requests holding a slot. */
+  public int getActive() {
+    return maxConcurrent - slots.availablePermits();
+  }
+
+  /** Requests waiting for a slot. */
+  public int getQueued() {
+    return queued.get();
+  }
+}
@@ -0,0 +1,105 @@
+package com.example.kitchensink.concurrency;
+
+import com.example.kitchensink.concurrency.Bulkhead.Admission;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Runs each {@link EndpointGroup}'s requests in a {@link Bulkhead} of its own, so one family of
+ * endpoints can hold at most its own slots: a burst of slow {@code /admin/home} renderings queues
+ * behind the UI bulkhead while logins and the JSON API keep theirs. A request turned away by its
+ * bulkhead gets 503 with {@code Retry-After: 1}.
+ * <p>
+ * Exports {@code kitchensink.bulkhead.active}, {@code kitchensink.bulkhead.queued} and
+ * {@code kitchensink.bulkhead.max-concurrent} gauges, a {@code kitchensink.bulkhead.wait} timer
+ * for the time spent queued, and a {@code kitchensink.bulkhead.rejected} counter tagged with the
+ * reason ({@code queue-full} or {@code timed-out}), all tagged with the bulkhead's group.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+  private final Map<EndpointGroup, Bulkhead> bulkheads = new EnumMap<>(EndpointGroup.class);
+
+  private final Map<EndpointGroup, Timer> waits = new EnumMap<>(EndpointGroup.class);
+
+  private final Map<EndpointGroup, Map<Admission, Counter>> rejections =
+      new EnumMap<>(EndpointGroup.class);
+
+  /**
+   * @param bulkheads the bulkhead for each group; groups without one run unbounded
+   */
+  public BulkheadFilter(Map<EndpointGroup, Bulkhead> bulkheads, MeterRegistry registry) {
+    this.bulkheads.putAll(bulkheads);
+    this.bulkheads.forEach((group, bulkhead) -> {
+      Gauge.builder("kitchensink.bulkhead.active", bulkhead, Bulkhead::getActive)
+          .description("Requests of the endpoint group holding a bulkhead slot")
+          .tag("group", group.key())
+          .register(registry);
+      Gauge.builder("kitchensink.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+          .description("Requests of the endpoint group waiting for a bulkhead slot")
+          .tag("group", group.key())
+          .register(registry);
+      Gauge.builder("kitchensink.bulkhead.max-concurrent", bulkhead, Bulkhead::getMaxConcurrent)
+          .description("Bulkhead slots of the endpoint group")
+          .tag("group", group.key())
+          .register(registry);
+      waits.put(group, Timer.builder("kitchensink.bulkhead.wait")
+          .description("Time requests of the endpoint group waited for a bulkhead slot")
+          .tag("group", group.key())
+          .register(registry));
+      Map<Admission, Counter> counters = new EnumMap<>(Admission.class);
+      for (Admission reason : new Admission[] {Admission.QUEUE_FULL, Admission.TIMED_OUT}) {
+        counters.put(reason, Counter.builder("kitchensink.bulkhead.rejected")
+            .description("Requests of the endpoint group turned away by its bulkhead")
+            .tag("group", group.key())
+            .tag("reason", reason.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+            .register(registry));
+      }
+      rejections.put(group, counters);
+    });
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    EndpointGroup group =
+        EndpointGroup.of(request.getRequestURI().substring(request.getContextPath().length()));
+    Bulkhead bulkhead = group != null ? bulkheads.get(group) : null;
+    if (bulkhead == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    Admission admission;
+    long start = System.nanoTime();
+    try {
+      admission = bulkhead.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      BusyResponse.write(response, group);
+      return;
+    }
+    waits.get(group).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    if (admission != Admission.ADMITTED) {
+      rejections.get(group).get(admission).increment();
+      BusyResponse.write(response, group);
+      return;
+    }
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      // An event stream that went asynchronous gives its slot back once it has started
+      bulkhead.release();
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.kitchensink.concurrency;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+/** The 503 a request gets when its endpoint group has no room for it. */
+final class BusyResponse {
+
+  private BusyResponse() {
+  }
+
+  static void write(HttpServletResponse response, EndpointGroup group) throws IOException {
+    byte[] body = ("{\"message\":\"Server is busy, please retry shortly\",\"details\":\""
+        + group.key() + "\"}").getBytes(StandardCharsets.UTF_8);
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+  }
+}
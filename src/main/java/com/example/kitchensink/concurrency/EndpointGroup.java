@@ -0,0 +1,63 @@
+package com.example.kitchensink.concurrency;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The groups of endpoints that get a concurrency limit of their own, so a slow group (say, the
+ * admin API waiting on MongoDB) sheds its own load without starving the others.
+ */
+public enum EndpointGroup {
+
+  /** Login, signup, token refresh and validation. */
+  AUTH,
+
+  /** The member REST API under {@code /admin/}. */
+  ADMIN_API,
+
+  /** Server-rendered pages. */
+  UI,
+
+  /** Stylesheets, scripts, images and the API docs. */
+  STATIC;
+
+  private static final List<String> AUTH_PATHS =
+      List.of("/api/auth/", "/jwt-login", "/jwt-signup", "/jwt-logout");
+
+  private static final List<String> STATIC_PATHS = List.of("/css/", "/js/", "/gfx/", "/images/",
+      "/favicon.", "/webjars/", "/swagger-ui", "/v3/api-docs");
+
+  /** The group's name in configuration and metrics, e.g. {@code admin-api}. */
+  public String key() {
+    return name().toLowerCase(Locale.ROOT).replace('_', '-');
+  }
+
+  /**
+   * The group a request path (without the context path) belongs to, or null for paths that are
+   * never limited: the actuator endpoints, so health checks keep answering under load.
+   */
+  public static EndpointGroup of(String path) {
+    if (path.startsWith("/actuator")) {
+      return null;
+    }
+    if (startsWithAny(path, AUTH_PATHS)) {
+      return AUTH;
+    }
+    if (startsWithAny(path, STATIC_PATHS)) {
+      return STATIC;
+    }
+    if (path.startsWith("/admin/") && !path.equals("/admin/home")) {
+      return ADMIN_API;
+    }
+    return UI;
+  }
+
+  private static boolean startsWithAny(String path, List<String> prefixes) {
+    for (String prefix : prefixes) {
+      if (path.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,113 @@
+package com.example.kitchensink.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Counts the requests in flight per {@link EndpointGroup}, so a shutdown can wait for them, and
+ * turns new requests away once told to stop accepting. A turned-away request gets 503 with
+ * {@code Retry-After: 1} and {@code Connection: close}, so the client retries on a fresh
+ * connection, which the load balancer sends to another instance. {@code /actuator} is neither
+ * counted nor turned away, so the probes keep answering during a drain.
+ * <p>
+ * An event stream counts only until it goes asynchronous: it stays open until the server ends it,
+ * which {@code MemberEventBroadcaster} does when it is flushed.
+ * <p>
+ * Exports a {@code kitchensink.requests.inflight} gauge tagged with the group.
+ */
+public class InFlightRequestFilter extends OncePerRequestFilter {
+
+  private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+  private final Map<EndpointGroup, AtomicInteger> inFlight = new EnumMap<>(EndpointGroup.class);
+
+  private volatile boolean accepting = true;
+
+  public InFlightRequestFilter(MeterRegistry registry) {
+    for (EndpointGroup group : EndpointGroup.values()) {
+      AtomicInteger count = new AtomicInteger();
+      inFlight.put(group, count);
+      Gauge.builder("kitchensink.requests.inflight", count, AtomicInteger::get)
+          .description("Requests of the endpoint group in flight")
+          .tag("group", group.key())
+          .register(registry);
+    }
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    EndpointGroup group =
+        EndpointGroup.of(request.getRequestURI().substring(request.getContextPath().length()));
+    if (group == null) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    AtomicInteger count = inFlight.get(group);
+    // Counted before checking, so a drain that has seen zero in flight never misses this request
+    count.incrementAndGet();
+    try {
+      if (!accepting) {
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        BusyResponse.write(response, group);
+        return;
+      }
+      filterChain.doFilter(request, response);
+    } finally {
+      count.decrementAndGet();
+    }
+  }
+
+  /** Turns away every request that arrives from now on, except to {@code /actuator}. */
+  public void stopAccepting() {
+    accepting = false;
+  }
+
+  public boolean isAccepting() {
+    return accepting;
+  }
+
+  /**
+   * Waits until no request is in flight.
+   *
+   * @return whether they all finished within the timeout
+   */
+  public boolean awaitDrained(Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (getTotalInFlight() > 0) {
+      long remainingNanos = deadline - System.nanoTime();
+      if (remainingNanos <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.sleep(Math.min(POLL_NANOS, remainingNanos));
+    }
+    return true;
+  }
+
+  /** Requests in flight per group, omitting groups with none. */
+  public Map<EndpointGroup, Integer> getInFlight() {
+    Map<EndpointGroup, Integer> snapshot = new EnumMap<>(EndpointGroup.class);
+    inFlight.forEach((group, count) -> {
+      if (count.get() > 0) {
+        snapshot.put(group, count.get());
+      }
+    });
+    return snapshot;
+  }
+
+  public int getTotalInFlight() {
+    return inFlight.values().stream().mapToInt(AtomicInteger::get).sum();
+  }
+}
@@ -0,0 +1,70 @@
+package com.example.kitchensink.config;
+
+import com.example.kitchensink.concurrency.Bulkhead;
+import com.example.kitchensink.concurrency.BulkheadFilter;
+import com.example.kitchensink.concurrency.EndpointGroup;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * One bulkhead per endpoint group, sized under {@code kitchensink.bulkhead.<group>.*}
+ * ({@code max-concurrent}, {@code max-queue} and {@code max-wait} for each of {@code auth},
+ * {@code admin-api}, {@code ui} and {@code static}) and turned off with
+ * {@code kitchensink.bulkhead.enabled=false}. The switch is read at startup rather than by a
+ * {@code @Conditional}, which the AOT-built image would fix at build time.
+ */
+@Configuration
+public class BulkheadConfig {
+
+  private static final Map<EndpointGroup, int[]> DEFAULT_SIZES = Map.of(
+      EndpointGroup.AUTH, new int[] {50, 100},
+      EndpointGroup.ADMIN_API, new int[] {100, 200},
+      EndpointGroup.UI, new int[] {20, 50},
+      EndpointGroup.STATIC, new int[] {200, 200});
+
+  private static final Map<EndpointGroup, Duration> DEFAULT_MAX_WAITS = Map.of(
+      EndpointGroup.AUTH, Duration.ofSeconds(2),
+      EndpointGroup.ADMIN_API, Duration.ofSeconds(2),
+      EndpointGroup.UI, Duration.ofSeconds(2),
+      EndpointGroup.STATIC, Duration.ofSeconds(1));
+
+  /**
+   * Runs before the concurrency limit and Spring Security. The limit then only sees requests
+   * holding a slot, and times them from the moment they got it, so a queue wait longer than the
+   * limit's latency threshold does not read as overload.
+   */
+  @Bean
+  public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(Environment environment,
+      MeterRegistry registry) {
+    Map<EndpointGroup, Bulkhead> bulkheads = new EnumMap<>(EndpointGroup.class);
+    for (EndpointGroup group : EndpointGroup.values()) {
+      String prefix = "kitchensink.bulkhead." + group.key() + ".";
+      int maxQueue = environment.getProperty(prefix + "max-queue", Integer.class,
+          DEFAULT_SIZES.get(group)[1]);
+      Duration maxWait = environment.getProperty(prefix + "max-wait", Duration.class,
+          DEFAULT_MAX_WAITS.get(group));
+      bulkheads.put(group, new Bulkhead(maxConcurrent(environment, group), maxQueue, maxWait));
+    }
+    FilterRegistrationBean<BulkheadFilter> registration =
+        new FilterRegistrationBean<>(new BulkheadFilter(bulkheads, registry));
+    registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+    registration.setEnabled(enabled(environment));
+    return registration;
+  }
+
+  static boolean enabled(Environment environment) {
+    return environment.getProperty("kitchensink.bulkhead.enabled", Boolean.class, true);
+  }
+
+  static int maxConcurrent(Environment environment, EndpointGroup group) {
+    return environment.getProperty("kitchensink.bulkhead." + group.key() + ".max-concurrent",
+        Integer.class, DEFAULT_SIZES.get(group)[0]);
+  }
+}
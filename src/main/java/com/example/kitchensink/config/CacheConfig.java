@@ -0,0 +1,92 @@
+package com.example.kitchensink.config;
+
+import com.example.kitchensink.cache.MemberCaches;
+import com.example.kitchensink.cache.MemberDirectory;
+import com.example.kitchensink.cache.MongoSharedCache;
+import com.example.kitchensink.cache.SharedCache;
+import com.example.kitchensink.cache.TieredCache;
+import com.example.kitchensink.model.Member;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Member read caches. Each cache is tuned under {@code kitchensink.cache.<cache>.*}
+ * ({@code max-entries}, {@code ttl}, {@code negative-ttl}, {@code shared-ttl},
+ * {@code early-refresh-beta}); {@code kitchensink.cache.shared=mongo} adds the shared second
+ * level, and {@code kitchensink.cache.enabled=false} turns caching off.
+ * <p>
+ * The member directory is off unless {@code kitchensink.member-directory.enabled=true}.
+ * <p>
+ * Both switches are read when the beans are created rather than through {@code @Conditional}
+ * annotations, which the AOT-built image evaluates once at build time.
+ */
+@Configuration
+public class CacheConfig {
+
+  @Bean
+  public MemberCaches memberCaches(Environment environment, MeterRegistry registry,
+      MongoTemplate mongoTemplate) {
+    if (!environment.getProperty("kitchensink.cache.enabled", Boolean.class, true)) {
+      return MemberCaches.disabled();
+    }
+    SharedCache shared = "mongo".equalsIgnoreCase(
+        environment.getProperty("kitchensink.cache.shared", "none"))
+        ? new MongoSharedCache(mongoTemplate) : null;
+    ObjectMapper mapper = sharedCacheMapper();
+    ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    JavaType member = mapper.constructType(Member.class);
+    JavaType members = mapper.getTypeFactory().constructCollectionType(List.class, Member.class);
+    return new MemberCaches(
+        new TieredCache<>(MemberCaches.BY_ID, settings(environment, MemberCaches.BY_ID), shared,
+            mapper, member, registry, refreshExecutor),
+        new TieredCache<>(MemberCaches.BY_EMAIL, settings(environment, MemberCaches.BY_EMAIL),
+            shared, mapper, member, registry, refreshExecutor),
+        new TieredCache<>(MemberCaches.ALL, settings(environment, MemberCaches.ALL), shared,
+            mapper, members, registry, refreshExecutor),
+        refreshExecutor);
+  }
+
+  @Bean(destroyMethod = "shutdown")
+  public MemberDirectory memberDirectory(Environment environment, MongoTemplate mongoTemplate,
+      MeterRegistry registry) {
+    if (!environment.getProperty("kitchensink.member-directory.enabled", Boolean.class, false)) {
+      return MemberDirectory.disabled();
+    }
+    return new MemberDirectory(mongoTemplate, registry, environment.getProperty(
+        "kitchensink.member-directory.refresh-interval", Duration.class, Duration.ofMinutes(5)));
+  }
+
+  /**
+   * Independent of the web mapper: shared entries must round-trip read-only fields like the
+   * member version, and tolerate fields added by a newer node during a rolling deploy.
+   */
+  public static ObjectMapper sharedCacheMapper() {
+    return JsonMapper.builder()
+        .disable(MapperFeature.USE_ANNOTATIONS)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .findAndAddModules()
+        .build();
+  }
+
+  static TieredCache.Settings settings(Environment environment, String cache) {
+    String prefix = "kitchensink.cache." + cache + ".";
+    return new TieredCache.Settings(
+        environment.getProperty(prefix + "max-entries", Integer.class, 10_000),
+        environment.getProperty(prefix + "ttl", Duration.class, Duration.ofSeconds(30)),
+        environment.getProperty(prefix + "negative-ttl", Duration.class, Duration.ZERO),
+        environment.getProperty(prefix + "shared-ttl", Duration.class, Duration.ofMinutes(1)),
+        environment.getProperty(prefix + "early-refresh-beta", Double.class, 1.0));
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.kitchensink.config;
+
+import com.example.kitchensink.concurrency.AimdLimit;
+import com.example.kitchensink.concurrency.ConcurrencyLimitFilter;
+import com.example.kitchensink.concurrency.EndpointGroup;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Adaptive concurrency limits per endpoint group, tuned under
+ * {@code kitchensink.concurrency-limit.*} ({@code initial-limit}, {@code min-limit},
+ * {@code max-limit}, {@code backoff-ratio}, and {@code latency-threshold.<group>} for each of
+ * {@code auth}, {@code admin-api}, {@code ui} and {@code static}) and turned off with
+ * {@code kitchensink.concurrency-limit.enabled=false}. The switch is read at startup rather than
+ * by a {@code @Conditional}, which the AOT-built image would fix at build time.
+ */
+@Configuration
+public class ConcurrencyLimitConfig {
+
+  private static final int DEFAULT_INITIAL_LIMIT = 20;
+
+  private static final Map<EndpointGroup, Duration> DEFAULT_THRESHOLDS = Map.of(
+      EndpointGroup.AUTH, Duration.ofSeconds(1),
+      EndpointGroup.ADMIN_API, Duration.ofMillis(500),
+      EndpointGroup.UI, Duration.ofSeconds(1),
+      EndpointGroup.STATIC, Duration.ofMillis(200));
+
+  /**
+   * Runs inside the bulkheads and before the Spring Security filter chain, so shed requests skip
+   * authentication too. Without an explicit {@code initial-limit}, each group's limit starts at
+   * its bulkhead's slot count: the bulkhead, with its queue, stays the cap while latency is good,
+   * and the limit only sheds once it has been cut below the slots.
+   */
+  @Bean
+  public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+      Environment environment, MeterRegistry registry) {
+    String prefix = "kitchensink.concurrency-limit.";
+    Integer initialLimit = environment.getProperty(prefix + "initial-limit", Integer.class);
+    int minLimit = environment.getProperty(prefix + "min-limit", Integer.class, 2);
+    int maxLimit = environment.getProperty(prefix + "max-limit", Integer.class, 200);
+    double backoffRatio = environment.getProperty(prefix + "backoff-ratio", Double.class, 0.9);
+    Map<EndpointGroup, AimdLimit> limits = new EnumMap<>(EndpointGroup.class);
+    for (EndpointGroup group : EndpointGroup.values()) {
+      Duration threshold = environment.getProperty(prefix + "latency-threshold." + group.key(),
+          Duration.class, DEFAULT_THRESHOLDS.get(group));
+      int initial = initialLimit != null ? initialLimit
+          : BulkheadConfig.enabled(environment) ? BulkheadConfig.maxConcurrent(environment, group)
+          : DEFAULT_INITIAL_LIMIT;
+      limits.put(group, new AimdLimit(Math.min(maxLimit, Math.max(minLimit, initial)), minLimit,
+          maxLimit, backoffRatio, threshold));
+    }
+    FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+        new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limits, registry));
+    registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+    registration.setEnabled(environment.getProperty(prefix + "enabled", Boolean.class, true));
+    return registration;
+  }
+}
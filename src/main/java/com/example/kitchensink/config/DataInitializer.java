@@ -1,15 +1,29 @@
 package com.example.kitchensink.config;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.entity.MemberTombstone;
 import com.example.kitchensink.repository.MemberRepository;
+import com.example.kitchensink.repository.MemberSequence;
+import com.example.kitchensink.repository.MemberStatistics;
 
 @Configuration
 public class DataInitializer {
@@ -17,9 +31,26 @@ public class DataInitializer {
     private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
 
     @Bean
-    CommandLineRunner initDatabase(MemberRepository memberRepository, PasswordEncoder passwordEncoder) {
-        return args -> {
+    CommandLineRunner initDatabase(MemberRepository memberRepository, PasswordEncoder passwordEncoder,
+                                   MongoTemplate mongoTemplate, MemberSequence memberSequence,
+                                   MemberStatistics memberStatistics,
+                                   @Value("${kitchensink.member-changes.tombstone-retention:30d}")
+                                   Duration tombstoneRetention) {
+        // Runs off the startup thread so the application is ready without waiting on MongoDB
+        return args -> Thread.ofVirtual().name("data-initializer").start(() -> {
             try {
+                // Members saved before versioning was introduced have no version field; without one
+                // Spring Data treats them as new and the next save would fail with a duplicate key
+                long backfilled = mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("version").exists(false)),
+                        new Update().set("version", 0L),
+                        MemberDocument.class).getModifiedCount();
+                if (backfilled > 0) {
+                    log.info("Initialized version on {} existing members.", backfilled);
+                }
+                backfillSequence(mongoTemplate, memberSequence);
+                ensureTombstoneExpiry(mongoTemplate, tombstoneRetention);
+
                 if (memberRepository.count() == 0) {
                     MemberDocument admin = new MemberDocument();
                     admin.setName("admin");
@@ -27,7 +58,9 @@ public class DataInitializer {
                     admin.setPhoneNumber("1234567890");
                     admin.setRole("ROLE_ADMIN");
                     admin.setPassword(passwordEncoder.encode("admin123")); // Encrypt password
+                    admin.setSeq(memberSequence.next());
                     memberRepository.save(admin);
+                    memberStatistics.created(admin);
 
                     log.info("Inserted default admin member.");
 
@@ -37,15 +70,51 @@ public class DataInitializer {
                     user.setPhoneNumber("0987654321");  
                     user.setRole("ROLE_USER");
                     user.setPassword(passwordEncoder.encode("user123")); // Encrypt password
+                    user.setSeq(memberSequence.next());
                     memberRepository.save(user);
+                    memberStatistics.created(user);
                     log.info("Inserted default user member.");
                 } else {
                     log.info("Members already exist! Skipping default insert.");
                 }
             } catch (Exception e) {
                 log.error("Error initializing default data: " + e.getMessage());
-                throw e;
             }
-        };
+        });
+    }
+
+    /**
+     * Members saved before the change feed have no sequence value and would never appear in it;
+     * give each one, in a single reserved block.
+     */
+    private static void backfillSequence(MongoTemplate mongoTemplate, MemberSequence memberSequence) {
+        Query missing = Query.query(Criteria.where("seq").exists(false));
+        missing.fields().include("id");
+        List<MemberDocument> members = mongoTemplate.find(missing, MemberDocument.class);
+        if (members.isEmpty()) {
+            return;
+        }
+        long seq = memberSequence.reserve(members.size());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MemberDocument.class);
+        for (MemberDocument member : members) {
+            // Skips members a concurrent write has given a sequence value meanwhile
+            bulk.updateOne(Query.query(Criteria.where("id").is(member.getId()).and("seq").exists(false)),
+                    new Update().set("seq", seq++));
+        }
+        bulk.execute();
+        log.info("Initialized change sequence on {} existing members.", members.size());
+    }
+
+    /**
+     * Tombstones expire after the configured retention. An existing index with another retention
+     * is left as it is, with a warning; drop it to apply the new one.
+     */
+    private static void ensureTombstoneExpiry(MongoTemplate mongoTemplate, Duration retention) {
+        try {
+            mongoTemplate.indexOps(MemberTombstone.class).ensureIndex(new Index("deletedAt", Sort.Direction.ASC)
+                    .named("deletedAt_ttl").expire(retention.toSeconds(), TimeUnit.SECONDS));
+        } catch (Exception e) {
+            log.warn("Could not create the tombstone expiry index: {}", e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
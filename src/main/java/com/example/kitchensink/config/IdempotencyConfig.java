@@ -0,0 +1,57 @@
+package com.example.kitchensink.config;
+
+import com.example.kitchensink.idempotency.AuthTokenRedactor;
+import com.example.kitchensink.idempotency.IdempotencyFilter;
+import com.example.kitchensink.idempotency.IdempotencyStore;
+import com.example.kitchensink.security.JwtTokenService;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * {@code Idempotency-Key} support, tuned under {@code kitchensink.idempotency.*} ({@code paths},
+ * {@code ttl}, {@code wait-timeout}, {@code claim-timeout}, {@code front-cache-entries}) and turned off with
+ * {@code kitchensink.idempotency.enabled=false}. The switch is read at startup rather than by a
+ * {@code @Conditional}, which the AOT-built image would fix at build time.
+ */
+@Configuration
+public class IdempotencyConfig {
+
+  @Bean
+  public IdempotencyStore idempotencyStore(Environment environment, MongoTemplate mongoTemplate) {
+    return new IdempotencyStore(mongoTemplate,
+        environment.getProperty("kitchensink.idempotency.ttl", Duration.class, Duration.ofHours(1)),
+        environment.getProperty("kitchensink.idempotency.wait-timeout", Duration.class,
+            Duration.ofSeconds(10)),
+        environment.getProperty("kitchensink.idempotency.claim-timeout", Duration.class,
+            Duration.ofMinutes(2)),
+        environment.getProperty("kitchensink.idempotency.front-cache-entries", Integer.class,
+            10_000));
+  }
+
+  /**
+   * Runs after the Spring Security filter chain, so keys can be scoped to the caller. The browser
+   * signup form ({@code /jwt-signup}) is left out by default: browsers never send the header, and
+   * a replayed redirect would lose the session and flash attributes of the original. Signup
+   * responses are stored without their tokens, and replayed with new ones.
+   */
+  @Bean
+  public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(Environment environment,
+      IdempotencyStore idempotencyStore, JwtTokenService jwtTokenService) {
+    Set<String> paths = Set.of(environment.getProperty("kitchensink.idempotency.paths",
+        String[].class, new String[] {"/admin/members", "/api/auth/signup"}));
+    FilterRegistrationBean<IdempotencyFilter> registration =
+        new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore, paths,
+            Map.of("/api/auth/signup", new AuthTokenRedactor(jwtTokenService))));
+    registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+    registration.setEnabled(
+        environment.getProperty("kitchensink.idempotency.enabled", Boolean.class, true));
+    return registration;
+  }
+}
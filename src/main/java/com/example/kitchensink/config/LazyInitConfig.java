@@ -0,0 +1,47 @@
+package com.example.kitchensink.config;
+
+import java.util.Arrays;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Defers creation of beans that are not needed to serve the first request.
+ * <p>
+ * Beans whose class, or whose factory configuration class, lives under one of
+ * {@code kitchensink.startup.lazy-packages} (springdoc by default) are marked lazy, so the OpenAPI
+ * model and Swagger UI are built on the first {@code /v3/api-docs} or {@code /swagger-ui} hit
+ * instead of during startup. Controllers are still mapped at startup by bean name.
+ */
+@Configuration
+public class LazyInitConfig {
+
+  static final String[] DEFAULT_LAZY_PACKAGES = {"org.springdoc."};
+
+  @Bean
+  static BeanFactoryPostProcessor lazyPackagesPostProcessor(Environment environment) {
+    String[] packages = environment.getProperty("kitchensink.startup.lazy-packages", String[].class,
+        DEFAULT_LAZY_PACKAGES);
+    return beanFactory -> markLazy(beanFactory, packages);
+  }
+
+  static void markLazy(ConfigurableListableBeanFactory beanFactory, String[] packages) {
+    for (String name : beanFactory.getBeanDefinitionNames()) {
+      BeanDefinition definition = beanFactory.getBeanDefinition(name);
+      if (definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+        continue;
+      }
+      String className = definition.getBeanClassName();
+      if (className == null && definition.getFactoryBeanName() != null
+          && beanFactory.containsBeanDefinition(definition.getFactoryBeanName())) {
+        className = beanFactory.getBeanDefinition(definition.getFactoryBeanName()).getBeanClassName();
+      }
+      if (className != null && Arrays.stream(packages).anyMatch(className::startsWith)) {
+        definition.setLazyInit(true);
+      }
+    }
+  }
+}
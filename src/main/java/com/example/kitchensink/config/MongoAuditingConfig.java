@@ -0,0 +1,12 @@
+package com.example.kitchensink.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+/**
+ * Enables auditing so {@code @LastModifiedDate} fields are stamped on every save.
+ */
+@Configuration
+@EnableMongoAuditing
+public class MongoAuditingConfig {
+}
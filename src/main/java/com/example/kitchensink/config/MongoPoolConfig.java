@@ -0,0 +1,78 @@
+package com.example.kitchensink.config;
+
+import com.example.kitchensink.monitoring.MongoPoolMonitor;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection pool, timeout and read preference settings for the auto-configured MongoDB client,
+ * read from {@code kitchensink.mongodb.pool.*} so each profile can size the pool for its
+ * deployment. They are applied after {@code spring.data.mongodb.uri}, so they win over the
+ * equivalent URI options. A zero duration means no limit.
+ * <p>
+ * The 4.x driver has no wait-queue size cap: a checkout waits in the queue for at most
+ * {@code max-wait-time} before failing, so that value bounds how long a request can stall on an
+ * exhausted pool.
+ */
+@Configuration
+public class MongoPoolConfig {
+
+  @Value("${kitchensink.mongodb.pool.max-size:100}")
+  private int maxSize;
+
+  @Value("${kitchensink.mongodb.pool.min-size:0}")
+  private int minSize;
+
+  @Value("${kitchensink.mongodb.pool.max-connecting:2}")
+  private int maxConnecting;
+
+  @Value("${kitchensink.mongodb.pool.max-wait-time:2m}")
+  private Duration maxWaitTime;
+
+  @Value("${kitchensink.mongodb.pool.max-connection-idle-time:0s}")
+  private Duration maxConnectionIdleTime;
+
+  @Value("${kitchensink.mongodb.pool.max-connection-life-time:0s}")
+  private Duration maxConnectionLifeTime;
+
+  @Value("${kitchensink.mongodb.pool.connect-timeout:10s}")
+  private Duration connectTimeout;
+
+  @Value("${kitchensink.mongodb.pool.read-timeout:0s}")
+  private Duration readTimeout;
+
+  @Value("${kitchensink.mongodb.pool.server-selection-timeout:30s}")
+  private Duration serverSelectionTimeout;
+
+  @Value("${kitchensink.mongodb.pool.read-preference:primary}")
+  private String readPreference;
+
+  @Bean
+  public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(MongoPoolMonitor monitor) {
+    return builder -> apply(builder, monitor);
+  }
+
+  void apply(MongoClientSettings.Builder builder, MongoPoolMonitor monitor) {
+    builder
+        .applyToConnectionPoolSettings(pool -> pool
+            .maxSize(maxSize)
+            .minSize(minSize)
+            .maxConnecting(maxConnecting)
+            .maxWaitTime(maxWaitTime.toMillis(), TimeUnit.MILLISECONDS)
+            .maxConnectionIdleTime(maxConnectionIdleTime.toMillis(), TimeUnit.MILLISECONDS)
+            .maxConnectionLifeTime(maxConnectionLifeTime.toMillis(), TimeUnit.MILLISECONDS)
+            .addConnectionPoolListener(monitor))
+        .applyToSocketSettings(socket -> socket
+            .connectTimeout((int) connectTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .readTimeout((int) readTimeout.toMillis(), TimeUnit.MILLISECONDS))
+        .applyToClusterSettings(cluster -> cluster
+            .serverSelectionTimeout(serverSelectionTimeout.toMillis(), TimeUnit.MILLISECONDS))
+        .readPreference(ReadPreference.valueOf(readPreference));
+  }
+}
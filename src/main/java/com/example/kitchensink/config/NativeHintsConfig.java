@@ -0,0 +1,72 @@
+package com.example.kitchensink.config;
+
+import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.model.AuthRequest;
+import com.example.kitchensink.model.AuthResponse;
+import com.example.kitchensink.model.Member;
+import com.example.kitchensink.model.RefreshTokenRequest;
+import com.example.kitchensink.model.SignupRequest;
+import com.example.kitchensink.repository.MemberCollectionVersion;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.data.domain.PageImpl;
+
+/**
+ * Reflection and resource metadata for the GraalVM native image ({@code mvn -Pnative
+ * native:compile}) that Spring AOT cannot infer from bean definitions.
+ * <p>
+ * Lombok and MapStruct need nothing here: both generate plain code at compile time, and the
+ * mapper implementation is an ordinary bean.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.KitchenSinkRuntimeHints.class)
+public class NativeHintsConfig {
+
+  /**
+   * JJWT 0.11 loads its implementation classes by name from the API jar.
+   */
+  static final String[] JJWT_REFLECTIVE_TYPES = {
+      "io.jsonwebtoken.impl.DefaultJwtBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+      "io.jsonwebtoken.impl.DefaultJwtParser",
+      "io.jsonwebtoken.impl.DefaultClaims",
+      "io.jsonwebtoken.impl.DefaultHeader",
+      "io.jsonwebtoken.impl.DefaultJwsHeader",
+      "io.jsonwebtoken.jackson.io.JacksonSerializer",
+      "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+      "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+      "io.jsonwebtoken.impl.compression.GzipCompressionCodec"
+  };
+
+  static class KitchenSinkRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+      // Serialized by Jackson outside of controller signatures: SSE payloads, aggregation
+      // results, and DTOs written to the session or nested in other responses
+      new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+          Member.class, MemberDocument.class, MemberChangedEvent.class, MemberCollectionVersion.class,
+          AuthRequest.class, AuthResponse.class, SignupRequest.class, RefreshTokenRequest.class);
+
+      // Read by Thymeleaf's SpEL expressions in the templates
+      for (Class<?> type : new Class<?>[] {Member.class, MemberDocument.class, PageImpl.class}) {
+        hints.reflection().registerType(type, MemberCategory.INVOKE_PUBLIC_METHODS,
+            MemberCategory.DECLARED_FIELDS);
+      }
+
+      for (String type : JJWT_REFLECTIVE_TYPES) {
+        hints.reflection().registerType(TypeReference.of(type),
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+      }
+      hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+      hints.resources().registerPattern("templates/**");
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.kitchensink.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Adds CBOR ({@code application/cbor}) as an alternative to JSON for REST request and response
+ * bodies, selected through {@code Accept} / {@code Content-Type}. JSON stays the default.
+ */
+@Configuration
+public class SerializationConfig {
+
+  /**
+   * Built from Spring Boot's builder so {@code spring.jackson.*} settings and registered modules
+   * apply to CBOR as they do to JSON. Replaces the framework's default CBOR converter in place.
+   */
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.kitchensink.config;
+
+import com.example.kitchensink.concurrency.InFlightRequestFilter;
+import com.example.kitchensink.lifecycle.BackgroundWork;
+import com.example.kitchensink.lifecycle.ShutdownCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Graceful drain on shutdown, tuned under {@code kitchensink.shutdown.*}
+ * ({@code readiness-grace} and {@code drain-timeout}) and turned off with
+ * {@code kitchensink.shutdown.enabled=false}. The switch is read at startup rather than by a
+ * {@code @Conditional}, which the AOT-built image would fix at build time.
+ */
+@Configuration
+public class ShutdownConfig {
+
+  /** Runs before the bulkheads and concurrency limit, so a draining instance turns requests away first. */
+  @Bean
+  public FilterRegistrationBean<InFlightRequestFilter> inFlightRequestFilter(
+      Environment environment, MeterRegistry registry) {
+    FilterRegistrationBean<InFlightRequestFilter> registration =
+        new FilterRegistrationBean<>(new InFlightRequestFilter(registry));
+    registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 3);
+    registration.setEnabled(enabled(environment));
+    return registration;
+  }
+
+  /** Never started when disabled, so it is not stopped either and the context closes as before. */
+  @Bean
+  public ShutdownCoordinator shutdownCoordinator(Environment environment,
+      FilterRegistrationBean<InFlightRequestFilter> inFlightRequestFilter,
+      ObjectProvider<BackgroundWork> backgroundWork) {
+    ShutdownCoordinator coordinator = new ShutdownCoordinator(inFlightRequestFilter.getFilter(),
+        backgroundWork.orderedStream().toList(),
+        environment.getProperty("kitchensink.shutdown.readiness-grace", Duration.class,
+            Duration.ofSeconds(5)),
+        environment.getProperty("kitchensink.shutdown.drain-timeout", Duration.class,
+            Duration.ofSeconds(20)));
+    coordinator.setAutoStartup(enabled(environment));
+    return coordinator;
+  }
+
+  private static boolean enabled(Environment environment) {
+    return environment.getProperty("kitchensink.shutdown.enabled", Boolean.class, true);
+  }
+}
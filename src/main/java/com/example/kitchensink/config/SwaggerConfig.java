@@ -9,7 +9,13 @@ import io.swagger.v3.oas.models.security.SecurityRequirement;
 import io.swagger.v3.oas.models.security.SecurityScheme;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
+/**
+ * OpenAPI metadata for springdoc. Lazy, like the springdoc beans themselves (see
+ * {@link LazyInitConfig}): only needed once someone opens the API docs.
+ */
+@Lazy
 @Configuration
 public class SwaggerConfig {
 
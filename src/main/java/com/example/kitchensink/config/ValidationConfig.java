@@ -0,0 +1,28 @@
+package com.example.kitchensink.config;
+
+import com.example.kitchensink.validation.FastPathValidator;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the {@link FastPathValidator} as the MVC validator, so {@code @Valid} request
+ * bodies and form models skip Bean Validation reflection on the common path.
+ */
+@Configuration
+public class ValidationConfig implements WebMvcConfigurer {
+
+  private final jakarta.validation.Validator beanValidator;
+
+  public ValidationConfig(jakarta.validation.Validator beanValidator) {
+    this.beanValidator = beanValidator;
+  }
+
+  @Override
+  public Validator getValidator() {
+    SpringValidatorAdapter delegate = beanValidator instanceof SpringValidatorAdapter adapter
+        ? adapter : new SpringValidatorAdapter(beanValidator);
+    return new FastPathValidator(delegate);
+  }
+}
@@ -4,7 +4,10 @@ import com.example.kitchensink.model.AuthRequest;
 import com.example.kitchensink.model.AuthResponse;
 import com.example.kitchensink.model.RefreshTokenRequest;
 import com.example.kitchensink.model.SignupRequest;
+import com.example.kitchensink.model.TokenValidationRequest;
+import com.example.kitchensink.model.TokenValidationResult;
 import com.example.kitchensink.security.JwtTokenService;
+import com.example.kitchensink.security.VerifiedToken;
 import com.example.kitchensink.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,6 +16,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -21,7 +25,12 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -118,11 +127,45 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        String token = authHeader.substring(7);
-        if (jwtTokenService.isTokenValid(token)) {
-            return ResponseEntity.ok(Map.of("valid", true, "username", jwtTokenService.extractUsername(token)));
+        VerifiedToken verified = jwtTokenService.verify(authHeader.substring(7));
+        if (verified != null) {
+            return ResponseEntity.ok(Map.of("valid", true, "username", verified.subject()));
         } else {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
     }
+
+    /**
+     * Checks up to {@value TokenValidationRequest#MAX_TOKENS} tokens in one call, for gateways.
+     * Each token is verified once. The response may be cached privately until the first of the
+     * valid tokens expires; a token that fails now can never become valid. A response with no
+     * valid tokens is not cached.
+     */
+    @Operation(summary = "Validate tokens in batch", description = "Validate many JWT tokens in one call")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Validity and claims of each token, in request order"),
+            @ApiResponse(responseCode = "400", description = "No tokens, or more than the limit")
+    })
+    @PostMapping("/validate/batch")
+    public ResponseEntity<List<TokenValidationResult>> validateTokens(
+            @Valid @RequestBody TokenValidationRequest request) {
+        Instant now = Instant.now();
+        long maxAge = Long.MAX_VALUE;
+        List<TokenValidationResult> results = new ArrayList<>(request.getTokens().size());
+        for (String token : request.getTokens()) {
+            VerifiedToken verified = jwtTokenService.verify(token);
+            long expiresIn = verified != null
+                    ? Duration.between(now, verified.expiresAt()).getSeconds() : 0;
+            if (expiresIn <= 0) {
+                results.add(TokenValidationResult.invalid());
+                continue;
+            }
+            results.add(new TokenValidationResult(true, verified.subject(), verified.role(),
+                    verified.expiresAt(), expiresIn));
+            maxAge = Math.min(maxAge, expiresIn);
+        }
+        CacheControl cacheControl = maxAge == Long.MAX_VALUE
+                ? CacheControl.noStore() : CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePrivate();
+        return ResponseEntity.ok().cacheControl(cacheControl).body(results);
+    }
 } 
\ No newline at end of file
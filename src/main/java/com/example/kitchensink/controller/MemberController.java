@@ -4,25 +4,27 @@ import com.example.kitchensink.entity.MemberDocument;
 import com.example.kitchensink.mapper.MemberMapper;
 import com.example.kitchensink.model.Member;
 import com.example.kitchensink.service.MemberService;
-import com.example.kitchensink.repository.MemberRepository;
+import com.example.kitchensink.service.MemberService.RegistrationOutcome;
+import com.example.kitchensink.view.MemberTableRenderer;
 
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.MediaType;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.security.Principal;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
-import java.util.Optional;
 
 /**
  * The Class MemberController.
@@ -36,11 +38,8 @@ public class MemberController {
   /** The member service */
   private final MemberService memberService;
 
-  /** The member repository */
-  private final MemberRepository memberRepository;
-
-  /** The password encoder */
-  private final BCryptPasswordEncoder passwordEncoder;
+  /** The members table renderer */
+  private final MemberTableRenderer memberTableRenderer;
 
   /** The member mapper */
   private final MemberMapper memberMapper = MemberMapper.INSTANCE;
@@ -55,15 +54,12 @@ public class MemberController {
      * Member controller constructor
      *
      * @param memberService
-     * @param memberRepository
-     * @param passwordEncoder
+     * @param memberTableRenderer
      */
   @Autowired
-  public MemberController(MemberService memberService, MemberRepository memberRepository, 
-                        BCryptPasswordEncoder passwordEncoder) {
+  public MemberController(MemberService memberService, MemberTableRenderer memberTableRenderer) {
     this.memberService = memberService;
-    this.memberRepository = memberRepository;
-    this.passwordEncoder = passwordEncoder;
+    this.memberTableRenderer = memberTableRenderer;
   }
 
   /**
@@ -71,12 +67,16 @@ public class MemberController {
    *
    * @param model the model
    * @param principal the principal
+   * @param page the zero-based page of the members table
+   * @param size the members table page size
    * @return the admin home page view
    */
   @GetMapping("/admin/home")
   public String showAdminHome(Model model, Principal principal, HttpServletResponse response,
                              @RequestParam(value = "clearSession", required = false) String clearSession,
-                             HttpSession session) {
+                             HttpSession session,
+                             @RequestParam(value = "page", defaultValue = "0") int page,
+                             @RequestParam(value = "size", defaultValue = "" + MemberTableRenderer.DEFAULT_PAGE_SIZE) int size) {
     // Clear session attributes if requested
     if ("true".equals(clearSession)) {
       clearSessionAttributes(session);
@@ -93,7 +93,7 @@ public class MemberController {
     
     model.addAttribute("loggedInUser", loggedInUserName);
     model.addAttribute("member", new Member());
-    model.addAttribute("members", memberService.getAllMembers());
+    model.addAttribute("membersTable", memberTableRenderer.render(page, size));
     
     // Add session data to model
     addSessionDataToModel(model, sessionData);
@@ -101,6 +101,21 @@ public class MemberController {
     return "index";
   }
 
+  /**
+   * Returns one page of the admin members table as an HTML fragment, for in-place updates of
+   * the dashboard.
+   *
+   * @param page the zero-based page
+   * @param size the page size
+   * @return the rendered table fragment
+   */
+  @GetMapping(value = "/admin/members/table", produces = MediaType.TEXT_HTML_VALUE)
+  @ResponseBody
+  public String membersTable(@RequestParam(value = "page", defaultValue = "0") int page,
+                             @RequestParam(value = "size", defaultValue = "" + MemberTableRenderer.DEFAULT_PAGE_SIZE) int size) {
+    return memberTableRenderer.render(page, size);
+  }
+
   /**
    * Displays the registration page.
    *
@@ -114,50 +129,33 @@ public class MemberController {
       RedirectAttributes redirectAttributes) {
     
     try {
-      Optional<MemberDocument> existingMember = memberService.findByEmail(member.getEmail());
-
-      if (existingMember.isPresent()) {
-        MemberDocument existingMemberDocument = existingMember.get();
-        
-        // Admin registration from admin dashboard
-        if ("index".equalsIgnoreCase(source)) {
+      // Admin registration from admin dashboard; the unique email index rejects duplicates
+      if ("index".equalsIgnoreCase(source)) {
+        try {
+          memberService.registerMember(member);
+        } catch (DuplicateKeyException e) {
           redirectAttributes.addFlashAttribute("registrationError", true);
           redirectAttributes.addFlashAttribute("errorMessage", "Member already registered with this email!");
           return "redirect:/admin/home";
         }
-        
-        // User registration from registration page
-        if (existingMemberDocument.getPassword() == null) {
-          // First time user - set password
-          existingMemberDocument.setPassword(passwordEncoder.encode(member.getPassword()));
-          memberRepository.save(existingMemberDocument);
-
-          redirectAttributes.addFlashAttribute("registrationSuccess", true);
-          redirectAttributes.addFlashAttribute("successMessage", "Password updated successfully!");
-          return "redirect:/jwt-login";
-        } else {
-          redirectAttributes.addFlashAttribute("registrationError", true);
-          redirectAttributes.addFlashAttribute("errorMessage", "Account already exists with this email. Please log in.");
-          return "redirect:/jwt-login";
-        }
-      }
-
-      // New user registration
-      if ("index".equalsIgnoreCase(source)) {
-        // Admin registration - let service handle password encoding
-        memberService.registerMember(member);
         redirectAttributes.addFlashAttribute("registrationSuccess", true);
         redirectAttributes.addFlashAttribute("successMessage", "Member successfully registered!");
         return "redirect:/admin/home";
-      } else {
-        // User registration - let service handle password encoding
-        member.setRole("USER");
-        memberService.registerMember(member);
+      }
 
-        redirectAttributes.addFlashAttribute("registrationSuccess", true);
-        redirectAttributes.addFlashAttribute("successMessage", "User successfully registered!");
+      // User registration from registration page: a new account, or the first password for a
+      // member an admin added without one
+      member.setRole("USER");
+      RegistrationOutcome outcome = memberService.registerOrSetPassword(member);
+      if (outcome == RegistrationOutcome.ALREADY_REGISTERED) {
+        redirectAttributes.addFlashAttribute("registrationError", true);
+        redirectAttributes.addFlashAttribute("errorMessage", "Account already exists with this email. Please log in.");
         return "redirect:/jwt-login";
       }
+      redirectAttributes.addFlashAttribute("registrationSuccess", true);
+      redirectAttributes.addFlashAttribute("successMessage", outcome == RegistrationOutcome.PASSWORD_SET
+          ? "Password updated successfully!" : "User successfully registered!");
+      return "redirect:/jwt-login";
 
     } catch (Exception e) {
       String errorMessage = getRootErrorMessage(e);
@@ -0,0 +1,36 @@
+package com.example.kitchensink.controller;
+
+import com.example.kitchensink.event.MemberEventBroadcaster;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events stream of member changes for the admin dashboard.
+ */
+@RestController
+@Tag(name = "Member Management", description = "APIs for managing members")
+@SecurityRequirement(name = "bearerAuth")
+@RequiredArgsConstructor
+public class MemberEventsController {
+
+  private final MemberEventBroadcaster memberEventBroadcaster;
+
+  /**
+   * Streams one {@code member} event per create, update or delete, carrying the change type, the
+   * member ID and the saved member. Events are not replayed: after a reconnect, clients should
+   * reload their view.
+   *
+   * @return the event stream
+   */
+  @Operation(summary = "Stream Member Changes")
+  @GetMapping(value = "/admin/members/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamMemberEvents() {
+    return memberEventBroadcaster.subscribe();
+  }
+}
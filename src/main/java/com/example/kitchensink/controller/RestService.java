@@ -1,7 +1,15 @@
 package com.example.kitchensink.controller;
 
+import com.example.kitchensink.cache.MemberDirectory;
 import com.example.kitchensink.exception.ResourceNotFoundException;
+import com.example.kitchensink.model.BatchGetRequest;
+import com.example.kitchensink.model.BatchGetResult;
+import com.example.kitchensink.model.BulkMutateRequest;
+import com.example.kitchensink.model.BulkMutateResult;
 import com.example.kitchensink.model.Member;
+import com.example.kitchensink.model.MemberChanges;
+import com.example.kitchensink.model.MemberStats;
+import com.example.kitchensink.repository.MemberCollectionVersion;
 import com.example.kitchensink.service.MemberService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,14 +22,21 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST API controller for member management operations.
@@ -36,62 +51,189 @@ import java.util.List;
 @RequiredArgsConstructor
 public class RestService {
 
+  // Responses may be stored by the client but must be revalidated with the ETag before reuse
+  private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+  static final int MAX_CHANGES = 1000;
+
   private final MemberService memberService;
 
+  private final MemberDirectory memberDirectory;
+
   /** 
-   * REST endpoint for listing all members.
+   * REST endpoint for listing all members. The collection version is checked against
+   * If-None-Match / If-Modified-Since before the members are loaded.
    *
-   * @return the list of members
+   * @param webRequest the current request, used for conditional GET
+   * @return the list of members, or 304 if the client's copy is current
    */
   @Operation(summary = "List All Members")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successfully retrieved list of members"),
+      @ApiResponse(responseCode = "304", description = "Member list not modified"),
       @ApiResponse(responseCode = "500", description = "Internal server error")
   })
   @GetMapping
-  public ResponseEntity<List<Member>> listAllMembers() {
+  public ResponseEntity<List<Member>> listAllMembers(WebRequest webRequest) {
+    MemberCollectionVersion collectionVersion = memberService.getCollectionVersion();
+    long lastModified = collectionVersion != null && collectionVersion.getLastModified() != null
+        ? collectionVersion.getLastModified().toEpochMilli() : -1;
+    if (webRequest.checkNotModified(collectionETag(collectionVersion), lastModified)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
     List<Member> members = memberService.getAllMembers();
-    return ResponseEntity.ok(members);
+    // Both reads may land on different secondaries; never let a client cache an older list under
+    // the newer ETag
+    CacheControl cacheControl = describes(collectionVersion, members)
+        ? REVALIDATE : CacheControl.noStore();
+    return ResponseEntity.ok().cacheControl(cacheControl).body(members);
   }
 
   /** 
    * REST endpoint for looking up a member by ID.
    * @param id the member ID
+   * @param webRequest the current request, used for conditional GET
    * @return the member details
   */
   @Operation(summary = "Lookup Member by ID")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successfully retrieved member details"),
+      @ApiResponse(responseCode = "304", description = "Member not modified"),
       @ApiResponse(responseCode = "404", description = "Member not found"),
       @ApiResponse(responseCode = "500", description = "Internal server error")
   })
   @GetMapping("/{id}")
-  public ResponseEntity<Member> lookupMemberById(@PathVariable("id") String id) {
-    Member member = memberService.findById(id);
+  public ResponseEntity<Member> lookupMemberById(@PathVariable("id") String id,
+      WebRequest webRequest) {
+    Member member = memberService.lookupById(id);
     if (member == null) {
       throw new ResourceNotFoundException("Member with ID " + id + " not found.");
     }
-    return ResponseEntity.ok(member);
+    return conditionalResponse(member, webRequest);
   }
 
   /** 
-   * REST endpoint for looking up a member by email.
+   * REST endpoint for looking up a member by email. When the member directory is kept current
+   * across nodes and knows the email, HEAD requests and matching If-None-Match are answered from
+   * it without loading the member.
    * @param email the member email
+   * @param webRequest the current request, used for conditional GET
    * @return the member details
   */
   @Operation(summary = "Lookup Member by Email")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Successfully retrieved member details"),
+      @ApiResponse(responseCode = "304", description = "Member not modified"),
       @ApiResponse(responseCode = "404", description = "Member not found"),
       @ApiResponse(responseCode = "500", description = "Internal server error")
   })
   @GetMapping("/search")
-  public ResponseEntity<Member> lookupMemberByEmail(@RequestParam("email") String email) {
+  public ResponseEntity<Member> lookupMemberByEmail(@RequestParam("email") String email,
+      WebRequest webRequest) {
+    MemberDirectory.Entry entry =
+        memberDirectory.isKeptCurrent() ? memberDirectory.lookup(email) : null;
+    if (entry != null) {
+      String eTag = memberETag(entry.id(), entry.version());
+      if (ifNoneMatch(webRequest, eTag)) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(REVALIDATE)
+            .build();
+      }
+      if (isHead(webRequest)) {
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).build();
+      }
+    }
     Member member = memberService.findMemberByEmail(email);
     if (member == null) {
       throw new ResourceNotFoundException("Member with email " + email + " not found.");
     }
-    return ResponseEntity.ok(member);
+    return conditionalResponse(member, webRequest);
+  }
+
+  /** 
+   * REST endpoint for looking up many members in one call, by IDs or by emails. The members are
+   * read with a single query; results come back in request order, with {@code found: false} for
+   * keys that match no member.
+   * @param request the IDs or emails to look up
+   * @return one result per requested key
+   */
+  @Operation(summary = "Lookup Members by IDs or Emails")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully looked up members"),
+      @ApiResponse(responseCode = "400", description = "Neither or both key lists given, or too many keys"),
+      @ApiResponse(responseCode = "500", description = "Internal server error")
+  })
+  @PostMapping("/batch-get")
+  public ResponseEntity<List<BatchGetResult>> batchGetMembers(
+      @Valid @RequestBody BatchGetRequest request) {
+    List<String> keys = request.getKeys();
+    Map<String, Member> members = request.getIds() != null
+        ? memberService.findAllByIds(keys) : memberService.findAllByEmails(keys);
+    List<BatchGetResult> results = keys.stream()
+        .map(key -> BatchGetResult.of(key, members.get(key)))
+        .toList();
+    return ResponseEntity.ok(results);
+  }
+
+  /** 
+   * REST endpoint for incremental sync: the members created, updated or deleted since a cursor,
+   * oldest first. Start without {@code since} to get every member, then keep passing the returned
+   * cursor back; page on while {@code hasMore} is true.
+   * @param since the cursor from the previous response, if any
+   * @param limit the most changes to return, up to {@value #MAX_CHANGES}
+   * @return the changes and the cursor to continue from
+   */
+  @Operation(summary = "List Member Changes Since a Cursor")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved changes"),
+      @ApiResponse(responseCode = "400", description = "Malformed cursor or limit out of range"),
+      @ApiResponse(responseCode = "410", description = "Cursor expired; sync again without one"),
+      @ApiResponse(responseCode = "500", description = "Internal server error")
+  })
+  @GetMapping("/changes")
+  public ResponseEntity<MemberChanges> listMemberChanges(
+      @RequestParam(value = "since", required = false) String since,
+      @RequestParam(value = "limit", defaultValue = "100") int limit) {
+    if (limit < 1 || limit > MAX_CHANGES) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_CHANGES);
+    }
+    return ResponseEntity.ok(memberService.getChanges(since, limit));
+  }
+
+  /** 
+   * REST endpoint for dashboard counts: members in total, per role, without a password, and by
+   * the day they signed up. Served from a maintained statistics document, not counted per call.
+   * @return the member statistics
+   */
+  @Operation(summary = "Get Member Statistics")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Successfully retrieved statistics"),
+      @ApiResponse(responseCode = "500", description = "Internal server error")
+  })
+  @GetMapping("/stats")
+  public ResponseEntity<MemberStats> getMemberStats() {
+    return ResponseEntity.ok(memberService.getStatistics());
+  }
+
+  /** 
+   * REST endpoint for mass role changes, phone changes and deletes, applied in one bulk write.
+   * The signed-in admin's own account is never touched.
+   * @param request the operations to apply
+   * @return the totals and each operation's outcome
+   */
+  @Operation(summary = "Bulk Update or Delete Members")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Operations attempted; see each operation's status"),
+      @ApiResponse(responseCode = "400", description = "Invalid operations"),
+      @ApiResponse(responseCode = "500", description = "Internal server error")
+  })
+  @PostMapping("/bulk-mutate")
+  public ResponseEntity<BulkMutateResult> bulkMutateMembers(
+      @Valid @RequestBody BulkMutateRequest request) {
+    BulkMutateResult result = memberService.bulkMutate(request, currentUserEmail());
+    if (!result.isComplete()) {
+      log.warn("Bulk mutation incomplete: {}", result.getOperations());
+    }
+    return ResponseEntity.ok(result);
   }
 
   /** 
@@ -108,7 +250,7 @@ public class RestService {
   @PostMapping
   public ResponseEntity<Member> registerMember(@Valid @RequestBody Member member) {
     log.info("Registering new member: {}", member.getEmail());
-    log.info("Member details - Name: {}, Email: {}, Role: {}, Phone: {}", 
+    log.debug("Member details - Name: {}, Email: {}, Role: {}, Phone: {}", 
              member.getName(), member.getEmail(), member.getRole(), member.getPhoneNumber());
     
     try {
@@ -151,9 +293,11 @@ public class RestService {
   }
 
   /** 
-   * REST endpoint for updating a member's details.
+   * REST endpoint for updating a member's details. When the request carries If-Match, the update
+   * only proceeds if it matches the member's current ETag.
    * @param updatedMember the updated member details
    * @param id the member ID
+   * @param webRequest the current request, used for If-Match
    * @return the updated member
    */
   @Operation(summary = "Update Member Details")
@@ -161,11 +305,13 @@ public class RestService {
       @ApiResponse(responseCode = "200", description = "Successfully updated member"),
       @ApiResponse(responseCode = "404", description = "Member not found"),
       @ApiResponse(responseCode = "403", description = "Cannot edit your own account"),
+      @ApiResponse(responseCode = "409", description = "Member was modified concurrently"),
+      @ApiResponse(responseCode = "412", description = "If-Match does not match the current version"),
       @ApiResponse(responseCode = "500", description = "Internal server error")
   })
   @PutMapping("/{id}")
   public ResponseEntity<Member> updateMember(@Valid @RequestBody Member updatedMember,
-      @PathVariable("id") String id) {
+      @PathVariable("id") String id, WebRequest webRequest) {
 
     try {
       // Check if the member exists before updating
@@ -179,11 +325,20 @@ public class RestService {
         log.warn("User {} attempted to edit their own account", existingMember.getEmail());
         return new ResponseEntity<>(HttpStatus.FORBIDDEN); // Cannot edit own account
       }
+
+      // For a PUT this evaluates If-Match; true means the client's version is stale
+      if (webRequest.checkNotModified(memberETag(existingMember))) {
+        return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+      }
       
       Member savedMember = memberService.updateMember(existingMember, updatedMember);
 
       // Return the updated member
-      return new ResponseEntity<>(savedMember, HttpStatus.OK);
+      return ResponseEntity.ok().eTag(memberETag(savedMember)).body(savedMember);
+    } catch (OptimisticLockingFailureException e) {
+      // Someone else saved the member between our read and write
+      log.warn("Concurrent update of member {}", id);
+      return new ResponseEntity<>(HttpStatus.CONFLICT);
     } catch (Exception e) {
       // Handle exceptions and return appropriate error status
       return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -218,11 +373,96 @@ public class RestService {
     }
   }
 
+  /**
+   * Helper method to answer a single-member GET with its ETag, or 304 if the client has it
+   */
+  private ResponseEntity<Member> conditionalResponse(Member member, WebRequest webRequest) {
+    if (webRequest.checkNotModified(memberETag(member))) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+    return ResponseEntity.ok().cacheControl(REVALIDATE).body(member);
+  }
+
+  /**
+   * Strong ETag for a member. The ID is included so a member deleted and re-created under the
+   * same email never repeats an ETag.
+   */
+  static String memberETag(Member member) {
+    return memberETag(member.getId(), member.getVersion() != null ? member.getVersion() : 0);
+  }
+
+  static String memberETag(String id, long version) {
+    return "\"" + id + "-" + version + "\"";
+  }
+
+  /**
+   * Whether If-None-Match lists the given ETag (weak comparison). Unlike
+   * {@link WebRequest#checkNotModified(String)} this leaves the response untouched, so a
+   * directory entry that turns out stale does not leave its ETag on the full response.
+   */
+  static boolean ifNoneMatch(WebRequest webRequest, String eTag) {
+    String[] headers = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+    if (headers == null) {
+      return false;
+    }
+    for (String header : headers) {
+      for (String candidate : header.split(",")) {
+        String tag = candidate.trim();
+        if (tag.startsWith("W/")) {
+          tag = tag.substring(2);
+        }
+        if (tag.equals(eTag) || tag.equals("*")) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean isHead(WebRequest webRequest) {
+    return webRequest instanceof ServletWebRequest servletWebRequest
+        && servletWebRequest.getHttpMethod() == HttpMethod.HEAD;
+  }
+
+  /**
+   * Whether the listed members match the collection version their ETag was derived from.
+   */
+  static boolean describes(MemberCollectionVersion collectionVersion, List<Member> members) {
+    if (collectionVersion == null) {
+      return members.isEmpty();
+    }
+    long versionSum = members.stream()
+        .mapToLong(member -> member.getVersion() != null ? member.getVersion() : 0)
+        .sum();
+    return collectionVersion.getCount() == members.size()
+        && collectionVersion.getVersionSum() == versionSum;
+  }
+
+  /**
+   * Weak ETag for the member list, derived from the collection version.
+   */
+  static String collectionETag(MemberCollectionVersion collectionVersion) {
+    if (collectionVersion == null) {
+      return "W/\"0\"";
+    }
+    long lastModified = collectionVersion.getLastModified() != null
+        ? collectionVersion.getLastModified().toEpochMilli() : 0;
+    return "W/\"" + collectionVersion.getCount() + "-" + collectionVersion.getVersionSum() + "-"
+        + lastModified + "\"";
+  }
+
   /**
    * Helper method to check if the given email belongs to the current authenticated user
    */
   private boolean isCurrentUser(String email) {
+    return email.equals(currentUserEmail());
+  }
+
+  /**
+   * Helper method to get the email of the current authenticated user, or null
+   */
+  private String currentUserEmail() {
     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-    return authentication != null && email.equals(authentication.getName());
+    return authentication != null ? authentication.getName() : null;
   }
 }
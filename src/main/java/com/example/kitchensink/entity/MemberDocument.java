@@ -1,16 +1,20 @@
 package com.example.kitchensink.entity;
 
 import java.io.Serializable;
-import lombok.AllArgsConstructor;
+import java.time.Instant;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @Document(collection = "members")
-@AllArgsConstructor
+@CompoundIndex(name = "seq_id", def = "{'seq': 1, '_id': 1}")
 @NoArgsConstructor
 public class MemberDocument implements Serializable {
 
@@ -28,4 +32,27 @@ public class MemberDocument implements Serializable {
 
   private String role;
 
+  /** Optimistic-locking version, incremented on every save; also the source of the member ETag. */
+  @Version
+  private Long version;
+
+  @CreatedDate
+  private Instant createdAt;
+
+  @LastModifiedDate
+  private Instant updatedAt;
+
+  /** Position in the change feed, from {@code MemberSequence}; every write moves it forward. */
+  private Long seq;
+
+  public MemberDocument(String id, String name, String email, String phoneNumber, String password,
+      String role) {
+    this.id = id;
+    this.name = name;
+    this.email = email;
+    this.phoneNumber = phoneNumber;
+    this.password = password;
+    this.role = role;
+  }
+
 }
@@ -0,0 +1,30 @@
+package com.example.kitchensink.entity;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Records a deleted member in the change feed. Kept for
+ * {@code kitchensink.member-changes.tombstone-retention} by a TTL index on {@code deletedAt}.
+ */
+@Data
+@Document(collection = "member_tombstones")
+@CompoundIndex(name = "seq_id", def = "{'seq': 1, '_id': 1}")
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberTombstone {
+
+  /** The deleted member's ID. */
+  @Id
+  private String id;
+
+  private Long seq;
+
+  private Instant deletedAt;
+
+}
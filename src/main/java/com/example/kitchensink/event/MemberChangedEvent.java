@@ -0,0 +1,50 @@
+package com.example.kitchensink.event;
+
+import com.example.kitchensink.model.Member;
+import lombok.Value;
+
+/**
+ * Published after a member is created, updated or deleted, so caches and views derived from the
+ * members collection can refresh without polling it.
+ */
+@Value
+public class MemberChangedEvent {
+
+  public enum Type {
+    CREATED,
+    UPDATED,
+    DELETED,
+    /** Any number of members changed by one bulk operation; no member ID or member is given. */
+    BULK
+  }
+
+  Type type;
+
+  String memberId;
+
+  /** The member as saved (password omitted); null for deletions and bulk changes. */
+  Member member;
+
+  /** The deleted member's email, if the deletion read it; null for every other change. */
+  String deletedEmail;
+
+  public static MemberChangedEvent created(Member member) {
+    return new MemberChangedEvent(Type.CREATED, member.getId(), member, null);
+  }
+
+  public static MemberChangedEvent updated(Member member) {
+    return new MemberChangedEvent(Type.UPDATED, member.getId(), member, null);
+  }
+
+  public static MemberChangedEvent deleted(String memberId) {
+    return deleted(memberId, null);
+  }
+
+  public static MemberChangedEvent deleted(String memberId, String email) {
+    return new MemberChangedEvent(Type.DELETED, memberId, null, email);
+  }
+
+  public static MemberChangedEvent bulk() {
+    return new MemberChangedEvent(Type.BULK, null, null, null);
+  }
+}
@@ -0,0 +1,261 @@
+package com.example.kitchensink.event;
+
+import com.example.kitchensink.lifecycle.BackgroundWork;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+/**
+ * Pushes {@link MemberChangedEvent}s to connected admin dashboards as Server-Sent Events.
+ * <p>
+ * Each connection has a bounded buffer. A single dispatcher thread copies each event into every
+ * buffer, in publish order, so a member write never waits on the fan-out or on a client; a virtual
+ * thread per busy connection drains its buffer into the socket. A client
+ * whose buffer overflows is disconnected and expected to reconnect and reload its view. Idle
+ * connections hold no thread, only the async request and its buffer, and a periodic heartbeat
+ * comment keeps proxies from closing them.
+ * <p>
+ * On shutdown, {@link #flush} delivers what each connection has buffered and then ends its
+ * stream, so dashboards reconnect to another instance without missing an event.
+ */
+@Component
+@Slf4j
+public class MemberEventBroadcaster implements BackgroundWork {
+
+  static final String EVENT_NAME = "member";
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+  private final AtomicLong eventIds = new AtomicLong();
+
+  private final AtomicLong droppedSubscribers = new AtomicLong();
+
+  private volatile boolean flushing;
+
+  private final int bufferSize;
+
+  private final long timeoutMillis;
+
+  private final Executor sendExecutor;
+
+  // Single thread: fans events out in publish order and sends heartbeats
+  private final ScheduledExecutorService dispatcher;
+
+  @Autowired
+  public MemberEventBroadcaster(
+      @Value("${kitchensink.sse.buffer-size:64}") int bufferSize,
+      @Value("${kitchensink.sse.heartbeat-interval:15s}") Duration heartbeatInterval,
+      @Value("${kitchensink.sse.timeout:30m}") Duration timeout) {
+    this(bufferSize, timeout.toMillis(), Executors.newVirtualThreadPerTaskExecutor(),
+        Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("sse-dispatcher").factory()));
+    dispatcher.scheduleAtFixedRate(this::heartbeat, heartbeatInterval.toMillis(),
+        heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  MemberEventBroadcaster(int bufferSize, long timeoutMillis, Executor sendExecutor,
+      ScheduledExecutorService dispatcher) {
+    this.bufferSize = bufferSize;
+    this.timeoutMillis = timeoutMillis;
+    this.sendExecutor = sendExecutor;
+    this.dispatcher = dispatcher;
+  }
+
+  /**
+   * Opens a new event stream for the caller.
+   */
+  public SseEmitter subscribe() {
+    return register(new SseEmitter(timeoutMillis));
+  }
+
+  SseEmitter register(SseEmitter emitter) {
+    if (flushing) {
+      // Shutting down: the client reconnects, and reaches another instance
+      emitter.complete();
+      return emitter;
+    }
+    Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+    emitter.onCompletion(subscriber::close);
+    emitter.onTimeout(subscriber::close);
+    emitter.onError(e -> subscriber.close());
+    subscribers.add(subscriber);
+    // Tells the client the stream is live and how soon to reconnect after a drop
+    subscriber.enqueue(SseEmitter.event().comment("connected").reconnectTime(3_000));
+    log.debug("SSE subscriber connected; {} active", subscribers.size());
+    return emitter;
+  }
+
+  @EventListener
+  public void onMemberChanged(MemberChangedEvent event) {
+    SseEventBuilder message = SseEmitter.event()
+        .id(Long.toString(eventIds.incrementAndGet()))
+        .name(EVENT_NAME)
+        .data(event, MediaType.APPLICATION_JSON);
+    try {
+      dispatcher.execute(() -> {
+        for (Subscriber subscriber : subscribers) {
+          subscriber.enqueue(message);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      log.debug("Not broadcasting member event {}; shutting down", event.getType());
+    }
+  }
+
+  void heartbeat() {
+    SseEventBuilder heartbeat = SseEmitter.event().comment("heartbeat");
+    for (Subscriber subscriber : subscribers) {
+      subscriber.enqueue(heartbeat);
+    }
+  }
+
+  public int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  public long getDroppedSubscriberCount() {
+    return droppedSubscribers.get();
+  }
+
+  /**
+   * Fans out the events already published, then ends every stream once its buffer is sent.
+   */
+  @Override
+  public boolean flush(Duration timeout) throws InterruptedException {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    flushing = true;
+    dispatcher.shutdown();
+    boolean flushed = dispatcher.awaitTermination(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+    subscribers.forEach(Subscriber::finish);
+    while (!subscribers.isEmpty() && remainingNanos(deadline) > 0) {
+      Thread.sleep(10);
+    }
+    flushed &= subscribers.isEmpty();
+    if (sendExecutor instanceof ExecutorService executorService) {
+      executorService.shutdown();
+      flushed &= executorService.awaitTermination(remainingNanos(deadline), TimeUnit.NANOSECONDS);
+    }
+    return flushed;
+  }
+
+  private static long remainingNanos(long deadline) {
+    return Math.max(0, deadline - System.nanoTime());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    dispatcher.shutdownNow();
+    subscribers.forEach(Subscriber::complete);
+    if (sendExecutor instanceof ExecutorService executorService) {
+      executorService.shutdown();
+    }
+  }
+
+  private final class Subscriber {
+
+    private final SseEmitter emitter;
+
+    private final BlockingQueue<SseEventBuilder> buffer;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private volatile boolean finishing;
+
+    Subscriber(SseEmitter emitter, BlockingQueue<SseEventBuilder> buffer) {
+      this.emitter = emitter;
+      this.buffer = buffer;
+    }
+
+    void enqueue(SseEventBuilder message) {
+      if (closed.get()) {
+        return;
+      }
+      if (!buffer.offer(message)) {
+        droppedSubscribers.incrementAndGet();
+        log.info("Disconnecting slow SSE subscriber after {} undelivered events", buffer.size());
+        complete();
+        return;
+      }
+      scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+      if (!buffer.isEmpty() && draining.compareAndSet(false, true)) {
+        sendExecutor.execute(this::drain);
+      }
+    }
+
+    private void drain() {
+      try {
+        SseEventBuilder message;
+        while (!closed.get() && (message = buffer.poll()) != null) {
+          emitter.send(message);
+        }
+      } catch (IOException | IllegalStateException e) {
+        // Client went away; the servlet container reports it through onError/onCompletion too
+        close();
+      } finally {
+        draining.set(false);
+      }
+      if (closed.get()) {
+        return;
+      }
+      if (finishing && buffer.isEmpty()) {
+        complete();
+      } else {
+        // Messages enqueued after the last poll but before the flag was cleared
+        scheduleDrain();
+      }
+    }
+
+    /** Ends the stream once everything buffered so far is sent. */
+    void finish() {
+      finishing = true;
+      if (buffer.isEmpty() && !draining.get()) {
+        complete();
+      } else {
+        scheduleDrain();
+      }
+    }
+
+    /**
+     * Ends the stream. Completing may block behind an in-flight send, so it never runs on the
+     * publishing thread.
+     */
+    void complete() {
+      if (close()) {
+        sendExecutor.execute(emitter::complete);
+      }
+    }
+
+    boolean close() {
+      if (!closed.compareAndSet(false, true)) {
+        return false;
+      }
+      subscribers.remove(this);
+      buffer.clear();
+      return true;
+    }
+  }
+}
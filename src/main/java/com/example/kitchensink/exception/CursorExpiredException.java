@@ -0,0 +1,16 @@
+package com.example.kitchensink.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A change feed cursor is older than the tombstone retention, so deletes since it may have been
+ * forgotten; the client has to sync from the start again.
+ */
+@ResponseStatus(value = HttpStatus.GONE)
+public class CursorExpiredException extends RuntimeException {
+
+  public CursorExpiredException(String message) {
+    super(message);
+  }
+}
@@ -31,6 +31,16 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
   }
 
+  @ExceptionHandler(CursorExpiredException.class)
+  public ResponseEntity<Object> handleCursorExpiredException(CursorExpiredException ex,
+      WebRequest request) {
+    Map<String, Object> errorDetails = new HashMap<>();
+    errorDetails.put("timestamp", LocalDateTime.now());
+    errorDetails.put("message", ex.getMessage());
+    errorDetails.put("details", request.getDescription(false));
+    return new ResponseEntity<>(errorDetails, HttpStatus.GONE);
+  }
+
   // Add specific handler for static resource errors
   @ExceptionHandler(org.springframework.web.servlet.NoHandlerFoundException.class)
   @ResponseStatus(HttpStatus.NOT_FOUND)
@@ -0,0 +1,68 @@
+package com.example.kitchensink.idempotency;
+
+import com.example.kitchensink.security.JwtTokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+
+/**
+ * Strips the access and refresh tokens from a stored {@code AuthResponse} and mints new ones for
+ * the same email and role on replay. The stored body then holds nothing that could be used to
+ * sign in, and a replay never hands out a token that has expired since the first attempt.
+ */
+public class AuthTokenRedactor implements ReplayRedactor {
+
+  static final String ACCESS_TOKEN = "accessToken";
+  static final String REFRESH_TOKEN = "refreshToken";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final JwtTokenService jwtTokenService;
+
+  public AuthTokenRedactor(JwtTokenService jwtTokenService) {
+    this.jwtTokenService = jwtTokenService;
+  }
+
+  @Override
+  public byte[] redact(byte[] body) {
+    ObjectNode response = read(body);
+    response.remove(ACCESS_TOKEN);
+    response.remove(REFRESH_TOKEN);
+    return write(response);
+  }
+
+  @Override
+  public byte[] restore(byte[] redacted) {
+    ObjectNode stored = read(redacted);
+    String email = stored.path("email").asText(null);
+    if (email == null) {
+      throw new IllegalArgumentException("Stored auth response has no email");
+    }
+    String role = stored.path("role").asText(null);
+    ObjectNode response = objectMapper.createObjectNode()
+        .put(ACCESS_TOKEN, jwtTokenService.generateAccessToken(email, role))
+        .put(REFRESH_TOKEN, jwtTokenService.generateRefreshToken(email));
+    response.setAll(stored);
+    response.put("expiresIn", jwtTokenService.getAccessTokenExpiration());
+    return write(response);
+  }
+
+  private ObjectNode read(byte[] body) {
+    try {
+      if (objectMapper.readTree(body) instanceof ObjectNode object) {
+        return object;
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Auth response is not JSON", e);
+    }
+    throw new IllegalArgumentException("Auth response is not a JSON object");
+  }
+
+  private byte[] write(ObjectNode response) {
+    try {
+      return objectMapper.writeValueAsBytes(response);
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+}
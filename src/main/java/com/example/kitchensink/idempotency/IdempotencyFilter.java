@@ -0,0 +1,285 @@
+package com.example.kitchensink.idempotency;
+
+import com.example.kitchensink.idempotency.IdempotencyStore.Claim;
+import com.example.kitchensink.idempotency.IdempotencyStore.InProgressException;
+import com.example.kitchensink.idempotency.IdempotencyStore.KeyReusedException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Makes the member-creating and token-issuing POSTs safe to retry: a request carrying an
+ * {@code Idempotency-Key} header runs once, and every retry with the same key gets the stored
+ * response back, marked with {@code Idempotent-Replayed: true}, without running BCrypt or the
+ * insert again.
+ * <p>
+ * Keys are scoped to the caller and path, so one user can never replay another's response. A key
+ * reused with a different body is rejected with 422, and a retry that outwaits a still-running
+ * first attempt gets 409. Only 2xx responses are stored: a rejected or failed request created
+ * nothing, and the signup endpoints answer a database timeout with 409 or a redirect as readily as
+ * a duplicate email, so a retry must run it again rather than replay a transient failure for the
+ * whole TTL.
+ * <p>
+ * A path can have a {@link ReplayRedactor}, which takes secrets such as issued tokens out of the
+ * body before it is stored and puts fresh ones in on replay.
+ * Registered after Spring Security, so the caller is already authenticated.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "Idempotency-Key";
+
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  static final int MAX_KEY_LENGTH = 255;
+
+  private static final List<String> REPLAYED_HEADERS =
+      List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION, HttpHeaders.ETAG);
+
+  private final IdempotencyStore store;
+
+  private final Set<String> paths;
+
+  private final Map<String, ReplayRedactor> redactors;
+
+  /**
+   * @param paths request paths (without the context path) whose POSTs honour the header
+   */
+  public IdempotencyFilter(IdempotencyStore store, Set<String> paths) {
+    this(store, paths, Map.of());
+  }
+
+  /**
+   * @param redactors the redactor for each path whose response bodies hold secrets
+   */
+  public IdempotencyFilter(IdempotencyStore store, Set<String> paths,
+      Map<String, ReplayRedactor> redactors) {
+    this.store = store;
+    this.paths = Set.copyOf(paths);
+    this.redactors = Map.copyOf(redactors);
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !"POST".equals(request.getMethod())
+        || request.getHeader(HEADER) == null
+        || !paths.contains(path(request));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String idempotencyKey = request.getHeader(HEADER);
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      response.sendError(HttpStatus.BAD_REQUEST.value(),
+          HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+      return;
+    }
+
+    HttpServletRequest body = isForm(request) ? request : new CachedBodyRequest(request);
+    ReplayRedactor redactor = redactors.get(path(request));
+    String key = sha256(caller() + "\n" + request.getRequestURI() + "\n" + idempotencyKey);
+    String fingerprint = fingerprint(body);
+
+    Claim claim;
+    try {
+      claim = store.acquire(key, fingerprint);
+    } catch (KeyReusedException e) {
+      response.sendError(HttpStatus.UNPROCESSABLE_ENTITY.value(), e.getMessage());
+      return;
+    } catch (InProgressException e) {
+      response.sendError(HttpStatus.CONFLICT.value(), e.getMessage());
+      return;
+    }
+    if (!claim.owned()) {
+      replay(claim.replay(), redactor, response);
+      return;
+    }
+
+    ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+    boolean stored = false;
+    try {
+      filterChain.doFilter(body, captured);
+      if (HttpStatus.valueOf(captured.getStatus()).is2xxSuccessful()) {
+        StoredResponse capturedResponse = capture(fingerprint, captured, redactor);
+        if (capturedResponse != null) {
+          store.complete(key, capturedResponse);
+          stored = true;
+        }
+      }
+    } finally {
+      if (!stored) {
+        store.abandon(key);
+      }
+      captured.copyBodyToResponse();
+    }
+  }
+
+  /** Returns the response to store, or null if its body could not be redacted. */
+  private static StoredResponse capture(String fingerprint, ContentCachingResponseWrapper response,
+      ReplayRedactor redactor) {
+    byte[] body = response.getContentAsByteArray();
+    if (redactor != null) {
+      try {
+        body = redactor.redact(body);
+      } catch (IllegalArgumentException e) {
+        log.warn("Not storing idempotent response that could not be redacted: {}", e.getMessage());
+        return null;
+      }
+    }
+    Map<String, List<String>> headers = new LinkedHashMap<>();
+    for (String name : REPLAYED_HEADERS) {
+      List<String> values = new ArrayList<>(response.getHeaders(name));
+      if (name.equals(HttpHeaders.CONTENT_TYPE) && values.isEmpty()
+          && response.getContentType() != null) {
+        values.add(response.getContentType());
+      }
+      if (!values.isEmpty()) {
+        headers.put(name, values);
+      }
+    }
+    return new StoredResponse(fingerprint, response.getStatus(), headers, body);
+  }
+
+  private static void replay(StoredResponse stored, ReplayRedactor redactor,
+      HttpServletResponse response) throws IOException {
+    byte[] body = redactor != null ? redactor.restore(stored.body()) : stored.body();
+    response.setStatus(stored.status());
+    stored.headers().forEach((name, values) -> values.forEach(value -> {
+      if (name.equals(HttpHeaders.CONTENT_TYPE)) {
+        response.setContentType(value);
+      } else {
+        response.addHeader(name, value);
+      }
+    }));
+    response.setHeader(REPLAYED_HEADER, "true");
+    response.setContentLength(body.length);
+    response.getOutputStream().write(body);
+    response.flushBuffer();
+  }
+
+  private static String path(HttpServletRequest request) {
+    return request.getRequestURI().substring(request.getContextPath().length());
+  }
+
+  private static String caller() {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+        || !authentication.isAuthenticated()) {
+      return "anonymous";
+    }
+    return "user:" + authentication.getName();
+  }
+
+  /**
+   * Hashes the JSON body, or for form posts the sorted parameters; reading a form body directly
+   * would hide its parameters from the controller.
+   */
+  private static String fingerprint(HttpServletRequest request) {
+    if (request instanceof CachedBodyRequest cached) {
+      return sha256(cached.body);
+    }
+    StringBuilder form = new StringBuilder();
+    new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+      for (String value : values) {
+        form.append(name).append('=').append(value).append('&');
+      }
+    });
+    return sha256(form.toString());
+  }
+
+  private static boolean isForm(HttpServletRequest request) {
+    String contentType = request.getContentType();
+    return contentType != null
+        && contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+  }
+
+  private static String sha256(String value) {
+    return sha256(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String sha256(byte[] value) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** Reads the body up front so it can be hashed and still be read by the controller. */
+  private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    CachedBodyRequest(HttpServletRequest request) throws IOException {
+      super(request);
+      this.body = request.getInputStream().readAllBytes();
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream in = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          return in.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      String encoding = getCharacterEncoding();
+      Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+      return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+  }
+}
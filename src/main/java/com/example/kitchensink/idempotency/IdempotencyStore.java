@@ -0,0 +1,316 @@
+package com.example.kitchensink.idempotency;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.Updates;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Remembers the responses of requests sent with an {@code Idempotency-Key}, so a retry gets the
+ * original response instead of running the request again.
+ * <p>
+ * Keys are claimed in the {@code idempotency_keys} collection (a TTL index drops them after
+ * {@code kitchensink.idempotency.ttl}), so a retry that reaches another node is recognized too.
+ * Completed responses are also kept in a small in-memory front cache, and duplicates that arrive
+ * while the first attempt is still running wait for it: on the same node on a future, across
+ * nodes by polling the claim. A claim is held for {@code kitchensink.idempotency.claim-timeout},
+ * so a retry only takes the key over once the first attempt has had time to finish; claims left by
+ * a node that died block the key until then. If MongoDB is unavailable, claims fall back to this
+ * node only.
+ */
+@Slf4j
+public class IdempotencyStore {
+
+  static final String COLLECTION = "idempotency_keys";
+
+  private static final String PENDING = "PENDING";
+  private static final String DONE = "DONE";
+
+  private static final long POLL_MILLIS = 50;
+
+  /** Outcome of {@link #acquire}: either the caller runs the request, or it replays a response. */
+  public record Claim(StoredResponse replay) {
+
+    static final Claim OWNED = new Claim(null);
+
+    public boolean owned() {
+      return replay == null;
+    }
+  }
+
+  /** A completed response with the time it stops being replayed. */
+  private record Completed(StoredResponse response, Instant expiresAt) {
+  }
+
+  /** The key was already used for a request with a different body. */
+  public static class KeyReusedException extends RuntimeException {
+    KeyReusedException() {
+      super("Idempotency-Key was already used for a different request");
+    }
+  }
+
+  /** The first request with this key is still running after the wait timeout. */
+  public static class InProgressException extends RuntimeException {
+    InProgressException() {
+      super("A request with this Idempotency-Key is still in progress");
+    }
+  }
+
+  private final MongoTemplate mongoTemplate;
+
+  private final Duration ttl;
+
+  private final Duration waitTimeout;
+
+  private final Duration claimTimeout;
+
+  private final Clock clock;
+
+  private final Map<String, Completed> completed;
+
+  private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+  private final AtomicBoolean indexed = new AtomicBoolean();
+
+  public IdempotencyStore(MongoTemplate mongoTemplate, Duration ttl, Duration waitTimeout,
+      Duration claimTimeout, int frontCacheEntries) {
+    this(mongoTemplate, ttl, waitTimeout, claimTimeout, frontCacheEntries, Clock.systemUTC());
+  }
+
+  /**
+   * @param mongoTemplate the claim store, or null to keep claims on this node only
+   * @param claimTimeout how long a running first attempt holds its key; longer than
+   *     {@code waitTimeout}, so a duplicate gives up before it could take the key over
+   */
+  IdempotencyStore(MongoTemplate mongoTemplate, Duration ttl, Duration waitTimeout,
+      Duration claimTimeout, int frontCacheEntries, Clock clock) {
+    if (claimTimeout.compareTo(waitTimeout) <= 0) {
+      throw new IllegalArgumentException("The idempotency claim timeout must be longer than the "
+          + "wait timeout, got " + claimTimeout + " and " + waitTimeout);
+    }
+    this.mongoTemplate = mongoTemplate;
+    this.ttl = ttl;
+    this.waitTimeout = waitTimeout;
+    this.claimTimeout = claimTimeout;
+    this.clock = clock;
+    this.completed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+        return size() > frontCacheEntries;
+      }
+    });
+  }
+
+  /**
+   * Claims {@code key} for the caller, or returns the response of the request that already used
+   * it, waiting up to the wait timeout if that request is still running.
+   *
+   * @throws KeyReusedException if the key was used for a request with another fingerprint
+   * @throws InProgressException if the first request is still running after the wait timeout
+   */
+  public Claim acquire(String key, String fingerprint) {
+    long deadline = System.nanoTime() + waitTimeout.toNanos();
+    while (true) {
+      StoredResponse done = completedResponse(key);
+      if (done != null) {
+        return replay(done, fingerprint);
+      }
+      CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+      CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(key, mine);
+      if (running != null) {
+        StoredResponse response = await(running, deadline);
+        if (response != null) {
+          return replay(response, fingerprint);
+        }
+        // The first attempt failed without a response; try to claim the key again
+        continue;
+      }
+      try {
+        Completed stored = claim(key, fingerprint, deadline);
+        if (stored == null) {
+          return Claim.OWNED;
+        }
+        completed.put(key, stored);
+        finish(key, stored.response());
+        return replay(stored.response(), fingerprint);
+      } catch (RuntimeException e) {
+        finish(key, null);
+        throw e;
+      }
+    }
+  }
+
+  /** Stores the owner's response and releases everyone waiting on the key. */
+  public void complete(String key, StoredResponse response) {
+    Instant expiresAt = clock.instant().plus(ttl);
+    completed.put(key, new Completed(response, expiresAt));
+    if (mongoTemplate != null) {
+      try {
+        collection().updateOne(Filters.eq("_id", key), Updates.combine(
+            Updates.set("state", DONE),
+            Updates.set("status", response.status()),
+            Updates.set("headers", new Document(new LinkedHashMap<>(response.headers()))),
+            Updates.set("body", new Binary(response.body())),
+            Updates.set("expiresAt", Date.from(expiresAt))));
+      } catch (MongoException e) {
+        log.warn("Could not store idempotent response for another node: {}", e.getMessage());
+      }
+    }
+    finish(key, response);
+  }
+
+  /** Gives the key up after a failed attempt, so a retry runs the request again. */
+  public void abandon(String key) {
+    if (mongoTemplate != null) {
+      try {
+        collection().deleteOne(Filters.and(Filters.eq("_id", key), Filters.eq("state", PENDING)));
+      } catch (MongoException e) {
+        log.warn("Could not release idempotency key: {}", e.getMessage());
+      }
+    }
+    finish(key, null);
+  }
+
+  /**
+   * Inserts a pending claim. Returns null once the key is ours, or the stored response if another
+   * request completed with it.
+   */
+  private Completed claim(String key, String fingerprint, long deadline) {
+    if (mongoTemplate == null) {
+      return null;
+    }
+    MongoCollection<Document> collection;
+    try {
+      collection = collection();
+      if (indexed.compareAndSet(false, true)) {
+        collection.createIndex(Indexes.ascending("expiresAt"),
+            new IndexOptions().expireAfter(0L, TimeUnit.SECONDS));
+      }
+    } catch (MongoException e) {
+      log.warn("Idempotency keys unavailable, deduplicating on this node only: {}", e.getMessage());
+      return null;
+    }
+    while (true) {
+      try {
+        // A pending claim outlives any duplicate's wait, so only a dead owner's claim expires
+        collection.insertOne(new Document("_id", key)
+            .append("state", PENDING)
+            .append("fingerprint", fingerprint)
+            .append("expiresAt", Date.from(clock.instant().plus(claimTimeout))));
+        return null;
+      } catch (MongoWriteException e) {
+        if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) {
+          throw e;
+        }
+      }
+      Document existing = collection.find(Filters.eq("_id", key)).first();
+      if (existing == null) {
+        continue;
+      }
+      Date expiresAt = existing.getDate("expiresAt");
+      if (expiresAt != null && expiresAt.toInstant().isBefore(clock.instant())) {
+        // Past its ttl but not yet removed by the TTL monitor, or a claim whose node gave up or
+        // died; take the key over
+        collection.deleteOne(Filters.and(Filters.eq("_id", key),
+            Filters.eq("expiresAt", expiresAt)));
+        continue;
+      }
+      if (DONE.equals(existing.getString("state"))) {
+        return new Completed(fromDocument(existing),
+            expiresAt != null ? expiresAt.toInstant() : clock.instant().plus(ttl));
+      }
+      if (!fingerprint.equals(existing.getString("fingerprint"))) {
+        throw new KeyReusedException();
+      }
+      if (System.nanoTime() >= deadline) {
+        throw new InProgressException();
+      }
+      sleep();
+    }
+  }
+
+  /** Returns the response kept in memory for {@code key}, dropping it once past its ttl. */
+  private StoredResponse completedResponse(String key) {
+    Completed done = completed.get(key);
+    if (done == null) {
+      return null;
+    }
+    if (!done.expiresAt().isAfter(clock.instant())) {
+      completed.remove(key, done);
+      return null;
+    }
+    return done.response();
+  }
+
+  private StoredResponse await(CompletableFuture<StoredResponse> running, long deadline) {
+    try {
+      return running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (TimeoutException e) {
+      throw new InProgressException();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InProgressException();
+    } catch (ExecutionException e) {
+      return null;
+    }
+  }
+
+  private void finish(String key, StoredResponse response) {
+    CompletableFuture<StoredResponse> running = inFlight.remove(key);
+    if (running != null) {
+      running.complete(response);
+    }
+  }
+
+  private static Claim replay(StoredResponse response, String fingerprint) {
+    if (!response.fingerprint().equals(fingerprint)) {
+      throw new KeyReusedException();
+    }
+    return new Claim(response);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static StoredResponse fromDocument(Document document) {
+    Map<String, List<String>> headers = new LinkedHashMap<>();
+    document.get("headers", Document.class)
+        .forEach((name, values) -> headers.put(name, new ArrayList<>((List<String>) values)));
+    return new StoredResponse(document.getString("fingerprint"), document.getInteger("status"),
+        headers, document.get("body", Binary.class).getData());
+  }
+
+  private MongoCollection<Document> collection() {
+    return mongoTemplate.getCollection(COLLECTION);
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(POLL_MILLIS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InProgressException();
+    }
+  }
+}
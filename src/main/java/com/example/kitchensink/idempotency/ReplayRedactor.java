@@ -0,0 +1,19 @@
+package com.example.kitchensink.idempotency;
+
+/**
+ * Keeps secrets out of stored responses: takes them out of a body before it is stored, and puts
+ * fresh ones in when the stored body is replayed.
+ */
+public interface ReplayRedactor {
+
+  /**
+   * Returns the body as it may be stored.
+   *
+   * @throws IllegalArgumentException if the body cannot be redacted, in which case it is not
+   *     stored
+   */
+  byte[] redact(byte[] body);
+
+  /** Returns a redacted body as it is replayed. */
+  byte[] restore(byte[] redacted);
+}
@@ -0,0 +1,16 @@
+package com.example.kitchensink.idempotency;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A completed response kept for replay, with the fingerprint of the request that produced it.
+ *
+ * @param fingerprint hash of the original request body or form parameters
+ * @param status HTTP status
+ * @param headers response headers worth replaying (never {@code Set-Cookie})
+ * @param body response body, redacted if its path has a {@link ReplayRedactor}
+ */
+public record StoredResponse(String fingerprint, int status, Map<String, List<String>> headers,
+    byte[] body) {
+}
@@ -0,0 +1,20 @@
+package com.example.kitchensink.lifecycle;
+
+import java.time.Duration;
+
+/**
+ * Work a bean does off the request thread, such as buffered event deliveries or background cache
+ * refreshes, that should finish before the application stops. {@link ShutdownCoordinator}
+ * flushes every such bean once in-flight requests have drained, while the MongoDB client is still
+ * open.
+ */
+public interface BackgroundWork {
+
+  /**
+   * Stops taking new background work and waits for what is already queued or running.
+   *
+   * @return whether everything finished within the timeout
+   * @throws InterruptedException if the thread is interrupted while waiting
+   */
+  boolean flush(Duration timeout) throws InterruptedException;
+}
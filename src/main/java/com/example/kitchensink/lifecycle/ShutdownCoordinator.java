@@ -0,0 +1,118 @@
+package com.example.kitchensink.lifecycle;
+
+import com.example.kitchensink.concurrency.InFlightRequestFilter;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Drains the application on shutdown, so a rolling deploy does not cut off signups and member
+ * writes halfway. When the context closes, Spring Boot first turns readiness to
+ * {@code REFUSING_TRAFFIC}; this coordinator then:
+ * <ol>
+ *   <li>keeps serving for the readiness grace period, while load balancers notice the failing
+ *   readiness probe and stop sending requests here;</li>
+ *   <li>stops accepting requests: any that still arrive get 503 with {@code Connection: close}
+ *   and can be retried on another instance;</li>
+ *   <li>waits for the requests in flight, logging how many each endpoint group still has;</li>
+ *   <li>flushes every {@link BackgroundWork} bean, which delivers buffered dashboard events and
+ *   ends the event streams, and finishes background cache refreshes and member recounts.</li>
+ * </ol>
+ * Waiting and flushing share the drain timeout. It runs before the web server's own graceful
+ * shutdown, and like every lifecycle stop, before any bean is destroyed, so the MongoDB client
+ * is closed only after everything above is done.
+ */
+@Slf4j
+public class ShutdownCoordinator implements SmartLifecycle {
+
+  private final InFlightRequestFilter requests;
+
+  private final List<BackgroundWork> backgroundWork;
+
+  private final Duration readinessGrace;
+
+  private final Duration drainTimeout;
+
+  private volatile boolean autoStartup = true;
+
+  private volatile boolean running;
+
+  /**
+   * @param readinessGrace how long to keep serving after readiness goes down
+   * @param drainTimeout how long to wait for in-flight requests and background work together
+   */
+  public ShutdownCoordinator(InFlightRequestFilter requests, List<BackgroundWork> backgroundWork,
+      Duration readinessGrace, Duration drainTimeout) {
+    this.requests = requests;
+    this.backgroundWork = List.copyOf(backgroundWork);
+    this.readinessGrace = readinessGrace;
+    this.drainTimeout = drainTimeout;
+  }
+
+  /** When false the coordinator is never started, so shutdown does not drain. */
+  public void setAutoStartup(boolean autoStartup) {
+    this.autoStartup = autoStartup;
+  }
+
+  @Override
+  public boolean isAutoStartup() {
+    return autoStartup;
+  }
+
+  @Override
+  public void start() {
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    try {
+      drain();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.warn("Interrupted while draining; shutting down with work still in flight");
+    } finally {
+      running = false;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Stops before the web server's graceful shutdown, which then finds nothing left to wait for. */
+  @Override
+  public int getPhase() {
+    return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE + 1;
+  }
+
+  void drain() throws InterruptedException {
+    if (readinessGrace.isPositive()) {
+      log.info("Readiness is down; serving for {} more while load balancers stop routing here",
+          readinessGrace);
+      Thread.sleep(readinessGrace.toMillis());
+    }
+    long deadline = System.nanoTime() + drainTimeout.toNanos();
+    requests.stopAccepting();
+    log.info("Stopped accepting requests; waiting for those in flight: {}", requests.getInFlight());
+    if (requests.awaitDrained(remaining(deadline))) {
+      log.info("All in-flight requests finished");
+    } else {
+      log.warn("Drain timeout reached with requests still in flight: {}", requests.getInFlight());
+    }
+    for (BackgroundWork work : backgroundWork) {
+      if (!work.flush(remaining(deadline))) {
+        log.warn("{} did not finish its background work before the drain timeout",
+            work.getClass().getSimpleName());
+      }
+    }
+  }
+
+  private static Duration remaining(long deadline) {
+    return Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.kitchensink.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Marker;
+
+/**
+ * Logback turbo filter that samples and rate-caps log events for one logger hierarchy.
+ * <p>
+ * Events from loggers under {@code loggerPrefix} at or below {@code maxLevel} are kept one in
+ * {@code sampleRate}, and at most {@code maxPerSecond} of them are let through per second.
+ * Events above {@code maxLevel} (by default WARN and ERROR) always pass. Turbo filters run
+ * before the event is created, so dropped events cost no formatting or allocation.
+ * <p>
+ * Configured in {@code logback-spring.xml}; one instance per logger hierarchy.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+  private String loggerPrefix = "";
+
+  private Level maxLevel = Level.INFO;
+
+  private int sampleRate = 1;
+
+  private int maxPerSecond = 0;
+
+  private final AtomicLong sampleCounter = new AtomicLong();
+
+  private final AtomicLong currentSecond = new AtomicLong();
+
+  private final AtomicInteger eventsThisSecond = new AtomicInteger();
+
+  private final AtomicLong dropped = new AtomicLong();
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+      Object[] params, Throwable t) {
+    // A null format means an isXxxEnabled() check rather than an actual event
+    if (format == null || level == null || level.toInt() > maxLevel.toInt()
+        || !logger.getName().startsWith(loggerPrefix)) {
+      return FilterReply.NEUTRAL;
+    }
+    // Turbo filters run before the level check; events the logger would discard anyway must
+    // not use up samples or the per-second budget
+    if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+      return FilterReply.NEUTRAL;
+    }
+    if (sampleRate > 1 && sampleCounter.getAndIncrement() % sampleRate != 0) {
+      dropped.incrementAndGet();
+      return FilterReply.DENY;
+    }
+    if (maxPerSecond > 0 && !tryAcquire(currentTimeMillis() / 1000)) {
+      dropped.incrementAndGet();
+      return FilterReply.DENY;
+    }
+    return FilterReply.NEUTRAL;
+  }
+
+  private boolean tryAcquire(long second) {
+    long window = currentSecond.get();
+    if (window != second && currentSecond.compareAndSet(window, second)) {
+      eventsThisSecond.set(0);
+    }
+    return eventsThisSecond.incrementAndGet() <= maxPerSecond;
+  }
+
+  /**
+   * Clock used for the per-second cap; overridable in tests.
+   */
+  protected long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+
+  /**
+   * Returns the number of events dropped by sampling or rate capping since startup.
+   */
+  public long getDropped() {
+    return dropped.get();
+  }
+
+  public void setLoggerPrefix(String loggerPrefix) {
+    this.loggerPrefix = loggerPrefix != null ? loggerPrefix : "";
+  }
+
+  public void setMaxLevel(String maxLevel) {
+    this.maxLevel = Level.toLevel(maxLevel, Level.INFO);
+  }
+
+  public void setSampleRate(int sampleRate) {
+    this.sampleRate = Math.max(1, sampleRate);
+  }
+
+  public void setMaxPerSecond(int maxPerSecond) {
+    this.maxPerSecond = Math.max(0, maxPerSecond);
+  }
+}
@@ -12,6 +12,9 @@ public interface MemberMapper {
 
   MemberMapper INSTANCE = Mappers.getMapper(MemberMapper.class);
 
+  @Mapping(target = "createdAt", ignore = true)
+  @Mapping(target = "updatedAt", ignore = true)
+  @Mapping(target = "seq", ignore = true)
   MemberDocument memberToMemberEntity(Member member);
 
   List<Member> memberEntityListToMemberList(List<MemberDocument> memberEntities);
@@ -10,10 +10,10 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class AuthRequest {
-    @NotBlank(message = "Email is required")
-    @Email(message = "Email should be valid")
+    @NotBlank(message = ValidationPatterns.EMAIL_REQUIRED_MESSAGE)
+    @Email(message = ValidationPatterns.LOGIN_EMAIL_INVALID_MESSAGE)
     private String email;
     
-    @NotBlank(message = "Password is required")
+    @NotBlank(message = ValidationPatterns.PASSWORD_REQUIRED_MESSAGE)
     private String password;
 } 
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.example.kitchensink.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of {@code POST /admin/members/batch-get}: either member IDs or emails, not both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetRequest {
+    public static final int MAX_KEYS = 500;
+
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " ids per request")
+    private List<@NotBlank String> ids;
+
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " emails per request")
+    private List<@NotBlank String> emails;
+
+    @JsonIgnore
+    @AssertTrue(message = "Provide either ids or emails")
+    public boolean isOneKeyKind() {
+        return (ids == null) != (emails == null);
+    }
+
+    /** The requested keys, in request order. */
+    @JsonIgnore
+    public List<String> getKeys() {
+        return ids != null ? ids : emails;
+    }
+}
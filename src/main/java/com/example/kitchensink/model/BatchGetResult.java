@@ -0,0 +1,25 @@
+package com.example.kitchensink.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a batch-get response: the requested key, and the member if one was found.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGetResult {
+    private String key;
+
+    private boolean found;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Member member;
+
+    public static BatchGetResult of(String key, Member member) {
+        return new BatchGetResult(key, member != null, member);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.kitchensink.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.util.StringUtils;
+
+/**
+ * Body of {@code POST /admin/members/bulk-mutate}: operations applied in one bulk write. Each
+ * operation targets either a list of member IDs or a filter, never both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMutateRequest {
+    public static final int MAX_OPERATIONS = 100;
+    public static final int MAX_IDS = 10_000;
+
+    public enum Action {
+        SET_ROLE,
+        SET_PHONE,
+        DELETE
+    }
+
+    /** Ordered bulk writes stop at the first failed operation; unordered ones run them all. */
+    private boolean ordered = true;
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "At most " + MAX_OPERATIONS + " operations per request")
+    private List<@NotNull @Valid Operation> operations;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Operation {
+        @NotNull(message = "Action is required")
+        private Action action;
+
+        @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " ids per operation")
+        private List<@NotBlank String> ids;
+
+        @Valid
+        private Filter filter;
+
+        /** New role for {@link Action#SET_ROLE}. */
+        private String role;
+
+        /** New phone number for {@link Action#SET_PHONE}. */
+        @Pattern(regexp = ValidationPatterns.PHONE_PATTERN, message = ValidationPatterns.PHONE_MESSAGE)
+        private String phoneNumber;
+
+        @JsonIgnore
+        @AssertTrue(message = "Provide either ids or a filter")
+        public boolean isOneTarget() {
+            return (ids == null) != (filter == null);
+        }
+
+        @JsonIgnore
+        @AssertTrue(message = "SET_ROLE needs a role and SET_PHONE a phoneNumber")
+        public boolean isValueGiven() {
+            return action != Action.SET_ROLE && action != Action.SET_PHONE
+                    || StringUtils.hasText(action == Action.SET_ROLE ? role : phoneNumber);
+        }
+    }
+
+    /**
+     * Selects members by role and/or email domain; members matching every given field are
+     * affected.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Filter {
+        private String role;
+
+        /** Matches emails ending in {@code @<emailDomain>}, ignoring case. */
+        private String emailDomain;
+
+        @JsonIgnore
+        @AssertTrue(message = "A filter needs a role or an emailDomain")
+        public boolean isNotEmpty() {
+            return StringUtils.hasText(role) || StringUtils.hasText(emailDomain);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.kitchensink.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a bulk mutation: totals across all operations, and what happened to each operation
+ * in request order.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkMutateResult {
+    private int matched;
+
+    private int modified;
+
+    private int deleted;
+
+    private List<OperationResult> operations;
+
+    public enum Status {
+        APPLIED,
+        FAILED,
+        /** Not attempted because an earlier operation of an ordered request failed. */
+        SKIPPED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OperationResult {
+        private int index;
+
+        private Status status;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String error;
+    }
+
+    /** Whether every operation was applied. */
+    public boolean isComplete() {
+        return operations.stream().allMatch(operation -> operation.getStatus() == Status.APPLIED);
+    }
+}
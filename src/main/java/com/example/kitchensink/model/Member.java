@@ -1,16 +1,15 @@
 package com.example.kitchensink.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 public class Member {
 
@@ -34,4 +33,18 @@ public class Member {
   private String phoneNumber;
 
   private String role = "USER";
+
+  // Server-assigned; clients send it back through If-Match rather than in the body
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Long version;
+
+  public Member(String id, String name, String email, String password, String phoneNumber,
+      String role) {
+    this.id = id;
+    this.name = name;
+    this.email = email;
+    this.password = password;
+    this.phoneNumber = phoneNumber;
+    this.role = role;
+  }
 }
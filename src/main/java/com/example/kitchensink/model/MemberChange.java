@@ -0,0 +1,38 @@
+package com.example.kitchensink.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of the member change feed: the member as it is now, or a tombstone for a deleted
+ * member.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberChange {
+    private Type type;
+
+    private String id;
+
+    private long seq;
+
+    /** The member's current state; absent for deletes. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Member member;
+
+    public enum Type {
+        UPSERT,
+        DELETE
+    }
+
+    public static MemberChange upsert(long seq, Member member) {
+        return new MemberChange(Type.UPSERT, member.getId(), seq, member);
+    }
+
+    public static MemberChange delete(long seq, String id) {
+        return new MemberChange(Type.DELETE, id, seq, null);
+    }
+}
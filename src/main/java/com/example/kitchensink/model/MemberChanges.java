@@ -0,0 +1,21 @@
+package com.example.kitchensink.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A page of the member change feed. Pass {@code cursor} as {@code since} to get the next page;
+ * while {@code hasMore} is false the client is caught up and can poll with it later.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberChanges {
+    private List<MemberChange> changes;
+
+    private String cursor;
+
+    private boolean hasMore;
+}
@@ -0,0 +1,33 @@
+package com.example.kitchensink.model;
+
+import java.time.Instant;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Dashboard member counts, kept up to date as members are written rather than counted on request.
+ * The counts may drift briefly after a failed write or a bulk change; {@code reconciledAt} is when
+ * they were last recomputed from the members collection.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberStats {
+    private long total;
+
+    /**
+     * Members per role, e.g. {@code ROLE_ADMIN}, and members without one under {@code (none)};
+     * roles with no members are left out.
+     */
+    private Map<String, Long> byRole;
+
+    /** Members an admin added who have not set a password through registration yet. */
+    private long withoutPassword;
+
+    /** Current members by the UTC day they were created, oldest day first. */
+    private Map<String, Long> signupsPerDay;
+
+    private Instant reconciledAt;
+}
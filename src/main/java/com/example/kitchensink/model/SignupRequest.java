@@ -12,17 +12,17 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class SignupRequest {
-    @NotBlank(message = "Name is required")
-    @Size(min = ValidationPatterns.NAME_MIN_LENGTH, max = ValidationPatterns.NAME_MAX_LENGTH, message = "Name must be between 1 and 25 characters")
+    @NotBlank(message = ValidationPatterns.NAME_REQUIRED_MESSAGE)
+    @Size(min = ValidationPatterns.NAME_MIN_LENGTH, max = ValidationPatterns.NAME_MAX_LENGTH, message = ValidationPatterns.NAME_SIZE_MESSAGE)
     @Pattern(regexp = ValidationPatterns.NAME_PATTERN, message = ValidationPatterns.NAME_MESSAGE)
     private String name;
     
-    @NotBlank(message = "Email is required")
-    @Email(message = "Please enter a valid email address")
+    @NotBlank(message = ValidationPatterns.EMAIL_REQUIRED_MESSAGE)
+    @Email(message = ValidationPatterns.EMAIL_INVALID_MESSAGE)
     private String email;
     
-    @NotBlank(message = "Password is required")
-    @Size(min = ValidationPatterns.PASSWORD_MIN_LENGTH, message = "Password must be at least 8 characters long")
+    @NotBlank(message = ValidationPatterns.PASSWORD_REQUIRED_MESSAGE)
+    @Size(min = ValidationPatterns.PASSWORD_MIN_LENGTH, message = ValidationPatterns.SIMPLE_PASSWORD_MESSAGE)
     @Pattern(regexp = ValidationPatterns.PASSWORD_PATTERN, message = ValidationPatterns.PASSWORD_MESSAGE)
     private String password;
     
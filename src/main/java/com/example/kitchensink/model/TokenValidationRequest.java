@@ -0,0 +1,24 @@
+package com.example.kitchensink.model;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of {@code POST /api/auth/validate/batch}: the tokens to check, without the
+ * {@code Bearer } prefix.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenValidationRequest {
+    public static final int MAX_TOKENS = 100;
+
+    @NotEmpty(message = "Provide at least one token")
+    @Size(max = MAX_TOKENS, message = "At most " + MAX_TOKENS + " tokens per request")
+    private List<@NotBlank String> tokens;
+}
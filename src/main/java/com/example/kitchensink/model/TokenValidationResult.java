@@ -0,0 +1,32 @@
+package com.example.kitchensink.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a batch token validation response, in request order. The claims are only given
+ * for valid tokens; the token itself is not echoed back.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenValidationResult {
+    private boolean valid;
+
+    private String subject;
+
+    private String role;
+
+    private Instant expiresAt;
+
+    /** Seconds the token stays valid; how long a gateway may cache this result. */
+    private Long expiresIn;
+
+    public static TokenValidationResult invalid() {
+        return new TokenValidationResult(false, null, null, null, null);
+    }
+}
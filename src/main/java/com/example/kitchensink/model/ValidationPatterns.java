@@ -12,6 +12,8 @@ public final class ValidationPatterns {
     // Phone number validation: 10-12 digits or empty
     public static final String PHONE_PATTERN = "^$|^\\d{10,12}$";
     public static final String PHONE_MESSAGE = "Phone number must be 10-12 digits or empty";
+    public static final int PHONE_MIN_DIGITS = 10;
+    public static final int PHONE_MAX_DIGITS = 12;
     
     // Name validation: no numbers allowed
     public static final String NAME_PATTERN = "[^0-9]*";
@@ -20,10 +22,19 @@ public final class ValidationPatterns {
     // Password validation: at least 8 characters
     public static final String PASSWORD_PATTERN = "^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$";
     public static final String PASSWORD_MESSAGE = "Password must contain at least one uppercase letter, one lowercase letter, one number, and one special character";
+    public static final String PASSWORD_SPECIAL_CHARACTERS = "@$!%*?&";
     
     // Simple password validation (for backward compatibility)
     public static final String SIMPLE_PASSWORD_MESSAGE = "Password must be at least 8 characters long";
     
+    // Messages used by the signup and login request models
+    public static final String NAME_REQUIRED_MESSAGE = "Name is required";
+    public static final String NAME_SIZE_MESSAGE = "Name must be between 1 and 25 characters";
+    public static final String EMAIL_REQUIRED_MESSAGE = "Email is required";
+    public static final String EMAIL_INVALID_MESSAGE = "Please enter a valid email address";
+    public static final String LOGIN_EMAIL_INVALID_MESSAGE = "Email should be valid";
+    public static final String PASSWORD_REQUIRED_MESSAGE = "Password is required";
+    
     // Validation size constraints
     public static final int NAME_MIN_LENGTH = 1;
     public static final int NAME_MAX_LENGTH = 25;
@@ -0,0 +1,54 @@
+package com.example.kitchensink.monitoring;
+
+import com.example.kitchensink.monitoring.MongoPoolMonitor.PoolStats;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports {@code DEGRADED} under {@code /actuator/health} once any MongoDB connection pool has
+ * stayed saturated for {@code kitchensink.mongodb.pool.saturation.sustained-for}, so pool
+ * exhaustion shows up before requests start timing out. Short bursts do not trip it.
+ * <p>
+ * {@code DEGRADED} is not a status Spring Boot knows, so {@code application.yml} ranks it between
+ * {@code DOWN} and {@code UP} in {@code management.endpoint.health.status.order} and maps it to
+ * 200; without that the aggregate hides it behind {@code UP}.
+ */
+@Component("mongoPool")
+public class MongoPoolHealthIndicator implements HealthIndicator {
+
+  public static final Status DEGRADED = new Status("DEGRADED", "MongoDB connection pool saturated");
+
+  private final MongoPoolMonitor monitor;
+
+  private final Duration sustainedFor;
+
+  public MongoPoolHealthIndicator(MongoPoolMonitor monitor,
+      @Value("${kitchensink.mongodb.pool.saturation.sustained-for:30s}") Duration sustainedFor) {
+    this.monitor = monitor;
+    this.sustainedFor = sustainedFor;
+  }
+
+  @Override
+  public Health health() {
+    List<PoolStats> pools = monitor.stats();
+    boolean degraded = pools.stream()
+        .anyMatch(pool -> pool.saturatedFor().compareTo(sustainedFor) >= 0);
+
+    Map<String, Object> details = new LinkedHashMap<>();
+    for (PoolStats pool : pools) {
+      details.put(pool.server(), Map.of(
+          "maxSize", pool.maxSize(),
+          "checkedOut", pool.checkedOut(),
+          "waiting", pool.waiting(),
+          "saturatedFor", pool.saturatedFor().toString()));
+    }
+    return Health.status(degraded ? DEGRADED : Status.UP).withDetails(details).build();
+  }
+}
@@ -0,0 +1,217 @@
+package com.example.kitchensink.monitoring;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntFunction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tracks the MongoDB driver's connection pools and exports what the driver's own gauges leave out:
+ * checkout latency, the number of threads waiting for a connection, and connection churn.
+ * <p>
+ * A checkout only counts as waiting if it started while every connection was checked out; the
+ * driver reports a checkout start for every operation, including the ones served straight from an
+ * idle connection. A pool counts as saturated while threads are waiting or while at least
+ * {@code kitchensink.mongodb.pool.saturation.threshold} of its connections are checked out, and
+ * stops counting only after staying below that for {@link #RECOVERY}, so a busy pool hovering at
+ * the threshold is not reset by every check-in. {@link MongoPoolHealthIndicator} reports how long
+ * each pool has been saturated. Registered with the client by {@code MongoPoolConfig}.
+ */
+@Component
+public class MongoPoolMonitor implements ConnectionPoolListener {
+
+  /** How long a pool must stay below saturation before its saturation clock is reset. */
+  static final Duration RECOVERY = Duration.ofSeconds(1);
+
+  private static final long NOT_SATURATED = Long.MIN_VALUE;
+
+  private final Map<ServerId, Pool> pools = new ConcurrentHashMap<>();
+
+  private final MeterRegistry registry;
+
+  private final double saturationThreshold;
+
+  private final LongSupplier nanoClock;
+
+  private final Counter connectionsCreated;
+
+  @Autowired
+  public MongoPoolMonitor(MeterRegistry registry,
+      @Value("${kitchensink.mongodb.pool.saturation.threshold:0.9}") double saturationThreshold) {
+    this(registry, saturationThreshold, System::nanoTime);
+  }
+
+  MongoPoolMonitor(MeterRegistry registry, double saturationThreshold, LongSupplier nanoClock) {
+    this.registry = registry;
+    this.saturationThreshold = saturationThreshold;
+    this.nanoClock = nanoClock;
+    this.connectionsCreated = Counter.builder("kitchensink.mongodb.pool.connections.created")
+        .description("Connections opened by the MongoDB driver")
+        .register(registry);
+    gauge("kitchensink.mongodb.pool.waiting", "Threads waiting to check out a connection",
+        pool -> pool.waiting.size());
+    gauge("kitchensink.mongodb.pool.checkedout", "Connections currently checked out",
+        pool -> pool.checkedOut.get());
+  }
+
+  /**
+   * Current state of every open pool, one per server the client talks to.
+   */
+  public List<PoolStats> stats() {
+    long now = nanoClock.getAsLong();
+    return pools.entrySet().stream()
+        .map(entry -> entry.getValue().stats(entry.getKey(), now))
+        .toList();
+  }
+
+  @Override
+  public void connectionPoolCreated(ConnectionPoolCreatedEvent event) {
+    pools.put(event.getServerId(), new Pool(event.getSettings().getMaxSize()));
+  }
+
+  @Override
+  public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+    pools.remove(event.getServerId());
+  }
+
+  @Override
+  public void connectionCheckOutStarted(ConnectionCheckOutStartedEvent event) {
+    withPool(event.getServerId(), pool -> {
+      if (pool.checkedOut.get() >= pool.maxSize) {
+        pool.waiting.add(event.getOperationId());
+      }
+    });
+  }
+
+  @Override
+  public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+    withPool(event.getConnectionId().getServerId(), pool -> {
+      pool.waiting.remove(event.getOperationId());
+      pool.checkedOut.incrementAndGet();
+    });
+    recordCheckout("success", event.getElapsedTime(TimeUnit.NANOSECONDS));
+  }
+
+  @Override
+  public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+    withPool(event.getServerId(), pool -> pool.waiting.remove(event.getOperationId()));
+    recordCheckout(event.getReason().name().toLowerCase(Locale.ROOT),
+        event.getElapsedTime(TimeUnit.NANOSECONDS));
+  }
+
+  @Override
+  public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+    withPool(event.getConnectionId().getServerId(), pool -> pool.checkedOut.decrementAndGet());
+  }
+
+  @Override
+  public void connectionCreated(ConnectionCreatedEvent event) {
+    connectionsCreated.increment();
+  }
+
+  @Override
+  public void connectionClosed(ConnectionClosedEvent event) {
+    Counter.builder("kitchensink.mongodb.pool.connections.closed")
+        .description("Connections closed by the MongoDB driver")
+        .tag("reason", event.getReason().name().toLowerCase(Locale.ROOT))
+        .register(registry)
+        .increment();
+  }
+
+  private void withPool(ServerId serverId, Consumer<Pool> update) {
+    Pool pool = pools.get(serverId);
+    if (pool != null) {
+      update.accept(pool);
+      pool.refreshSaturation(nanoClock.getAsLong(), saturationThreshold);
+    }
+  }
+
+  private void recordCheckout(String outcome, long elapsedNanos) {
+    Timer.builder("kitchensink.mongodb.pool.checkout")
+        .description("Time spent waiting for a pooled connection")
+        .tag("outcome", outcome)
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(registry)
+        .record(elapsedNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private void gauge(String name, String description, ToIntFunction<Pool> value) {
+    Gauge.builder(name, pools, map -> map.values().stream().mapToInt(value).sum())
+        .description(description)
+        .register(registry);
+  }
+
+  /**
+   * Snapshot of one connection pool.
+   *
+   * @param saturatedFor how long the pool has been saturated, zero if it is not
+   */
+  public record PoolStats(String server, int maxSize, int checkedOut, int waiting,
+      Duration saturatedFor) {
+  }
+
+  private static final class Pool {
+    private final int maxSize;
+    /** Operation ids of the checkouts that started with no connection free. */
+    private final Set<Long> waiting = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger checkedOut = new AtomicInteger();
+    private long saturatedSince = NOT_SATURATED;
+    private long clearSince = NOT_SATURATED;
+
+    private Pool(int maxSize) {
+      this.maxSize = maxSize;
+    }
+
+    private synchronized void refreshSaturation(long now, double threshold) {
+      boolean saturated = !waiting.isEmpty() || checkedOut.get() >= Math.ceil(maxSize * threshold);
+      if (saturated) {
+        if (saturatedSince == NOT_SATURATED) {
+          saturatedSince = now;
+        }
+        clearSince = NOT_SATURATED;
+      } else if (saturatedSince != NOT_SATURATED) {
+        if (clearSince == NOT_SATURATED) {
+          clearSince = now;
+        } else if (recovered(now)) {
+          saturatedSince = NOT_SATURATED;
+          clearSince = NOT_SATURATED;
+        }
+      }
+    }
+
+    private boolean recovered(long now) {
+      return clearSince != NOT_SATURATED && now - clearSince >= RECOVERY.toNanos();
+    }
+
+    private synchronized PoolStats stats(ServerId serverId, long now) {
+      Duration saturatedFor = saturatedSince == NOT_SATURATED || recovered(now)
+          ? Duration.ZERO : Duration.ofNanos(now - saturatedSince);
+      return new PoolStats(serverId.getAddress().toString(), maxSize, checkedOut.get(),
+          waiting.size(), saturatedFor);
+    }
+  }
+}
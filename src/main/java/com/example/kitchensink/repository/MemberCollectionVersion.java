@@ -0,0 +1,24 @@
+package com.example.kitchensink.repository;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Summary of the members collection used as a validator for listing responses: any insert,
+ * update or delete changes at least one of the document count, the sum of document versions or
+ * the latest modification time.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MemberCollectionVersion {
+
+  private long count;
+
+  private long versionSum;
+
+  private Instant lastModified;
+
+}
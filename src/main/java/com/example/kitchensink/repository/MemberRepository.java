@@ -1,19 +1,19 @@
 package com.example.kitchensink.repository;
 
 import com.example.kitchensink.entity.MemberDocument;
-import java.util.List;
 import java.util.Optional;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReadPreference;
 import org.springframework.stereotype.Repository;
 
+/**
+ * Primary-only access to members, for authentication and read-your-own-write paths. Reads that
+ * tolerate staleness go through {@code MemberService} with a secondary read preference.
+ */
 @Repository
+@ReadPreference("primary")
 public interface MemberRepository extends MongoRepository<MemberDocument, String> {
 
-  default List<MemberDocument> findAllOrderedByName() {
-    return findAll(Sort.by(Sort.Direction.ASC, "name"));
-  }
-
   Optional<MemberDocument> findByEmail(String email);
 
 }
@@ -0,0 +1,43 @@
+package com.example.kitchensink.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * The member change sequence: a counter in the {@code counters} collection, incremented
+ * atomically, so every member write and tombstone gets a position in the change feed that no
+ * other write on any node shares. Values are unique and increasing but may have gaps.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberSequence {
+
+  static final String COLLECTION = "counters";
+
+  static final String NAME = "members";
+
+  private final MongoTemplate mongoTemplate;
+
+  /** Allocates the next sequence value. */
+  public long next() {
+    return reserve(1);
+  }
+
+  /**
+   * Allocates {@code count} consecutive sequence values in one round trip.
+   *
+   * @return the first of them
+   */
+  public long reserve(long count) {
+    Document counter = mongoTemplate.findAndModify(
+        Query.query(Criteria.where("_id").is(NAME)), new Update().inc("seq", count),
+        FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COLLECTION);
+    return counter.get("seq", Number.class).longValue() - count + 1;
+  }
+}
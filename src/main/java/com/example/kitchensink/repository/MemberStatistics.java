@@ -0,0 +1,314 @@
+package com.example.kitchensink.repository;
+
+import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.lifecycle.BackgroundWork;
+import com.example.kitchensink.model.MemberStats;
+import jakarta.annotation.PreDestroy;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Member counts for the dashboard, kept in one document of the {@code member_stats} collection
+ * so reading them is a single lookup by ID. Every member create, delete, role change and first
+ * password is applied to it with an atomic {@code $inc}, from whichever node made the write.
+ * <p>
+ * A failed increment is only logged, and a bulk change does not say which members it touched, so
+ * the counts can drift. They are recomputed from the members collection, in batches by ID, every
+ * {@code kitchensink.member-stats.reconcile-interval}, after each bulk change on this node, and at
+ * startup if there are none yet. Every increment also bumps a {@code writes} counter, and a
+ * reconciliation only replaces the counts if that counter has not moved since its scan began, so
+ * it never overwrites increments made meanwhile; it scans again instead, a few times at most.
+ * <p>
+ * Roles are not restricted to a fixed set, so they are percent-encoded into field names: a dot
+ * would otherwise nest the count a level deeper and a leading {@code $} would be rejected. Members
+ * without a role are counted under {@value #NO_ROLE}.
+ */
+@Component
+@Slf4j
+public class MemberStatistics implements BackgroundWork {
+
+  static final String COLLECTION = "member_stats";
+
+  static final String ID = "members";
+
+  static final String NO_ROLE = "(none)";
+
+  static final int RECONCILE_ATTEMPTS = 3;
+
+  private final MongoTemplate mongoTemplate;
+
+  private final ScheduledExecutorService reconciler = Executors.newSingleThreadScheduledExecutor(
+      Thread.ofPlatform().daemon().name("member-stats").factory());
+
+  @Value("${kitchensink.member-stats.reconcile-interval:1h}")
+  private Duration reconcileInterval = Duration.ofHours(1);
+
+  @Value("${kitchensink.member-stats.reconcile-batch-size:1000}")
+  private int batchSize = 1000;
+
+  public MemberStatistics(MongoTemplate mongoTemplate) {
+    this.mongoTemplate = mongoTemplate;
+  }
+
+  /** Counts a new member. */
+  public void created(MemberDocument member) {
+    Update update = new Update().inc("total", 1).inc(byRole(member.getRole()), 1)
+        .inc("signupsPerDay." + day(member.getCreatedAt()), 1);
+    if (member.getPassword() == null) {
+      update.inc("withoutPassword", 1);
+    }
+    increment(update);
+  }
+
+  /**
+   * Uncounts a deleted member.
+   *
+   * @param member the member as it was before the delete; at least its role, password and
+   *     creation time
+   */
+  public void deleted(MemberDocument member) {
+    Update update = new Update().inc("total", -1).inc(byRole(member.getRole()), -1);
+    if (member.getCreatedAt() != null) {
+      update.inc("signupsPerDay." + day(member.getCreatedAt()), -1);
+    }
+    if (member.getPassword() == null) {
+      update.inc("withoutPassword", -1);
+    }
+    increment(update);
+  }
+
+  /** Moves a member from one role's count to another's. */
+  public void roleChanged(String from, String to) {
+    increment(new Update().inc(byRole(from), -1).inc(byRole(to), 1));
+  }
+
+  /** Counts a member added without a password who has now set one. */
+  public void passwordSet() {
+    increment(new Update().inc("withoutPassword", -1));
+  }
+
+  /**
+   * Returns the current counts, or empty counts if none have been computed yet.
+   */
+  public MemberStats read() {
+    Document stats = mongoTemplate.findById(ID, Document.class, COLLECTION);
+    if (stats == null) {
+      return new MemberStats(0, Map.of(), 0, Map.of(), null);
+    }
+    Date reconciledAt = stats.getDate("reconciledAt");
+    Map<String, Long> byRole = new HashMap<>();
+    counts(stats, "byRole").forEach((key, count) -> byRole.put(
+        key.equals(NO_ROLE) ? key : URLDecoder.decode(key, StandardCharsets.UTF_8), count));
+    return new MemberStats(count(stats, "total"), byRole,
+        count(stats, "withoutPassword"), new TreeMap<>(counts(stats, "signupsPerDay")),
+        reconciledAt != null ? reconciledAt.toInstant() : null);
+  }
+
+  /**
+   * Recomputes every count by reading the role, password and creation time of all members, one
+   * batch at a time, and replaces the stored counts with the result unless they were incremented
+   * during the scan. Gives up after {@value #RECONCILE_ATTEMPTS} scans that each raced an
+   * increment, leaving the incremented counts in place for the next reconciliation.
+   */
+  public void reconcile() {
+    for (int attempt = 1; attempt <= RECONCILE_ATTEMPTS; attempt++) {
+      Document before = mongoTemplate.findById(ID, Document.class, COLLECTION);
+      long writes = before != null ? count(before, "writes") : 0;
+      Counts counts = recount();
+      if (replace(counts, writes)) {
+        log.info("Member statistics reconciled: {} members", counts.total());
+        return;
+      }
+      log.debug("Member statistics changed during reconciliation attempt {}", attempt);
+    }
+    log.warn("Member statistics not reconciled: they changed during each of {} recounts",
+        RECONCILE_ATTEMPTS);
+  }
+
+  private Counts recount() {
+    long total = 0;
+    long withoutPassword = 0;
+    Map<String, Long> byRole = new HashMap<>();
+    Map<String, Long> signupsPerDay = new HashMap<>();
+    String lastId = null;
+    while (true) {
+      Query query = (lastId == null ? new Query() : Query.query(Criteria.where("id").gt(lastId)))
+          .with(Sort.by(Sort.Direction.ASC, "id"))
+          .limit(batchSize);
+      query.fields().include("role", "password", "createdAt");
+      List<MemberDocument> batch = mongoTemplate.find(query, MemberDocument.class);
+      for (MemberDocument member : batch) {
+        total++;
+        byRole.merge(roleKey(member.getRole()), 1L, Long::sum);
+        if (member.getCreatedAt() != null) {
+          signupsPerDay.merge(day(member.getCreatedAt()), 1L, Long::sum);
+        }
+        if (member.getPassword() == null) {
+          withoutPassword++;
+        }
+      }
+      if (batch.size() < batchSize) {
+        break;
+      }
+      lastId = batch.get(batch.size() - 1).getId();
+    }
+    return new Counts(total, byRole, withoutPassword, signupsPerDay);
+  }
+
+  /**
+   * Stores the counts if the document still has the given number of writes. A document that has
+   * moved on no longer matches, and the upsert then collides with it on {@code _id}.
+   */
+  private boolean replace(Counts counts, long writes) {
+    Criteria unchanged = writes == 0
+        ? new Criteria().orOperator(Criteria.where("writes").exists(false),
+            Criteria.where("writes").is(0))
+        : Criteria.where("writes").is(writes);
+    try {
+      mongoTemplate.upsert(Query.query(Criteria.where("_id").is(ID).andOperator(unchanged)),
+          new Update()
+              .set("total", counts.total())
+              .set("byRole", new Document(new HashMap<>(counts.byRole())))
+              .set("withoutPassword", counts.withoutPassword())
+              .set("signupsPerDay", new Document(new HashMap<>(counts.signupsPerDay())))
+              .set("reconciledAt", Instant.now()), COLLECTION);
+      return true;
+    } catch (DuplicateKeyException e) {
+      return false;
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    reconciler.execute(() -> {
+      if (!mongoTemplate.exists(Query.query(Criteria.where("_id").is(ID)), COLLECTION)) {
+        reconcileQuietly();
+      }
+    });
+    if (reconcileInterval.isPositive()) {
+      reconciler.scheduleWithFixedDelay(this::reconcileQuietly, reconcileInterval.toMillis(),
+          reconcileInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /** A bulk change does not say which members it touched, so recount them all. */
+  @EventListener
+  public void onMemberChanged(MemberChangedEvent event) {
+    if (event.getType() == MemberChangedEvent.Type.BULK) {
+      try {
+        reconciler.execute(this::reconcileQuietly);
+      } catch (RejectedExecutionException e) {
+        log.info("Not recounting member statistics after a bulk change; shutting down");
+      }
+    }
+  }
+
+  /** Cancels the periodic recount and lets one that is queued or running finish. */
+  @Override
+  public boolean flush(Duration timeout) throws InterruptedException {
+    reconciler.shutdown();
+    return reconciler.awaitTermination(timeout.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    reconciler.shutdownNow();
+  }
+
+  private void increment(Update update) {
+    try {
+      mongoTemplate.upsert(Query.query(Criteria.where("_id").is(ID)), update.inc("writes", 1),
+          COLLECTION);
+    } catch (DataAccessException e) {
+      // The member write already succeeded; the next reconciliation corrects the counts
+      log.warn("Could not update member statistics: {}", e.getMessage());
+    }
+  }
+
+  private void reconcileQuietly() {
+    try {
+      reconcile();
+    } catch (RuntimeException e) {
+      log.warn("Member statistics reconciliation failed: {}", e.getMessage());
+    }
+  }
+
+  private record Counts(long total, Map<String, Long> byRole, long withoutPassword,
+      Map<String, Long> signupsPerDay) {
+  }
+
+  private static String byRole(String role) {
+    return "byRole." + roleKey(role);
+  }
+
+  /**
+   * Escapes everything but letters, digits, {@code _} and {@code -}, so the key has no dot and no
+   * {@code $}, and no role can produce {@link #NO_ROLE}.
+   */
+  static String roleKey(String role) {
+    if (role == null) {
+      return NO_ROLE;
+    }
+    StringBuilder key = new StringBuilder(role.length());
+    for (byte b : role.getBytes(StandardCharsets.UTF_8)) {
+      char c = (char) (b & 0xff);
+      if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+          || c == '_' || c == '-') {
+        key.append(c);
+      } else {
+        key.append('%').append(String.format("%02X", b & 0xff));
+      }
+    }
+    return key.toString();
+  }
+
+  private static String day(Instant instant) {
+    return LocalDate.ofInstant(instant != null ? instant : Instant.now(), ZoneOffset.UTC).toString();
+  }
+
+  private static long count(Document stats, String field) {
+    Number value = stats.get(field, Number.class);
+    return value != null ? value.longValue() : 0;
+  }
+
+  private static Map<String, Long> counts(Document stats, String field) {
+    Map<String, Long> counts = new HashMap<>();
+    Document values = stats.get(field, Document.class);
+    if (values != null) {
+      values.forEach((key, value) -> {
+        long count = ((Number) value).longValue();
+        if (count > 0) {
+          counts.put(key, count);
+        }
+      });
+    }
+    return counts;
+  }
+}
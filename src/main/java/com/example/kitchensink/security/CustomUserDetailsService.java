@@ -27,17 +27,13 @@ public class CustomUserDetailsService implements UserDetailsService {
 
   @Override
   public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-    // Log the email being used for authentication
-    log.info("Attempting to authenticate email: {}", email);
-
     // Find user by email
     MemberDocument memberDocument = memberRepository.findByEmail(email)
         .orElseThrow(
             () -> new UsernameNotFoundException("User not found with email: " + email));
 
-    log.info("User found: {}", memberDocument.getEmail());
-    log.info("User role: {}", memberDocument.getRole());
-    log.info("User password: {}", memberDocument.getPassword() != null ? "Present" : "Missing");
+    // Runs on every authenticated request, so keep it at DEBUG and free of personal data
+    log.debug("Loaded user details for member {}", memberDocument.getId());
 
     // Use the role as is (it should already have ROLE_ prefix)
     Set<GrantedAuthority> authorities = Collections.singleton(
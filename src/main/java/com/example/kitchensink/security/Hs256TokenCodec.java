@@ -0,0 +1,414 @@
+package com.example.kitchensink.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Mints and verifies the HS256 tokens {@link JwtTokenService} issues, without JJWT's per-token
+ * claim maps, Jackson round trips, key objects and {@code Mac} instances.
+ * <p>
+ * Only the exact shape JJWT produces for this application is handled: the header
+ * {@code {"alg":"HS256"}} and a flat payload of {@code role}, {@code sub}, {@code iat} and
+ * {@code exp}, in that order, with ASCII string values that need no JSON escaping. Minted tokens
+ * are byte-for-byte what JJWT would produce for the same claims. Anything else (another header,
+ * another claim, an escape, a bad signature, an expired token) is left to JJWT by returning
+ * false or null, so failures are reported exactly as before.
+ * <p>
+ * {@code Mac} instances and scratch buffers are pooled rather than thread-local, because requests
+ * run on short-lived virtual threads.
+ */
+final class Hs256TokenCodec {
+
+    /** The claims of a verified token. Times are in seconds since the epoch. */
+    record TokenClaims(String subject, String role, long issuedAt, long expiresAt) {
+    }
+
+    /** Base64URL of {@code {"alg":"HS256"}}, as JJWT writes it. */
+    static final String HEADER = "eyJhbGciOiJIUzI1NiJ9";
+
+    private static final int SIGNATURE_BYTES = 32;
+
+    private static final int SIGNATURE_CHARS = 43;
+
+    // Far longer than any token this application issues; longer ones go to JJWT
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
+    private static final byte[] ENCODE =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] DECODE = new byte[128];
+
+    static {
+        Arrays.fill(DECODE, (byte) -1);
+        for (int i = 0; i < ENCODE.length; i++) {
+            DECODE[ENCODE[i]] = (byte) i;
+        }
+    }
+
+    private final SecretKeySpec key;
+
+    private final Queue<Signer> pool = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    private final int maxPooled = Runtime.getRuntime().availableProcessors() * 4;
+
+    Hs256TokenCodec(byte[] secret) {
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        // Fail at construction rather than on the first token if HmacSHA256 is unavailable
+        release(new Signer(key));
+    }
+
+    /**
+     * Whether {@link #encode} can mint a token for these claims; if not, mint it with JJWT.
+     */
+    static boolean canEncode(String subject, String role) {
+        return subject != null && isPlain(subject) && (role == null || isPlain(role));
+    }
+
+    /**
+     * Mints a token for claims {@link #canEncode} accepted.
+     *
+     * @param issuedAt seconds since the epoch
+     * @param expiresAt seconds since the epoch
+     */
+    String encode(String subject, String role, long issuedAt, long expiresAt) {
+        Signer signer = acquire();
+        try {
+            byte[] payload = signer.payload;
+            int length = 0;
+            payload[length++] = '{';
+            if (role != null) {
+                length = putString(payload, length, "role", role);
+                payload[length++] = ',';
+            }
+            length = putString(payload, length, "sub", subject);
+            payload[length++] = ',';
+            length = putLong(payload, length, "iat", issuedAt);
+            payload[length++] = ',';
+            length = putLong(payload, length, "exp", expiresAt);
+            payload[length++] = '}';
+
+            int signedLength = HEADER.length() + 1 + encodedLength(length);
+            byte[] token = new byte[signedLength + 1 + SIGNATURE_CHARS];
+            ascii(HEADER, token, 0);
+            token[HEADER.length()] = '.';
+            encode(payload, length, token, HEADER.length() + 1);
+            signer.mac.update(token, 0, signedLength);
+            signer.mac.doFinal(signer.digest, 0);
+            token[signedLength] = '.';
+            encode(signer.digest, SIGNATURE_BYTES, token, signedLength + 1);
+            return new String(token, StandardCharsets.ISO_8859_1);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            release(signer);
+        }
+    }
+
+    /**
+     * Verifies a token and returns its claims, or null if it is not one this codec handles or is
+     * not valid at {@code nowMillis}; verify those with JJWT to get the reason.
+     */
+    TokenClaims decode(String token, long nowMillis) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH || !token.startsWith(HEADER)
+                || token.length() <= HEADER.length() || token.charAt(HEADER.length()) != '.') {
+            return null;
+        }
+        int signatureStart = token.length() - SIGNATURE_CHARS;
+        int payloadStart = HEADER.length() + 1;
+        if (signatureStart <= payloadStart || token.charAt(signatureStart - 1) != '.') {
+            return null;
+        }
+        int signedLength = signatureStart - 1;
+
+        Signer signer = acquire();
+        try {
+            byte[] signed = signer.signed(signedLength);
+            for (int i = 0; i < signedLength; i++) {
+                char c = token.charAt(i);
+                if (c >= 128) {
+                    return null;
+                }
+                signed[i] = (byte) c;
+            }
+            if (decode(token, signatureStart, token.length(), signer.expected, 0) != SIGNATURE_BYTES) {
+                return null;
+            }
+            signer.mac.update(signed, 0, signedLength);
+            signer.mac.doFinal(signer.digest, 0);
+            if (!MessageDigest.isEqual(signer.digest, signer.expected)) {
+                return null;
+            }
+
+            byte[] payload = signer.payload(signedLength);
+            int length = decode(token, payloadStart, signedLength, payload, 0);
+            if (length < 0) {
+                return null;
+            }
+            TokenClaims claims = parse(payload, length);
+            if (claims == null || nowMillis > claims.expiresAt() * 1000) {
+                return null;
+            }
+            return claims;
+        } catch (GeneralSecurityException e) {
+            return null;
+        } finally {
+            release(signer);
+        }
+    }
+
+    /**
+     * Reads the flat claims object JJWT writes for this application. Returns null for duplicate or
+     * unknown claims, escapes, non-ASCII strings, non-integer times and a missing expiry.
+     */
+    private static TokenClaims parse(byte[] json, int length) {
+        String subject = null;
+        String role = null;
+        long issuedAt = -1;
+        long expiresAt = -1;
+        int i = 0;
+        if (length < 2 || json[i++] != '{' || json[length - 1] != '}') {
+            return null;
+        }
+        while (i < length - 1) {
+            if (json[i++] != '"') {
+                return null;
+            }
+            int nameEnd = stringEnd(json, i, length);
+            if (nameEnd < 0 || nameEnd + 1 >= length || json[nameEnd + 1] != ':') {
+                return null;
+            }
+            String name = new String(json, i, nameEnd - i, StandardCharsets.ISO_8859_1);
+            i = nameEnd + 2;
+            switch (name) {
+                case "sub", "role" -> {
+                    if (json[i++] != '"') {
+                        return null;
+                    }
+                    int valueEnd = stringEnd(json, i, length);
+                    if (valueEnd < 0 || (name.equals("sub") ? subject : role) != null) {
+                        return null;
+                    }
+                    String value = new String(json, i, valueEnd - i, StandardCharsets.ISO_8859_1);
+                    if (name.equals("sub")) {
+                        subject = value;
+                    } else {
+                        role = value;
+                    }
+                    i = valueEnd + 1;
+                }
+                case "iat", "exp" -> {
+                    int start = i;
+                    long value = 0;
+                    while (i < length && json[i] >= '0' && json[i] <= '9' && i - start < 18) {
+                        value = value * 10 + (json[i++] - '0');
+                    }
+                    if (i == start || (name.equals("iat") ? issuedAt : expiresAt) >= 0) {
+                        return null;
+                    }
+                    if (name.equals("iat")) {
+                        issuedAt = value;
+                    } else {
+                        expiresAt = value;
+                    }
+                }
+                default -> {
+                    return null;
+                }
+            }
+            if (json[i] == ',' && i + 1 < length - 1) {
+                i++;
+            } else if (i != length - 1) {
+                return null;
+            }
+        }
+        return expiresAt >= 0 ? new TokenClaims(subject, role, issuedAt, expiresAt) : null;
+    }
+
+    /** Index of the closing quote of a plain string starting at {@code from}, or -1. */
+    private static int stringEnd(byte[] json, int from, int length) {
+        for (int i = from; i < length; i++) {
+            byte b = json[i];
+            if (b == '"') {
+                return i;
+            }
+            if (b == '\\' || b < 0x20) {
+                // Escapes and non-ASCII bytes (negative) are left to JJWT
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isPlain(String value) {
+        if (value.length() > 512) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c >= 0x7f || c == '"' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int putString(byte[] out, int at, String name, String value) {
+        at = putName(out, at, name);
+        out[at++] = '"';
+        at = ascii(value, out, at);
+        out[at++] = '"';
+        return at;
+    }
+
+    private static int putLong(byte[] out, int at, String name, long value) {
+        at = putName(out, at, name);
+        return ascii(Long.toString(value), out, at);
+    }
+
+    private static int putName(byte[] out, int at, String name) {
+        out[at++] = '"';
+        at = ascii(name, out, at);
+        out[at++] = '"';
+        out[at++] = ':';
+        return at;
+    }
+
+    private static int ascii(String value, byte[] out, int at) {
+        for (int i = 0; i < value.length(); i++) {
+            out[at++] = (byte) value.charAt(i);
+        }
+        return at;
+    }
+
+    private static int encodedLength(int bytes) {
+        return bytes / 3 * 4 + (bytes % 3 == 0 ? 0 : bytes % 3 + 1);
+    }
+
+    /** Unpadded Base64URL of {@code src[0, length)} into {@code dst} at {@code at}. */
+    private static void encode(byte[] src, int length, byte[] dst, int at) {
+        int i = 0;
+        for (; i + 3 <= length; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[at++] = ENCODE[bits >>> 18];
+            dst[at++] = ENCODE[bits >>> 12 & 0x3f];
+            dst[at++] = ENCODE[bits >>> 6 & 0x3f];
+            dst[at++] = ENCODE[bits & 0x3f];
+        }
+        if (i < length) {
+            int bits = (src[i] & 0xff) << 16 | (i + 1 < length ? (src[i + 1] & 0xff) << 8 : 0);
+            dst[at++] = ENCODE[bits >>> 18];
+            dst[at++] = ENCODE[bits >>> 12 & 0x3f];
+            if (i + 1 < length) {
+                dst[at] = ENCODE[bits >>> 6 & 0x3f];
+            }
+        }
+    }
+
+    /**
+     * Decodes unpadded Base64URL {@code src[from, to)} into {@code dst} at {@code at}. Returns the
+     * number of bytes written, or -1 if the input is not canonical Base64URL.
+     */
+    private static int decode(String src, int from, int to, byte[] dst, int at) {
+        int start = at;
+        int bits = 0;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            char c = src.charAt(i);
+            int value = c < 128 ? DECODE[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                dst[at++] = (byte) (bits >>> 16);
+                dst[at++] = (byte) (bits >>> 8);
+                dst[at++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        switch (count) {
+            case 0 -> { }
+            case 2 -> {
+                if ((bits & 0xf) != 0) {
+                    return -1;
+                }
+                dst[at++] = (byte) (bits >>> 4);
+            }
+            case 3 -> {
+                if ((bits & 0x3) != 0) {
+                    return -1;
+                }
+                dst[at++] = (byte) (bits >>> 10);
+                dst[at++] = (byte) (bits >>> 2);
+            }
+            default -> {
+                return -1;
+            }
+        }
+        return at - start;
+    }
+
+    private Signer acquire() {
+        Signer signer = pool.poll();
+        if (signer == null) {
+            return new Signer(key);
+        }
+        pooled.decrementAndGet();
+        return signer;
+    }
+
+    private void release(Signer signer) {
+        if (pooled.incrementAndGet() <= maxPooled) {
+            pool.offer(signer);
+        } else {
+            pooled.decrementAndGet();
+        }
+    }
+
+    /** A keyed {@code Mac} with the buffers one token needs. */
+    private static final class Signer {
+
+        private final Mac mac;
+
+        private final byte[] digest = new byte[SIGNATURE_BYTES];
+
+        private final byte[] expected = new byte[SIGNATURE_BYTES];
+
+        private byte[] signed = new byte[512];
+
+        private byte[] payload = new byte[2048];
+
+        Signer(SecretKeySpec key) {
+            try {
+                mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        }
+
+        byte[] signed(int length) {
+            if (signed.length < length) {
+                signed = new byte[length];
+            }
+            return signed;
+        }
+
+        byte[] payload(int length) {
+            if (payload.length < length) {
+                payload = new byte[length];
+            }
+            return payload;
+        }
+    }
+}
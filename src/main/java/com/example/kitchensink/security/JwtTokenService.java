@@ -7,12 +7,20 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.example.kitchensink.security.Hs256TokenCodec.TokenClaims;
+
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the access and refresh tokens. Tokens of the usual shape are minted and
+ * verified by {@link Hs256TokenCodec}; anything else, including every token that fails
+ * verification, goes through JJWT.
+ */
 @Service
 @Slf4j
 public class JwtTokenService {
@@ -26,8 +34,25 @@ public class JwtTokenService {
     @Value("${jwt.refresh.token.expiration}")
     private Long refreshTokenExpiration;
 
+    // Built on first use, since the secret is injected after construction
+    private volatile Signing signing;
+
+    /** The key for the current secret, and the codec that signs with it. */
+    private record Signing(String secret, Key key, Hs256TokenCodec codec) {
+    }
+
+    private Signing signing() {
+        Signing current = signing;
+        if (current == null || !current.secret().equals(secretKey)) {
+            Key key = Keys.hmacShaKeyFor(secretKey.getBytes());
+            current = new Signing(secretKey, key, new Hs256TokenCodec(key.getEncoded()));
+            signing = current;
+        }
+        return current;
+    }
+
     private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        return signing().key();
     }
 
     public String generateAccessToken(String username, String role) {
@@ -39,33 +64,42 @@ public class JwtTokenService {
     }
 
     private String generateToken(String username, String role, long expiration) {
+        long now = System.currentTimeMillis();
+        if (Hs256TokenCodec.canEncode(username, role)) {
+            // JJWT writes times in whole seconds
+            return signing().codec().encode(username, role, now / 1000, (now + expiration) / 1000);
+        }
         Map<String, Object> claims = new HashMap<>();
         if (role != null) {
             claims.put("role", role);
         }
-        return createToken(claims, username, expiration);
+        return createToken(claims, username, now, expiration);
     }
 
-    private String createToken(Map<String, Object> claims, String subject, long expiration) {
+    private String createToken(Map<String, Object> claims, String subject, long now, long expiration) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiration))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        TokenClaims claims = verified(token);
+        return claims != null ? claims.subject() : extractClaim(token, Claims::getSubject);
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        TokenClaims claims = verified(token);
+        return claims != null ? claims.role() : extractClaim(token, c -> c.get("role", String.class));
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        TokenClaims claims = verified(token);
+        return claims != null
+                ? new Date(claims.expiresAt() * 1000) : extractClaim(token, Claims::getExpiration);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -91,6 +125,9 @@ public class JwtTokenService {
     }
 
     public Boolean isTokenValid(String token) {
+        if (verified(token) != null) {
+            return true;
+        }
         try {
             Jwts.parserBuilder()
                     .setSigningKey(getSigningKey())
@@ -103,6 +140,38 @@ public class JwtTokenService {
         }
     }
 
+    /**
+     * Verifies a token once and returns its claims.
+     *
+     * @return the claims, or null if the token is malformed, forged, expired or has no expiry
+     */
+    public VerifiedToken verify(String token) {
+        TokenClaims claims = verified(token);
+        if (claims != null) {
+            return new VerifiedToken(claims.subject(), claims.role(),
+                    Instant.ofEpochSecond(claims.expiresAt()));
+        }
+        try {
+            Claims parsed = extractAllClaims(token);
+            if (parsed.getExpiration() == null) {
+                return null;
+            }
+            return new VerifiedToken(parsed.getSubject(), parsed.get("role", String.class),
+                    parsed.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Verifies a token this application issued without going through JJWT. Returns null for any
+     * other token, and for invalid or expired ones, so that JJWT reports why as before.
+     */
+    private TokenClaims verified(String token) {
+        return signing().codec().decode(token, System.currentTimeMillis());
+    }
+
     public Long getAccessTokenExpiration() {
         return accessTokenExpiration;
     }
@@ -0,0 +1,11 @@
+package com.example.kitchensink.security;
+
+import java.time.Instant;
+
+/**
+ * The claims of a token that verified and has not expired.
+ *
+ * @param role the role claim; null for refresh tokens
+ */
+public record VerifiedToken(String subject, String role, Instant expiresAt) {
+}
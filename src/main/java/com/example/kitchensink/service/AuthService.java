@@ -1,12 +1,25 @@
 package com.example.kitchensink.service;
 
 import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.mapper.MemberMapper;
 import com.example.kitchensink.model.AuthResponse;
 import com.example.kitchensink.model.SignupRequest;
 import com.example.kitchensink.repository.MemberRepository;
+import com.example.kitchensink.repository.MemberSequence;
+import com.example.kitchensink.repository.MemberStatistics;
 import com.example.kitchensink.security.JwtTokenService;
+import java.time.Instant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -16,29 +29,53 @@ import org.springframework.stereotype.Service;
 public class AuthService {
 
     private final MemberRepository memberRepository;
+    private final MongoTemplate mongoTemplate;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenService jwtTokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MemberSequence memberSequence;
+    private final MemberStatistics memberStatistics;
 
+    /**
+     * Creates the user with a single insert-if-absent upsert on the email, so there is no window
+     * between an existence check and the insert for a concurrent signup to slip through.
+     *
+     * @throws RuntimeException if a member with the email already exists
+     */
     public AuthResponse registerUser(SignupRequest request) {
-        // Check if user already exists
-        if (memberRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new RuntimeException("User with this email already exists");
-        }
-
-        // Create new user
-        MemberDocument user = new MemberDocument();
-        user.setEmail(request.getEmail());
-        user.setName(request.getName());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
-        
         // Handle role correctly
         String role = request.getRole();
         if (role == null || role.isEmpty()) {
             role = "USER";
         }
-        user.setRole("ROLE_" + role.toUpperCase());
+        role = "ROLE_" + role.toUpperCase();
+
+        ObjectId newId = new ObjectId();
+        Query query = Query.query(Criteria.where("email").is(request.getEmail()));
+        Update update = new Update()
+                .setOnInsert("_id", newId)
+                .setOnInsert("name", request.getName())
+                .setOnInsert("password", passwordEncoder.encode(request.getPassword()))
+                .setOnInsert("role", role)
+                .setOnInsert("version", 0L)
+                .setOnInsert("createdAt", Instant.now())
+                .setOnInsert("updatedAt", Instant.now())
+                .setOnInsert("seq", memberSequence.next());
 
-        MemberDocument savedUser = memberRepository.save(user);
+        MemberDocument savedUser;
+        try {
+            savedUser = mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), MemberDocument.class);
+        } catch (DuplicateKeyException e) {
+            // A concurrent signup for the same email inserted first
+            throw new RuntimeException("User with this email already exists");
+        }
+        // An existing member matched the query, so nothing was inserted
+        if (savedUser == null || !newId.toHexString().equals(savedUser.getId())) {
+            throw new RuntimeException("User with this email already exists");
+        }
+        memberStatistics.created(savedUser);
+        eventPublisher.publishEvent(MemberChangedEvent.created(MemberMapper.INSTANCE.memberEntityToMember(savedUser)));
 
         // Generate tokens
         String accessToken = jwtTokenService.generateAccessToken(savedUser.getEmail(), savedUser.getRole());
@@ -0,0 +1,61 @@
+package com.example.kitchensink.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+/**
+ * Position in the member change feed: the sequence value and ID of the last change returned (IDs
+ * break ties between members changed by the same bulk operation), and when the cursor was issued.
+ * Sent to clients as an opaque URL-safe string.
+ */
+record ChangeCursor(long seq, String id, Instant issuedAt) {
+
+  /** Before every change: a full sync. */
+  static final ChangeCursor START = new ChangeCursor(0, "", null);
+
+  /** The feed order, matching the {@code seq_id} indexes. */
+  static final Sort ORDER = Sort.by(Sort.Direction.ASC, "seq").and(Sort.by(Sort.Direction.ASC, "id"));
+
+  /** Matches the changes after this cursor. */
+  Criteria after() {
+    if (this == START) {
+      return Criteria.where("seq").gt(0L);
+    }
+    return new Criteria().orOperator(
+        Criteria.where("seq").gt(seq),
+        Criteria.where("seq").is(seq).and("id").gt(id));
+  }
+
+  ChangeCursor reissue(Instant now) {
+    return new ChangeCursor(seq, id, now);
+  }
+
+  String encode() {
+    String value = seq + ":" + issuedAt.toEpochMilli() + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @throws IllegalArgumentException if {@code cursor} was not produced by {@link #encode()}
+   */
+  static ChangeCursor parse(String cursor) {
+    try {
+      String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+          .split(":", 3);
+      return new ChangeCursor(Long.parseLong(parts[0]),
+          parts[2], Instant.ofEpochMilli(Long.parseLong(parts[1])));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid change cursor: " + cursor);
+    }
+  }
+
+  /** Orders two changes the way {@link #ORDER} does. */
+  static int compare(long seq, String id, long otherSeq, String otherId) {
+    int bySeq = Long.compare(seq, otherSeq);
+    return bySeq != 0 ? bySeq : id.compareTo(otherId);
+  }
+}
@@ -1,16 +1,80 @@
 package com.example.kitchensink.service;
 
+import com.example.kitchensink.cache.MemberCaches;
 import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.entity.MemberTombstone;
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.exception.CursorExpiredException;
 import com.example.kitchensink.mapper.MemberMapper;
+import com.example.kitchensink.model.BulkMutateRequest;
+import com.example.kitchensink.model.BulkMutateResult;
 import com.example.kitchensink.model.Member;
+import com.example.kitchensink.model.MemberChange;
+import com.example.kitchensink.model.MemberChanges;
+import com.example.kitchensink.model.MemberStats;
+import com.example.kitchensink.repository.MemberCollectionVersion;
 import com.example.kitchensink.repository.MemberRepository;
+import com.example.kitchensink.repository.MemberSequence;
+import com.example.kitchensink.repository.MemberStatistics;
+import com.mongodb.ReadPreference;
+import com.mongodb.bulk.BulkWriteResult;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+/**
+ * Member reads and writes.
+ * <p>
+ * Listing, lookup and search reads that may be a little stale go to a secondary when one is
+ * available ({@code secondaryPreferred}), bounded by
+ * {@code kitchensink.mongodb.secondary-reads.max-staleness}. Reads that must see the latest
+ * write stay on the primary: {@link #findById(String)} before an update or delete,
+ * {@link #findByEmail(String)} for the signed-in user's profile, and the admin table pages,
+ * which are cached until the next write.
+ * <p>
+ * The secondary reads are also served from {@link MemberCaches}, which a member change evicts.
+ * For the max staleness after a write, this node refills those caches from the primary, so an
+ * evicted entry is not reloaded from a secondary that has not replicated the write yet.
+ * <p>
+ * Every write stamps the member with the next {@link MemberSequence} value, and deletes leave a
+ * {@link MemberTombstone}, so {@link #getChanges(String, int)} can page through what changed
+ * since a cursor. Creates, deletes, role changes and first passwords are also counted in
+ * {@link MemberStatistics}.
+ */
 @Service
 @Slf4j
 public class MemberService {
@@ -18,12 +82,55 @@ public class MemberService {
   private final MemberMapper memberMapper = MemberMapper.INSTANCE;
 
   private final MemberRepository memberRepository;
+
+  private final MongoTemplate mongoTemplate;
   
   private final PasswordEncoder passwordEncoder;
 
-  public MemberService(MemberRepository memberRepository, PasswordEncoder passwordEncoder) {
+  private final ApplicationEventPublisher eventPublisher;
+
+  private final MemberCaches memberCaches;
+
+  private final MemberSequence memberSequence;
+
+  private final MemberStatistics memberStatistics;
+
+  // MongoDB rejects a max staleness below 90 seconds
+  @Value("${kitchensink.mongodb.secondary-reads.max-staleness:90s}")
+  private Duration secondaryMaxStaleness = Duration.ofSeconds(90);
+
+  // Until then cache loads go to the primary, which already has this node's latest write
+  private volatile long primaryReadsUntil = System.nanoTime();
+
+  // Change feed cursors older than this may have missed purged tombstones
+  @Value("${kitchensink.member-changes.tombstone-retention:30d}")
+  private Duration tombstoneRetention = Duration.ofDays(30);
+
+  // Longest expected gap between allocating a sequence value and its write becoming visible
+  @Value("${kitchensink.member-changes.settle-time:30s}")
+  private Duration changeSettleTime = Duration.ofSeconds(30);
+
+  /** Result of {@link #registerOrSetPassword(Member)}. */
+  public enum RegistrationOutcome {
+    /** A new member was created. */
+    CREATED,
+    /** The member existed without a password (added by an admin) and now has one. */
+    PASSWORD_SET,
+    /** The member already has a password; nothing was changed. */
+    ALREADY_REGISTERED
+  }
+
+  public MemberService(MemberRepository memberRepository, MongoTemplate mongoTemplate,
+      PasswordEncoder passwordEncoder, ApplicationEventPublisher eventPublisher,
+      MemberCaches memberCaches, MemberSequence memberSequence,
+      MemberStatistics memberStatistics) {
     this.memberRepository = memberRepository;
+    this.mongoTemplate = mongoTemplate;
     this.passwordEncoder = passwordEncoder;
+    this.eventPublisher = eventPublisher;
+    this.memberCaches = memberCaches;
+    this.memberSequence = memberSequence;
+    this.memberStatistics = memberStatistics;
   }
 
   /**
@@ -35,54 +142,169 @@ public class MemberService {
     // Normalize role and encode password
     normalizeRole(memberDocument);
     encodePasswordIfPresent(memberDocument);
-    
+    memberDocument.setSeq(memberSequence.next());
+
     memberRepository.save(memberDocument);
+    memberStatistics.created(memberDocument);
+
+    Member registered = memberMapper.memberEntityToMember(memberDocument);
+    publishChange(MemberChangedEvent.created(registered));
+    return registered;
+  }
 
-    return memberMapper.memberEntityToMember(memberDocument);
+  /**
+   * Self-service registration in one atomic upsert keyed on the email and a missing password:
+   * creates the member if the email is new, or sets the password of a member an admin created
+   * without one. If the member already has a password the query matches nothing, the upsert's
+   * insert hits the unique email index, and nothing is changed.
+   *
+   * @param member the registration form; its role is normalized and only used for new members.
+   */
+  public RegistrationOutcome registerOrSetPassword(Member member) {
+    ObjectId newId = new ObjectId();
+    Query query = Query.query(Criteria.where("email").is(member.getEmail()).and("password").is(null));
+    Update update = versioned(new Update()
+        .set("password", passwordEncoder.encode(member.getPassword())))
+        .setOnInsert("_id", newId)
+        .setOnInsert("createdAt", Instant.now())
+        .setOnInsert("name", member.getName())
+        .setOnInsert("phoneNumber", member.getPhoneNumber())
+        .setOnInsert("role", normalizeRole(member.getRole()));
+
+    MemberDocument memberDocument;
+    try {
+      memberDocument = mongoTemplate.findAndModify(query, update,
+          FindAndModifyOptions.options().upsert(true).returnNew(true), MemberDocument.class);
+    } catch (DuplicateKeyException e) {
+      return RegistrationOutcome.ALREADY_REGISTERED;
+    }
+
+    Member registered = memberMapper.memberEntityToMember(memberDocument);
+    if (newId.toHexString().equals(memberDocument.getId())) {
+      memberStatistics.created(memberDocument);
+      publishChange(MemberChangedEvent.created(registered));
+      return RegistrationOutcome.CREATED;
+    }
+    memberStatistics.passwordSet();
+    publishChange(MemberChangedEvent.updated(registered));
+    return RegistrationOutcome.PASSWORD_SET;
   }
 
+  /**
+   * Applies {@code updatedMember} to a member in a single atomic findAndModify. Only fields that
+   * differ from {@code existingMember} are {@code $set}; a blank password keeps the stored one. The
+   * write only matches the version {@code existingMember} was read at, and increments it, so the
+   * stored member is {@code existingMember} with the requested fields; the write returns only the
+   * previous password, to tell whether a first one was set.
+   *
+   * @param existingMember the member as the caller read it, including its version.
+   * @param updatedMember the requested field values.
+   * @return the member as stored after the update.
+   * @throws OptimisticLockingFailureException if the member was changed or deleted since it was read.
+   */
   public Member updateMember(Member existingMember, Member updatedMember) {
-    // Get the existing member from database to preserve the encrypted password
-    MemberDocument existingDocument = memberRepository.findById(existingMember.getId())
-        .orElseThrow(() -> new RuntimeException("Member not found with ID: " + existingMember.getId()));
-    
-    // Update the existing member's details with new values
-    existingMember.setName(updatedMember.getName());
-    existingMember.setEmail(updatedMember.getEmail());
-    existingMember.setPhoneNumber(updatedMember.getPhoneNumber());
-    
-    // Normalize role
-    String role = normalizeRole(updatedMember.getRole());
-    existingMember.setRole(role);
-    
-    // Handle password update
-    handlePasswordUpdate(existingMember, updatedMember, existingDocument);
+    Update update = new Update();
+    setIfChanged(update, "name", existingMember.getName(), updatedMember.getName());
+    setIfChanged(update, "email", existingMember.getEmail(), updatedMember.getEmail());
+    setIfChanged(update, "phoneNumber", existingMember.getPhoneNumber(), updatedMember.getPhoneNumber());
+    setIfChanged(update, "role", existingMember.getRole(), normalizeRole(updatedMember.getRole()));
+    if (StringUtils.hasText(updatedMember.getPassword())) {
+      update.set("password", passwordEncoder.encode(updatedMember.getPassword()));
+    }
+    if (update.getUpdateObject().isEmpty()) {
+      // Nothing to write; the version and ETag stay as they are
+      return existingMember;
+    }
+    boolean roleChanged = update.modifies("role");
+    boolean passwordChanged = update.modifies("password");
+    // Auditing only runs on save(), so stamp updatedAt here
+    versioned(update);
 
-    MemberDocument memberDocument = memberMapper.memberToMemberEntity(existingMember);
-    
-    // Only encrypt the password if it was updated (new password provided)
-    if (updatedMember.getPassword() != null && !updatedMember.getPassword().isEmpty()) {
-      encodePasswordIfPresent(memberDocument);
-    } else {
-      // Preserve the existing encrypted password
-      memberDocument.setPassword(existingDocument.getPassword());
+    Query query = Query.query(Criteria.where("id").is(existingMember.getId())
+        .and("version").is(existingMember.getVersion()));
+    query.fields().include("password");
+    MemberDocument previous = mongoTemplate.findAndModify(query, update,
+        FindAndModifyOptions.options().returnNew(false), MemberDocument.class);
+    if (previous == null) {
+      throw new OptimisticLockingFailureException(
+          "Member " + existingMember.getId() + " was modified or deleted concurrently");
     }
-    
-    memberRepository.save(memberDocument);
 
-    return memberMapper.memberEntityToMember(memberDocument);
+    Member updated = new Member(existingMember.getId(), updatedMember.getName(),
+        updatedMember.getEmail(), null, updatedMember.getPhoneNumber(),
+        normalizeRole(updatedMember.getRole()));
+    updated.setVersion(existingMember.getVersion() != null ? existingMember.getVersion() + 1 : 1);
+    if (roleChanged) {
+      memberStatistics.roleChanged(existingMember.getRole(), updated.getRole());
+    }
+    if (passwordChanged && previous.getPassword() == null) {
+      memberStatistics.passwordSet();
+    }
+    publishChange(MemberChangedEvent.updated(updated));
+    return updated;
   }
 
   /**
    * Retrieves all members from the database, ordered by name.
    */
   public List<Member> getAllMembers() {
-    List<MemberDocument> memberDocuments = memberRepository.findAllOrderedByName();
-    return memberMapper.memberEntityListToMemberList(memberDocuments);
+    return memberCaches.all(() -> {
+      Query query = new Query().with(Sort.by(Sort.Direction.ASC, "name"))
+          .withReadPreference(cacheLoadReads());
+      List<MemberDocument> memberDocuments = mongoTemplate.find(query, MemberDocument.class);
+      return memberMapper.memberEntityListToMemberList(memberDocuments);
+    });
   }
 
   /**
-   * Finds a member by their email.
+   * Retrieves one page of members ordered by name; the ID breaks ties so pages never overlap.
+   * Reads from the primary, since rendered pages are cached until the next write.
+   *
+   * @param page zero-based page index.
+   * @param size page size.
+   */
+  public Page<Member> getMembersPage(int page, int size) {
+    Sort sort = Sort.by(Sort.Direction.ASC, "name").and(Sort.by(Sort.Direction.ASC, "id"));
+    return memberRepository.findAll(PageRequest.of(page, size, sort))
+        .map(memberMapper::memberEntityToMember);
+  }
+
+  /**
+   * Returns the current version of the members collection, used to validate cached listings
+   * without loading them. A delete leaves no {@code updatedAt} behind, so the last modification
+   * time is the later of the newest member update and the newest tombstone.
+   *
+   * @return the collection version, or null if there are no members and no remembered deletes.
+   */
+  public MemberCollectionVersion getCollectionVersion() {
+    Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.group()
+                .count().as("count")
+                .sum(ConditionalOperators.ifNull("version").then(0)).as("versionSum")
+                .max("updatedAt").as("lastModified"))
+        .withOptions(AggregationOptions.builder().readPreference(secondaryReads()).build());
+    MemberCollectionVersion version = mongoTemplate.aggregate(aggregation, MemberDocument.class,
+        MemberCollectionVersion.class).getUniqueMappedResult();
+
+    Query latestDelete = new Query().with(Sort.by(Sort.Direction.DESC, "deletedAt")).limit(1)
+        .withReadPreference(secondaryReads());
+    latestDelete.fields().include("deletedAt");
+    MemberTombstone tombstone = mongoTemplate.findOne(latestDelete, MemberTombstone.class);
+    Instant deletedAt = tombstone != null ? tombstone.getDeletedAt() : null;
+    if (deletedAt == null) {
+      return version;
+    }
+    if (version == null) {
+      return new MemberCollectionVersion(0, 0, deletedAt);
+    }
+    if (version.getLastModified() == null || deletedAt.isAfter(version.getLastModified())) {
+      version.setLastModified(deletedAt);
+    }
+    return version;
+  }
+
+  /**
+   * Finds a member by their email on the primary.
    *
    * @param email the email of the member to search for.
    * @return an Optional containing the found member or an empty Optional if no member is found.
@@ -92,18 +314,22 @@ public class MemberService {
   }
 
   /**
-   * Finds a member by their email and returns the Member model.
+   * Finds a member by their email and returns the Member model, preferring a secondary.
    *
    * @param email the email of the member to search for.
    * @return the found member, or null if no member is found.
    */
   public Member findMemberByEmail(String email) {
-    Optional<MemberDocument> memberDocument = memberRepository.findByEmail(email);
-    return memberDocument.map(memberMapper::memberEntityToMember).orElse(null);
+    return memberCaches.byEmail(email, key -> {
+      Query query = Query.query(Criteria.where("email").is(key))
+          .withReadPreference(cacheLoadReads());
+      MemberDocument memberDocument = mongoTemplate.findOne(query, MemberDocument.class);
+      return memberDocument != null ? memberMapper.memberEntityToMember(memberDocument) : null;
+    });
   }
 
   /**
-   * Finds a member by their ID.
+   * Finds a member by their ID on the primary, uncached, for callers about to update or delete it.
    *
    * @param id the ID of the member to search for.
    * @return the found member, or null if no member is found.
@@ -113,12 +339,190 @@ public class MemberService {
     return memberDocument != null ? memberMapper.memberEntityToMember(memberDocument) : null;
   }
 
+  /**
+   * Finds a member by their ID for display, preferring a secondary.
+   *
+   * @param id the ID of the member to search for.
+   * @return the found member, or null if no member is found.
+   */
+  public Member lookupById(String id) {
+    return memberCaches.byId(id, key -> {
+      Query query = Query.query(Criteria.where("id").is(key)).withReadPreference(cacheLoadReads());
+      MemberDocument memberDocument = mongoTemplate.findOne(query, MemberDocument.class);
+      return memberDocument != null ? memberMapper.memberEntityToMember(memberDocument) : null;
+    });
+  }
+
+  /**
+   * Finds the members with the given IDs in one {@code $in} query, preferring a secondary. The
+   * password is not read.
+   *
+   * @param ids the member IDs; duplicates and unknown IDs are allowed.
+   * @return the members found, keyed by ID.
+   */
+  public Map<String, Member> findAllByIds(Collection<String> ids) {
+    return findAllIn("id", ids, Member::getId);
+  }
+
+  /**
+   * Finds the members with the given emails in one {@code $in} query, preferring a secondary. The
+   * password is not read.
+   *
+   * @param emails the member emails; duplicates and unknown emails are allowed.
+   * @return the members found, keyed by email.
+   */
+  public Map<String, Member> findAllByEmails(Collection<String> emails) {
+    return findAllIn("email", emails, Member::getEmail);
+  }
+
+  /**
+   * Applies the request's operations to the members collection in a single {@code bulkWrite}: one
+   * {@code updateMany} or {@code deleteMany} per operation. Updated members get a new version, so
+   * their ETags change. One bulk change event is published for the whole request, which clears
+   * the member caches in one pass.
+   *
+   * @param request the operations, and whether they are ordered.
+   * @param protectedEmail a member no operation may touch (the caller's own account), or null.
+   * @return the totals and the outcome of each operation.
+   */
+  public BulkMutateResult bulkMutate(BulkMutateRequest request, String protectedEmail) {
+    List<BulkMutateRequest.Operation> operations = request.getOperations();
+    BulkOperations bulk = mongoTemplate.bulkOps(
+        request.isOrdered() ? BulkOperations.BulkMode.ORDERED : BulkOperations.BulkMode.UNORDERED,
+        MemberDocument.class);
+    Set<String> deleteCandidates = new HashSet<>();
+    for (BulkMutateRequest.Operation operation : operations) {
+      Criteria target = bulkTarget(operation, protectedEmail);
+      switch (operation.getAction()) {
+        case SET_ROLE -> bulk.updateMulti(Query.query(target), versioned(
+            new Update().set("role", normalizeRole(operation.getRole()))));
+        case SET_PHONE -> bulk.updateMulti(Query.query(target), versioned(
+            new Update().set("phoneNumber", operation.getPhoneNumber())));
+        case DELETE -> {
+          // Only delete members found here, so each one deleted gets a tombstone
+          List<String> ids = findIds(target);
+          deleteCandidates.addAll(ids);
+          bulk.remove(Query.query(new Criteria().andOperator(target, Criteria.where("id").in(ids))));
+        }
+      }
+    }
+
+    BulkWriteResult writeResult;
+    Map<Integer, String> errors = new HashMap<>();
+    try {
+      writeResult = bulk.execute();
+    } catch (BulkOperationException e) {
+      writeResult = e.getResult();
+      e.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+    } finally {
+      if (!deleteCandidates.isEmpty()) {
+        List<String> remaining = findIds(Criteria.where("id").in(deleteCandidates));
+        remaining.forEach(deleteCandidates::remove);
+        recordDeletes(deleteCandidates);
+      }
+      publishChange(MemberChangedEvent.bulk());
+    }
+
+    int firstError = errors.keySet().stream().min(Integer::compare).orElse(Integer.MAX_VALUE);
+    List<BulkMutateResult.OperationResult> results = new ArrayList<>();
+    for (int index = 0; index < operations.size(); index++) {
+      BulkMutateResult.Status status = errors.containsKey(index) ? BulkMutateResult.Status.FAILED
+          : request.isOrdered() && index > firstError ? BulkMutateResult.Status.SKIPPED
+          : BulkMutateResult.Status.APPLIED;
+      results.add(new BulkMutateResult.OperationResult(index, status, errors.get(index)));
+    }
+    log.info("Bulk mutation of {} operations: {} matched, {} modified, {} deleted",
+        operations.size(), writeResult.getMatchedCount(), writeResult.getModifiedCount(),
+        writeResult.getDeletedCount());
+    return new BulkMutateResult(writeResult.getMatchedCount(), writeResult.getModifiedCount(),
+        writeResult.getDeletedCount(), results);
+  }
+
   public void deleteById(String id) {
     if (!StringUtils.hasText(id)) {
       log.error("Attempted to find a member with a null or empty ID.");
       throw new IllegalArgumentException("ID cannot be null or empty.");
     }
-    memberRepository.deleteById(id);
+    Query query = Query.query(Criteria.where("id").is(id));
+    query.fields().include("email", "role", "password", "createdAt");
+    MemberDocument deleted = mongoTemplate.findAndRemove(query, MemberDocument.class);
+    if (deleted == null) {
+      // Already gone; whoever deleted it recorded the change
+      return;
+    }
+    memberStatistics.deleted(deleted);
+    mongoTemplate.save(new MemberTombstone(id, memberSequence.next(), Instant.now()));
+    publishChange(MemberChangedEvent.deleted(id, deleted.getEmail()));
+  }
+
+  /**
+   * Returns the members created, updated or deleted after {@code since}, oldest change first. A
+   * member changed several times appears once, at its latest change. Reads from the primary.
+   * <p>
+   * A sequence value is allocated just before its write, so a lower one can become visible after
+   * a higher one. The page therefore stops before changes written within the last
+   * {@code kitchensink.member-changes.settle-time}; they are returned by a later call.
+   *
+   * @param since a cursor from an earlier response, or null to start with every current member.
+   * @param limit the most changes to return.
+   * @throws IllegalArgumentException if the cursor is malformed.
+   * @throws CursorExpiredException if the cursor is older than the tombstone retention.
+   */
+  public MemberChanges getChanges(String since, int limit) {
+    Instant now = Instant.now();
+    ChangeCursor from = since == null ? ChangeCursor.START : ChangeCursor.parse(since);
+    if (from != ChangeCursor.START && from.issuedAt().isBefore(now.minus(tombstoneRetention))) {
+      throw new CursorExpiredException(
+          "Change cursor is older than the tombstone retention; sync again without one");
+    }
+
+    Query memberQuery = Query.query(from.after()).with(ChangeCursor.ORDER).limit(limit + 1);
+    memberQuery.fields().exclude("password");
+    List<MemberDocument> members = mongoTemplate.find(memberQuery, MemberDocument.class);
+    // A full sync has nothing to delete
+    List<MemberTombstone> tombstones = from == ChangeCursor.START ? List.of()
+        : mongoTemplate.find(Query.query(from.after()).with(ChangeCursor.ORDER).limit(limit + 1),
+            MemberTombstone.class);
+
+    Instant settled = now.minus(changeSettleTime);
+    List<MemberChange> changes = new ArrayList<>();
+    ChangeCursor next = from;
+    boolean hasMore = false;
+    int m = 0;
+    int t = 0;
+    while (m < members.size() || t < tombstones.size()) {
+      MemberDocument member = m < members.size() ? members.get(m) : null;
+      MemberTombstone tombstone = t < tombstones.size() ? tombstones.get(t) : null;
+      boolean memberFirst = tombstone == null || (member != null
+          && ChangeCursor.compare(member.getSeq(), member.getId(), tombstone.getSeq(),
+          tombstone.getId()) < 0);
+      Instant writtenAt = memberFirst ? member.getUpdatedAt() : tombstone.getDeletedAt();
+      if (writtenAt != null && writtenAt.isAfter(settled)) {
+        break;
+      }
+      if (changes.size() == limit) {
+        hasMore = true;
+        break;
+      }
+      if (memberFirst) {
+        changes.add(MemberChange.upsert(member.getSeq(),
+            memberMapper.memberEntityToMember(member)));
+        next = new ChangeCursor(member.getSeq(), member.getId(), now);
+        m++;
+      } else {
+        changes.add(MemberChange.delete(tombstone.getSeq(), tombstone.getId()));
+        next = new ChangeCursor(tombstone.getSeq(), tombstone.getId(), now);
+        t++;
+      }
+    }
+    return new MemberChanges(changes, next.reissue(now).encode(), hasMore);
+  }
+
+  /**
+   * Returns the maintained member counts in a single read.
+   */
+  public MemberStats getStatistics() {
+    return memberStatistics.read();
   }
 
   /**
@@ -153,14 +557,92 @@ public class MemberService {
   }
 
   /**
-   * Helper method to handle password update logic
+   * Helper method to add a $set for a field only when its value changes
    */
-  private void handlePasswordUpdate(Member existingMember, Member updatedMember, MemberDocument existingDocument) {
-    if (updatedMember.getPassword() != null && !updatedMember.getPassword().isEmpty()) {
-      existingMember.setPassword(updatedMember.getPassword());
+  private static void setIfChanged(Update update, String field, Object current, Object requested) {
+    if (!Objects.equals(current, requested)) {
+      update.set(field, requested);
+    }
+  }
+
+  private Map<String, Member> findAllIn(String field, Collection<String> keys,
+      Function<Member, String> keyOf) {
+    if (keys.isEmpty()) {
+      return Map.of();
+    }
+    Query query = Query.query(Criteria.where(field).in(keys.stream().distinct().toList()))
+        .withReadPreference(secondaryReads());
+    query.fields().exclude("password");
+    return mongoTemplate.find(query, MemberDocument.class).stream()
+        .map(memberMapper::memberEntityToMember)
+        .collect(Collectors.toMap(keyOf, Function.identity(), (first, second) -> first));
+  }
+
+  private Criteria bulkTarget(BulkMutateRequest.Operation operation, String protectedEmail) {
+    List<Criteria> criteria = new ArrayList<>();
+    if (operation.getIds() != null) {
+      criteria.add(Criteria.where("id").in(operation.getIds().stream().distinct().toList()));
     } else {
-      // Keep the existing encrypted password from database
-      existingMember.setPassword(existingDocument.getPassword());
+      BulkMutateRequest.Filter filter = operation.getFilter();
+      if (StringUtils.hasText(filter.getRole())) {
+        criteria.add(Criteria.where("role").is(normalizeRole(filter.getRole())));
+      }
+      if (StringUtils.hasText(filter.getEmailDomain())) {
+        criteria.add(Criteria.where("email")
+            .regex("@" + Pattern.quote(filter.getEmailDomain()) + "$", "i"));
+      }
+    }
+    if (protectedEmail != null) {
+      criteria.add(Criteria.where("email").ne(protectedEmail));
     }
+    return criteria.size() == 1 ? criteria.get(0) : new Criteria().andOperator(criteria);
+  }
+
+  /**
+   * Helper method to bump the version, stamp updatedAt and take the next change sequence value,
+   * as every member write does
+   */
+  private Update versioned(Update update) {
+    return update.inc("version", 1).currentDate("updatedAt").set("seq", memberSequence.next());
+  }
+
+  /**
+   * Records deleted members in the change feed, one sequence value each
+   */
+  private void recordDeletes(Collection<String> ids) {
+    long seq = memberSequence.reserve(ids.size());
+    Instant now = Instant.now();
+    BulkOperations tombstones =
+        mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MemberTombstone.class);
+    for (String id : ids) {
+      tombstones.upsert(Query.query(Criteria.where("id").is(id)),
+          new Update().set("seq", seq++).set("deletedAt", now));
+    }
+    tombstones.execute();
+  }
+
+  private List<String> findIds(Criteria criteria) {
+    Query query = Query.query(criteria);
+    query.fields().include("id");
+    return mongoTemplate.find(query, MemberDocument.class).stream()
+        .map(MemberDocument::getId)
+        .toList();
+  }
+
+  /**
+   * Helper method to publish a member change. Secondaries may lag it by up to the max staleness,
+   * so until then the caches it evicts are refilled from the primary
+   */
+  private void publishChange(MemberChangedEvent event) {
+    primaryReadsUntil = System.nanoTime() + secondaryMaxStaleness.toNanos();
+    eventPublisher.publishEvent(event);
+  }
+
+  private ReadPreference cacheLoadReads() {
+    return System.nanoTime() - primaryReadsUntil < 0 ? ReadPreference.primary() : secondaryReads();
+  }
+
+  private ReadPreference secondaryReads() {
+    return ReadPreference.secondaryPreferred(secondaryMaxStaleness.toSeconds(), TimeUnit.SECONDS);
   }
 }
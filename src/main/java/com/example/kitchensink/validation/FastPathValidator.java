@@ -0,0 +1,361 @@
+package com.example.kitchensink.validation;
+
+import com.example.kitchensink.model.AuthRequest;
+import com.example.kitchensink.model.Member;
+import com.example.kitchensink.model.SignupRequest;
+import com.example.kitchensink.model.ValidationPatterns;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Hand-written validator for the request models that are validated on every write.
+ * <p>
+ * Mirrors the Bean Validation annotations on {@link Member}, {@link SignupRequest} and
+ * {@link AuthRequest} field by field, but checks names, phone numbers and passwords with plain
+ * character scans instead of reflection and regex matching. Errors are reported under the same
+ * field names, codes and messages as the annotations.
+ * <p>
+ * Anything the fast path cannot decide exactly is handed to the delegate: other types,
+ * validation groups, quoted or internationalised email addresses, and violations of constraints
+ * that use the locale-dependent Bean Validation default messages.
+ *
+ * @author Gaurav Jain
+ */
+public class FastPathValidator implements SmartValidator {
+
+  private static final int EMAIL_LOCAL_PART_MAX_LENGTH = 64;
+  private static final int EMAIL_DOMAIN_MAX_LENGTH = 255;
+  private static final int EMAIL_DOMAIN_LABEL_MAX_LENGTH = 63;
+
+  /** The full Bean Validation validator used outside the fast path */
+  private final SmartValidator delegate;
+
+  public FastPathValidator(SmartValidator delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public boolean supports(Class<?> clazz) {
+    return isFastPathType(clazz) || delegate.supports(clazz);
+  }
+
+  @Override
+  public void validate(Object target, Errors errors) {
+    Class<?> type = target != null ? target.getClass() : null;
+    if (type == Member.class) {
+      validateMember((Member) target, errors);
+    } else if (type == SignupRequest.class) {
+      validateSignupRequest((SignupRequest) target, errors);
+    } else if (type == AuthRequest.class) {
+      validateAuthRequest((AuthRequest) target, errors);
+    } else {
+      delegate.validate(target, errors);
+    }
+  }
+
+  @Override
+  public void validate(Object target, Errors errors, Object... validationHints) {
+    if (validationHints.length > 0) {
+      delegate.validate(target, errors, validationHints);
+    } else {
+      validate(target, errors);
+    }
+  }
+
+  @Override
+  public void validateValue(Class<?> targetType, String fieldName, Object value, Errors errors,
+      Object... validationHints) {
+    delegate.validateValue(targetType, fieldName, value, errors, validationHints);
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> type) {
+    return delegate.unwrap(type);
+  }
+
+  /**
+   * Validates a member. Name and email use the default Bean Validation messages, so a
+   * violation on either of them is reported by the delegate.
+   */
+  private void validateMember(Member member, Errors errors) {
+    String name = member.getName();
+    String email = member.getEmail();
+    if (name == null
+        || !hasLengthBetween(name, ValidationPatterns.NAME_MIN_LENGTH, ValidationPatterns.NAME_MAX_LENGTH)
+        || email == null || email.isEmpty()
+        || checkEmail(email) != EmailCheck.VALID) {
+      delegate.validate(member, errors);
+      return;
+    }
+
+    if (containsDigit(name)) {
+      errors.rejectValue("name", "Pattern", ValidationPatterns.NAME_MESSAGE);
+    }
+    String password = member.getPassword();
+    if (password != null && password.length() < ValidationPatterns.PASSWORD_MIN_LENGTH) {
+      errors.rejectValue("password", "Size", ValidationPatterns.SIMPLE_PASSWORD_MESSAGE);
+    }
+    if (!isValidPhone(member.getPhoneNumber())) {
+      errors.rejectValue("phoneNumber", "Pattern", ValidationPatterns.PHONE_MESSAGE);
+    }
+  }
+
+  private void validateSignupRequest(SignupRequest request, Errors errors) {
+    EmailCheck emailCheck = checkEmail(request.getEmail());
+    if (emailCheck == EmailCheck.UNDECIDED) {
+      delegate.validate(request, errors);
+      return;
+    }
+
+    String name = request.getName();
+    if (isBlank(name)) {
+      errors.rejectValue("name", "NotBlank", ValidationPatterns.NAME_REQUIRED_MESSAGE);
+    }
+    if (name != null
+        && !hasLengthBetween(name, ValidationPatterns.NAME_MIN_LENGTH, ValidationPatterns.NAME_MAX_LENGTH)) {
+      errors.rejectValue("name", "Size", ValidationPatterns.NAME_SIZE_MESSAGE);
+    }
+    if (name != null && containsDigit(name)) {
+      errors.rejectValue("name", "Pattern", ValidationPatterns.NAME_MESSAGE);
+    }
+
+    if (isBlank(request.getEmail())) {
+      errors.rejectValue("email", "NotBlank", ValidationPatterns.EMAIL_REQUIRED_MESSAGE);
+    }
+    if (emailCheck == EmailCheck.INVALID) {
+      errors.rejectValue("email", "Email", ValidationPatterns.EMAIL_INVALID_MESSAGE);
+    }
+
+    String password = request.getPassword();
+    if (isBlank(password)) {
+      errors.rejectValue("password", "NotBlank", ValidationPatterns.PASSWORD_REQUIRED_MESSAGE);
+    }
+    if (password != null && password.length() < ValidationPatterns.PASSWORD_MIN_LENGTH) {
+      errors.rejectValue("password", "Size", ValidationPatterns.SIMPLE_PASSWORD_MESSAGE);
+    }
+    if (password != null && !isStrongPassword(password)) {
+      errors.rejectValue("password", "Pattern", ValidationPatterns.PASSWORD_MESSAGE);
+    }
+
+    if (!isValidPhone(request.getPhoneNumber())) {
+      errors.rejectValue("phoneNumber", "Pattern", ValidationPatterns.PHONE_MESSAGE);
+    }
+  }
+
+  private void validateAuthRequest(AuthRequest request, Errors errors) {
+    EmailCheck emailCheck = checkEmail(request.getEmail());
+    if (emailCheck == EmailCheck.UNDECIDED) {
+      delegate.validate(request, errors);
+      return;
+    }
+
+    if (isBlank(request.getEmail())) {
+      errors.rejectValue("email", "NotBlank", ValidationPatterns.EMAIL_REQUIRED_MESSAGE);
+    }
+    if (emailCheck == EmailCheck.INVALID) {
+      errors.rejectValue("email", "Email", ValidationPatterns.LOGIN_EMAIL_INVALID_MESSAGE);
+    }
+    if (isBlank(request.getPassword())) {
+      errors.rejectValue("password", "NotBlank", ValidationPatterns.PASSWORD_REQUIRED_MESSAGE);
+    }
+  }
+
+  /**
+   * Checks whether the given type is validated by the fast path.
+   */
+  static boolean isFastPathType(Class<?> clazz) {
+    return clazz == Member.class || clazz == SignupRequest.class || clazz == AuthRequest.class;
+  }
+
+  /**
+   * Same semantics as {@code @NotBlank}: null, or nothing left after {@link String#trim()}.
+   */
+  static boolean isBlank(String value) {
+    if (value == null) {
+      return true;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) > ' ') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Same semantics as {@code @Size(min, max)} on a non-null string.
+   */
+  static boolean hasLengthBetween(String value, int min, int max) {
+    int length = value.length();
+    return length >= min && length <= max;
+  }
+
+  /**
+   * Inverse of {@link ValidationPatterns#NAME_PATTERN}.
+   */
+  static boolean containsDigit(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (isAsciiDigit(value.charAt(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Same result as matching {@link ValidationPatterns#PHONE_PATTERN}; null is valid.
+   */
+  static boolean isValidPhone(String phone) {
+    if (phone == null || phone.isEmpty()) {
+      return true;
+    }
+    int length = phone.length();
+    if (length < ValidationPatterns.PHONE_MIN_DIGITS || length > ValidationPatterns.PHONE_MAX_DIGITS) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (!isAsciiDigit(phone.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Same result as matching {@link ValidationPatterns#PASSWORD_PATTERN}: at least
+   * {@link ValidationPatterns#PASSWORD_MIN_LENGTH} characters from letters, digits and
+   * {@link ValidationPatterns#PASSWORD_SPECIAL_CHARACTERS}, with at least one of each kind.
+   */
+  static boolean isStrongPassword(String password) {
+    if (password.length() < ValidationPatterns.PASSWORD_MIN_LENGTH) {
+      return false;
+    }
+    boolean lower = false;
+    boolean upper = false;
+    boolean digit = false;
+    boolean special = false;
+    for (int i = 0; i < password.length(); i++) {
+      char c = password.charAt(i);
+      if (c >= 'a' && c <= 'z') {
+        lower = true;
+      } else if (c >= 'A' && c <= 'Z') {
+        upper = true;
+      } else if (isAsciiDigit(c)) {
+        digit = true;
+      } else if (ValidationPatterns.PASSWORD_SPECIAL_CHARACTERS.indexOf(c) >= 0) {
+        special = true;
+      } else {
+        return false;
+      }
+    }
+    return lower && upper && digit && special;
+  }
+
+  /**
+   * Checks an email address the way Hibernate Validator's {@code @Email} does for plain ASCII
+   * addresses. Quoted local parts, address literals and internationalised domains are left
+   * {@link EmailCheck#UNDECIDED}. Null and empty values are valid, as with {@code @Email}.
+   */
+  static EmailCheck checkEmail(String email) {
+    if (email == null || email.isEmpty()) {
+      return EmailCheck.VALID;
+    }
+    int at = email.lastIndexOf('@');
+    if (at < 0) {
+      return EmailCheck.INVALID;
+    }
+
+    // Local part: dot-separated atoms
+    if (at > EMAIL_LOCAL_PART_MAX_LENGTH) {
+      return EmailCheck.INVALID;
+    }
+    int atomLength = 0;
+    for (int i = 0; i < at; i++) {
+      char c = email.charAt(i);
+      if (c == '"') {
+        return EmailCheck.UNDECIDED;
+      }
+      if (c == '.') {
+        if (atomLength == 0) {
+          return EmailCheck.INVALID;
+        }
+        atomLength = 0;
+      } else if (isLocalPartAtomChar(c)) {
+        atomLength++;
+      } else {
+        return EmailCheck.INVALID;
+      }
+    }
+    if (atomLength == 0) {
+      return EmailCheck.INVALID;
+    }
+
+    // Domain part: dot-separated labels that neither start nor end with a dash
+    int domainStart = at + 1;
+    int domainLength = email.length() - domainStart;
+    if (domainLength > 0 && email.charAt(domainStart) == '[') {
+      return EmailCheck.UNDECIDED;
+    }
+    for (int i = domainStart; i < email.length(); i++) {
+      if (email.charAt(i) >= 0x80) {
+        return EmailCheck.UNDECIDED;
+      }
+    }
+    if (domainLength == 0 || domainLength > EMAIL_DOMAIN_MAX_LENGTH) {
+      return EmailCheck.INVALID;
+    }
+    int labelLength = 0;
+    char previous = '.';
+    for (int i = domainStart; i < email.length(); i++) {
+      char c = email.charAt(i);
+      if (c == '.') {
+        if (labelLength == 0 || previous == '-') {
+          return EmailCheck.INVALID;
+        }
+        labelLength = 0;
+      } else if (c == '-') {
+        if (labelLength == 0) {
+          return EmailCheck.INVALID;
+        }
+        labelLength++;
+      } else if (isDomainChar(c)) {
+        labelLength++;
+      } else {
+        return EmailCheck.INVALID;
+      }
+      if (labelLength > EMAIL_DOMAIN_LABEL_MAX_LENGTH) {
+        return EmailCheck.INVALID;
+      }
+      previous = c;
+    }
+    if (labelLength == 0 || previous == '-') {
+      return EmailCheck.INVALID;
+    }
+    return EmailCheck.VALID;
+  }
+
+  private static boolean isAsciiDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isAsciiLetterOrDigit(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isAsciiDigit(c);
+  }
+
+  private static boolean isLocalPartAtomChar(char c) {
+    return c >= 0x80 || isAsciiLetterOrDigit(c) || "!#$%&'*+/=?^_`{|}~-".indexOf(c) >= 0;
+  }
+
+  private static boolean isDomainChar(char c) {
+    return isAsciiLetterOrDigit(c) || "!#$%&'*+/=?^_`{|}~".indexOf(c) >= 0;
+  }
+
+  /**
+   * Outcome of the fast email check.
+   */
+  enum EmailCheck {
+    VALID,
+    INVALID,
+    UNDECIDED
+  }
+}
@@ -0,0 +1,139 @@
+package com.example.kitchensink.view;
+
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.model.Member;
+import com.example.kitchensink.service.MemberService;
+import jakarta.servlet.ServletContext;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+/**
+ * Renders pages of the admin members table as HTML fragments and caches them until the next
+ * member write, so the dashboard costs one map lookup per visit regardless of member count.
+ * Writes only invalidate the pages on the node that made them, so a page is also dropped after
+ * {@code kitchensink.member-table.ttl}, which bounds how long another node's change stays
+ * unseen, like the first level of the member caches.
+ * <p>
+ * The fragment is rendered outside a web request, so it must not use {@code @{...}} link
+ * expressions; URLs are built from the {@code basePath} variable (the context path) instead.
+ */
+@Component
+@Slf4j
+public class MemberTableRenderer {
+
+  public static final int DEFAULT_PAGE_SIZE = 20;
+
+  public static final int MAX_PAGE_SIZE = 100;
+
+  static final String TEMPLATE = "fragments/members-table";
+
+  static final String FRAGMENT = "membersTable";
+
+  // Upper bound on cached pages; beyond it pages are rendered without being cached
+  static final int MAX_CACHED_PAGES = 256;
+
+  private final MemberService memberService;
+
+  private final ITemplateEngine templateEngine;
+
+  private final String basePath;
+
+  private final Duration ttl;
+
+  private final LongSupplier nanoClock;
+
+  private final Map<PageKey, RenderedPage> cache = new ConcurrentHashMap<>();
+
+  // Bumped on every invalidation so a render that raced with a write is not cached
+  private final AtomicLong generation = new AtomicLong();
+
+  @Autowired
+  public MemberTableRenderer(MemberService memberService, ITemplateEngine templateEngine,
+      ServletContext servletContext,
+      @Value("${kitchensink.member-table.ttl:30s}") Duration ttl) {
+    this(memberService, templateEngine, servletContext, ttl, System::nanoTime);
+  }
+
+  MemberTableRenderer(MemberService memberService, ITemplateEngine templateEngine,
+      ServletContext servletContext, Duration ttl, LongSupplier nanoClock) {
+    this.memberService = memberService;
+    this.templateEngine = templateEngine;
+    this.basePath = servletContext.getContextPath();
+    this.ttl = ttl;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Returns the rendered table for the given page, from cache when possible.
+   *
+   * @param page zero-based page index; past-the-end pages render the last page.
+   * @param size page size, clamped to {@code 1..MAX_PAGE_SIZE}.
+   */
+  public String render(int page, int size) {
+    PageKey key = new PageKey(Math.max(0, page), Math.min(Math.max(1, size), MAX_PAGE_SIZE));
+    RenderedPage cached = cache.get(key);
+    long now = nanoClock.getAsLong();
+    if (cached != null) {
+      if (now - cached.expiresAt() < 0) {
+        return cached.html();
+      }
+      cache.remove(key, cached);
+    }
+    long renderGeneration = generation.get();
+    String html = renderUncached(key);
+    if (ttl.isPositive() && cache.size() < MAX_CACHED_PAGES
+        && generation.get() == renderGeneration) {
+      RenderedPage rendered = new RenderedPage(html, now + ttl.toNanos());
+      cache.put(key, rendered);
+      // An invalidation between the check and the put would otherwise leave a stale page behind
+      if (generation.get() != renderGeneration) {
+        cache.remove(key, rendered);
+      }
+    }
+    return html;
+  }
+
+  /**
+   * Drops every cached page. Any write can move members between pages, so pages are not
+   * invalidated individually.
+   */
+  @EventListener
+  public void onMemberChanged(MemberChangedEvent event) {
+    generation.incrementAndGet();
+    cache.clear();
+  }
+
+  int cachedPageCount() {
+    return cache.size();
+  }
+
+  private String renderUncached(PageKey key) {
+    Page<Member> members = memberService.getMembersPage(key.page(), key.size());
+    if (members.getNumberOfElements() == 0 && key.page() > 0 && members.getTotalPages() > 0) {
+      members = memberService.getMembersPage(members.getTotalPages() - 1, key.size());
+    }
+    Context context = new Context();
+    context.setVariable("page", members);
+    context.setVariable("basePath", basePath);
+    log.debug("Rendering members table page {} (size {})", members.getNumber(), key.size());
+    return templateEngine.process(TEMPLATE, Set.of(FRAGMENT), context);
+  }
+
+  private record PageKey(int page, int size) {
+  }
+
+  private record RenderedPage(String html, long expiresAt) {
+  }
+}
@@ -423,6 +423,9 @@ function confirmDelete() {
     if (response.ok) {
       showModal('Success', 'Member deleted successfully!', 'success');
       anchor.closest('tr').remove(); // Remove the table row
+      if (!membersStreamConnected) {
+        loadMembersTable(); // Pull the next member up into the current page
+      }
     } else if (response.status === 403) {
       response.text().then(errorMessage => {
         showModal('Access Denied', 'Cannot delete your own account. Please contact an administrator if you need to delete your account.', 'error');
@@ -554,6 +557,11 @@ function saveMember(anchor, url) {
       anchor.style.display = 'none';
       cancelButton.style.display = 'none';
       editButton.style.display = 'inline';
+
+      // A renamed member may move to another page; the event stream refreshes it when connected
+      if (!membersStreamConnected) {
+        loadMembersTable();
+      }
     } else if (response.status === 403) {
       response.text().then(errorMessage => {
         showModal('Access Denied', 'Cannot edit your own account. Please contact an administrator if you need to modify your account.', 'error');
@@ -574,6 +582,136 @@ function saveMember(anchor, url) {
   });
 }
 
+// Replaces the members table with a freshly rendered page fragment from the server.
+// Defaults to the page currently shown; falls back to a full page load if the fetch fails.
+function loadMembersTable(page) {
+  const container = document.getElementById('membersTableContainer');
+  const table = document.getElementById('membersTable');
+  if (!container || !table) {
+    return;
+  }
+  const targetPage = page !== undefined ? page : table.dataset.page;
+  const size = table.dataset.size;
+  table.classList.add('loading');
+
+  fetch(`/admin/members/table?page=${targetPage}&size=${size}`, {
+    headers: { ...getAuthHeaders(), 'Accept': 'text/html' }
+  })
+    .then(response => {
+      if (!response.ok) {
+        throw new Error(`HTTP ${response.status}`);
+      }
+      return response.text();
+    })
+    .then(html => {
+      container.innerHTML = html;
+    })
+    .catch(error => {
+      console.error('Error loading members table:', error);
+      window.location.href = `/admin/home?page=${targetPage}&size=${size}`;
+    });
+}
+
+// Page links inside the members table load the next fragment in place
+document.addEventListener('click', function(e) {
+  const link = e.target.closest('#membersTableContainer .page-link');
+  if (link) {
+    e.preventDefault();
+    loadMembersTable(link.dataset.page);
+  }
+});
+
+// Live member changes over Server-Sent Events. EventSource cannot send the Authorization
+// header, so the stream is read with fetch and parsed here.
+let membersStreamConnected = false;
+let membersTableRefreshTimer = null;
+
+function connectMembersStream(retryDelay = 1000) {
+  if (!document.getElementById('membersTableContainer') || !getAuthToken()) {
+    return;
+  }
+  fetch('/admin/members/events', {
+    headers: { ...getAuthHeaders(), 'Accept': 'text/event-stream' }
+  })
+    .then(response => {
+      if (!response.ok || !response.body) {
+        throw new Error(`HTTP ${response.status}`);
+      }
+      membersStreamConnected = true;
+      // Changes made while disconnected are not replayed
+      if (retryDelay > 1000) {
+        loadMembersTable();
+      }
+      retryDelay = 1000;
+      return readEventStream(response.body.getReader(), handleMemberEvent);
+    })
+    .catch(error => console.warn('Member event stream error:', error.message))
+    .finally(() => {
+      membersStreamConnected = false;
+      const nextDelay = Math.min(retryDelay * 2, 30000);
+      setTimeout(() => connectMembersStream(nextDelay), retryDelay);
+    });
+}
+
+function readEventStream(reader, onEvent) {
+  const decoder = new TextDecoder();
+  let buffer = '';
+  function pump() {
+    return reader.read().then(({ done, value }) => {
+      if (done) {
+        return;
+      }
+      buffer += decoder.decode(value, { stream: true });
+      let boundary;
+      while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+        const block = buffer.slice(0, boundary);
+        buffer = buffer.slice(boundary + 2);
+        let eventName = 'message';
+        const data = [];
+        block.split('\n').forEach(line => {
+          if (line.startsWith('event:')) {
+            eventName = line.slice(6).trim();
+          } else if (line.startsWith('data:')) {
+            data.push(line.slice(5));
+          }
+        });
+        // Comment-only blocks (heartbeats) carry no data
+        if (data.length > 0) {
+          onEvent(eventName, data.join('\n'));
+        }
+      }
+      return pump();
+    });
+  }
+  return pump();
+}
+
+function handleMemberEvent(eventName, data) {
+  if (eventName !== 'member') {
+    return;
+  }
+  const change = JSON.parse(data);
+  const row = document.querySelector(`#membersTable tr[data-member-id="${change.memberId}"]`);
+  // Never overwrite a row the admin is editing
+  if (row && row.querySelector('.editable-field.edit-mode')) {
+    return;
+  }
+  if (change.type === 'UPDATED' && row && change.member) {
+    const fields = row.querySelectorAll('.editable-field');
+    fields[0].value = change.member.name || '';
+    fields[1].value = change.member.email || '';
+    fields[2].value = change.member.phoneNumber || '';
+    fields[3].value = change.member.role === 'ROLE_ADMIN' ? 'ADMIN' : 'USER';
+  } else if (change.type === 'DELETED' && row) {
+    row.remove();
+  }
+  // Ordering and page boundaries may have shifted; coalesce bursts into one fragment reload
+  clearTimeout(membersTableRefreshTimer);
+  membersTableRefreshTimer = setTimeout(() => loadMembersTable(), 250);
+}
+
+document.addEventListener('DOMContentLoaded', () => connectMembersStream());
+
 // Utility function to get JWT token from localStorage
 function getAuthToken() {
   const token = localStorage.getItem('accessToken');
@@ -0,0 +1,208 @@
+package com.example.kitchensink;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Sends {@code SIGTERM} to a running binary while clients keep it busy with signups (BCrypt and a
+ * MongoDB write each) and member listings, and expects every request to succeed. The clients
+ * stand in for a load balancer: they poll {@code /actuator/health/readiness} and stop sending new
+ * requests once it goes down, as a load balancer stops routing to the instance.
+ * <p>
+ * Needs a reachable MongoDB ({@code smoke.mongodb-uri}). Run with {@code mvn test -Psmoke}, see
+ * {@link NativeSmokeTest} for choosing the binary.
+ */
+@Tag("smoke")
+class GracefulShutdownSmokeTest {
+
+  private static final int CLIENTS = 32;
+
+  private static final Duration LOAD_BEFORE_SIGTERM = Duration.ofSeconds(3);
+
+  private static final Duration READINESS_POLL = Duration.ofMillis(100);
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  private final HttpClient client = HttpClient.newHttpClient();
+
+  private final AtomicBoolean routing = new AtomicBoolean(true);
+
+  private final AtomicInteger succeeded = new AtomicInteger();
+
+  private final AtomicInteger inFlightAtSigterm = new AtomicInteger();
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+
+  private Process process;
+
+  private String baseUrl;
+
+  @AfterEach
+  void stopApplication() throws Exception {
+    if (process != null && process.isAlive()) {
+      process.destroyForcibly();
+      process.waitFor(30, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  void sigtermUnderLoad_ShouldFailNoRequest() throws Exception {
+    startApplication();
+    String adminToken = adminToken();
+
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      clients.submit(this::watchReadiness);
+      for (int i = 0; i < CLIENTS; i++) {
+        boolean signups = i % 2 == 0;
+        clients.submit(() -> sendUntilUnrouted(signups, adminToken));
+      }
+      Thread.sleep(LOAD_BEFORE_SIGTERM.toMillis());
+
+      inFlightAtSigterm.set(inFlight.get());
+      // SIGTERM, as an orchestrator sends on a rolling deploy
+      process.destroy();
+      assertTrue(process.waitFor(60, TimeUnit.SECONDS), "Application did not exit after SIGTERM");
+    }
+
+    System.out.printf("requests succeeded:    %,d%n", succeeded.get());
+    System.out.printf("in flight at SIGTERM:  %d%n", inFlightAtSigterm.get());
+    System.out.printf("failed:                %d%n", failures.size());
+    assertTrue(failures.isEmpty(), () -> "Failed requests: " + failures);
+    assertTrue(inFlightAtSigterm.get() > 0, "No request was in flight at SIGTERM");
+    // 128 + SIGTERM: the JVM ran its shutdown hooks rather than being killed
+    assertEquals(143, process.exitValue());
+  }
+
+  private void startApplication() throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    List<String> command = new ArrayList<>(Arrays.asList(
+        System.getProperty("smoke.command", "target/kitchensink").split(" ")));
+    command.add("--server.port=" + port);
+    command.add("--spring.data.mongodb.uri="
+        + System.getProperty("smoke.mongodb-uri", "mongodb://localhost:27017/kitchensink-smoke"));
+    // Several readiness polls long, like a load balancer's probe period times its failure threshold
+    command.add("--kitchensink.shutdown.readiness-grace=2s");
+    process = new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(Path.of("target", "smoke-shutdown-app.log").toFile())
+        .start();
+    baseUrl = "http://localhost:" + port;
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(120);
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException("Application exited with " + process.exitValue()
+            + ", see target/smoke-shutdown-app.log");
+      }
+      try {
+        if (get("/actuator/health/readiness", null).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // Not listening yet
+      }
+      Thread.sleep(10);
+    }
+    throw new IllegalStateException("Application did not become ready within 120s");
+  }
+
+  /** Stops routing once readiness is down, or the instance stops answering the probe. */
+  private Void watchReadiness() throws InterruptedException {
+    while (routing.get()) {
+      try {
+        if (get("/actuator/health/readiness", null).statusCode() != 200) {
+          routing.set(false);
+        }
+      } catch (IOException e) {
+        routing.set(false);
+      }
+      Thread.sleep(READINESS_POLL.toMillis());
+    }
+    return null;
+  }
+
+  private Void sendUntilUnrouted(boolean signups, String adminToken) {
+    while (routing.get()) {
+      inFlight.incrementAndGet();
+      try {
+        HttpResponse<String> response = signups ? signup() : get("/admin/members", adminToken);
+        int expected = signups ? 201 : 200;
+        if (response.statusCode() == expected) {
+          succeeded.incrementAndGet();
+        } else {
+          failures.add(response.statusCode() + " " + response.body());
+        }
+      } catch (IOException e) {
+        failures.add(e.toString());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      } finally {
+        inFlight.decrementAndGet();
+      }
+    }
+    return null;
+  }
+
+  private HttpResponse<String> signup() throws IOException, InterruptedException {
+    String email = "drain-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+    return post("/api/auth/signup", """
+        {"name":"Drain Test","email":"%s","password":"password123","phoneNumber":"1234567890"}\
+        """.formatted(email), null);
+  }
+
+  private String adminToken() throws Exception {
+    HttpResponse<String> login = post("/api/auth/login",
+        "{\"email\":\"admin@admin.com\",\"password\":\"admin123\"}", null);
+    assertEquals(200, login.statusCode(), login.body());
+    return objectMapper.readTree(login.body()).get("accessToken").asText();
+  }
+
+  private HttpResponse<String> get(String path, String token)
+      throws IOException, InterruptedException {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private HttpResponse<String> post(String path, String json, String token)
+      throws IOException, InterruptedException {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json));
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+}
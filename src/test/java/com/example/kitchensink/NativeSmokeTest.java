@@ -0,0 +1,186 @@
+package com.example.kitchensink;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Smoke tests against a running binary: the native executable by default, or the JVM build for
+ * comparison. Each test exercises a path that needs native-image metadata: Thymeleaf templates
+ * and SpEL, springdoc, Jackson DTOs, JJWT signing and parsing, and the Mongo mapping.
+ * <p>
+ * Needs a reachable MongoDB ({@code smoke.mongodb-uri}). Reports startup time (process start to
+ * first successful page) and resident memory after the suite. Run with
+ * {@code mvn -Pnative -DskipTests package && mvn test -Psmoke}, then again with
+ * {@code -Dsmoke.command="java -jar target/kitchensink-0.0.1-SNAPSHOT.jar"} to compare.
+ */
+@Tag("smoke")
+class NativeSmokeTest {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final HttpClient client = HttpClient.newHttpClient();
+
+  private static Process process;
+  private static String baseUrl;
+  private static long startupMillis;
+
+  @BeforeAll
+  static void startApplication() throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    List<String> command = new ArrayList<>(Arrays.asList(
+        System.getProperty("smoke.command", "target/kitchensink").split(" ")));
+    command.add("--server.port=" + port);
+    command.add("--spring.data.mongodb.uri="
+        + System.getProperty("smoke.mongodb-uri", "mongodb://localhost:27017/kitchensink-smoke"));
+
+    long start = System.nanoTime();
+    process = new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(Path.of("target", "smoke-app.log").toFile())
+        .start();
+    baseUrl = "http://localhost:" + port;
+    waitUntilServing(Duration.ofSeconds(120));
+    startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+  }
+
+  @AfterAll
+  static void stopApplication() throws Exception {
+    if (process == null) {
+      return;
+    }
+    System.out.printf("command:       %s%n", System.getProperty("smoke.command", "target/kitchensink"));
+    System.out.printf("startup:       %,d ms%n", startupMillis);
+    System.out.printf("resident set:  %s%n", residentSetSize(process.pid()));
+    process.destroy();
+    process.waitFor(30, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void loginPage_ShouldRenderTemplate() throws Exception {
+    HttpResponse<String> response = get("/jwt-login", null);
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body().contains("<form"));
+  }
+
+  @Test
+  void apiDocs_ShouldDescribeApi() throws Exception {
+    HttpResponse<String> response = get("/v3/api-docs", null);
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body().contains("KitchenSink API"));
+  }
+
+  @Test
+  void signup_ShouldIssueTokensThatValidate() throws Exception {
+    String email = "smoke-" + UUID.randomUUID().toString().substring(0, 8) + "@example.com";
+    HttpResponse<String> signup = post("/api/auth/signup", """
+        {"name":"Smoke Test","email":"%s","password":"password123","phoneNumber":"1234567890"}\
+        """.formatted(email), null);
+    assertEquals(201, signup.statusCode(), signup.body());
+    String accessToken = objectMapper.readTree(signup.body()).get("accessToken").asText();
+
+    HttpResponse<String> validate = post("/api/auth/validate", "", accessToken);
+
+    assertEquals(200, validate.statusCode(), validate.body());
+  }
+
+  @Test
+  void adminMembers_ShouldListDefaultMembers() throws Exception {
+    String token = adminToken();
+
+    HttpResponse<String> response = get("/admin/members", token);
+
+    assertEquals(200, response.statusCode());
+    JsonNode members = objectMapper.readTree(response.body());
+    assertTrue(members.isArray());
+    assertTrue(response.body().contains("admin@admin.com"));
+  }
+
+  @Test
+  void adminMembersTable_ShouldRenderRows() throws Exception {
+    HttpResponse<String> response = get("/admin/members/table", adminToken());
+
+    assertEquals(200, response.statusCode());
+    assertTrue(response.body().contains("data-member-id"));
+  }
+
+  private static String adminToken() throws Exception {
+    HttpResponse<String> login = post("/api/auth/login",
+        "{\"email\":\"admin@admin.com\",\"password\":\"admin123\"}", null);
+    assertEquals(200, login.statusCode(), login.body());
+    return objectMapper.readTree(login.body()).get("accessToken").asText();
+  }
+
+  private static HttpResponse<String> get(String path, String token) throws Exception {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET();
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static HttpResponse<String> post(String path, String json, String token) throws Exception {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(json));
+    if (token != null) {
+      request.header("Authorization", "Bearer " + token);
+    }
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static void waitUntilServing(Duration timeout) throws Exception {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    while (System.nanoTime() < deadline) {
+      if (!process.isAlive()) {
+        throw new IllegalStateException("Application exited with " + process.exitValue()
+            + ", see target/smoke-app.log");
+      }
+      try {
+        if (get("/jwt-login", null).statusCode() == 200) {
+          return;
+        }
+      } catch (IOException e) {
+        // Not listening yet
+      }
+      Thread.sleep(10);
+    }
+    throw new IllegalStateException("Application did not start within " + timeout);
+  }
+
+  private static String residentSetSize(long pid) throws IOException {
+    Path status = Path.of("/proc", Long.toString(pid), "status");
+    if (!Files.exists(status)) {
+      return "n/a";
+    }
+    return Files.readAllLines(status).stream()
+        .filter(line -> line.startsWith("VmRSS:"))
+        .map(line -> line.substring("VmRSS:".length()).trim())
+        .findFirst()
+        .orElse("n/a");
+  }
+}
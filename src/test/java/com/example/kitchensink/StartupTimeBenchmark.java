@@ -0,0 +1,64 @@
+package com.example.kitchensink;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Reports how long the application takes to become ready and to answer its first requests.
+ * <p>
+ * The context starts against a local MongoDB URI with index creation off, so no database is
+ * needed: the driver connects lazily and the data initializer runs in the background. The
+ * first {@code /jwt-login} includes Thymeleaf's template warm-up, the first {@code /v3/api-docs}
+ * includes creating the lazy springdoc beans. Numbers are for a JVM that has already loaded
+ * the test classes; for cold-container figures use the Docker image, which adds the AOT and CDS
+ * optimizations. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class StartupTimeBenchmark {
+
+  @Test
+  void reportStartupAndTimeToFirstRequest() throws Exception {
+    long start = System.nanoTime();
+    try (ConfigurableApplicationContext context = SpringApplication.run(KitchenSinkApplication.class,
+        "--server.port=0",
+        "--spring.data.mongodb.uri=mongodb://localhost:27017/kitchensink",
+        "--spring.data.mongodb.auto-index-creation=false",
+        "--logging.level.root=WARN",
+        "--logging.level.org.springframework=WARN")) {
+      long ready = System.nanoTime();
+      String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+      HttpClient client = HttpClient.newHttpClient();
+
+      long firstPage = time(client, baseUrl + "/jwt-login");
+      long secondPage = time(client, baseUrl + "/jwt-login");
+      long firstApiDocs = time(client, baseUrl + "/v3/api-docs");
+
+      System.out.printf("context ready:              %,8.1f ms%n", millis(ready - start));
+      System.out.printf("first /jwt-login:           %,8.1f ms%n", millis(firstPage));
+      System.out.printf("ready to first response:    %,8.1f ms%n", millis(ready - start + firstPage));
+      System.out.printf("second /jwt-login:          %,8.1f ms%n", millis(secondPage));
+      System.out.printf("first /v3/api-docs (lazy):  %,8.1f ms%n", millis(firstApiDocs));
+    }
+  }
+
+  private static long time(HttpClient client, String url) throws Exception {
+    long start = System.nanoTime();
+    HttpResponse<Void> response = client.send(HttpRequest.newBuilder(URI.create(url)).build(),
+        HttpResponse.BodyHandlers.discarding());
+    long elapsed = System.nanoTime() - start;
+    assertEquals(200, response.statusCode(), url);
+    return elapsed;
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
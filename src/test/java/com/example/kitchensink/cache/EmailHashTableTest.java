@@ -0,0 +1,81 @@
+package com.example.kitchensink.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class EmailHashTableTest {
+
+  @Test
+  void put_ShouldOverwriteTheSameHash() {
+    EmailHashTable table = new EmailHashTable(4);
+
+    table.put(42, 1, 1, 0, (byte) 0);
+    table.put(42, 2, 2, 5, (byte) 1);
+
+    int slot = table.find(42);
+    assertEquals(1, table.size());
+    assertEquals(2, table.idHigh(slot));
+    assertEquals(5, table.version(slot));
+  }
+
+  @Test
+  void remove_ShouldKeepLaterEntriesOfTheProbeRunReachable() {
+    EmailHashTable table = new EmailHashTable(4);
+    int capacity = table.capacity();
+    // Three hashes with the same home slot, then one homed at the next slot
+    long first = 3;
+    long second = 3 + capacity;
+    long third = 3 + 2L * capacity;
+    long neighbour = 4;
+    table.put(first, 1, 1, 0, (byte) 0);
+    table.put(second, 2, 2, 0, (byte) 0);
+    table.put(neighbour, 4, 4, 0, (byte) 0);
+    table.put(third, 3, 3, 0, (byte) 0);
+
+    table.remove(table.find(first));
+
+    assertEquals(-1, table.find(first));
+    assertEquals(2, table.idHigh(table.find(second)));
+    assertEquals(3, table.idHigh(table.find(third)));
+    assertEquals(4, table.idHigh(table.find(neighbour)));
+    assertEquals(3, table.size());
+  }
+
+  @Test
+  void findById_ShouldScanForTheObjectId() {
+    EmailHashTable table = new EmailHashTable(4);
+    table.put(7, 10, 20, 0, (byte) 0);
+
+    assertEquals(table.find(7), table.findById(10, 20));
+    assertEquals(-1, table.findById(10, 21));
+  }
+
+  @Test
+  void grow_ShouldDoubleCapacityAndKeepEntries() {
+    EmailHashTable table = new EmailHashTable(0);
+    long hash = 1;
+    while (!table.isFull()) {
+      table.put(hash, hash, (int) hash, hash, (byte) 0);
+      hash++;
+    }
+
+    EmailHashTable grown = table.grow();
+
+    assertEquals(table.capacity() * 2, grown.capacity());
+    assertFalse(grown.isFull());
+    for (long h = 1; h < hash; h++) {
+      assertEquals(h, grown.version(grown.find(h)));
+    }
+  }
+
+  @Test
+  void hash_ShouldNeverBeEmptyAndDifferForSimilarEmails() {
+    assertNotEquals(EmailHashTable.EMPTY, EmailHashTable.hash(""));
+    assertNotEquals(EmailHashTable.hash("a@example.com"), EmailHashTable.hash("b@example.com"));
+    assertTrue(new EmailHashTable(1_000_000).capacity() >= 1_000_000 / 0.75);
+  }
+}
@@ -0,0 +1,65 @@
+package com.example.kitchensink.cache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Stand-in for a shared cache server: one instance passed to several {@link TieredCache}s plays
+ * the store that separate nodes would share.
+ */
+class InMemorySharedCache implements SharedCache {
+
+  private record Stored(byte[] value, long expiresAt) {
+  }
+
+  private final Map<String, Stored> entries = new ConcurrentHashMap<>();
+
+  private final LongSupplier nanoClock;
+
+  final AtomicInteger gets = new AtomicInteger();
+
+  volatile boolean failing;
+
+  InMemorySharedCache(LongSupplier nanoClock) {
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  public byte[] get(String key) {
+    gets.incrementAndGet();
+    checkAvailable();
+    Stored stored = entries.get(key);
+    return stored != null && nanoClock.getAsLong() < stored.expiresAt() ? stored.value() : null;
+  }
+
+  @Override
+  public void put(String key, byte[] value, Duration ttl) {
+    checkAvailable();
+    entries.put(key, new Stored(value, nanoClock.getAsLong() + ttl.toNanos()));
+  }
+
+  @Override
+  public void evict(String key) {
+    checkAvailable();
+    entries.remove(key);
+  }
+
+  @Override
+  public void evictAll(String prefix) {
+    checkAvailable();
+    entries.keySet().removeIf(key -> key.startsWith(prefix));
+  }
+
+  boolean contains(String key) {
+    return entries.containsKey(key);
+  }
+
+  private void checkAvailable() {
+    if (failing) {
+      throw new IllegalStateException("shared cache unavailable");
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.example.kitchensink.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.kitchensink.config.CacheConfig;
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.model.Member;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MemberCachesTest {
+
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private MemberCaches memberCaches;
+
+  @BeforeEach
+  void setUp() {
+    ObjectMapper mapper = CacheConfig.sharedCacheMapper();
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    TieredCache.Settings settings = new TieredCache.Settings(
+        100, Duration.ofSeconds(30), Duration.ofSeconds(10), Duration.ofMinutes(1), 1.0);
+    memberCaches = new MemberCaches(
+        new TieredCache<>(MemberCaches.BY_ID, settings, null, mapper,
+            mapper.constructType(Member.class), registry, Runnable::run),
+        new TieredCache<>(MemberCaches.BY_EMAIL, settings, null, mapper,
+            mapper.constructType(Member.class), registry, Runnable::run),
+        new TieredCache<>(MemberCaches.ALL, settings, null, mapper,
+            mapper.getTypeFactory().constructCollectionType(List.class, Member.class), registry,
+            Runnable::run));
+  }
+
+  @Test
+  void onMemberChanged_ShouldEvictEveryAffectedEntry() {
+    warm();
+
+    memberCaches.onMemberChanged(MemberChangedEvent.deleted("1"));
+    warm();
+
+    assertEquals(6, loads.get());
+  }
+
+  @Test
+  void onMemberChanged_ForUpdatedMember_ShouldCacheItAsWritten() {
+    warm();
+    Member updated = member("1");
+    updated.setName("Renamed");
+
+    memberCaches.onMemberChanged(MemberChangedEvent.updated(updated));
+
+    assertSame(updated, memberCaches.byId("1", this::load));
+    assertSame(updated, memberCaches.byEmail("1@example.com", this::load));
+    memberCaches.all(() -> List.of(load("1")));
+    // Only the list is reloaded
+    assertEquals(4, loads.get());
+  }
+
+  @Test
+  void onMemberChanged_ForAnotherMember_ShouldKeepItsIdEntry() {
+    warm();
+
+    memberCaches.onMemberChanged(MemberChangedEvent.deleted("2"));
+    memberCaches.byId("1", this::load);
+
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  void onMemberChanged_ForBulkChange_ShouldClearEveryCache() {
+    warm();
+    memberCaches.byId("2", this::load);
+
+    memberCaches.onMemberChanged(MemberChangedEvent.bulk());
+    warm();
+    memberCaches.byId("2", this::load);
+
+    assertEquals(8, loads.get());
+  }
+
+  @Test
+  void all_ShouldReturnAnUnmodifiableList() {
+    List<Member> members = memberCaches.all(() -> new ArrayList<>(List.of(member("1"))));
+
+    assertThrows(UnsupportedOperationException.class, () -> members.add(member("2")));
+  }
+
+  @Test
+  void flush_ShouldWaitForRefreshesAlreadyRunning() throws Exception {
+    ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+    CountDownLatch refreshing = new CountDownLatch(1);
+    AtomicBoolean refreshed = new AtomicBoolean();
+    refreshExecutor.execute(() -> {
+      refreshing.countDown();
+      sleep(100);
+      refreshed.set(true);
+    });
+    MemberCaches caches = new MemberCaches(null, null, null, refreshExecutor);
+    refreshing.await();
+
+    assertTrue(caches.flush(Duration.ofSeconds(5)));
+    assertTrue(refreshed.get());
+    assertTrue(refreshExecutor.isTerminated());
+    assertTrue(MemberCaches.disabled().flush(Duration.ZERO));
+  }
+
+  @Test
+  void disabled_ShouldAlwaysCallTheLoader() {
+    MemberCaches disabled = MemberCaches.disabled();
+
+    disabled.byId("1", this::load);
+    disabled.byId("1", this::load);
+    disabled.onMemberChanged(MemberChangedEvent.deleted("1"));
+
+    assertEquals(2, loads.get());
+  }
+
+  private void warm() {
+    memberCaches.byId("1", this::load);
+    memberCaches.byEmail("1@example.com", this::load);
+    memberCaches.all(() -> List.of(load("1")));
+  }
+
+  private Member load(String key) {
+    loads.incrementAndGet();
+    return member(key);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static Member member(String id) {
+    return new Member(id, "Member " + id, id + "@example.com", null, "1234567890", "ROLE_USER");
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.kitchensink.cache;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.kitchensink.entity.MemberDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Measures the member directory at a million members: retained heap next to a
+ * {@code HashMap<String, MemberDocument>} of the same members, and single-threaded lookup latency
+ * for known and unknown emails. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class MemberDirectoryBenchmark {
+
+  private static final int MEMBERS = 1_000_000;
+
+  private static final int LOOKUPS = 2_000_000;
+
+  private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+  @Test
+  void memoryAndLookupLatency() throws Exception {
+    String[] ids = new String[MEMBERS];
+    String[] emails = new String[MEMBERS];
+    for (int i = 0; i < MEMBERS; i++) {
+      ids[i] = new ObjectId().toHexString();
+      emails[i] = "member" + i + "@example.com";
+    }
+
+    long heapBefore = usedHeap();
+    Map<String, MemberDocument> documents = new HashMap<>();
+    for (int i = 0; i < MEMBERS; i++) {
+      documents.put(emails[i], document(ids[i], emails[i], i));
+    }
+    long mapBytes = usedHeap() - heapBefore;
+    Reference.reachabilityFence(documents);
+    documents = null;
+
+    MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    when(mongoTemplate.stream(any(Query.class), eq(MemberDocument.class))).thenAnswer(invocation ->
+        IntStream.range(0, MEMBERS).mapToObj(i -> document(ids[i], emails[i], i)));
+    heapBefore = usedHeap();
+    MemberDirectory directory = new MemberDirectory(mongoTemplate, new SimpleMeterRegistry(),
+        Duration.ZERO);
+    long rebuildStart = System.nanoTime();
+    directory.rebuild();
+    long rebuildNanos = System.nanoTime() - rebuildStart;
+    long directoryBytes = usedHeap() - heapBefore;
+    Reference.reachabilityFence(directory);
+
+    long[] hit = lookups(directory, emails, false);
+    long[] miss = lookups(directory, emails, true);
+
+    System.out.printf("members:                     %,d%n", MEMBERS);
+    System.out.printf("HashMap of documents:        %,d MiB per million%n", mapBytes >> 20);
+    System.out.printf("member directory:            %,d MiB per million%n", directoryBytes >> 20);
+    System.out.printf("rebuild:                     %,d ms%n", rebuildNanos / 1_000_000);
+    System.out.printf("lookup hit p50/p99:          %,d / %,d ns%n", hit[0], hit[1]);
+    System.out.printf("lookup miss p50/p99:         %,d / %,d ns%n", miss[0], miss[1]);
+  }
+
+  private static long[] lookups(MemberDirectory directory, String[] emails, boolean unknown) {
+    String[] keys = new String[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      int index = (int) ((i * 2_654_435_761L) % MEMBERS);
+      // Fresh strings, as a request parameter would be, rather than the ones indexed
+      keys[i] = unknown ? "unknown" + index + "@example.com"
+          : String.valueOf(emails[index].toCharArray());
+    }
+    long[] latencies = new long[LOOKUPS];
+    long found = 0;
+    for (int round = 0; round < 2; round++) {
+      for (int i = 0; i < LOOKUPS; i++) {
+        long start = System.nanoTime();
+        found += directory.lookup(keys[i]) != null ? 1 : 0;
+        latencies[i] = System.nanoTime() - start;
+      }
+    }
+    if (found == 0 && !unknown) {
+      throw new IllegalStateException("directory found nothing");
+    }
+    Arrays.sort(latencies);
+    return new long[] {latencies[LOOKUPS / 2], latencies[(int) (LOOKUPS * 0.99)]};
+  }
+
+  private static MemberDocument document(String id, String email, int i) {
+    MemberDocument document = new MemberDocument(id, "Member " + i, email, "1234567890",
+        "$2a$10$abcdefghijklmnopqrstuuKfP4xKNMWCPsBLXrQ8PV1yKz0c9VlFe", "ROLE_USER");
+    document.setVersion((long) i % 10);
+    return document;
+  }
+
+  private long usedHeap() throws InterruptedException {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
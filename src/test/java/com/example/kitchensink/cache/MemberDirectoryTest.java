@@ -0,0 +1,210 @@
+package com.example.kitchensink.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.model.Member;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+@ExtendWith(MockitoExtension.class)
+class MemberDirectoryTest {
+
+  private static final String ALICE_ID = new ObjectId().toHexString();
+  private static final String BOB_ID = new ObjectId().toHexString();
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  private SimpleMeterRegistry registry;
+  private MemberDirectory directory;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    directory = new MemberDirectory(mongoTemplate, registry, Duration.ofMinutes(5));
+  }
+
+  @Test
+  void lookup_BeforeFirstRebuild_ShouldFindNothing() {
+    directory.onMemberChanged(MemberChangedEvent.created(member(ALICE_ID, "alice@example.com", 0L)));
+
+    assertNull(directory.lookup("alice@example.com"));
+  }
+
+  @Test
+  void rebuild_ShouldIndexEveryMemberWithAnObjectId() {
+    stream(document(ALICE_ID, "alice@example.com", "ROLE_ADMIN", 4L),
+        document(BOB_ID, "bob@example.com", "ROLE_USER", null),
+        document("legacy-id", "legacy@example.com", "ROLE_USER", 1L));
+
+    directory.rebuild();
+
+    assertEquals(new MemberDirectory.Entry(ALICE_ID, "ROLE_ADMIN", 4),
+        directory.lookup("alice@example.com"));
+    assertEquals(new MemberDirectory.Entry(BOB_ID, "ROLE_USER", 0),
+        directory.lookup("bob@example.com"));
+    assertNull(directory.lookup("legacy@example.com"));
+    assertNull(directory.lookup("nobody@example.com"));
+    assertEquals(2, registry.get("kitchensink.member.directory.size").gauge().value());
+  }
+
+  @Test
+  void onMemberChanged_ShouldTrackCreatesUpdatesAndDeletes() {
+    stream();
+    directory.rebuild();
+
+    directory.onMemberChanged(MemberChangedEvent.created(member(ALICE_ID, "alice@example.com", 0L)));
+    directory.onMemberChanged(MemberChangedEvent.updated(member(ALICE_ID, "alice@example.com", 1L)));
+    assertEquals(1, directory.lookup("alice@example.com").version());
+
+    directory.onMemberChanged(MemberChangedEvent.updated(member(ALICE_ID, "alice@new.example.com", 2L)));
+    assertNull(directory.lookup("alice@example.com"));
+    assertEquals(ALICE_ID, directory.lookup("alice@new.example.com").id());
+
+    directory.onMemberChanged(MemberChangedEvent.deleted(ALICE_ID, "alice@new.example.com"));
+    assertNull(directory.lookup("alice@new.example.com"));
+  }
+
+  @Test
+  void onMemberChanged_DeleteWithoutEmail_ShouldStillFindTheMember() {
+    stream(document(ALICE_ID, "alice@example.com", "ROLE_USER", 0L));
+    directory.rebuild();
+
+    directory.onMemberChanged(MemberChangedEvent.deleted(ALICE_ID));
+
+    assertNull(directory.lookup("alice@example.com"));
+  }
+
+  @Test
+  void onMemberChanged_DeleteOfAnEmailTakenOver_ShouldKeepTheNewOwner() {
+    stream(document(BOB_ID, "alice@example.com", "ROLE_USER", 0L));
+    directory.rebuild();
+
+    directory.onMemberChanged(MemberChangedEvent.deleted(ALICE_ID, "alice@example.com"));
+
+    assertEquals(BOB_ID, directory.lookup("alice@example.com").id());
+  }
+
+  @Test
+  void onMemberChanged_OutOfOrder_ShouldKeepTheNewerVersion() {
+    stream(document(ALICE_ID, "alice@example.com", "ROLE_USER", 5L));
+    directory.rebuild();
+
+    directory.onMemberChanged(MemberChangedEvent.updated(member(ALICE_ID, "alice@example.com", 4L)));
+
+    assertEquals(5, directory.lookup("alice@example.com").version());
+  }
+
+  @Test
+  void rebuild_ShouldReplayChangesMadeWhileStreaming() {
+    when(mongoTemplate.stream(any(Query.class), eq(MemberDocument.class))).thenAnswer(invocation -> {
+      // Written after the stream's snapshot: Bob is created and Alice deleted
+      directory.onMemberChanged(MemberChangedEvent.created(member(BOB_ID, "bob@example.com", 0L)));
+      directory.onMemberChanged(MemberChangedEvent.deleted(ALICE_ID, "alice@example.com"));
+      return Stream.of(document(ALICE_ID, "alice@example.com", "ROLE_USER", 0L));
+    });
+
+    directory.rebuild();
+
+    assertNull(directory.lookup("alice@example.com"));
+    assertEquals(BOB_ID, directory.lookup("bob@example.com").id());
+  }
+
+  @Test
+  void onMemberChanged_ForBulkChange_ShouldFindNothingUntilRebuilt() throws Exception {
+    CountDownLatch checked = new CountDownLatch(1);
+    when(mongoTemplate.stream(any(Query.class), eq(MemberDocument.class)))
+        .thenReturn(Stream.of(document(ALICE_ID, "alice@example.com", "ROLE_ADMIN", 0L)))
+        .thenAnswer(invocation -> {
+          // Hold the queued rebuild until the stale entry is known to be hidden
+          checked.await();
+          return Stream.of(document(ALICE_ID, "alice@example.com", "ROLE_USER", 1L));
+        });
+    directory.rebuild();
+
+    directory.onMemberChanged(MemberChangedEvent.bulk());
+
+    assertNull(directory.lookup("alice@example.com"));
+    checked.countDown();
+    for (int i = 0; i < 100 && directory.lookup("alice@example.com") == null; i++) {
+      Thread.sleep(20);
+    }
+    assertEquals(new MemberDirectory.Entry(ALICE_ID, "ROLE_USER", 1),
+        directory.lookup("alice@example.com"));
+    directory.shutdown();
+  }
+
+  @Test
+  void onMemberChanged_ShouldGrowPastTheInitialCapacity() {
+    stream();
+    directory.rebuild();
+
+    for (int i = 0; i < 1_000; i++) {
+      directory.onMemberChanged(MemberChangedEvent.created(
+          member(new ObjectId().toHexString(), "member" + i + "@example.com", (long) i)));
+    }
+
+    for (int i = 0; i < 1_000; i++) {
+      assertEquals(i, directory.lookup("member" + i + "@example.com").version());
+    }
+  }
+
+  @Test
+  void withoutARefreshInterval_ShouldNotBeBuiltOrTrusted() {
+    MemberDirectory local = new MemberDirectory(mongoTemplate, registry, Duration.ZERO);
+
+    local.start();
+    local.onMemberChanged(MemberChangedEvent.created(member(ALICE_ID, "alice@example.com", 0L)));
+
+    assertFalse(local.isKeptCurrent());
+    assertNull(local.lookup("alice@example.com"));
+    verify(mongoTemplate, never()).stream(any(Query.class), eq(MemberDocument.class));
+    local.shutdown();
+  }
+
+  @Test
+  void disabled_ShouldFindNothing() {
+    MemberDirectory disabled = MemberDirectory.disabled();
+
+    disabled.start();
+    disabled.onMemberChanged(MemberChangedEvent.created(member(ALICE_ID, "alice@example.com", 0L)));
+
+    assertNull(disabled.lookup("alice@example.com"));
+  }
+
+  private void stream(MemberDocument... documents) {
+    when(mongoTemplate.stream(any(Query.class), eq(MemberDocument.class)))
+        .thenReturn(Stream.of(documents));
+  }
+
+  private static MemberDocument document(String id, String email, String role, Long version) {
+    MemberDocument document = new MemberDocument(id, "Name", email, null, null, role);
+    document.setVersion(version);
+    return document;
+  }
+
+  private static Member member(String id, String email, Long version) {
+    Member member = new Member(id, "Name", email, null, "1234567890", "ROLE_USER");
+    member.setVersion(version);
+    return member;
+  }
+}
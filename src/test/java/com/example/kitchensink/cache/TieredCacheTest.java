@@ -0,0 +1,310 @@
+package com.example.kitchensink.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.example.kitchensink.config.CacheConfig;
+import com.example.kitchensink.model.Member;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TieredCacheTest {
+
+  private static final TieredCache.Settings SETTINGS = new TieredCache.Settings(
+      100, Duration.ofSeconds(30), Duration.ofSeconds(5), Duration.ofMinutes(1), 1.0);
+
+  private final ObjectMapper mapper = CacheConfig.sharedCacheMapper();
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicInteger loads = new AtomicInteger();
+
+  private SimpleMeterRegistry registry;
+  private double random;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    random = 0.5;
+  }
+
+  @Test
+  void get_ShouldLoadOnceAndServeHitsFromFirstLevel() {
+    TieredCache<Member> cache = cache(SETTINGS, null);
+
+    Member first = cache.get("1", this::loadMember);
+    Member second = cache.get("1", this::loadMember);
+
+    assertSame(first, second);
+    assertEquals(1, loads.get());
+    assertEquals(1, count("l1", "hit"));
+    assertEquals(1, count("l1", "miss"));
+    assertEquals(0.5, registry.get("kitchensink.cache.hit.ratio").tag("cache", "test").gauge().value());
+    assertEquals(1, registry.get("kitchensink.cache.loads").tag("cache", "test").timer().count());
+  }
+
+  @Test
+  void get_ShouldReloadAfterTtl() {
+    TieredCache<Member> cache = cache(SETTINGS, null);
+    cache.get("1", this::loadMember);
+
+    clock.addAndGet(Duration.ofSeconds(31).toNanos());
+    cache.get("1", this::loadMember);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void get_WithThousandConcurrentMisses_ShouldQueryOnce() throws Exception {
+    TieredCache<Member> cache = new TieredCache<>("test", SETTINGS, null, mapper,
+        mapper.constructType(Member.class), registry, Runnable::run);
+    CountDownLatch start = new CountDownLatch(1);
+    Function<String, Member> slowLoader = id -> {
+      loads.incrementAndGet();
+      sleep(200);
+      return member(id);
+    };
+
+    List<Future<Member>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 1000; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return cache.get("hot", slowLoader);
+        }));
+      }
+      start.countDown();
+      for (Future<Member> result : results) {
+        assertEquals("hot", result.get(10, TimeUnit.SECONDS).getId());
+      }
+    }
+
+    assertEquals(1, loads.get());
+    assertEquals(999, registry.get("kitchensink.cache.coalesced").tag("cache", "test").counter().count()
+        + count("l1", "hit"));
+  }
+
+  @Test
+  void get_WhenLoaderFails_ShouldPropagateAndNotCache() {
+    TieredCache<Member> cache = cache(SETTINGS, null);
+
+    assertThrows(IllegalStateException.class, () -> cache.get("1", id -> {
+      throw new IllegalStateException("database down");
+    }));
+    cache.get("1", this::loadMember);
+
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void get_ShouldCacheMissesForNegativeTtl() {
+    TieredCache<Member> cache = cache(SETTINGS, null);
+    Function<String, Member> unknown = email -> {
+      loads.incrementAndGet();
+      return null;
+    };
+
+    assertNull(cache.get("nobody@example.com", unknown));
+    assertNull(cache.get("nobody@example.com", unknown));
+    clock.addAndGet(Duration.ofSeconds(6).toNanos());
+    assertNull(cache.get("nobody@example.com", unknown));
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void get_NearExpiry_ShouldRefreshEarlyOnceAndKeepServingCachedValue() {
+    TieredCache<Member> cache = cache(SETTINGS, null);
+    Function<String, Member> slowLoader = id -> {
+      loads.incrementAndGet();
+      clock.addAndGet(Duration.ofSeconds(2).toNanos());
+      return member(id);
+    };
+    Member original = cache.get("1", slowLoader);
+
+    // 1s before expiry: with a 2s load and random 0.5, the XFetch gap is ~1.4s
+    clock.addAndGet(Duration.ofSeconds(29).toNanos());
+    Member served = cache.get("1", slowLoader);
+
+    assertSame(original, served);
+    assertEquals(2, loads.get());
+    assertEquals(1, registry.get("kitchensink.cache.refreshes").tag("cache", "test").counter().count());
+  }
+
+  @Test
+  void get_NearExpiryAfterRefreshExecutorShutdown_ShouldRefreshOnTheCallingThread() {
+    ExecutorService refreshExecutor = Executors.newSingleThreadExecutor();
+    refreshExecutor.shutdown();
+    TieredCache<Member> cache = new TieredCache<>("test", SETTINGS, null, mapper,
+        mapper.constructType(Member.class), registry, refreshExecutor, clock::get, () -> random);
+    Function<String, Member> slowLoader = id -> {
+      loads.incrementAndGet();
+      clock.addAndGet(Duration.ofSeconds(2).toNanos());
+      return member(id);
+    };
+    cache.get("1", slowLoader);
+
+    clock.addAndGet(Duration.ofSeconds(29).toNanos());
+    cache.get("1", slowLoader);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void get_FarFromExpiry_ShouldNotRefreshEarly() {
+    TieredCache<Member> cache = cache(SETTINGS, null);
+    cache.get("1", this::loadMember);
+
+    clock.addAndGet(Duration.ofSeconds(10).toNanos());
+    cache.get("1", this::loadMember);
+
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void get_WithSharedCache_ShouldServeOtherNodesFromSecondLevel() {
+    InMemorySharedCache shared = new InMemorySharedCache(clock::get);
+    TieredCache<Member> nodeA = cache(SETTINGS, shared);
+    TieredCache<Member> nodeB = cache(SETTINGS, shared);
+
+    nodeA.get("1", this::loadMember);
+    Member fromShared = nodeB.get("1", this::loadMember);
+
+    assertEquals(1, loads.get());
+    assertEquals("1", fromShared.getId());
+    assertEquals(7L, fromShared.getVersion());
+    assertEquals(1, count("l2", "hit"));
+  }
+
+  @Test
+  void get_WhenSharedCacheFails_ShouldFallBackToLoader() {
+    InMemorySharedCache shared = new InMemorySharedCache(clock::get);
+    shared.failing = true;
+    TieredCache<Member> cache = cache(SETTINGS, shared);
+
+    Member member = cache.get("1", this::loadMember);
+
+    assertEquals("1", member.getId());
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void get_ShouldNotStoreMissesInSecondLevel() {
+    InMemorySharedCache shared = new InMemorySharedCache(clock::get);
+    TieredCache<Member> cache = cache(SETTINGS, shared);
+
+    cache.get("nobody", id -> null);
+
+    assertFalse(shared.contains("test:nobody"));
+  }
+
+  @Test
+  void evict_ShouldDropEntryFromBothLevels() {
+    InMemorySharedCache shared = new InMemorySharedCache(clock::get);
+    TieredCache<Member> cache = cache(SETTINGS, shared);
+    cache.get("1", this::loadMember);
+
+    cache.evict("1");
+    cache.get("1", this::loadMember);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void put_ShouldReplaceEntryInBothLevels() {
+    InMemorySharedCache shared = new InMemorySharedCache(clock::get);
+    TieredCache<Member> nodeA = cache(SETTINGS, shared);
+    TieredCache<Member> nodeB = cache(SETTINGS, shared);
+    nodeA.get("1", this::loadMember);
+    Member written = member("1");
+    written.setName("Renamed");
+
+    nodeA.put("1", written);
+
+    assertSame(written, nodeA.get("1", this::loadMember));
+    assertEquals("Renamed", nodeB.get("1", this::loadMember).getName());
+    assertEquals(1, loads.get());
+  }
+
+  @Test
+  void put_DuringLoad_ShouldNotBeOverwrittenByTheLoad() {
+    TieredCache<Member> cache = cache(SETTINGS, null);
+    Member written = member("1");
+
+    cache.get("1", id -> {
+      cache.put("1", written);
+      return loadMember(id);
+    });
+
+    assertSame(written, cache.get("1", this::loadMember));
+  }
+
+  @Test
+  void evict_DuringLoad_ShouldNotStoreStaleValue() {
+    TieredCache<Member> cache = cache(SETTINGS, null);
+
+    cache.get("1", id -> {
+      cache.evict("1");
+      return loadMember(id);
+    });
+    cache.get("1", this::loadMember);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void get_AtCapacity_ShouldEvictAnEntry() {
+    TieredCache<Member> cache = cache(new TieredCache.Settings(2, Duration.ofSeconds(30),
+        Duration.ZERO, Duration.ofMinutes(1), 1.0), null);
+
+    cache.get("1", this::loadMember);
+    cache.get("2", this::loadMember);
+    cache.get("3", this::loadMember);
+
+    assertEquals(2, registry.get("kitchensink.cache.size").tag("cache", "test").gauge().value());
+    assertEquals(1, registry.get("kitchensink.cache.evictions").tag("cache", "test").counter().count());
+  }
+
+  private TieredCache<Member> cache(TieredCache.Settings settings, SharedCache shared) {
+    return new TieredCache<>("test", settings, shared, mapper, mapper.constructType(Member.class),
+        registry, Runnable::run, clock::get, () -> random);
+  }
+
+  private Member loadMember(String id) {
+    loads.incrementAndGet();
+    return member(id);
+  }
+
+  private static Member member(String id) {
+    Member member = new Member(id, "Member " + id, id + "@example.com", null, "1234567890", "ROLE_USER");
+    member.setVersion(7L);
+    return member;
+  }
+
+  private double count(String level, String result) {
+    return registry.find("kitchensink.cache.gets").tag("level", level).tag("result", result)
+        .counters().stream().mapToDouble(counter -> counter.count()).sum();
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
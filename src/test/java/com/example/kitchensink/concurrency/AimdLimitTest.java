@@ -0,0 +1,99 @@
+package com.example.kitchensink.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class AimdLimitTest {
+
+  private static final long MS = 1_000_000;
+
+  @Test
+  void tryAcquire_ShouldAdmitUpToTheLimitWithoutWaiting() {
+    AimdLimit limit = new AimdLimit(2, 1, 10, 0.5, Duration.ofMillis(100));
+
+    assertThat(limit.tryAcquire()).isTrue();
+    assertThat(limit.tryAcquire()).isTrue();
+    assertThat(limit.tryAcquire()).isFalse();
+    assertThat(limit.getInflight()).isEqualTo(2);
+
+    limit.release();
+
+    assertThat(limit.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void release_WhenFastAndBusy_ShouldRaiseTheLimitByAboutOnePerLimitsWorth() {
+    AimdLimit limit = new AimdLimit(4, 1, 6, 0.5, Duration.ofMillis(100));
+    acquire(limit, 4);
+
+    for (int i = 0; i < 5; i++) {
+      limit.release(0, 10 * MS);
+      limit.tryAcquire();
+    }
+    assertThat(limit.getLimit()).isEqualTo(5);
+
+    for (int i = 0; i < 50; i++) {
+      limit.release(0, 10 * MS);
+      limit.tryAcquire();
+    }
+    assertThat(limit.getLimit()).as("capped at the maximum").isEqualTo(6);
+  }
+
+  @Test
+  void release_WhenFastButMostlyIdle_ShouldLeaveTheLimit() {
+    AimdLimit limit = new AimdLimit(10, 1, 20, 0.5, Duration.ofMillis(100));
+    acquire(limit, 1);
+
+    limit.release(0, 10 * MS);
+
+    assertThat(limit.getLimit()).isEqualTo(10);
+  }
+
+  @Test
+  void release_WhenSlow_ShouldCutTheLimitOncePerBurst() {
+    AimdLimit limit = new AimdLimit(16, 2, 20, 0.5, Duration.ofMillis(100));
+    acquire(limit, 4);
+
+    // Admitted together, all slow: only the first completion cuts
+    limit.release(0, 200 * MS);
+    limit.release(0, 210 * MS);
+    limit.release(10 * MS, 220 * MS);
+    assertThat(limit.getLimit()).isEqualTo(8);
+
+    // Admitted after the cut and still slow: cut again
+    limit.release(250 * MS, 400 * MS);
+    assertThat(limit.getLimit()).isEqualTo(4);
+  }
+
+  @Test
+  void release_WhenSlow_ShouldNotCutBelowTheMinimum() {
+    AimdLimit limit = new AimdLimit(3, 2, 20, 0.5, Duration.ofMillis(100));
+    acquire(limit, 2);
+
+    limit.release(0, 200 * MS);
+    limit.release(300 * MS, 500 * MS);
+
+    assertThat(limit.getLimit()).isEqualTo(2);
+    assertThat(limit.getInflight()).isZero();
+  }
+
+  @Test
+  void constructor_ShouldRefuseInconsistentSettings() {
+    Duration threshold = Duration.ofMillis(100);
+    assertThatThrownBy(() -> new AimdLimit(0, 0, 10, 0.5, threshold))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new AimdLimit(20, 1, 10, 0.5, threshold))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new AimdLimit(5, 1, 10, 1.0, threshold))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static void acquire(AimdLimit limit, int requests) {
+    for (int i = 0; i < requests; i++) {
+      assertThat(limit.tryAcquire()).isTrue();
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.example.kitchensink.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Logins next to a flood of dashboard renderings, all sharing a pool of {@value #CONNECTIONS}
+ * simulated MongoDB connections. Logins arrive at {@value #LOGINS_PER_SECOND} per second and
+ * query for {@value #LOGIN_QUERY_MILLIS} ms; {@code /admin/home} renderings arrive at
+ * {@value #RENDERS_PER_SECOND} per second and hold a connection for {@value #RENDER_QUERY_MILLIS}
+ * ms while they load every member, which is more than the whole pool can serve.
+ * <p>
+ * Without bulkheads, logins queue for a connection behind the renderings. With a UI bulkhead of
+ * {@value #UI_SLOTS} slots, the renderings can hold at most that many connections and logins keep
+ * the rest. Prints login latency percentiles for both. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BulkheadBenchmark {
+
+  private static final int CONNECTIONS = 10;
+  private static final int LOGINS_PER_SECOND = 200;
+  private static final int RENDERS_PER_SECOND = 100;
+  private static final long LOGIN_QUERY_MILLIS = 5;
+  private static final long RENDER_QUERY_MILLIS = 200;
+  private static final int UI_SLOTS = 4;
+  private static final Duration DURATION = Duration.ofSeconds(5);
+
+  @Test
+  void loginLatencyUnderADashboardFlood() throws Exception {
+    Result shared = run(false);
+    Result isolated = run(true);
+
+    System.out.printf("%-10s %12s %12s %14s %14s%n",
+        "bulkheads", "login p50", "login p99", "renders done", "renders 503");
+    print("none", shared);
+    print("per-group", isolated);
+
+    assertThat(isolated.loginP99Millis()).isLessThan(shared.loginP99Millis());
+  }
+
+  private static Result run(boolean isolated) throws Exception {
+    Semaphore connections = new Semaphore(CONNECTIONS, true);
+    BulkheadFilter filter = new BulkheadFilter(isolated
+        ? Map.of(EndpointGroup.UI, new Bulkhead(UI_SLOTS, 50, Duration.ofSeconds(1)),
+            EndpointGroup.AUTH, new Bulkhead(50, 100, Duration.ofSeconds(2)))
+        : Map.of(), new SimpleMeterRegistry());
+
+    ConcurrentLinkedQueue<Long> logins = new ConcurrentLinkedQueue<>();
+    ConcurrentLinkedQueue<Integer> renders = new ConcurrentLinkedQueue<>();
+    long start = System.nanoTime();
+    long end = start + DURATION.toNanos();
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      clients.submit(() -> arrive(clients, start, end, RENDERS_PER_SECOND, () -> {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/admin/home"), response,
+            query(connections, RENDER_QUERY_MILLIS));
+        renders.add(response.getStatus());
+      }));
+      arrive(clients, start, end, LOGINS_PER_SECOND, () -> {
+        long scheduled = System.nanoTime();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"),
+            new MockHttpServletResponse(), query(connections, LOGIN_QUERY_MILLIS));
+        logins.add(System.nanoTime() - scheduled);
+      });
+    }
+
+    List<Long> sorted = new ArrayList<>(logins);
+    Collections.sort(sorted);
+    int done = (int) renders.stream().filter(status -> status == 200).count();
+    return new Result(millis(sorted, 0.50), millis(sorted, 0.99), done, renders.size() - done);
+  }
+
+  /** Submits {@code request} at a steady rate until {@code end}. */
+  private static Void arrive(ExecutorService clients, long start, long end, int perSecond,
+      Request request) throws InterruptedException {
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / perSecond;
+    for (long arrival = start; arrival < end; arrival += intervalNanos) {
+      long wait = arrival - System.nanoTime();
+      if (wait > 0) {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      }
+      clients.submit(() -> {
+        request.run();
+        return null;
+      });
+    }
+    return null;
+  }
+
+  private static FilterChain query(Semaphore connections, long millis) {
+    return (request, response) -> {
+      connections.acquireUninterruptibly();
+      try {
+        Thread.sleep(millis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        connections.release();
+      }
+    };
+  }
+
+  private static double millis(List<Long> sortedNanos, double percentile) {
+    if (sortedNanos.isEmpty()) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+    return sortedNanos.get(Math.max(0, index)) / 1e6;
+  }
+
+  private static void print(String name, Result result) {
+    System.out.printf("%-10s %12.1f %12.1f %14d %14d%n", name, result.loginP50Millis(),
+        result.loginP99Millis(), result.rendersDone(), result.rendersRejected());
+  }
+
+  private interface Request {
+    void run() throws Exception;
+  }
+
+  private record Result(double loginP50Millis, double loginP99Millis, int rendersDone,
+      int rendersRejected) {
+  }
+}
@@ -0,0 +1,125 @@
+package com.example.kitchensink.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class BulkheadFilterTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private final AtomicInteger executions = new AtomicInteger();
+
+  private Bulkhead uiBulkhead;
+
+  private BulkheadFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    uiBulkhead = new Bulkhead(1, 0, Duration.ofMillis(10));
+    filter = new BulkheadFilter(Map.of(EndpointGroup.UI, uiBulkhead,
+        EndpointGroup.AUTH, new Bulkhead(1, 0, Duration.ofMillis(10))), registry);
+  }
+
+  @Test
+  void request_WithTheBulkheadFull_ShouldBeTurnedAwayWith503() throws Exception {
+    MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+    MockHttpServletResponse first = get("/admin/home", (request, response) -> {
+      executions.incrementAndGet();
+      // A second page render arrives while the first holds the only UI slot
+      nested[0] = get("/user-profile", (r, s) -> executions.incrementAndGet());
+    });
+
+    assertThat(first.getStatus()).isEqualTo(200);
+    assertThat(executions).hasValue(1);
+    assertThat(nested[0].getStatus()).isEqualTo(503);
+    assertThat(nested[0].getHeader("Retry-After")).isEqualTo("1");
+    assertThat(nested[0].getContentAsString()).contains("ui");
+    assertThat(registry.get("kitchensink.bulkhead.rejected").tag("group", "ui")
+        .tag("reason", "queue-full").counter().count()).isEqualTo(1);
+    assertThat(uiBulkhead.getActive()).isZero();
+  }
+
+  @Test
+  void request_QueuedPastMaxWait_ShouldBeCountedAsTimedOut() throws Exception {
+    uiBulkhead = new Bulkhead(1, 1, Duration.ofMillis(10));
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    filter = new BulkheadFilter(Map.of(EndpointGroup.UI, uiBulkhead), meters);
+
+    MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+    get("/admin/home", (request, response) ->
+        nested[0] = get("/user-profile", (r, s) -> executions.incrementAndGet()));
+
+    assertThat(nested[0].getStatus()).isEqualTo(503);
+    assertThat(meters.get("kitchensink.bulkhead.rejected").tag("group", "ui")
+        .tag("reason", "timed-out").counter().count()).isEqualTo(1);
+    assertThat(meters.get("kitchensink.bulkhead.wait").tag("group", "ui").timer().count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void groups_ShouldHaveSeparateBulkheads() throws Exception {
+    MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+    get("/admin/home", (request, response) ->
+        nested[0] = get("/api/auth/login", (r, s) -> executions.incrementAndGet()));
+
+    assertThat(nested[0].getStatus()).isEqualTo(200);
+    assertThat(executions).hasValue(1);
+  }
+
+  @Test
+  void actuatorAndGroupsWithoutABulkhead_ShouldNeverBeTurnedAway() throws Exception {
+    MockHttpServletResponse[] nested = new MockHttpServletResponse[2];
+    get("/admin/home", (request, response) -> {
+      nested[0] = get("/actuator/health", (r, s) -> executions.incrementAndGet());
+      nested[1] = get("/admin/members", (r, s) -> executions.incrementAndGet());
+    });
+
+    assertThat(nested[0].getStatus()).isEqualTo(200);
+    assertThat(nested[1].getStatus()).isEqualTo(200);
+    assertThat(executions).hasValue(2);
+  }
+
+  @Test
+  void bulkheadMetrics_ShouldBeExportedPerGroup() throws Exception {
+    double[] active = new double[1];
+    get("/admin/home", (request, response) -> active[0] = registry
+        .get("kitchensink.bulkhead.active").tag("group", "ui").gauge().value());
+
+    assertThat(active[0]).isEqualTo(1);
+    assertThat(registry.get("kitchensink.bulkhead.active").tag("group", "ui").gauge().value())
+        .isZero();
+    assertThat(registry.get("kitchensink.bulkhead.queued").tag("group", "auth").gauge().value())
+        .isZero();
+    assertThat(registry.get("kitchensink.bulkhead.max-concurrent").tag("group", "ui")
+        .gauge().value()).isEqualTo(1);
+  }
+
+  @Test
+  void failedRequest_ShouldStillReleaseItsSlot() {
+    assertThatThrownBy(() -> get("/admin/home", (request, response) -> {
+      throw new IllegalStateException("boom");
+    })).hasMessage("boom");
+
+    assertThat(uiBulkhead.getActive()).isZero();
+  }
+
+  private MockHttpServletResponse get(String path, FilterChain chain)
+      throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.kitchensink.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.kitchensink.concurrency.Bulkhead.Admission;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class BulkheadTest {
+
+  @Test
+  void acquire_WithAFreeSlot_ShouldAdmitAtOnce() throws Exception {
+    Bulkhead bulkhead = new Bulkhead(2, 0, Duration.ofSeconds(1));
+
+    assertThat(bulkhead.acquire()).isEqualTo(Admission.ADMITTED);
+    assertThat(bulkhead.acquire()).isEqualTo(Admission.ADMITTED);
+    assertThat(bulkhead.getActive()).isEqualTo(2);
+
+    bulkhead.release();
+
+    assertThat(bulkhead.getActive()).isEqualTo(1);
+  }
+
+  @Test
+  void acquire_WithNoSlotAndNoQueue_ShouldBeTurnedAwayAtOnce() throws Exception {
+    Bulkhead bulkhead = new Bulkhead(1, 0, Duration.ofSeconds(10));
+    bulkhead.acquire();
+
+    long start = System.nanoTime();
+    assertThat(bulkhead.acquire()).isEqualTo(Admission.QUEUE_FULL);
+    assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+    assertThat(bulkhead.getQueued()).isZero();
+  }
+
+  @Test
+  void acquire_WhenQueuedTooLong_ShouldTimeOut() throws Exception {
+    Bulkhead bulkhead = new Bulkhead(1, 1, Duration.ofMillis(50));
+    bulkhead.acquire();
+
+    assertThat(bulkhead.acquire()).isEqualTo(Admission.TIMED_OUT);
+    assertThat(bulkhead.getQueued()).isZero();
+  }
+
+  @Test
+  void acquire_WhenQueued_ShouldGetTheNextFreeSlot() throws Exception {
+    Bulkhead bulkhead = new Bulkhead(1, 1, Duration.ofSeconds(10));
+    bulkhead.acquire();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<Admission> queued = executor.submit(bulkhead::acquire);
+      awaitQueued(bulkhead, 1);
+
+      // The queue is full, so a third request is turned away
+      assertThat(bulkhead.acquire()).isEqualTo(Admission.QUEUE_FULL);
+
+      bulkhead.release();
+
+      assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(Admission.ADMITTED);
+      assertThat(bulkhead.getQueued()).isZero();
+      assertThat(bulkhead.getActive()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  void acquire_WhenInterruptedWhileQueued_ShouldLeaveTheQueue() throws Exception {
+    Bulkhead bulkhead = new Bulkhead(1, 1, Duration.ofSeconds(10));
+    bulkhead.acquire();
+    CompletableFuture<Throwable> failure = new CompletableFuture<>();
+    Thread waiter = Thread.ofVirtual().start(() -> {
+      try {
+        bulkhead.acquire();
+        failure.complete(null);
+      } catch (InterruptedException e) {
+        failure.complete(e);
+      }
+    });
+    awaitQueued(bulkhead, 1);
+
+    waiter.interrupt();
+
+    assertThat(failure.get(5, TimeUnit.SECONDS)).isInstanceOf(InterruptedException.class);
+    assertThat(bulkhead.getQueued()).isZero();
+  }
+
+  @Test
+  void constructor_ShouldRejectInvalidSizes() {
+    assertThatThrownBy(() -> new Bulkhead(0, 1, Duration.ofSeconds(1)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new Bulkhead(1, -1, Duration.ofSeconds(1)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static void awaitQueued(Bulkhead bulkhead, int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (bulkhead.getQueued() < expected && System.nanoTime() < deadline) {
+      Thread.sleep(1);
+    }
+    assertThat(bulkhead.getQueued()).isEqualTo(expected);
+  }
+}
@@ -0,0 +1,130 @@
+package com.example.kitchensink.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Load test for the admin API behind a pool of {@value #CONNECTIONS} simulated MongoDB
+ * connections. Requests arrive at a steady {@value #REQUESTS_PER_SECOND} per second (an open
+ * loop, as real clients keep arriving whether or not earlier requests finished). Each query
+ * takes {@value #NORMAL_QUERY_MILLIS} ms, then {@value #SLOW_QUERY_MILLIS} ms once the database
+ * slows down, which leaves capacity for only half the arrivals.
+ * <p>
+ * Without a limit, requests queue for a connection and their latency grows for as long as the
+ * slowdown lasts. With the default limit settings, the admin API's limit shrinks until admitted
+ * requests stay under the latency threshold, and the excess is rejected in microseconds. Prints
+ * latency percentiles of the slowdown phase for both. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ConcurrencyLimitBenchmark {
+
+  private static final int CONNECTIONS = 10;
+  private static final int REQUESTS_PER_SECOND = 400;
+  private static final long NORMAL_QUERY_MILLIS = 5;
+  private static final long SLOW_QUERY_MILLIS = 50;
+  private static final Duration NORMAL_PHASE = Duration.ofSeconds(2);
+  private static final Duration SLOW_PHASE = Duration.ofSeconds(6);
+  private static final Duration LATENCY_THRESHOLD = Duration.ofMillis(500);
+
+  @Test
+  void p99UnderDatabaseSlowdown() throws Exception {
+    Result unlimited = run(false);
+    Result limited = run(true);
+
+    System.out.printf("%-10s %8s %10s %10s %10s %12s%n",
+        "limit", "served", "rejected", "p50 ms", "p99 ms", "reject p99");
+    print("none", unlimited);
+    print("aimd", limited);
+
+    assertThat(limited.p99Millis()).isLessThan(2 * LATENCY_THRESHOLD.toMillis());
+    assertThat(limited.p99Millis()).isLessThan(unlimited.p99Millis());
+  }
+
+  private static Result run(boolean limited) throws Exception {
+    Semaphore connections = new Semaphore(CONNECTIONS, true);
+    AtomicLong queryMillis = new AtomicLong(NORMAL_QUERY_MILLIS);
+    FilterChain adminApi = (request, response) -> {
+      connections.acquireUninterruptibly();
+      try {
+        Thread.sleep(queryMillis.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        connections.release();
+      }
+    };
+    ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(limited
+        ? Map.of(EndpointGroup.ADMIN_API, new AimdLimit(20, 2, 200, 0.9, LATENCY_THRESHOLD))
+        : Map.of(), new SimpleMeterRegistry());
+
+    ConcurrentLinkedQueue<long[]> samples = new ConcurrentLinkedQueue<>();
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / REQUESTS_PER_SECOND;
+    long start = System.nanoTime();
+    long slowFrom = start + NORMAL_PHASE.toNanos();
+    long end = slowFrom + SLOW_PHASE.toNanos();
+    try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (long arrival = start; arrival < end; arrival += intervalNanos) {
+        if (arrival >= slowFrom) {
+          queryMillis.set(SLOW_QUERY_MILLIS);
+        }
+        long wait = arrival - System.nanoTime();
+        if (wait > 0) {
+          TimeUnit.NANOSECONDS.sleep(wait);
+        }
+        long scheduled = arrival;
+        clients.submit(() -> {
+          MockHttpServletResponse response = new MockHttpServletResponse();
+          filter.doFilter(new MockHttpServletRequest("GET", "/admin/members"), response, adminApi);
+          if (scheduled >= slowFrom) {
+            samples.add(new long[] {System.nanoTime() - scheduled, response.getStatus()});
+          }
+          return null;
+        });
+      }
+    }
+
+    List<Long> served = new ArrayList<>();
+    List<Long> rejected = new ArrayList<>();
+    for (long[] sample : samples) {
+      (sample[1] == 200 ? served : rejected).add(sample[0]);
+    }
+    Collections.sort(served);
+    Collections.sort(rejected);
+    return new Result(served.size(), rejected.size(), millis(served, 0.50), millis(served, 0.99),
+        millis(rejected, 0.99));
+  }
+
+  private static double millis(List<Long> sortedNanos, double percentile) {
+    if (sortedNanos.isEmpty()) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+    return sortedNanos.get(Math.max(0, index)) / 1e6;
+  }
+
+  private static void print(String name, Result result) {
+    System.out.printf("%-10s %8d %10d %10.1f %10.1f %12.2f%n", name, result.served(),
+        result.rejected(), result.p50Millis(), result.p99Millis(), result.rejectedP99Millis());
+  }
+
+  private record Result(int served, int rejected, double p50Millis, double p99Millis,
+      double rejectedP99Millis) {
+  }
+}
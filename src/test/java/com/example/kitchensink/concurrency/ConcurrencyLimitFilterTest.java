@@ -0,0 +1,123 @@
+package com.example.kitchensink.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConcurrencyLimitFilterTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private final AtomicLong nanos = new AtomicLong();
+
+  private final AtomicInteger executions = new AtomicInteger();
+
+  private AimdLimit adminLimit;
+
+  private ConcurrencyLimitFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    adminLimit = new AimdLimit(1, 1, 10, 0.5, Duration.ofMillis(100));
+    filter = new ConcurrencyLimitFilter(Map.of(EndpointGroup.ADMIN_API, adminLimit,
+        EndpointGroup.AUTH, new AimdLimit(1, 1, 10, 0.5, Duration.ofMillis(100))),
+        registry, nanos::get);
+  }
+
+  @Test
+  void request_OverTheLimit_ShouldBeRejectedAtOnceWith503() throws Exception {
+    MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+    MockHttpServletResponse first = get("/admin/members", (request, response) -> {
+      executions.incrementAndGet();
+      // A second admin request arrives while the first is still in flight
+      nested[0] = get("/admin/members/1", (r, s) -> executions.incrementAndGet());
+    });
+
+    assertThat(first.getStatus()).isEqualTo(200);
+    assertThat(executions).hasValue(1);
+    assertThat(nested[0].getStatus()).isEqualTo(503);
+    assertThat(nested[0].getHeader("Retry-After")).isEqualTo("1");
+    assertThat(nested[0].getContentAsString()).contains("admin-api");
+    assertThat(registry.get("kitchensink.concurrency.rejected").tag("group", "admin-api")
+        .counter().count()).isEqualTo(1);
+    assertThat(adminLimit.getInflight()).isZero();
+  }
+
+  @Test
+  void groups_ShouldBeLimitedSeparately() throws Exception {
+    MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+    get("/admin/members", (request, response) ->
+        nested[0] = get("/api/auth/validate", (r, s) -> executions.incrementAndGet()));
+
+    assertThat(nested[0].getStatus()).isEqualTo(200);
+    assertThat(executions).hasValue(1);
+  }
+
+  @Test
+  void actuatorAndUnlimitedGroups_ShouldNeverBeRejected() throws Exception {
+    MockHttpServletResponse[] nested = new MockHttpServletResponse[2];
+    get("/admin/members", (request, response) -> {
+      nested[0] = get("/actuator/health", (r, s) -> executions.incrementAndGet());
+      nested[1] = get("/css/site.css", (r, s) -> executions.incrementAndGet());
+    });
+
+    assertThat(nested[0].getStatus()).isEqualTo(200);
+    assertThat(nested[1].getStatus()).isEqualTo(200);
+    assertThat(executions).hasValue(2);
+  }
+
+  @Test
+  void slowRequest_ShouldShrinkTheLimit() throws Exception {
+    adminLimit = new AimdLimit(8, 1, 10, 0.5, Duration.ofMillis(100));
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    filter = new ConcurrencyLimitFilter(Map.of(EndpointGroup.ADMIN_API, adminLimit), meters,
+        nanos::get);
+
+    get("/admin/members", (request, response) -> nanos.addAndGet(Duration.ofMillis(150).toNanos()));
+    assertThat(meters.get("kitchensink.concurrency.limit").tag("group", "admin-api")
+        .gauge().value()).isEqualTo(4);
+    assertThat(meters.get("kitchensink.concurrency.inflight").tag("group", "admin-api")
+        .gauge().value()).isZero();
+  }
+
+  @Test
+  void failedRequest_ShouldStillReleaseItsSlot() {
+    assertThatThrownBy(() -> get("/admin/members", (request, response) -> {
+      throw new IllegalStateException("boom");
+    })).hasMessage("boom");
+
+    assertThat(adminLimit.getInflight()).isZero();
+  }
+
+  @Test
+  void endpointGroup_ShouldClassifyPaths() {
+    assertThat(EndpointGroup.of("/api/auth/login")).isEqualTo(EndpointGroup.AUTH);
+    assertThat(EndpointGroup.of("/jwt-login")).isEqualTo(EndpointGroup.AUTH);
+    assertThat(EndpointGroup.of("/admin/members/stats")).isEqualTo(EndpointGroup.ADMIN_API);
+    assertThat(EndpointGroup.of("/admin/home")).isEqualTo(EndpointGroup.UI);
+    assertThat(EndpointGroup.of("/user-profile")).isEqualTo(EndpointGroup.UI);
+    assertThat(EndpointGroup.of("/js/app.js")).isEqualTo(EndpointGroup.STATIC);
+    assertThat(EndpointGroup.of("/favicon.ico")).isEqualTo(EndpointGroup.STATIC);
+    assertThat(EndpointGroup.of("/actuator/health")).isNull();
+  }
+
+  private MockHttpServletResponse get(String path, FilterChain chain)
+      throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+}
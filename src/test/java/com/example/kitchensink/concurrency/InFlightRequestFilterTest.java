@@ -0,0 +1,110 @@
+package com.example.kitchensink.concurrency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class InFlightRequestFilterTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  private final InFlightRequestFilter filter = new InFlightRequestFilter(registry);
+
+  private final AtomicInteger executions = new AtomicInteger();
+
+  @Test
+  void requests_ShouldBeCountedPerGroupWhileInFlight() throws Exception {
+    Map<?, ?>[] during = new Map<?, ?>[1];
+    double[] gauge = new double[1];
+    get("/admin/members", (request, response) -> get("/api/auth/validate", (r, s) -> {
+      during[0] = filter.getInFlight();
+      gauge[0] = registry.get("kitchensink.requests.inflight").tag("group", "auth")
+          .gauge().value();
+    }));
+
+    assertThat(during[0]).isEqualTo(Map.of(EndpointGroup.ADMIN_API, 1, EndpointGroup.AUTH, 1));
+    assertThat(gauge[0]).isEqualTo(1);
+    assertThat(filter.getInFlight()).isEmpty();
+    assertThat(filter.getTotalInFlight()).isZero();
+  }
+
+  @Test
+  void stopAccepting_ShouldTurnAwayNewRequestsButNotActuator() throws Exception {
+    filter.stopAccepting();
+
+    MockHttpServletResponse rejected = get("/api/auth/login", (r, s) -> executions.incrementAndGet());
+    MockHttpServletResponse probe = get("/actuator/health/readiness",
+        (r, s) -> executions.incrementAndGet());
+
+    assertThat(rejected.getStatus()).isEqualTo(503);
+    assertThat(rejected.getHeader("Connection")).isEqualTo("close");
+    assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+    assertThat(probe.getStatus()).isEqualTo(200);
+    assertThat(executions).hasValue(1);
+    assertThat(filter.isAccepting()).isFalse();
+    assertThat(filter.getTotalInFlight()).isZero();
+  }
+
+  @Test
+  void awaitDrained_ShouldReturnOnceTheLastRequestFinishes() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(1);
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<MockHttpServletResponse> signup = executor.submit(() ->
+          get("/api/auth/signup", (request, response) -> {
+            started.countDown();
+            await(finish);
+          }));
+      started.await();
+      filter.stopAccepting();
+
+      assertThat(filter.awaitDrained(Duration.ofMillis(100))).isFalse();
+      finish.countDown();
+
+      assertThat(filter.awaitDrained(Duration.ofSeconds(5))).isTrue();
+      assertThat(signup.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+    }
+  }
+
+  @Test
+  void asyncRequest_ShouldStopCountingOnceItGoesAsynchronous() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/members/events");
+    request.setAsyncSupported(true);
+
+    filter.doFilter(request, new MockHttpServletResponse(),
+        (r, s) -> r.startAsync());
+
+    assertThat(request.isAsyncStarted()).isTrue();
+    assertThat(filter.getTotalInFlight()).isZero();
+  }
+
+  private MockHttpServletResponse get(String path, FilterChain chain)
+      throws ServletException, IOException {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,73 @@
+package com.example.kitchensink.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.GenericBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+class LazyInitConfigTest {
+
+  private DefaultListableBeanFactory beanFactory;
+
+  @BeforeEach
+  void setUp() {
+    beanFactory = new DefaultListableBeanFactory();
+    register("springDocConfiguration", "org.springdoc.core.configuration.SpringDocConfiguration");
+    register("memberService", "com.example.kitchensink.service.MemberService");
+    GenericBeanDefinition openApiResource = new GenericBeanDefinition();
+    openApiResource.setFactoryBeanName("springDocConfiguration");
+    openApiResource.setFactoryMethodName("openApiResource");
+    beanFactory.registerBeanDefinition("openApiResource", openApiResource);
+  }
+
+  @Test
+  void markLazy_ShouldDeferBeansFromLazyPackages() {
+    LazyInitConfig.markLazy(beanFactory, LazyInitConfig.DEFAULT_LAZY_PACKAGES);
+
+    assertTrue(isLazy("springDocConfiguration"));
+    assertFalse(isLazy("memberService"));
+  }
+
+  @Test
+  void markLazy_ShouldDeferBeansProducedByLazyConfigurationClasses() {
+    LazyInitConfig.markLazy(beanFactory, LazyInitConfig.DEFAULT_LAZY_PACKAGES);
+
+    assertTrue(isLazy("openApiResource"));
+  }
+
+  @Test
+  void markLazy_ShouldLeaveInfrastructureBeansEager() {
+    register("springDocPostProcessor", "org.springdoc.core.providers.SpringDocPostProcessor");
+    beanFactory.getBeanDefinition("springDocPostProcessor").setRole(BeanDefinition.ROLE_INFRASTRUCTURE);
+
+    LazyInitConfig.markLazy(beanFactory, LazyInitConfig.DEFAULT_LAZY_PACKAGES);
+
+    assertFalse(isLazy("springDocPostProcessor"));
+  }
+
+  @Test
+  void lazyPackagesPostProcessor_ShouldReadPackagesFromEnvironment() {
+    MockEnvironment environment = new MockEnvironment()
+        .withProperty("kitchensink.startup.lazy-packages", "com.example.kitchensink.service.");
+
+    LazyInitConfig.lazyPackagesPostProcessor(environment).postProcessBeanFactory(beanFactory);
+
+    assertTrue(isLazy("memberService"));
+    assertFalse(isLazy("springDocConfiguration"));
+  }
+
+  private void register(String name, String className) {
+    GenericBeanDefinition definition = new GenericBeanDefinition();
+    definition.setBeanClassName(className);
+    beanFactory.registerBeanDefinition(name, definition);
+  }
+
+  private boolean isLazy(String name) {
+    return beanFactory.getBeanDefinition(name).isLazyInit();
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.kitchensink.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.example.kitchensink.monitoring.MongoPoolMonitor;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class MongoPoolConfigTest {
+
+  private MongoPoolConfig config;
+  private MongoPoolMonitor monitor;
+
+  @BeforeEach
+  void setUp() {
+    config = new MongoPoolConfig();
+    monitor = mock(MongoPoolMonitor.class);
+    ReflectionTestUtils.setField(config, "maxSize", 50);
+    ReflectionTestUtils.setField(config, "minSize", 10);
+    ReflectionTestUtils.setField(config, "maxConnecting", 4);
+    ReflectionTestUtils.setField(config, "maxWaitTime", Duration.ofSeconds(2));
+    ReflectionTestUtils.setField(config, "maxConnectionIdleTime", Duration.ofMinutes(5));
+    ReflectionTestUtils.setField(config, "maxConnectionLifeTime", Duration.ZERO);
+    ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(5));
+    ReflectionTestUtils.setField(config, "readTimeout", Duration.ofSeconds(15));
+    ReflectionTestUtils.setField(config, "serverSelectionTimeout", Duration.ofSeconds(5));
+    ReflectionTestUtils.setField(config, "readPreference", "secondaryPreferred");
+  }
+
+  @Test
+  void apply_ShouldOverridePoolAndTimeoutOptionsFromUri() {
+    MongoClientSettings.Builder builder = MongoClientSettings.builder()
+        .applyConnectionString(new ConnectionString("mongodb://localhost/?maxPoolSize=5&waitQueueTimeoutMS=60000"));
+
+    config.apply(builder, monitor);
+    MongoClientSettings settings = builder.build();
+
+    assertEquals(50, settings.getConnectionPoolSettings().getMaxSize());
+    assertEquals(10, settings.getConnectionPoolSettings().getMinSize());
+    assertEquals(4, settings.getConnectionPoolSettings().getMaxConnecting());
+    assertEquals(2000, settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS));
+    assertEquals(300_000, settings.getConnectionPoolSettings().getMaxConnectionIdleTime(TimeUnit.MILLISECONDS));
+    assertEquals(0, settings.getConnectionPoolSettings().getMaxConnectionLifeTime(TimeUnit.MILLISECONDS));
+    assertEquals(5000, settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS));
+    assertEquals(15_000, settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS));
+    assertEquals(5000, settings.getClusterSettings().getServerSelectionTimeout(TimeUnit.MILLISECONDS));
+    assertEquals(ReadPreference.secondaryPreferred(), settings.getReadPreference());
+  }
+
+  @Test
+  void apply_ShouldRegisterPoolMonitor() {
+    MongoClientSettings.Builder builder = MongoClientSettings.builder();
+
+    config.apply(builder, monitor);
+
+    assertTrue(builder.build().getConnectionPoolSettings().getConnectionPoolListeners().contains(monitor));
+  }
+}
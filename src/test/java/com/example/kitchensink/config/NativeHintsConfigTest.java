@@ -0,0 +1,67 @@
+package com.example.kitchensink.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.model.AuthResponse;
+import com.example.kitchensink.model.Member;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.data.domain.PageImpl;
+
+class NativeHintsConfigTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  @BeforeEach
+  void setUp() {
+    new NativeHintsConfig.KitchenSinkRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void registerHints_ShouldAllowJacksonBindingOfDtosAndEvents() throws Exception {
+    assertTrue(RuntimeHintsPredicates.reflection().onMethod(AuthResponse.class.getMethod("getAccessToken"))
+        .test(hints));
+    assertTrue(RuntimeHintsPredicates.reflection().onMethod(MemberChangedEvent.class.getMethod("getMemberId"))
+        .test(hints));
+    assertTrue(RuntimeHintsPredicates.reflection().onMethod(MemberDocument.class.getMethod("getEmail"))
+        .test(hints));
+  }
+
+  @Test
+  void registerHints_ShouldAllowTemplateExpressionsOnModels() {
+    assertTrue(RuntimeHintsPredicates.reflection().onType(Member.class)
+        .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+    assertTrue(RuntimeHintsPredicates.reflection().onType(PageImpl.class)
+        .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+  }
+
+  @Test
+  void registerHints_ShouldAllowJjwtToInstantiateItsImplementation() {
+    for (String type : NativeHintsConfig.JJWT_REFLECTIVE_TYPES) {
+      assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type))
+          .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints), type);
+    }
+    assertTrue(RuntimeHintsPredicates.resource()
+        .forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+  }
+
+  @Test
+  void registerHints_ShouldIncludeTemplates() {
+    assertTrue(RuntimeHintsPredicates.resource().forResource("templates/index.html").test(hints));
+    assertTrue(RuntimeHintsPredicates.resource().forResource("templates/fragments/members-table.html")
+        .test(hints));
+  }
+
+  @Test
+  void jjwtReflectiveTypes_ShouldExistOnClasspath() throws Exception {
+    for (String type : NativeHintsConfig.JJWT_REFLECTIVE_TYPES) {
+      Class.forName(type);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.example.kitchensink.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.kitchensink.model.AuthResponse;
+import com.example.kitchensink.model.Member;
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+class SerializationConfigTest {
+
+  private final MappingJackson2CborHttpMessageConverter converter =
+      new SerializationConfig().cborHttpMessageConverter(new Jackson2ObjectMapperBuilder());
+
+  @Test
+  void cborConverter_ShouldHandleCborMediaType() {
+    assertTrue(converter.canWrite(Member.class, MediaType.APPLICATION_CBOR));
+    assertTrue(converter.canRead(Member.class, MediaType.APPLICATION_CBOR));
+  }
+
+  @Test
+  void cborConverter_ShouldRoundTripAuthResponse() throws IOException {
+    AuthResponse authResponse = AuthResponse.of("access", "refresh", 900L, "john@example.com", "ROLE_USER");
+
+    AuthResponse result = roundTrip(authResponse, AuthResponse.class);
+
+    assertEquals(authResponse, result);
+  }
+
+  @Test
+  void cborConverter_ShouldApplyMemberJsonAnnotations() throws IOException {
+    Member member = new Member("1", "John Doe", "john@example.com", "Password123!", "1234567890", "USER");
+    member.setVersion(2L);
+
+    Member result = roundTrip(member, Member.class);
+
+    assertEquals("John Doe", result.getName());
+    // version is read-only, exactly as with JSON
+    assertNull(result.getVersion());
+  }
+
+  private <T> T roundTrip(T value, Class<T> type) throws IOException {
+    MockHttpOutputMessage output = new MockHttpOutputMessage();
+    converter.write(value, MediaType.APPLICATION_CBOR, output);
+    assertEquals(MediaType.APPLICATION_CBOR, output.getHeaders().getContentType());
+    @SuppressWarnings("unchecked")
+    T result = (T) converter.read(type, new MockHttpInputMessage(output.getBodyAsBytes()));
+    return result;
+  }
+}
@@ -0,0 +1,86 @@
+package com.example.kitchensink.config;
+
+import com.example.kitchensink.model.Member;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Reports bytes on the wire and serialization CPU for a member listing in JSON and CBOR, each
+ * with and without gzip, at 1k, 10k and 100k members. gzip runs at the default level, as
+ * Tomcat's compression does. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SerializationFormatBenchmark {
+
+  private static final int[] SIZES = {1_000, 10_000, 100_000};
+  private static final int TARGET_MEMBERS_PER_RUN = 2_000_000;
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  @Test
+  void compareJsonAndCbor() throws IOException {
+    ObjectMapper json = new Jackson2ObjectMapperBuilder().build();
+    ObjectMapper cbor = new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build();
+
+    System.out.printf("%8s %-10s %14s %14s %14s%n", "members", "format", "bytes", "cpu ms", "bytes/member");
+    for (int size : SIZES) {
+      List<Member> members = members(size);
+      report(size, "json", members, json, false);
+      report(size, "json+gzip", members, json, true);
+      report(size, "cbor", members, cbor, false);
+      report(size, "cbor+gzip", members, cbor, true);
+    }
+  }
+
+  private void report(int size, String format, List<Member> members, ObjectMapper mapper,
+      boolean gzip) throws IOException {
+    int iterations = Math.max(3, TARGET_MEMBERS_PER_RUN / size);
+    // Warm-up
+    for (int i = 0; i < iterations; i++) {
+      serialize(members, mapper, gzip);
+    }
+    long bytes = 0;
+    long start = threads.getCurrentThreadCpuTime();
+    for (int i = 0; i < iterations; i++) {
+      bytes = serialize(members, mapper, gzip);
+    }
+    double cpuMillis = (threads.getCurrentThreadCpuTime() - start) / 1_000_000.0 / iterations;
+    System.out.printf("%,8d %-10s %,14d %14.2f %14.1f%n", size, format, bytes, cpuMillis,
+        (double) bytes / size);
+  }
+
+  private static long serialize(List<Member> members, ObjectMapper mapper, boolean gzip)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(members.size() * 128);
+    if (gzip) {
+      try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192)) {
+        mapper.writeValue(gzipOut, members);
+      }
+    } else {
+      mapper.writeValue(out, members);
+    }
+    return out.size();
+  }
+
+  private static List<Member> members(int size) {
+    List<Member> members = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Member member = new Member(String.format("66%022x", i), "Member " + i,
+          "member" + i + "@example.com", null, String.format("%010d", 5550000000L + i),
+          i % 10 == 0 ? "ROLE_ADMIN" : "ROLE_USER");
+      member.setVersion((long) (i % 7));
+      members.add(member);
+    }
+    return members;
+  }
+}
@@ -4,7 +4,9 @@ import com.example.kitchensink.model.AuthRequest;
 import com.example.kitchensink.model.AuthResponse;
 import com.example.kitchensink.model.RefreshTokenRequest;
 import com.example.kitchensink.model.SignupRequest;
+import com.example.kitchensink.model.TokenValidationRequest;
 import com.example.kitchensink.security.JwtTokenService;
+import com.example.kitchensink.security.VerifiedToken;
 import com.example.kitchensink.service.AuthService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -24,11 +26,15 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.ContextConfiguration;
 import com.example.kitchensink.config.TestSecurityConfig;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -278,10 +284,8 @@ class AuthControllerTest {
     void testValidateToken_ValidToken() throws Exception {
         // Given
         String validToken = "valid_token_123";
-        when(jwtTokenService.isTokenValid(validToken))
-                .thenReturn(true);
-        when(jwtTokenService.extractUsername(validToken))
-                .thenReturn("test@example.com");
+        when(jwtTokenService.verify(validToken))
+                .thenReturn(new VerifiedToken("test@example.com", "ROLE_USER", Instant.now().plusSeconds(600)));
 
         // When & Then
         mockMvc.perform(post("/api/auth/validate")
@@ -295,8 +299,8 @@ class AuthControllerTest {
     void testValidateToken_InvalidToken() throws Exception {
         // Given
         String invalidToken = "invalid_token_123";
-        when(jwtTokenService.isTokenValid(invalidToken))
-                .thenReturn(false);
+        when(jwtTokenService.verify(invalidToken))
+                .thenReturn(null);
 
         // When & Then
         mockMvc.perform(post("/api/auth/validate")
@@ -304,6 +308,62 @@ class AuthControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    @Test
+    void testValidateTokens_ShouldReportEachTokenInOrderAndCacheUntilTheFirstExpiry() throws Exception {
+        // Given
+        Instant now = Instant.now();
+        when(jwtTokenService.verify("admin-token"))
+                .thenReturn(new VerifiedToken("admin@example.com", "ROLE_ADMIN", now.plusSeconds(900)));
+        when(jwtTokenService.verify("user-token"))
+                .thenReturn(new VerifiedToken("user@example.com", "ROLE_USER", now.plusSeconds(300)));
+        when(jwtTokenService.verify("bad-token")).thenReturn(null);
+        TokenValidationRequest request =
+                new TokenValidationRequest(List.of("admin-token", "bad-token", "user-token"));
+
+        // When & Then
+        String cacheControl = mockMvc.perform(post("/api/auth/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].valid").value(true))
+                .andExpect(jsonPath("$[0].subject").value("admin@example.com"))
+                .andExpect(jsonPath("$[0].role").value("ROLE_ADMIN"))
+                .andExpect(jsonPath("$[1].valid").value(false))
+                .andExpect(jsonPath("$[1].subject").doesNotExist())
+                .andExpect(jsonPath("$[2].subject").value("user@example.com"))
+                .andReturn().getResponse().getHeader("Cache-Control");
+        long maxAge = Long.parseLong(cacheControl.replaceAll(".*max-age=(\\d+).*", "$1"));
+        assertTrue(cacheControl.contains("private"));
+        assertTrue(maxAge > 295 && maxAge <= 300, cacheControl);
+    }
+
+    @Test
+    void testValidateTokens_WithNoValidToken_ShouldNotBeCached() throws Exception {
+        // Given
+        when(jwtTokenService.verify(anyString())).thenReturn(null);
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TokenValidationRequest(List.of("a", "b")))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$[1].valid").value(false));
+    }
+
+    @Test
+    void testValidateTokens_OverTheLimit_ShouldReturnBadRequest() throws Exception {
+        // Given
+        List<String> tokens = Collections.nCopies(TokenValidationRequest.MAX_TOKENS + 1, "token");
+
+        // When & Then
+        mockMvc.perform(post("/api/auth/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TokenValidationRequest(tokens))))
+                .andExpect(status().isBadRequest());
+        verify(jwtTokenService, never()).verify(anyString());
+    }
+
     @Test
     void testValidateToken_NoAuthorizationHeader() throws Exception {
         // When & Then
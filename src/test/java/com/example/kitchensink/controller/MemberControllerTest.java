@@ -2,16 +2,15 @@ package com.example.kitchensink.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 import com.example.kitchensink.entity.MemberDocument;
 import com.example.kitchensink.model.Member;
 import com.example.kitchensink.service.MemberService;
-import com.example.kitchensink.repository.MemberRepository;
+import com.example.kitchensink.service.MemberService.RegistrationOutcome;
+import com.example.kitchensink.view.MemberTableRenderer;
 import java.security.Principal;
-import java.util.ArrayList;
 import java.util.Optional;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
@@ -20,8 +19,8 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.ui.Model;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
@@ -31,10 +30,7 @@ class MemberControllerTest {
   private MemberService memberService;
 
   @Mock
-  private MemberRepository memberRepository;
-
-  @Mock
-  private BCryptPasswordEncoder passwordEncoder;
+  private MemberTableRenderer memberTableRenderer;
 
   @InjectMocks
   private MemberController memberController;
@@ -64,43 +60,51 @@ class MemberControllerTest {
 
   @Test
   void showAdminHome_ShouldReturnIndexView_WithNoMembers() {
-    when(memberService.getAllMembers()).thenReturn(new ArrayList<>());
+    when(memberTableRenderer.render(0, 20)).thenReturn("<div id=\"membersTable\"></div>");
     when(session.getAttribute("userEmail")).thenReturn(null);
     when(session.getAttribute("accessToken")).thenReturn(null);
     when(session.getAttribute("refreshToken")).thenReturn(null);
     when(session.getAttribute("userRole")).thenReturn(null);
 
-    String viewName = memberController.showAdminHome(model, null, response, null, session);
+    String viewName = memberController.showAdminHome(model, null, response, null, session, 0, 20);
 
     assertEquals("index", viewName);
     verify(model).addAttribute(eq("member"), any(Member.class));
-    verify(model).addAttribute(eq("members"), anyList());
+    verify(model).addAttribute(eq("membersTable"), eq("<div id=\"membersTable\"></div>"));
     verify(model).addAttribute(eq("loggedInUser"), eq("Admin"));
   }
 
   @Test
   void showAdminHome_ShouldReturnIndexView_WithMembers() {
-    ArrayList<Member> members = new ArrayList<>();
-    members.add(new Member("1", "John Doe", "john.doe@example.com", "1234567890", null, "ADMIN"));
-    members.add(new Member("2", "Jane Doe", "jane.doe@example.com", "0987654321", null, "USER"));
+    String membersTable = "<table><tr><td>John Doe</td></tr><tr><td>Jane Doe</td></tr></table>";
 
-    when(memberService.getAllMembers()).thenReturn(members);
+    when(memberTableRenderer.render(1, 10)).thenReturn(membersTable);
     when(principal.getName()).thenReturn("admin@admin.com");
 
-    String viewName = memberController.showAdminHome(model, principal, response, null, session);
+    String viewName = memberController.showAdminHome(model, principal, response, null, session, 1, 10);
 
     assertEquals("index", viewName);
     verify(model).addAttribute(eq("member"), any(Member.class));
-    verify(model).addAttribute(eq("members"), eq(members));
+    verify(model).addAttribute(eq("membersTable"), eq(membersTable));
     verify(model).addAttribute(eq("loggedInUser"), eq("admin@admin.com"));
+    verify(memberService, never()).getAllMembers();
+  }
+
+  @Test
+  void membersTable_ShouldReturnRenderedFragment() {
+    when(memberTableRenderer.render(2, 20)).thenReturn("<div id=\"membersTable\"></div>");
+
+    String fragment = memberController.membersTable(2, 20);
+
+    assertEquals("<div id=\"membersTable\"></div>", fragment);
   }
 
   @Test
   void showAdminHome_ShouldReturnIndexView_WithSessionUser() {
-    when(memberService.getAllMembers()).thenReturn(new ArrayList<>());
+    when(memberTableRenderer.render(0, 20)).thenReturn("<div id=\"membersTable\"></div>");
     when(session.getAttribute("userEmail")).thenReturn("test@test.com");
 
-    String viewName = memberController.showAdminHome(model, null, response, null, session);
+    String viewName = memberController.showAdminHome(model, null, response, null, session, 0, 20);
 
     assertEquals("index", viewName);
     verify(model).addAttribute(eq("loggedInUser"), eq("test@test.com"));
@@ -108,7 +112,7 @@ class MemberControllerTest {
 
   @Test
   void showAdminHome_ShouldClearSession_WhenClearSessionIsTrue() {
-    String viewName = memberController.showAdminHome(model, principal, response, "true", session);
+    String viewName = memberController.showAdminHome(model, principal, response, "true", session, 0, 20);
 
     assertEquals("redirect:/admin/home", viewName);
     verify(session).removeAttribute("accessToken");
@@ -119,10 +123,10 @@ class MemberControllerTest {
 
   @Test
   void showAdminHome_WithNullClearSession_ShouldReturnIndexView() {
-    when(memberService.getAllMembers()).thenReturn(new ArrayList<>());
+    when(memberTableRenderer.render(0, 20)).thenReturn("<div id=\"membersTable\"></div>");
     when(session.getAttribute("userEmail")).thenReturn("test@test.com");
 
-    String viewName = memberController.showAdminHome(model, principal, response, null, session);
+    String viewName = memberController.showAdminHome(model, principal, response, null, session, 0, 20);
 
     assertEquals("index", viewName);
     verify(session, never()).removeAttribute(anyString());
@@ -130,10 +134,10 @@ class MemberControllerTest {
 
   @Test
   void showAdminHome_WithEmptyClearSession_ShouldReturnIndexView() {
-    when(memberService.getAllMembers()).thenReturn(new ArrayList<>());
+    when(memberTableRenderer.render(0, 20)).thenReturn("<div id=\"membersTable\"></div>");
     when(session.getAttribute("userEmail")).thenReturn("test@test.com");
 
-    String viewName = memberController.showAdminHome(model, principal, response, "", session);
+    String viewName = memberController.showAdminHome(model, principal, response, "", session, 0, 20);
 
     assertEquals("index", viewName);
     verify(session, never()).removeAttribute(anyString());
@@ -141,10 +145,10 @@ class MemberControllerTest {
 
   @Test
   void showAdminHome_WithFalseClearSession_ShouldReturnIndexView() {
-    when(memberService.getAllMembers()).thenReturn(new ArrayList<>());
+    when(memberTableRenderer.render(0, 20)).thenReturn("<div id=\"membersTable\"></div>");
     when(session.getAttribute("userEmail")).thenReturn("test@test.com");
 
-    String viewName = memberController.showAdminHome(model, principal, response, "false", session);
+    String viewName = memberController.showAdminHome(model, principal, response, "false", session, 0, 20);
 
     assertEquals("index", viewName);
     verify(session, never()).removeAttribute(anyString());
@@ -154,12 +158,8 @@ class MemberControllerTest {
   void registerMember_WhenSourceIsIndex_AndUserExists_ShouldReturnError() {
     Member member = new Member();
     member.setEmail("test@test.com");
-    
-    MemberDocument existingMember = new MemberDocument();
-    existingMember.setEmail("test@test.com");
-    existingMember.setPassword("encodedPassword");
-    
-    when(memberService.findByEmail("test@test.com")).thenReturn(Optional.of(existingMember));
+
+    when(memberService.registerMember(member)).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
 
     String viewName = memberController.registerMember(member, "index", redirectAttributes);
 
@@ -173,13 +173,13 @@ class MemberControllerTest {
     Member member = new Member();
     member.setEmail("new@test.com");
     
-    when(memberService.findByEmail("new@test.com")).thenReturn(Optional.empty());
     when(memberService.registerMember(any(Member.class))).thenReturn(member);
 
     String viewName = memberController.registerMember(member, "index", redirectAttributes);
 
     assertEquals("redirect:/admin/home", viewName);
     verify(memberService).registerMember(member);
+    verify(memberService, never()).findByEmail(anyString());
     verify(redirectAttributes).addFlashAttribute("registrationSuccess", true);
     verify(redirectAttributes).addFlashAttribute("successMessage", "Member successfully registered!");
   }
@@ -190,17 +190,11 @@ class MemberControllerTest {
     member.setEmail("test@test.com");
     member.setPassword("newPassword");
     
-    MemberDocument existingMember = new MemberDocument();
-    existingMember.setEmail("test@test.com");
-    existingMember.setPassword(null); // No password set
-    
-    when(memberService.findByEmail("test@test.com")).thenReturn(Optional.of(existingMember));
-    when(passwordEncoder.encode("newPassword")).thenReturn("encodedPassword");
+    when(memberService.registerOrSetPassword(member)).thenReturn(RegistrationOutcome.PASSWORD_SET);
 
     String viewName = memberController.registerMember(member, "register", redirectAttributes);
 
     assertEquals("redirect:/jwt-login", viewName);
-    verify(memberRepository).save(existingMember);
     verify(redirectAttributes).addFlashAttribute("registrationSuccess", true);
     verify(redirectAttributes).addFlashAttribute("successMessage", "Password updated successfully!");
   }
@@ -210,11 +204,7 @@ class MemberControllerTest {
     Member member = new Member();
     member.setEmail("test@test.com");
     
-    MemberDocument existingMember = new MemberDocument();
-    existingMember.setEmail("test@test.com");
-    existingMember.setPassword("existingPassword");
-    
-    when(memberService.findByEmail("test@test.com")).thenReturn(Optional.of(existingMember));
+    when(memberService.registerOrSetPassword(member)).thenReturn(RegistrationOutcome.ALREADY_REGISTERED);
 
     String viewName = memberController.registerMember(member, "register", redirectAttributes);
 
@@ -229,20 +219,18 @@ class MemberControllerTest {
     member.setEmail("new@test.com");
     member.setPassword("password");
     
-    when(memberService.findByEmail("new@test.com")).thenReturn(Optional.empty());
-    when(passwordEncoder.encode("password")).thenReturn("encodedPassword");
-    when(memberService.registerMember(any(Member.class))).thenReturn(member);
+    when(memberService.registerOrSetPassword(any(Member.class))).thenReturn(RegistrationOutcome.CREATED);
 
     String viewName = memberController.registerMember(member, "register", redirectAttributes);
 
     assertEquals("redirect:/jwt-login", viewName);
-    verify(memberService).registerMember(any(Member.class));
+    assertEquals("USER", member.getRole());
+    verify(memberService).registerOrSetPassword(member);
+    verify(memberService, never()).findByEmail(anyString());
     verify(redirectAttributes).addFlashAttribute("registrationSuccess", true);
     verify(redirectAttributes).addFlashAttribute("successMessage", "User successfully registered!");
   }
 
-
-
   @Test
   void redirectToJwtLogin_ShouldReturnRedirectToJwtLogin() {
     String viewName = memberController.redirectToJwtLogin();
@@ -0,0 +1,30 @@
+package com.example.kitchensink.controller;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import com.example.kitchensink.event.MemberEventBroadcaster;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@ExtendWith(MockitoExtension.class)
+class MemberEventsControllerTest {
+
+  @Mock
+  private MemberEventBroadcaster memberEventBroadcaster;
+
+  @InjectMocks
+  private MemberEventsController memberEventsController;
+
+  @Test
+  void streamMemberEvents_ShouldSubscribeToBroadcaster() {
+    SseEmitter emitter = new SseEmitter();
+    when(memberEventBroadcaster.subscribe()).thenReturn(emitter);
+
+    assertSame(emitter, memberEventsController.streamMemberEvents());
+  }
+}
@@ -1,29 +1,47 @@
 package com.example.kitchensink.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import com.example.kitchensink.cache.MemberDirectory;
 import com.example.kitchensink.exception.ResourceNotFoundException;
+import com.example.kitchensink.model.BatchGetRequest;
+import com.example.kitchensink.model.BatchGetResult;
+import com.example.kitchensink.model.BulkMutateRequest;
+import com.example.kitchensink.model.BulkMutateResult;
 import com.example.kitchensink.model.Member;
+import com.example.kitchensink.model.MemberChange;
+import com.example.kitchensink.model.MemberChanges;
+import com.example.kitchensink.model.MemberStats;
+import com.example.kitchensink.repository.MemberCollectionVersion;
 import com.example.kitchensink.service.MemberService;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
 
 @ExtendWith(MockitoExtension.class)
 class RestServiceTest {
@@ -31,6 +49,9 @@ class RestServiceTest {
   @Mock
   private MemberService memberService;
 
+  @Mock
+  private MemberDirectory memberDirectory;
+
   @Mock
   private SecurityContext securityContext;
 
@@ -50,6 +71,7 @@ class RestServiceTest {
     testMember.setEmail("john@example.com");
     testMember.setRole("USER");
     testMember.setPhoneNumber("1234567890");
+    testMember.setVersion(3L);
   }
 
   @Test
@@ -59,7 +81,7 @@ class RestServiceTest {
     when(memberService.getAllMembers()).thenReturn(members);
 
     // When
-    ResponseEntity<List<Member>> response = restService.listAllMembers();
+    ResponseEntity<List<Member>> response = restService.listAllMembers(getRequest());
 
     // Then
     assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -70,27 +92,27 @@ class RestServiceTest {
   @Test
   void lookupMemberById_WithValidId_ShouldReturnMember() {
     // Given
-    when(memberService.findById("1")).thenReturn(testMember);
+    when(memberService.lookupById("1")).thenReturn(testMember);
 
     // When
-    ResponseEntity<Member> response = restService.lookupMemberById("1");
+    ResponseEntity<Member> response = restService.lookupMemberById("1", getRequest());
 
     // Then
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(testMember, response.getBody());
-    verify(memberService).findById("1");
+    verify(memberService).lookupById("1");
   }
 
   @Test
   void lookupMemberById_WithInvalidId_ShouldThrowException() {
     // Given
-    when(memberService.findById("999")).thenReturn(null);
+    when(memberService.lookupById("999")).thenReturn(null);
 
     // When & Then
     assertThrows(ResourceNotFoundException.class, () -> {
-      restService.lookupMemberById("999");
+      restService.lookupMemberById("999", getRequest());
     });
-    verify(memberService).findById("999");
+    verify(memberService).lookupById("999");
   }
 
   @Test
@@ -99,7 +121,7 @@ class RestServiceTest {
     when(memberService.findMemberByEmail("john@example.com")).thenReturn(testMember);
 
     // When
-    ResponseEntity<Member> response = restService.lookupMemberByEmail("john@example.com");
+    ResponseEntity<Member> response = restService.lookupMemberByEmail("john@example.com", getRequest());
 
     // Then
     assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -114,7 +136,7 @@ class RestServiceTest {
 
     // When & Then
     assertThrows(ResourceNotFoundException.class, () -> {
-      restService.lookupMemberByEmail("invalid@example.com");
+      restService.lookupMemberByEmail("invalid@example.com", getRequest());
     });
     verify(memberService).findMemberByEmail("invalid@example.com");
   }
@@ -203,7 +225,7 @@ class RestServiceTest {
     setupSecurityContext("other@example.com");
 
     // When
-    ResponseEntity<Member> response = restService.updateMember(updatedMember, "1");
+    ResponseEntity<Member> response = restService.updateMember(updatedMember, "1", putRequest());
 
     // Then
     assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -218,7 +240,7 @@ class RestServiceTest {
     when(memberService.findById("999")).thenReturn(null);
 
     // When
-    ResponseEntity<Member> response = restService.updateMember(testMember, "999");
+    ResponseEntity<Member> response = restService.updateMember(testMember, "999", putRequest());
 
     // Then
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -233,7 +255,7 @@ class RestServiceTest {
     setupSecurityContext("john@example.com");
 
     // When
-    ResponseEntity<Member> response = restService.updateMember(testMember, "1");
+    ResponseEntity<Member> response = restService.updateMember(testMember, "1", putRequest());
 
     // Then
     assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -250,7 +272,7 @@ class RestServiceTest {
     setupSecurityContext("other@example.com");
 
     // When
-    ResponseEntity<Member> response = restService.updateMember(testMember, "1");
+    ResponseEntity<Member> response = restService.updateMember(testMember, "1", putRequest());
 
     // Then
     assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -258,6 +280,351 @@ class RestServiceTest {
     verify(memberService).updateMember(eq(testMember), eq(testMember));
   }
 
+  @Test
+  void lookupMemberById_ShouldReturnETagAndRevalidateCacheControl() {
+    // Given
+    when(memberService.lookupById("1")).thenReturn(testMember);
+    ServletWebRequest request = getRequest();
+
+    // When
+    ResponseEntity<Member> response = restService.lookupMemberById("1", request);
+
+    // Then
+    assertEquals("\"1-3\"", request.getResponse().getHeader(HttpHeaders.ETAG));
+    assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+  }
+
+  @Test
+  void lookupMemberById_WithMatchingIfNoneMatch_ShouldReturnNotModified() {
+    // Given
+    when(memberService.lookupById("1")).thenReturn(testMember);
+    ServletWebRequest request = getRequest();
+    ((MockHttpServletRequest) request.getRequest()).addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-3\"");
+
+    // When
+    ResponseEntity<Member> response = restService.lookupMemberById("1", request);
+
+    // Then
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertNull(response.getBody());
+  }
+
+  @Test
+  void lookupMemberByEmail_WithStaleIfNoneMatch_ShouldReturnMember() {
+    // Given
+    when(memberService.findMemberByEmail("john@example.com")).thenReturn(testMember);
+    ServletWebRequest request = getRequest();
+    ((MockHttpServletRequest) request.getRequest()).addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-2\"");
+
+    // When
+    ResponseEntity<Member> response = restService.lookupMemberByEmail("john@example.com", request);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(testMember, response.getBody());
+  }
+
+  @Test
+  void lookupMemberByEmail_WithIfNoneMatchKnownToDirectory_ShouldNotLoadMember() {
+    // Given
+    when(memberDirectory.isKeptCurrent()).thenReturn(true);
+    when(memberDirectory.lookup("john@example.com"))
+        .thenReturn(new MemberDirectory.Entry("1", "ROLE_USER", 3));
+    ServletWebRequest request = getRequest();
+    ((MockHttpServletRequest) request.getRequest())
+        .addHeader(HttpHeaders.IF_NONE_MATCH, "\"0-9\", W/\"1-3\"");
+
+    // When
+    ResponseEntity<Member> response = restService.lookupMemberByEmail("john@example.com", request);
+
+    // Then
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    assertEquals("\"1-3\"", response.getHeaders().getETag());
+    verify(memberService, never()).findMemberByEmail(anyString());
+  }
+
+  @Test
+  void lookupMemberByEmail_HeadKnownToDirectory_ShouldNotLoadMember() {
+    // Given
+    when(memberDirectory.isKeptCurrent()).thenReturn(true);
+    when(memberDirectory.lookup("john@example.com"))
+        .thenReturn(new MemberDirectory.Entry("1", "ROLE_USER", 3));
+    ServletWebRequest request = new ServletWebRequest(
+        new MockHttpServletRequest("HEAD", "/admin/members/search"), new MockHttpServletResponse());
+
+    // When
+    ResponseEntity<Member> response = restService.lookupMemberByEmail("john@example.com", request);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("\"1-3\"", response.getHeaders().getETag());
+    verify(memberService, never()).findMemberByEmail(anyString());
+  }
+
+  @Test
+  void lookupMemberByEmail_WhenDirectoryIsNotKeptCurrent_ShouldLoadTheMember() {
+    // Given
+    when(memberDirectory.isKeptCurrent()).thenReturn(false);
+    when(memberService.findMemberByEmail("john@example.com")).thenReturn(testMember);
+    ServletWebRequest request = new ServletWebRequest(
+        new MockHttpServletRequest("HEAD", "/admin/members/search"), new MockHttpServletResponse());
+
+    // When
+    ResponseEntity<Member> response = restService.lookupMemberByEmail("john@example.com", request);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    verify(memberService).findMemberByEmail("john@example.com");
+    verify(memberDirectory, never()).lookup(anyString());
+  }
+
+  @Test
+  void lookupMemberByEmail_WhenDirectoryIsStale_ShouldReturnLoadedMemberWithItsETag() {
+    // Given
+    when(memberDirectory.isKeptCurrent()).thenReturn(true);
+    when(memberDirectory.lookup("john@example.com"))
+        .thenReturn(new MemberDirectory.Entry("1", "ROLE_USER", 2));
+    when(memberService.findMemberByEmail("john@example.com")).thenReturn(testMember);
+    ServletWebRequest request = getRequest();
+    ((MockHttpServletRequest) request.getRequest()).addHeader(HttpHeaders.IF_NONE_MATCH, "\"1-1\"");
+
+    // When
+    ResponseEntity<Member> response = restService.lookupMemberByEmail("john@example.com", request);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(testMember, response.getBody());
+    assertEquals("\"1-3\"", request.getResponse().getHeader(HttpHeaders.ETAG));
+  }
+
+  @Test
+  void batchGetMembers_ByIds_ShouldReturnResultsInRequestOrder() {
+    // Given
+    when(memberService.findAllByIds(List.of("404", "1", "1"))).thenReturn(Map.of("1", testMember));
+
+    // When
+    ResponseEntity<List<BatchGetResult>> response = restService.batchGetMembers(
+        new BatchGetRequest(List.of("404", "1", "1"), null));
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(List.of(BatchGetResult.of("404", null), BatchGetResult.of("1", testMember),
+        BatchGetResult.of("1", testMember)), response.getBody());
+    verify(memberService, never()).findAllByEmails(any());
+  }
+
+  @Test
+  void batchGetMembers_ByEmails_ShouldMarkUnknownEmails() {
+    // Given
+    when(memberService.findAllByEmails(List.of("john@example.com", "nobody@example.com")))
+        .thenReturn(Map.of("john@example.com", testMember));
+
+    // When
+    ResponseEntity<List<BatchGetResult>> response = restService.batchGetMembers(
+        new BatchGetRequest(null, List.of("john@example.com", "nobody@example.com")));
+
+    // Then
+    List<BatchGetResult> results = response.getBody();
+    assertEquals(true, results.get(0).isFound());
+    assertEquals(false, results.get(1).isFound());
+    assertNull(results.get(1).getMember());
+  }
+
+  @Test
+  void listMemberChanges_ShouldReturnTheServicePage() {
+    // Given
+    MemberChanges page = new MemberChanges(List.of(MemberChange.upsert(7, testMember)), "next", false);
+    when(memberService.getChanges("cursor", 50)).thenReturn(page);
+
+    // When
+    ResponseEntity<MemberChanges> response = restService.listMemberChanges("cursor", 50);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(page, response.getBody());
+  }
+
+  @Test
+  void listMemberChanges_WithLimitOutOfRange_ShouldBeRejected() {
+    assertThrows(IllegalArgumentException.class, () -> restService.listMemberChanges(null, 0));
+    assertThrows(IllegalArgumentException.class,
+        () -> restService.listMemberChanges(null, RestService.MAX_CHANGES + 1));
+    verify(memberService, never()).getChanges(any(), anyInt());
+  }
+
+  @Test
+  void getMemberStats_ShouldReturnTheMaintainedCounts() {
+    // Given
+    MemberStats stats = new MemberStats(3, Map.of("ROLE_ADMIN", 1L, "ROLE_USER", 2L), 1,
+        Map.of("2026-01-01", 3L), null);
+    when(memberService.getStatistics()).thenReturn(stats);
+
+    // When
+    ResponseEntity<MemberStats> response = restService.getMemberStats();
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(stats, response.getBody());
+  }
+
+  @Test
+  void bulkMutateMembers_ShouldProtectTheCurrentUser() {
+    // Given
+    setupSecurityContext("admin@admin.com");
+    BulkMutateRequest request = new BulkMutateRequest(true, List.of(new BulkMutateRequest.Operation(
+        BulkMutateRequest.Action.DELETE, null, new BulkMutateRequest.Filter("ADMIN", null), null, null)));
+    BulkMutateResult result = new BulkMutateResult(3, 0, 3, List.of(
+        new BulkMutateResult.OperationResult(0, BulkMutateResult.Status.APPLIED, null)));
+    when(memberService.bulkMutate(request, "admin@admin.com")).thenReturn(result);
+
+    // When
+    ResponseEntity<BulkMutateResult> response = restService.bulkMutateMembers(request);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(result, response.getBody());
+  }
+
+  @Test
+  void listAllMembers_WithMatchingIfNoneMatch_ShouldNotLoadMembers() {
+    // Given
+    MemberCollectionVersion collectionVersion =
+        new MemberCollectionVersion(2, 5, Instant.parse("2024-05-01T10:00:00Z"));
+    when(memberService.getCollectionVersion()).thenReturn(collectionVersion);
+    ServletWebRequest request = getRequest();
+    ((MockHttpServletRequest) request.getRequest())
+        .addHeader(HttpHeaders.IF_NONE_MATCH, RestService.collectionETag(collectionVersion));
+
+    // When
+    ResponseEntity<List<Member>> response = restService.listAllMembers(request);
+
+    // Then
+    assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+    verify(memberService, never()).getAllMembers();
+  }
+
+  @Test
+  void listAllMembers_WhenListMatchesCollectionVersion_ShouldAllowRevalidation() {
+    // Given
+    when(memberService.getCollectionVersion()).thenReturn(new MemberCollectionVersion(1, 3, null));
+    when(memberService.getAllMembers()).thenReturn(List.of(testMember));
+
+    // When
+    ResponseEntity<List<Member>> response = restService.listAllMembers(getRequest());
+
+    // Then
+    assertEquals("no-cache, private", response.getHeaders().getCacheControl());
+  }
+
+  @Test
+  void listAllMembers_WhenListIsFromDifferentSnapshot_ShouldNotBeStored() {
+    // Given: the version and the list were read from secondaries at different points
+    when(memberService.getCollectionVersion()).thenReturn(new MemberCollectionVersion(1, 4, null));
+    when(memberService.getAllMembers()).thenReturn(List.of(testMember));
+
+    // When
+    ResponseEntity<List<Member>> response = restService.listAllMembers(getRequest());
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("no-store", response.getHeaders().getCacheControl());
+  }
+
+  @Test
+  void listAllMembers_ShouldReturnLastModifiedFromCollectionVersion() {
+    // Given
+    Instant lastModified = Instant.parse("2024-05-01T10:00:00Z");
+    when(memberService.getCollectionVersion()).thenReturn(new MemberCollectionVersion(2, 5, lastModified));
+    when(memberService.getAllMembers()).thenReturn(List.of(testMember));
+    ServletWebRequest request = getRequest();
+
+    // When
+    ResponseEntity<List<Member>> response = restService.listAllMembers(request);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    MockHttpServletResponse servletResponse = (MockHttpServletResponse) request.getResponse();
+    assertEquals("W/\"2-5-" + lastModified.toEpochMilli() + "\"", servletResponse.getHeader(HttpHeaders.ETAG));
+    assertEquals(lastModified.toEpochMilli(), servletResponse.getDateHeader(HttpHeaders.LAST_MODIFIED));
+  }
+
+  @Test
+  void listAllMembers_AfterADelete_ShouldNotAnswerIfModifiedSinceWith304() {
+    // Given: the client listed both members, then the newest one was deleted
+    Instant listedAt = Instant.parse("2024-05-01T10:00:00Z");
+    when(memberService.getCollectionVersion()).thenReturn(
+        new MemberCollectionVersion(2, 5, listedAt),
+        new MemberCollectionVersion(1, 3, listedAt.plusSeconds(60)));
+    when(memberService.getAllMembers()).thenReturn(List.of(testMember));
+    restService.listAllMembers(getRequest());
+    Member deleted = new Member();
+    deleted.setId("2");
+    deleted.setEmail("jane@example.com");
+    when(memberService.findById("2")).thenReturn(deleted);
+    setupSecurityContext("other@example.com");
+    restService.deleteMemberById("2");
+    ServletWebRequest request = getRequest();
+    ((MockHttpServletRequest) request.getRequest())
+        .addHeader(HttpHeaders.IF_MODIFIED_SINCE, listedAt.toEpochMilli());
+
+    // When
+    ResponseEntity<List<Member>> response = restService.listAllMembers(request);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(List.of(testMember), response.getBody());
+  }
+
+  @Test
+  void updateMember_WithStaleIfMatch_ShouldReturnPreconditionFailed() {
+    // Given
+    when(memberService.findById("1")).thenReturn(testMember);
+    setupSecurityContext("other@example.com");
+    ServletWebRequest request = putRequest();
+    ((MockHttpServletRequest) request.getRequest()).addHeader(HttpHeaders.IF_MATCH, "\"1-2\"");
+
+    // When
+    ResponseEntity<Member> response = restService.updateMember(testMember, "1", request);
+
+    // Then
+    assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    verify(memberService, never()).updateMember(any(Member.class), any(Member.class));
+  }
+
+  @Test
+  void updateMember_WithCurrentIfMatch_ShouldUpdateAndReturnNewETag() {
+    // Given
+    Member savedMember = new Member("1", "Jane Doe", "jane@example.com", null, "1234567890", "USER");
+    savedMember.setVersion(4L);
+    when(memberService.findById("1")).thenReturn(testMember);
+    when(memberService.updateMember(eq(testMember), any(Member.class))).thenReturn(savedMember);
+    setupSecurityContext("other@example.com");
+    ServletWebRequest request = putRequest();
+    ((MockHttpServletRequest) request.getRequest()).addHeader(HttpHeaders.IF_MATCH, "\"1-3\"");
+
+    // When
+    ResponseEntity<Member> response = restService.updateMember(savedMember, "1", request);
+
+    // Then
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals("\"1-4\"", response.getHeaders().getETag());
+  }
+
+  @Test
+  void updateMember_WithConcurrentModification_ShouldReturnConflict() {
+    // Given
+    when(memberService.findById("1")).thenReturn(testMember);
+    when(memberService.updateMember(any(Member.class), any(Member.class)))
+        .thenThrow(new OptimisticLockingFailureException("Version mismatch"));
+    setupSecurityContext("other@example.com");
+
+    // When
+    ResponseEntity<Member> response = restService.updateMember(testMember, "1", putRequest());
+
+    // Then
+    assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+  }
+
   @Test
   void loginForToken_WithValidCredentials_ShouldReturnSuccess() {
     // When
@@ -308,6 +675,16 @@ class RestServiceTest {
     assertEquals("Invalid credentials", response.getBody());
   }
 
+  private ServletWebRequest getRequest() {
+    return new ServletWebRequest(new MockHttpServletRequest("GET", "/admin/members"),
+        new MockHttpServletResponse());
+  }
+
+  private ServletWebRequest putRequest() {
+    return new ServletWebRequest(new MockHttpServletRequest("PUT", "/admin/members/1"),
+        new MockHttpServletResponse());
+  }
+
   private void setupSecurityContext(String email) {
     when(securityContext.getAuthentication()).thenReturn(authentication);
     when(authentication.getName()).thenReturn(email);
@@ -0,0 +1,72 @@
+package com.example.kitchensink.event;
+
+import com.example.kitchensink.model.Member;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Measures what 10k idle event-stream subscribers cost the broadcaster: retained heap per
+ * connection, and the time to fan one member change out to all of them on virtual threads.
+ * Socket and servlet-container costs are not included. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class MemberEventBroadcasterBenchmark {
+
+  private static final int SUBSCRIBERS = 10_000;
+
+  private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+  @Test
+  void idleSubscribersAndFanOut() throws Exception {
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    MemberEventBroadcaster broadcaster = new MemberEventBroadcaster(64, 0, executor,
+        Executors.newSingleThreadScheduledExecutor());
+    Member member = new Member("1", "John Doe", "john@example.com", null, "1234567890", "ROLE_USER");
+
+    CountDownLatch[] delivered = {new CountDownLatch(SUBSCRIBERS)};
+    long heapBefore = usedHeap();
+    for (int i = 0; i < SUBSCRIBERS; i++) {
+      broadcaster.register(new SseEmitter(0L) {
+        @Override
+        public void send(SseEventBuilder builder) {
+          if (builder.build().size() > 2) {
+            delivered[0].countDown();
+          }
+        }
+      });
+    }
+    long heapAfter = usedHeap();
+
+    for (int round = 0; round < 20; round++) {
+      delivered[0] = new CountDownLatch(SUBSCRIBERS);
+      long start = System.nanoTime();
+      broadcaster.onMemberChanged(MemberChangedEvent.updated(member));
+      long enqueued = System.nanoTime();
+      delivered[0].await(10, TimeUnit.SECONDS);
+      long done = System.nanoTime();
+      if (round == 19) {
+        System.out.printf("subscribers:            %,d%n", broadcaster.getSubscriberCount());
+        System.out.printf("heap per subscriber:    %,d bytes%n", (heapAfter - heapBefore) / SUBSCRIBERS);
+        System.out.printf("publisher blocked for:  %.2f ms%n", (enqueued - start) / 1e6);
+        System.out.printf("delivered to all in:    %.2f ms%n", (done - start) / 1e6);
+      }
+    }
+    broadcaster.shutdown();
+  }
+
+  private long usedHeap() throws InterruptedException {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(100);
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
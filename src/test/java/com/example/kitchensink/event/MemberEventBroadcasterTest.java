@@ -0,0 +1,210 @@
+package com.example.kitchensink.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.example.kitchensink.model.Member;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+class MemberEventBroadcasterTest {
+
+  // Runs drains only when the test says so, standing in for the virtual-thread executor
+  private final Queue<Runnable> pendingTasks = new ArrayDeque<>();
+
+  private final MemberEventBroadcaster broadcaster = new MemberEventBroadcaster(3, 60_000,
+      pendingTasks::add, inlineDispatcher());
+
+  private final Member member = new Member("1", "John Doe", "john@example.com", null, "1234567890", "ROLE_USER");
+
+  @Test
+  void onMemberChanged_ShouldSendNamedEventToEverySubscriber() {
+    RecordingEmitter first = new RecordingEmitter();
+    RecordingEmitter second = new RecordingEmitter();
+    broadcaster.register(first);
+    broadcaster.register(second);
+
+    broadcaster.onMemberChanged(MemberChangedEvent.updated(member));
+    runPendingTasks();
+
+    assertThat(first.text()).contains(":connected").contains("event:member");
+    assertThat(first.events()).containsExactly(MemberChangedEvent.updated(member));
+    assertThat(second.events()).containsExactly(MemberChangedEvent.updated(member));
+  }
+
+  @Test
+  void heartbeat_ShouldSendComment() {
+    RecordingEmitter emitter = new RecordingEmitter();
+    broadcaster.register(emitter);
+
+    broadcaster.heartbeat();
+    runPendingTasks();
+
+    assertThat(emitter.text()).contains(":heartbeat");
+  }
+
+  @Test
+  void onMemberChanged_WhenBufferOverflows_ShouldDropOnlyTheSlowSubscriber() throws Exception {
+    ExecutorService executor = Executors.newCachedThreadPool();
+    MemberEventBroadcaster threaded = new MemberEventBroadcaster(3, 60_000, executor,
+        inlineDispatcher());
+    CountDownLatch socketBlocked = new CountDownLatch(1);
+    RecordingEmitter slow = new RecordingEmitter();
+    RecordingEmitter fast = new RecordingEmitter();
+    try {
+      threaded.register(fast);
+      slow.blockUntil = socketBlocked;
+      threaded.register(slow);
+      // The slow drain is stuck sending "connected", so its buffer of 3 overflows within 5 events
+      for (int i = 0; i < 5; i++) {
+        threaded.onMemberChanged(MemberChangedEvent.deleted(Integer.toString(i)));
+        int delivered = i + 1;
+        waitFor(() -> fast.events().size() == delivered);
+      }
+
+      assertThat(threaded.getSubscriberCount()).isEqualTo(1);
+      assertThat(threaded.getDroppedSubscriberCount()).isEqualTo(1);
+      assertThat(fast.events()).last().isEqualTo(MemberChangedEvent.deleted("4"));
+    } finally {
+      socketBlocked.countDown();
+      executor.shutdown();
+      assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+    assertThat(slow.completed).isTrue();
+  }
+
+  @Test
+  void send_WhenClientDisconnected_ShouldUnsubscribe() {
+    RecordingEmitter emitter = new RecordingEmitter();
+    broadcaster.register(emitter);
+    runPendingTasks();
+    emitter.disconnected = true;
+
+    broadcaster.onMemberChanged(MemberChangedEvent.created(member));
+    runPendingTasks();
+
+    assertThat(broadcaster.getSubscriberCount()).isZero();
+  }
+
+  @Test
+  void flush_ShouldDeliverBufferedEventsThenEndEveryStream() throws Exception {
+    ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor();
+    MemberEventBroadcaster threaded = new MemberEventBroadcaster(3, 60_000, executor, dispatcher);
+    RecordingEmitter emitter = new RecordingEmitter();
+    threaded.register(emitter);
+    threaded.onMemberChanged(MemberChangedEvent.created(member));
+    threaded.onMemberChanged(MemberChangedEvent.deleted("1"));
+
+    assertThat(threaded.flush(Duration.ofSeconds(5))).isTrue();
+
+    assertThat(emitter.events()).containsExactly(MemberChangedEvent.created(member),
+        MemberChangedEvent.deleted("1"));
+    assertThat(emitter.completed).isTrue();
+    assertThat(threaded.getSubscriberCount()).isZero();
+    assertThat(executor.isTerminated()).isTrue();
+    assertThat(dispatcher.isTerminated()).isTrue();
+  }
+
+  @Test
+  void afterFlush_ShouldEndNewStreamsAtOnceAndIgnoreEvents() throws Exception {
+    MemberEventBroadcaster threaded = new MemberEventBroadcaster(3, 60_000,
+        Executors.newVirtualThreadPerTaskExecutor(), Executors.newSingleThreadScheduledExecutor());
+    threaded.flush(Duration.ofSeconds(5));
+    RecordingEmitter late = new RecordingEmitter();
+
+    threaded.register(late);
+    threaded.onMemberChanged(MemberChangedEvent.created(member));
+
+    assertThat(late.completed).isTrue();
+    assertThat(late.text()).isEmpty();
+    assertThat(threaded.getSubscriberCount()).isZero();
+  }
+
+  private static ScheduledExecutorService inlineDispatcher() {
+    ScheduledExecutorService dispatcher = mock(ScheduledExecutorService.class);
+    doAnswer(invocation -> {
+      invocation.<Runnable>getArgument(0).run();
+      return null;
+    }).when(dispatcher).execute(any(Runnable.class));
+    return dispatcher;
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(condition.getAsBoolean()).isTrue();
+  }
+
+  private void runPendingTasks() {
+    Runnable task;
+    while ((task = pendingTasks.poll()) != null) {
+      task.run();
+    }
+  }
+
+  private static final class RecordingEmitter extends SseEmitter {
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+
+    private final List<MemberChangedEvent> events = new CopyOnWriteArrayList<>();
+
+    private volatile CountDownLatch blockUntil;
+
+    private volatile boolean disconnected;
+
+    private volatile boolean completed;
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      if (disconnected) {
+        throw new IOException("Broken pipe");
+      }
+      if (blockUntil != null) {
+        // Simulates a write stuck on a client that stopped reading
+        try {
+          blockUntil.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      builder.build().forEach(part -> {
+        if (part.getData() instanceof MemberChangedEvent event) {
+          events.add(event);
+        } else {
+          sent.add(String.valueOf(part.getData()));
+        }
+      });
+    }
+
+    @Override
+    public void complete() {
+      completed = true;
+    }
+
+    String text() {
+      return String.join("", sent);
+    }
+
+    List<MemberChangedEvent> events() {
+      return events;
+    }
+  }
+}
@@ -48,7 +48,7 @@ class GlobalExceptionHandlerTest {
     @BeforeEach
     void setUp() {
         mockMvc = MockMvcBuilders.standaloneSetup(
-                new RestService(null)) // Initialize mockMvc with any controller
+                new RestService(null, null)) // Initialize mockMvc with any controller
             .setControllerAdvice(globalExceptionHandler) // Register the exception handler with mockMvc
             .build();
 
@@ -0,0 +1,329 @@
+package com.example.kitchensink.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.kitchensink.model.AuthResponse;
+import com.example.kitchensink.security.JwtTokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.client.MongoCollection;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class IdempotencyFilterTest {
+
+  private final AtomicInteger executions = new AtomicInteger();
+
+  private IdempotencyFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    IdempotencyStore store = new IdempotencyStore(null, Duration.ofHours(1), Duration.ofSeconds(5),
+        Duration.ofMinutes(2), 100, Clock.systemUTC());
+    filter = new IdempotencyFilter(store, Set.of("/admin/members", "/members/form"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void retry_ShouldReplayTheStoredResponseWithoutRunningTheRequest() throws Exception {
+    MockHttpServletResponse first = post("/admin/members", "key-1", "{\"name\":\"A\"}", created());
+    MockHttpServletResponse retry = post("/admin/members", "key-1", "{\"name\":\"A\"}", created());
+
+    assertEquals(1, executions.get());
+    assertEquals(201, retry.getStatus());
+    assertEquals(first.getContentAsString(), retry.getContentAsString());
+    assertEquals("/admin/members/1", retry.getHeader("Location"));
+    assertEquals(MediaType.APPLICATION_JSON_VALUE, retry.getContentType());
+    assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+  }
+
+  @Test
+  void controller_ShouldStillReadTheBody() throws Exception {
+    List<String> bodies = new ArrayList<>();
+
+    post("/admin/members", "key-1", "{\"name\":\"A\"}", (request, response) -> {
+      bodies.add(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+      response.setStatus(201);
+    });
+
+    assertEquals(List.of("{\"name\":\"A\"}"), bodies);
+  }
+
+  @Test
+  void keyReusedWithAnotherBody_ShouldReturn422() throws Exception {
+    post("/admin/members", "key-1", "{\"name\":\"A\"}", created());
+
+    MockHttpServletResponse response = post("/admin/members", "key-1", "{\"name\":\"B\"}", created());
+
+    assertEquals(422, response.getStatus());
+    assertEquals(1, executions.get());
+  }
+
+  @Test
+  void sameKeyFromAnotherCaller_ShouldRunTheRequest() throws Exception {
+    authenticate("admin@example.com");
+    post("/admin/members", "key-1", "{}", created());
+    authenticate("other@example.com");
+    MockHttpServletResponse response = post("/admin/members", "key-1", "{}", created());
+
+    assertEquals(2, executions.get());
+    assertNull(response.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+  }
+
+  @Test
+  void serverError_ShouldNotBeStored() throws Exception {
+    post("/admin/members", "key-1", "{}", (request, response) -> {
+      executions.incrementAndGet();
+      response.setStatus(503);
+    });
+    MockHttpServletResponse retry = post("/admin/members", "key-1", "{}", created());
+
+    assertEquals(2, executions.get());
+    assertEquals(201, retry.getStatus());
+  }
+
+  @Test
+  void clientErrorOrRedirect_ShouldNotBeStored() throws Exception {
+    // The signup endpoints answer a database timeout with 409 too; a retry must run again
+    post("/admin/members", "key-1", "{}", (request, response) -> {
+      executions.incrementAndGet();
+      response.setStatus(409);
+    });
+    post("/admin/members", "key-2", "{}", (request, response) -> {
+      executions.incrementAndGet();
+      response.sendRedirect("/jwt-login");
+    });
+    MockHttpServletResponse retry = post("/admin/members", "key-1", "{}", created());
+    post("/admin/members", "key-2", "{}", created());
+
+    assertEquals(4, executions.get());
+    assertEquals(201, retry.getStatus());
+    assertNull(retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+  }
+
+  @Test
+  void formPost_ShouldBeFingerprintedByItsParameters() throws Exception {
+    MockHttpServletRequest request = request("/members/form", "key-1");
+    request.setContentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+    request.addParameter("email", "new@example.com");
+    Handler create = (req, res) -> {
+      assertEquals("new@example.com", req.getParameter("email"));
+      created().handle(req, res);
+    };
+    filter.doFilter(request, new MockHttpServletResponse(), chain(create));
+
+    MockHttpServletResponse retry = new MockHttpServletResponse();
+    filter.doFilter(request, retry, chain(create));
+    MockHttpServletRequest other = request("/members/form", "key-1");
+    other.setContentType(MediaType.APPLICATION_FORM_URLENCODED_VALUE);
+    other.addParameter("email", "other@example.com");
+    MockHttpServletResponse reused = new MockHttpServletResponse();
+    filter.doFilter(other, reused, chain(create));
+
+    assertEquals(1, executions.get());
+    assertEquals(201, retry.getStatus());
+    assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    assertEquals(422, reused.getStatus());
+  }
+
+  @Test
+  void signup_ShouldStoreNoTokensAndReplayNewOnes() throws Exception {
+    JwtTokenService jwtTokenService = jwtTokenService();
+    MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    @SuppressWarnings("unchecked")
+    MongoCollection<Document> collection = mock(MongoCollection.class);
+    when(mongoTemplate.getCollection(IdempotencyStore.COLLECTION)).thenReturn(collection);
+    filter = new IdempotencyFilter(new IdempotencyStore(mongoTemplate, Duration.ofHours(1),
+        Duration.ofSeconds(5), Duration.ofMinutes(2), 100, Clock.systemUTC()), Set.of("/api/auth/signup"),
+        Map.of("/api/auth/signup", new AuthTokenRedactor(jwtTokenService)));
+    Handler signup = (request, response) -> {
+      executions.incrementAndGet();
+      response.setStatus(201);
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.getWriter().write(new ObjectMapper().writeValueAsString(AuthResponse.of(
+          jwtTokenService.generateAccessToken("a@example.com", "USER"),
+          jwtTokenService.generateRefreshToken("a@example.com"), 900000L, "a@example.com", "USER")));
+    };
+
+    post("/api/auth/signup", "key-1", "{\"email\":\"a@example.com\"}", signup);
+    MockHttpServletResponse retry =
+        post("/api/auth/signup", "key-1", "{\"email\":\"a@example.com\"}", signup);
+
+    ArgumentCaptor<Bson> update = ArgumentCaptor.forClass(Bson.class);
+    verify(collection).updateOne(any(Bson.class), update.capture());
+    JsonNode stored = new ObjectMapper().readTree(update.getValue().toBsonDocument()
+        .getDocument("$set").getBinary("body").getData());
+    assertFalse(stored.has("accessToken"));
+    assertFalse(stored.has("refreshToken"));
+    assertEquals("a@example.com", stored.get("email").asText());
+
+    JsonNode replayed = new ObjectMapper().readTree(retry.getContentAsByteArray());
+    assertEquals(1, executions.get());
+    assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    assertTrue(jwtTokenService.isTokenValid(replayed.get("accessToken").asText()));
+    assertEquals("USER", jwtTokenService.extractRole(replayed.get("accessToken").asText()));
+    assertTrue(jwtTokenService.isTokenValid(replayed.get("refreshToken").asText()));
+    assertEquals("Bearer", replayed.get("tokenType").asText());
+    assertEquals(900000L, replayed.get("expiresIn").asLong());
+  }
+
+  @Test
+  void bodyThatCannotBeRedacted_ShouldNotBeStored() throws Exception {
+    filter = new IdempotencyFilter(new IdempotencyStore(null, Duration.ofHours(1),
+        Duration.ofSeconds(5), Duration.ofMinutes(2), 100, Clock.systemUTC()), Set.of("/api/auth/signup"),
+        Map.of("/api/auth/signup", new AuthTokenRedactor(jwtTokenService())));
+    Handler plainText = (request, response) -> {
+      executions.incrementAndGet();
+      response.setStatus(201);
+      response.getWriter().write("created");
+    };
+
+    MockHttpServletResponse first = post("/api/auth/signup", "key-1", "{}", plainText);
+    post("/api/auth/signup", "key-1", "{}", plainText);
+
+    assertEquals("created", first.getContentAsString());
+    assertEquals(2, executions.get());
+  }
+
+  @Test
+  void requestsWithoutTheHeaderOrOnOtherPaths_ShouldPassThrough() throws Exception {
+    post("/admin/members", null, "{}", created());
+    post("/admin/members", null, "{}", created());
+    post("/api/other", "key-1", "{}", created());
+    post("/api/other", "key-1", "{}", created());
+
+    assertEquals(4, executions.get());
+  }
+
+  @Test
+  void overlongKey_ShouldReturn400() throws Exception {
+    MockHttpServletResponse response =
+        post("/admin/members", "k".repeat(IdempotencyFilter.MAX_KEY_LENGTH + 1), "{}", created());
+
+    assertEquals(400, response.getStatus());
+    assertEquals(0, executions.get());
+  }
+
+  @Test
+  void concurrentDuplicates_ShouldWaitForTheFirstAttempt() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Handler slow = (request, response) -> {
+      release.await();
+      created().handle(request, response);
+    };
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        responses.add(executor.submit(() -> post("/admin/members", "key-1", "{}", slow)));
+      }
+      Thread.sleep(200);
+      release.countDown();
+
+      for (Future<MockHttpServletResponse> response : responses) {
+        assertEquals(201, response.get().getStatus());
+      }
+      assertEquals(1, executions.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private MockHttpServletResponse post(String path, String key, String body, Handler step)
+      throws Exception {
+    MockHttpServletRequest request = request(path, key);
+    request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    request.setContent(body.getBytes(StandardCharsets.UTF_8));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain(step));
+    return response;
+  }
+
+  private static MockHttpServletRequest request(String path, String key) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+    if (key != null) {
+      request.addHeader(IdempotencyFilter.HEADER, key);
+    }
+    return request;
+  }
+
+  private Handler created() {
+    return (request, response) -> {
+      int id = executions.incrementAndGet();
+      response.setStatus(201);
+      response.setHeader("Location", "/admin/members/" + id);
+      response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+      response.getWriter().write("{\"id\":\"" + id + "\"}");
+    };
+  }
+
+  private static JwtTokenService jwtTokenService() {
+    JwtTokenService jwtTokenService = new JwtTokenService();
+    ReflectionTestUtils.setField(jwtTokenService, "secretKey",
+        "Srgl71VAmMhSVI+8Bb5eQB6HFr3HdUbidBb/xoTWZAM=");
+    ReflectionTestUtils.setField(jwtTokenService, "accessTokenExpiration", 900000L);
+    ReflectionTestUtils.setField(jwtTokenService, "refreshTokenExpiration", 604800000L);
+    return jwtTokenService;
+  }
+
+  private static void authenticate(String name) {
+    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+        name, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+  }
+
+  private static FilterChain chain(Handler handler) {
+    return (request, response) -> {
+      try {
+        handler.handle((HttpServletRequest) request, (HttpServletResponse) response);
+      } catch (Exception e) {
+        throw new ServletException(e);
+      }
+    };
+  }
+
+  @FunctionalInterface
+  private interface Handler {
+    void handle(HttpServletRequest request, HttpServletResponse response) throws Exception;
+  }
+}
@@ -0,0 +1,240 @@
+package com.example.kitchensink.idempotency;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteError;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+  private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  @Mock
+  private MongoCollection<Document> collection;
+
+  @Mock
+  private FindIterable<Document> found;
+
+  private IdempotencyStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new IdempotencyStore(mongoTemplate, Duration.ofHours(1), Duration.ofMillis(300),
+        Duration.ofMinutes(2), 100, Clock.fixed(NOW, ZoneOffset.UTC));
+  }
+
+  @Test
+  void acquire_NewKey_ShouldClaimItAndStoreTheResponse() {
+    when(mongoTemplate.getCollection(IdempotencyStore.COLLECTION)).thenReturn(collection);
+
+    assertTrue(store.acquire("key", "fp").owned());
+    store.complete("key", response("fp"));
+
+    verify(collection).createIndex(any(Bson.class), any(IndexOptions.class));
+    verify(collection).insertOne(any(Document.class));
+    verify(collection).updateOne(any(Bson.class), any(Bson.class));
+    // Later retries are answered from memory
+    assertEquals(201, store.acquire("key", "fp").replay().status());
+  }
+
+  @Test
+  void acquire_AfterTheTtl_ShouldNotReplayFromMemory() {
+    MutableClock clock = new MutableClock(NOW);
+    store = new IdempotencyStore(null, Duration.ofHours(1), Duration.ofMillis(300),
+        Duration.ofMinutes(2), 100, clock);
+    assertTrue(store.acquire("key", "fp").owned());
+    store.complete("key", response("fp"));
+
+    clock.now = NOW.plus(Duration.ofMinutes(59));
+    assertEquals(201, store.acquire("key", "fp").replay().status());
+
+    clock.now = NOW.plus(Duration.ofHours(1));
+    assertTrue(store.acquire("key", "fp").owned());
+  }
+
+  @Test
+  void acquire_KeyCompletedPastItsTtl_ShouldBeTakenOver() {
+    when(mongoTemplate.getCollection(IdempotencyStore.COLLECTION)).thenReturn(collection);
+    when(collection.insertOne(any(Document.class)))
+        .thenThrow(duplicateKeyError())
+        .thenReturn(null);
+    when(collection.find(any(Bson.class))).thenReturn(found);
+    when(found.first()).thenReturn(new Document("_id", "key")
+        .append("state", "DONE")
+        .append("fingerprint", "fp")
+        .append("expiresAt", Date.from(NOW.minusSeconds(1))));
+
+    assertTrue(store.acquire("key", "fp").owned());
+    verify(collection).deleteOne(any(Bson.class));
+  }
+
+  @Test
+  void acquire_KeyCompletedOnAnotherNode_ShouldReplayItsResponse() {
+    when(mongoTemplate.getCollection(IdempotencyStore.COLLECTION)).thenReturn(collection);
+    duplicateKey();
+    when(found.first()).thenReturn(new Document("_id", "key")
+        .append("state", "DONE")
+        .append("fingerprint", "fp")
+        .append("status", 201)
+        .append("headers", new Document("Location", List.of("/admin/members/1")))
+        .append("body", new Binary(new byte[] {1, 2})));
+
+    StoredResponse replay = store.acquire("key", "fp").replay();
+
+    assertEquals(201, replay.status());
+    assertEquals(List.of("/admin/members/1"), replay.headers().get("Location"));
+    assertArrayEquals(new byte[] {1, 2}, replay.body());
+  }
+
+  @Test
+  void acquire_KeyPendingOnAnotherNode_ShouldReturnInProgressAfterTheWaitTimeout() {
+    when(mongoTemplate.getCollection(IdempotencyStore.COLLECTION)).thenReturn(collection);
+    duplicateKey();
+    when(found.first()).thenReturn(pending("fp", NOW.plusSeconds(5)));
+
+    assertThrows(IdempotencyStore.InProgressException.class, () -> store.acquire("key", "fp"));
+  }
+
+  @Test
+  void acquire_NewKey_ShouldHoldTheClaimForTheClaimTimeout() {
+    when(mongoTemplate.getCollection(IdempotencyStore.COLLECTION)).thenReturn(collection);
+
+    assertTrue(store.acquire("key", "fp").owned());
+
+    ArgumentCaptor<Document> claim = ArgumentCaptor.forClass(Document.class);
+    verify(collection).insertOne(claim.capture());
+    assertEquals(Date.from(NOW.plus(Duration.ofMinutes(2))), claim.getValue().getDate("expiresAt"));
+  }
+
+  @Test
+  void constructor_WithClaimTimeoutNotAboveTheWaitTimeout_ShouldBeRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new IdempotencyStore(null,
+        Duration.ofHours(1), Duration.ofSeconds(10), Duration.ofSeconds(10), 100, Clock.systemUTC()));
+  }
+
+  @Test
+  void acquire_KeyPendingWithAnotherFingerprint_ShouldBeRejected() {
+    when(mongoTemplate.getCollection(IdempotencyStore.COLLECTION)).thenReturn(collection);
+    duplicateKey();
+    when(found.first()).thenReturn(pending("other", NOW.plusSeconds(5)));
+
+    assertThrows(IdempotencyStore.KeyReusedException.class, () -> store.acquire("key", "fp"));
+  }
+
+  @Test
+  void acquire_ExpiredPendingClaim_ShouldBeTakenOver() {
+    when(mongoTemplate.getCollection(IdempotencyStore.COLLECTION)).thenReturn(collection);
+    when(collection.insertOne(any(Document.class)))
+        .thenThrow(duplicateKeyError())
+        .thenReturn(null);
+    when(collection.find(any(Bson.class))).thenReturn(found);
+    when(found.first()).thenReturn(pending("fp", NOW.minusSeconds(1)));
+
+    assertTrue(store.acquire("key", "fp").owned());
+    verify(collection).deleteOne(any(Bson.class));
+  }
+
+  @Test
+  void acquire_MongoUnavailable_ShouldDeduplicateOnThisNode() {
+    when(mongoTemplate.getCollection(IdempotencyStore.COLLECTION)).thenReturn(collection);
+    doThrow(new MongoTimeoutException("down"))
+        .when(collection).createIndex(any(Bson.class), any(IndexOptions.class));
+
+    assertTrue(store.acquire("key", "fp").owned());
+
+    verify(collection, never()).insertOne(any(Document.class));
+  }
+
+  @Test
+  void abandon_ShouldLetTheNextAttemptRunTheRequest() {
+    when(mongoTemplate.getCollection(IdempotencyStore.COLLECTION)).thenReturn(collection);
+
+    assertTrue(store.acquire("key", "fp").owned());
+    store.abandon("key");
+
+    assertTrue(store.acquire("key", "fp").owned());
+    verify(collection).deleteOne(any(Bson.class));
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+
+  private void duplicateKey() {
+    when(collection.insertOne(any(Document.class))).thenThrow(duplicateKeyError());
+    when(collection.find(any(Bson.class))).thenReturn(found);
+  }
+
+  private static MongoWriteException duplicateKeyError() {
+    return new MongoWriteException(new WriteError(11000, "duplicate key", new BsonDocument()),
+        new ServerAddress());
+  }
+
+  private static Document pending(String fingerprint, Instant expiresAt) {
+    return new Document("_id", "key")
+        .append("state", "PENDING")
+        .append("fingerprint", fingerprint)
+        .append("expiresAt", Date.from(expiresAt));
+  }
+
+  private static StoredResponse response(String fingerprint) {
+    return new StoredResponse(fingerprint, 201, Map.of("Location", List.of("/admin/members/1")),
+        new byte[0]);
+  }
+}
@@ -0,0 +1,135 @@
+package com.example.kitchensink.lifecycle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.kitchensink.concurrency.InFlightRequestFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ShutdownCoordinatorTest {
+
+  private final InFlightRequestFilter requests = new InFlightRequestFilter(new SimpleMeterRegistry());
+
+  private final List<String> steps = new CopyOnWriteArrayList<>();
+
+  @Test
+  void stop_ShouldServeThroughTheGraceThenDrainThenFlush() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    ShutdownCoordinator coordinator = new ShutdownCoordinator(requests,
+        List.of(recording("events"), recording("caches")), Duration.ofMillis(200),
+        Duration.ofSeconds(5));
+    coordinator.start();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      Future<MockHttpServletResponse> signup = executor.submit(() -> request("/api/auth/signup",
+          (request, response) -> {
+            started.countDown();
+            sleep(300);
+            steps.add("signup finished");
+          }));
+      started.await();
+      Future<?> stopping = executor.submit(() -> coordinator.stop());
+
+      // Still serving during the readiness grace period
+      assertThat(request("/admin/members", (r, s) -> steps.add("served")).getStatus())
+          .isEqualTo(200);
+      stopping.get(5, TimeUnit.SECONDS);
+
+      assertThat(signup.get().getStatus()).isEqualTo(200);
+      assertThat(request("/admin/members", (r, s) -> steps.add("served late")).getStatus())
+          .isEqualTo(503);
+    }
+    assertThat(steps).containsExactly("served", "signup finished", "flush events",
+        "flush caches");
+    assertThat(coordinator.isRunning()).isFalse();
+  }
+
+  @Test
+  void stop_PastTheDrainTimeout_ShouldStillFlushWithNoTimeLeft() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(1);
+    List<Duration> timeouts = new CopyOnWriteArrayList<>();
+    ShutdownCoordinator coordinator = new ShutdownCoordinator(requests,
+        List.of(timeout -> timeouts.add(timeout)), Duration.ZERO, Duration.ofMillis(100));
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      executor.submit(() -> request("/jwt-signup", (request, response) -> {
+        started.countDown();
+        await(finish);
+      }));
+      started.await();
+
+      coordinator.stop();
+
+      assertThat(requests.getTotalInFlight()).isEqualTo(1);
+      finish.countDown();
+    }
+    assertThat(timeouts).containsExactly(Duration.ZERO);
+  }
+
+  @Test
+  void phase_ShouldStopBeforeTheWebServersGracefulShutdown() {
+    ShutdownCoordinator coordinator =
+        new ShutdownCoordinator(requests, List.of(), Duration.ZERO, Duration.ZERO);
+
+    assertThat(coordinator.getPhase())
+        .isGreaterThan(WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE);
+  }
+
+  @Test
+  void close_WhenAutoStartupIsOff_ShouldNotDrain() {
+    ShutdownCoordinator coordinator = new ShutdownCoordinator(requests,
+        List.of(recording("events")), Duration.ofSeconds(5), Duration.ofSeconds(5));
+    coordinator.setAutoStartup(false);
+
+    try (GenericApplicationContext context = new GenericApplicationContext()) {
+      context.registerBean(ShutdownCoordinator.class, () -> coordinator);
+      context.refresh();
+    }
+
+    assertThat(requests.isAccepting()).isTrue();
+    assertThat(steps).isEmpty();
+  }
+
+  private BackgroundWork recording(String name) {
+    return timeout -> {
+      steps.add("flush " + name);
+      return true;
+    };
+  }
+
+  private MockHttpServletResponse request(String path, FilterChain chain) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    requests.doFilter(new MockHttpServletRequest("POST", path), response, chain);
+    return response;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
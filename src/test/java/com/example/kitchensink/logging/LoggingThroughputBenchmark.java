@@ -0,0 +1,187 @@
+package com.example.kitchensink.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the per-request logging cost of the docker profile's configuration (synchronous
+ * console, DEBUG on security, web and application loggers) with the prod profile (async JSON,
+ * WARN on framework loggers, sampling and rate caps).
+ * <p>
+ * Each simulated request issues the log calls a secured REST request used to produce: the
+ * security and web DEBUG lines plus the four INFO lines from the user-details lookup. Output goes
+ * to a byte-counting sink so only the logging CPU is measured. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class LoggingThroughputBenchmark {
+
+  private static final int THREADS = 4;
+  private static final long WARMUP_MILLIS = 2_000;
+  private static final long MEASURE_MILLIS = 5_000;
+
+  @Test
+  void compareDockerAndProdLoggingConfigurations() throws Exception {
+    Result docker = run(dockerContext());
+    Result prod = run(prodContext());
+
+    System.out.printf("%-8s %14s %16s%n", "config", "requests/s", "bytes/request");
+    System.out.printf("%-8s %,14.0f %,16.1f%n", "docker", docker.requestsPerSecond, docker.bytesPerRequest);
+    System.out.printf("%-8s %,14.0f %,16.1f%n", "prod", prod.requestsPerSecond, prod.bytesPerRequest);
+  }
+
+  private Result run(Context context) throws Exception {
+    measure(context, WARMUP_MILLIS);
+    context.sink.bytes.reset();
+    long requests = measure(context, MEASURE_MILLIS);
+    // Stopping flushes whatever the async appender still has queued
+    context.loggerContext.stop();
+    return new Result(requests * 1000.0 / MEASURE_MILLIS,
+        (double) context.sink.bytes.sum() / Math.max(1, requests));
+  }
+
+  private long measure(Context context, long millis) throws InterruptedException {
+    LoggerContext lc = context.loggerContext;
+    Logger filterChain = lc.getLogger("org.springframework.security.web.FilterChainProxy");
+    Logger authorization = lc.getLogger("org.springframework.security.web.access.intercept.AuthorizationFilter");
+    Logger dispatcher = lc.getLogger("org.springframework.web.servlet.DispatcherServlet");
+    Logger bodyProcessor = lc.getLogger("org.springframework.web.servlet.mvc.method.annotation.HttpEntityMethodProcessor");
+    Logger userDetails = lc.getLogger("com.example.kitchensink.security.CustomUserDetailsService");
+
+    AtomicLong requests = new AtomicLong();
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+    CountDownLatch done = new CountDownLatch(THREADS);
+    for (int t = 0; t < THREADS; t++) {
+      int thread = t;
+      Thread.ofPlatform().start(() -> {
+        long i = 0;
+        while (System.nanoTime() < deadline) {
+          String email = "user" + thread + "-" + (i % 1000) + "@example.com";
+          filterChain.debug("Securing {} {}", "GET", "/admin/members");
+          userDetails.info("Attempting to authenticate email: {}", email);
+          userDetails.info("User found: {}", email);
+          userDetails.info("User role: {}", "ROLE_ADMIN");
+          userDetails.info("User password: {}", "Present");
+          filterChain.debug("Set SecurityContextHolder to {}", "UsernamePasswordAuthenticationToken");
+          authorization.debug("Authorized {} {}", "GET", "/admin/members");
+          filterChain.debug("Secured {} {}", "GET", "/admin/members");
+          dispatcher.debug("{} \"{}\", parameters={}", "GET", "/admin/members", "{}");
+          bodyProcessor.debug("Using '{}', given {}", "application/json", "[*/*]");
+          bodyProcessor.debug("Writing [{}]", "[Member(id=1, name=John Doe)]");
+          dispatcher.debug("Completed {}", "200 OK");
+          i++;
+        }
+        requests.addAndGet(i);
+        done.countDown();
+      });
+    }
+    done.await();
+    return requests.get();
+  }
+
+  private Context dockerContext() {
+    LoggerContext lc = newLoggerContext();
+    CountingSink sink = new CountingSink();
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p --- [%15.15t] %-40.40logger{39} : %m%n");
+    OutputStreamAppender<ILoggingEvent> console = outputAppender(lc, encoder, sink);
+
+    Logger root = lc.getLogger(Logger.ROOT_LOGGER_NAME);
+    root.setLevel(Level.INFO);
+    root.addAppender(console);
+    lc.getLogger("org.springframework.security").setLevel(Level.DEBUG);
+    lc.getLogger("org.springframework.web").setLevel(Level.DEBUG);
+    lc.getLogger("com.example.kitchensink").setLevel(Level.DEBUG);
+    return new Context(lc, sink);
+  }
+
+  private Context prodContext() {
+    LoggerContext lc = newLoggerContext();
+    CountingSink sink = new CountingSink();
+    OutputStreamAppender<ILoggingEvent> json = outputAppender(lc, new JsonEncoder(), sink);
+
+    AsyncAppender async = new AsyncAppender();
+    async.setContext(lc);
+    async.setQueueSize(8192);
+    async.setNeverBlock(true);
+    async.setIncludeCallerData(false);
+    async.addAppender(json);
+    async.start();
+
+    lc.addTurboFilter(samplingFilter(lc, "com.example.kitchensink", 1, 200));
+    lc.addTurboFilter(samplingFilter(lc, "org.springframework.security", 10, 50));
+    lc.addTurboFilter(samplingFilter(lc, "org.springframework.web", 10, 50));
+
+    Logger root = lc.getLogger(Logger.ROOT_LOGGER_NAME);
+    root.setLevel(Level.INFO);
+    root.addAppender(async);
+    lc.getLogger("org.springframework.security").setLevel(Level.WARN);
+    lc.getLogger("org.springframework.web").setLevel(Level.WARN);
+    lc.getLogger("com.example.kitchensink").setLevel(Level.INFO);
+    return new Context(lc, sink);
+  }
+
+  private static LoggerContext newLoggerContext() {
+    LoggerContext lc = new LoggerContext();
+    lc.setMDCAdapter(new LogbackMDCAdapter());
+    return lc;
+  }
+
+  private static OutputStreamAppender<ILoggingEvent> outputAppender(LoggerContext lc,
+      Encoder<ILoggingEvent> encoder, OutputStream sink) {
+    encoder.setContext(lc);
+    encoder.start();
+    OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+    appender.setContext(lc);
+    appender.setEncoder(encoder);
+    appender.setOutputStream(sink);
+    appender.start();
+    return appender;
+  }
+
+  private static SamplingTurboFilter samplingFilter(LoggerContext lc, String prefix, int sampleRate,
+      int maxPerSecond) {
+    SamplingTurboFilter filter = new SamplingTurboFilter();
+    filter.setContext(lc);
+    filter.setLoggerPrefix(prefix);
+    filter.setMaxLevel("INFO");
+    filter.setSampleRate(sampleRate);
+    filter.setMaxPerSecond(maxPerSecond);
+    filter.start();
+    return filter;
+  }
+
+  private record Context(LoggerContext loggerContext, CountingSink sink) {
+  }
+
+  private record Result(double requestsPerSecond, double bytesPerRequest) {
+  }
+
+  private static final class CountingSink extends OutputStream {
+    private final LongAdder bytes = new LongAdder();
+
+    @Override
+    public void write(int b) {
+      bytes.increment();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      bytes.add(len);
+    }
+  }
+}
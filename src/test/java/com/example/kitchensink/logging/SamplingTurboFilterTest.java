@@ -0,0 +1,101 @@
+package com.example.kitchensink.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SamplingTurboFilterTest {
+
+  private LoggerContext loggerContext;
+  private Logger appLogger;
+  private Logger otherLogger;
+  private long now;
+
+  private final SamplingTurboFilter filter = new SamplingTurboFilter() {
+    @Override
+    protected long currentTimeMillis() {
+      return now;
+    }
+  };
+
+  @BeforeEach
+  void setUp() {
+    loggerContext = new LoggerContext();
+    appLogger = loggerContext.getLogger("com.example.kitchensink.security.CustomUserDetailsService");
+    otherLogger = loggerContext.getLogger("org.apache.catalina.core.StandardService");
+    filter.setLoggerPrefix("com.example.kitchensink");
+    filter.setMaxLevel("INFO");
+    now = 1_000_000L;
+  }
+
+  @Test
+  void decide_WithSampleRate_ShouldKeepOneInN() {
+    filter.setSampleRate(4);
+
+    int kept = countKept(appLogger, Level.INFO, 100);
+
+    assertEquals(25, kept);
+    assertEquals(75, filter.getDropped());
+  }
+
+  @Test
+  void decide_WithRateCap_ShouldLimitEventsPerSecond() {
+    filter.setMaxPerSecond(10);
+
+    assertEquals(10, countKept(appLogger, Level.INFO, 50));
+
+    now += 1000;
+    assertEquals(10, countKept(appLogger, Level.DEBUG, 50));
+  }
+
+  @Test
+  void decide_AboveMaxLevel_ShouldAlwaysPass() {
+    filter.setSampleRate(100);
+    filter.setMaxPerSecond(1);
+
+    assertEquals(50, countKept(appLogger, Level.WARN, 50));
+    assertEquals(50, countKept(appLogger, Level.ERROR, 50));
+  }
+
+  @Test
+  void decide_ForOtherLoggers_ShouldStayNeutral() {
+    filter.setSampleRate(100);
+
+    assertEquals(50, countKept(otherLogger, Level.INFO, 50));
+  }
+
+  @Test
+  void decide_ForLevelChecks_ShouldNotConsumeSamples() {
+    filter.setMaxPerSecond(1);
+
+    for (int i = 0; i < 10; i++) {
+      assertEquals(FilterReply.NEUTRAL, filter.decide(null, appLogger, Level.INFO, null, null, null));
+    }
+    assertEquals(1, countKept(appLogger, Level.INFO, 1));
+  }
+
+  @Test
+  void decide_BelowLoggerLevel_ShouldNotConsumeSamples() {
+    appLogger.setLevel(Level.INFO);
+    filter.setMaxPerSecond(1);
+
+    assertEquals(10, countKept(appLogger, Level.DEBUG, 10));
+    assertEquals(0, filter.getDropped());
+    assertEquals(1, countKept(appLogger, Level.INFO, 1));
+  }
+
+  private int countKept(Logger logger, Level level, int events) {
+    int kept = 0;
+    for (int i = 0; i < events; i++) {
+      if (filter.decide(null, logger, level, "event {}", new Object[] {i}, null) != FilterReply.DENY) {
+        kept++;
+      }
+    }
+    return kept;
+  }
+}
@@ -0,0 +1,67 @@
+package com.example.kitchensink.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchGetRequestTest {
+
+    private Validator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Test
+    void testIdsOnly_IsValid() {
+        BatchGetRequest request = new BatchGetRequest(List.of("1", "2"), null);
+
+        assertTrue(validator.validate(request).isEmpty());
+        assertEquals(List.of("1", "2"), request.getKeys());
+    }
+
+    @Test
+    void testEmailsOnly_IsValid() {
+        BatchGetRequest request = new BatchGetRequest(null, List.of("john@example.com"));
+
+        assertTrue(validator.validate(request).isEmpty());
+        assertEquals(List.of("john@example.com"), request.getKeys());
+    }
+
+    @Test
+    void testNeitherOrBoth_IsInvalid() {
+        assertEquals("oneKeyKind", onlyViolation(new BatchGetRequest()).getPropertyPath().toString());
+        assertEquals("oneKeyKind", onlyViolation(
+                new BatchGetRequest(List.of("1"), List.of("john@example.com"))).getPropertyPath().toString());
+    }
+
+    @Test
+    void testTooManyKeys_IsInvalid() {
+        BatchGetRequest request = new BatchGetRequest(
+                Collections.nCopies(BatchGetRequest.MAX_KEYS + 1, "1"), null);
+
+        assertEquals("ids", onlyViolation(request).getPropertyPath().toString());
+    }
+
+    @Test
+    void testBlankKey_IsInvalid() {
+        BatchGetRequest request = new BatchGetRequest(null, List.of("john@example.com", " "));
+
+        assertEquals("emails[1].<list element>", onlyViolation(request).getPropertyPath().toString());
+    }
+
+    private ConstraintViolation<BatchGetRequest> onlyViolation(BatchGetRequest request) {
+        Set<ConstraintViolation<BatchGetRequest>> violations = validator.validate(request);
+        assertEquals(1, violations.size());
+        return violations.iterator().next();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.kitchensink.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.kitchensink.model.BulkMutateRequest.Action;
+import com.example.kitchensink.model.BulkMutateRequest.Filter;
+import com.example.kitchensink.model.BulkMutateRequest.Operation;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkMutateRequestTest {
+
+    private Validator validator;
+
+    @BeforeEach
+    void setUp() {
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+    }
+
+    @Test
+    void testValidOperations() {
+        BulkMutateRequest request = new BulkMutateRequest(false, List.of(
+                new Operation(Action.SET_ROLE, null, new Filter("ADMIN", null), "USER", null),
+                new Operation(Action.SET_PHONE, List.of("1"), null, null, "1234567890"),
+                new Operation(Action.DELETE, null, new Filter(null, "partner.com"), null, null)));
+
+        assertTrue(validator.validate(request).isEmpty());
+    }
+
+    @Test
+    void testNoOperations_IsInvalid() {
+        assertEquals("operations", onlyViolation(new BulkMutateRequest(true, List.of())));
+    }
+
+    @Test
+    void testOperationWithIdsAndFilter_IsInvalid() {
+        BulkMutateRequest request = new BulkMutateRequest(true, List.of(
+                new Operation(Action.DELETE, List.of("1"), new Filter("USER", null), null, null)));
+
+        assertEquals("operations[0].oneTarget", onlyViolation(request));
+    }
+
+    @Test
+    void testSetRoleWithoutRole_IsInvalid() {
+        BulkMutateRequest request = new BulkMutateRequest(true, List.of(
+                new Operation(Action.SET_ROLE, List.of("1"), null, null, "1234567890")));
+
+        assertEquals("operations[0].valueGiven", onlyViolation(request));
+    }
+
+    @Test
+    void testEmptyFilter_IsInvalid() {
+        BulkMutateRequest request = new BulkMutateRequest(true, List.of(
+                new Operation(Action.DELETE, null, new Filter(" ", null), null, null)));
+
+        assertEquals("operations[0].filter.notEmpty", onlyViolation(request));
+    }
+
+    @Test
+    void testInvalidPhoneNumber_IsInvalid() {
+        BulkMutateRequest request = new BulkMutateRequest(true, List.of(
+                new Operation(Action.SET_PHONE, List.of("1"), null, null, "abc")));
+
+        assertEquals("operations[0].phoneNumber", onlyViolation(request));
+    }
+
+    private String onlyViolation(BulkMutateRequest request) {
+        Set<ConstraintViolation<BulkMutateRequest>> violations = validator.validate(request);
+        assertEquals(1, violations.size(), violations.toString());
+        return violations.iterator().next().getPropertyPath().toString();
+    }
+}
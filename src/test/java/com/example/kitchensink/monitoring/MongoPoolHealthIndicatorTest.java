@@ -0,0 +1,90 @@
+package com.example.kitchensink.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.kitchensink.monitoring.MongoPoolMonitor.PoolStats;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.health.HealthContributorAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.health.HealthEndpointAutoConfiguration;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.HealthEndpointGroups;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+class MongoPoolHealthIndicatorTest {
+
+  private MongoPoolMonitor monitor;
+  private MongoPoolHealthIndicator healthIndicator;
+
+  @BeforeEach
+  void setUp() {
+    monitor = mock(MongoPoolMonitor.class);
+    healthIndicator = new MongoPoolHealthIndicator(monitor, Duration.ofSeconds(30));
+  }
+
+  @Test
+  void health_WhenNoPoolIsOpen_ShouldBeUp() {
+    when(monitor.stats()).thenReturn(List.of());
+
+    assertEquals(Status.UP, healthIndicator.health().getStatus());
+  }
+
+  @Test
+  void health_WhenSaturationIsBrief_ShouldBeUp() {
+    when(monitor.stats()).thenReturn(List.of(
+        new PoolStats("localhost:27017", 10, 10, 3, Duration.ofSeconds(5))));
+
+    Health health = healthIndicator.health();
+
+    assertEquals(Status.UP, health.getStatus());
+    assertTrue(health.getDetails().containsKey("localhost:27017"));
+  }
+
+  @Test
+  void health_WhenAnyPoolStaysSaturated_ShouldBeDegraded() {
+    when(monitor.stats()).thenReturn(List.of(
+        new PoolStats("a:27017", 10, 1, 0, Duration.ZERO),
+        new PoolStats("b:27017", 10, 10, 4, Duration.ofSeconds(45))));
+
+    Health health = healthIndicator.health();
+
+    assertEquals(MongoPoolHealthIndicator.DEGRADED, health.getStatus());
+    assertEquals(Map.of("maxSize", 10, "checkedOut", 10, "waiting", 4, "saturatedFor", "PT45S"),
+        health.getDetails().get("b:27017"));
+  }
+
+  @Test
+  void aggregateHealth_WithTheApplicationsStatusOrder_ShouldSurfaceDegradedAs200() {
+    when(monitor.stats()).thenReturn(List.of(
+        new PoolStats("b:27017", 10, 10, 4, Duration.ofSeconds(45))));
+
+    // Loads application.yml, so this fails if DEGRADED drops out of the configured status order
+    new ApplicationContextRunner()
+        .withInitializer(new ConfigDataApplicationContextInitializer())
+        .withConfiguration(AutoConfigurations.of(HealthContributorAutoConfiguration.class,
+            HealthEndpointAutoConfiguration.class))
+        .withBean("mongoPool", HealthIndicator.class, () -> healthIndicator)
+        .withBean("other", HealthIndicator.class, () -> () -> Health.up().build())
+        .run(context -> {
+          HealthEndpointGroups groups = context.getBean(HealthEndpointGroups.class);
+
+          assertEquals(MongoPoolHealthIndicator.DEGRADED,
+              context.getBean(HealthEndpoint.class).health().getStatus());
+          assertEquals(200, groups.getPrimary().getHttpCodeStatusMapper()
+              .getStatusCode(MongoPoolHealthIndicator.DEGRADED));
+          assertEquals(Status.DOWN, groups.getPrimary().getStatusAggregator()
+              .getAggregateStatus(Status.DOWN, MongoPoolHealthIndicator.DEGRADED));
+        });
+  }
+}
@@ -0,0 +1,162 @@
+package com.example.kitchensink.monitoring;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.kitchensink.monitoring.MongoPoolMonitor.PoolStats;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckOutStartedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionClosedEvent;
+import com.mongodb.event.ConnectionCreatedEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolCreatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MongoPoolMonitorTest {
+
+  private final ServerId serverId = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+  private final ConnectionId connectionId = new ConnectionId(serverId);
+  private final AtomicLong clock = new AtomicLong();
+
+  private SimpleMeterRegistry registry;
+  private MongoPoolMonitor monitor;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    monitor = new MongoPoolMonitor(registry, 0.9, clock::get);
+    monitor.connectionPoolCreated(new ConnectionPoolCreatedEvent(serverId,
+        ConnectionPoolSettings.builder().maxSize(10).build()));
+  }
+
+  @Test
+  void checkout_ShouldTrackWaitingAndCheckedOutConnections() {
+    checkOut(10);
+    monitor.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId, 100));
+
+    assertEquals(1, registry.get("kitchensink.mongodb.pool.waiting").gauge().value());
+    assertEquals(10, registry.get("kitchensink.mongodb.pool.checkedout").gauge().value());
+
+    monitor.connectionCheckedIn(new ConnectionCheckedInEvent(connectionId));
+    monitor.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId, 100, 0));
+
+    assertEquals(0, registry.get("kitchensink.mongodb.pool.waiting").gauge().value());
+    assertEquals(10, registry.get("kitchensink.mongodb.pool.checkedout").gauge().value());
+  }
+
+  @Test
+  void checkout_WithConnectionsFree_ShouldNotCountAsWaiting() {
+    monitor.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId, 1));
+    monitor.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId, 2));
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+    assertEquals(0, registry.get("kitchensink.mongodb.pool.waiting").gauge().value());
+    assertEquals(Duration.ZERO, monitor.stats().get(0).saturatedFor());
+  }
+
+  @Test
+  void checkout_ShouldRecordLatencyByOutcome() {
+    monitor.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+    monitor.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId, 1,
+        TimeUnit.MILLISECONDS.toNanos(40)));
+    monitor.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId));
+    monitor.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(serverId, 2,
+        ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.SECONDS.toNanos(2)));
+
+    assertEquals(40, registry.get("kitchensink.mongodb.pool.checkout").tag("outcome", "success")
+        .timer().totalTime(TimeUnit.MILLISECONDS));
+    assertEquals(1, registry.get("kitchensink.mongodb.pool.checkout").tag("outcome", "timeout")
+        .timer().count());
+    assertEquals(0, registry.get("kitchensink.mongodb.pool.waiting").gauge().value());
+  }
+
+  @Test
+  void connectionLifecycle_ShouldCountChurn() {
+    monitor.connectionCreated(new ConnectionCreatedEvent(connectionId));
+    monitor.connectionCreated(new ConnectionCreatedEvent(connectionId));
+    monitor.connectionClosed(new ConnectionClosedEvent(connectionId, ConnectionClosedEvent.Reason.IDLE));
+
+    assertEquals(2, registry.get("kitchensink.mongodb.pool.connections.created").counter().count());
+    assertEquals(1, registry.get("kitchensink.mongodb.pool.connections.closed").tag("reason", "idle")
+        .counter().count());
+  }
+
+  @Test
+  void stats_ShouldReportHowLongPoolHasBeenSaturated() {
+    checkOut(9);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+
+    PoolStats stats = monitor.stats().get(0);
+
+    assertEquals("localhost:27017", stats.server());
+    assertEquals(10, stats.maxSize());
+    assertEquals(9, stats.checkedOut());
+    assertEquals(Duration.ofSeconds(20), stats.saturatedFor());
+  }
+
+  @Test
+  void stats_ShouldResetSaturationOnceConnectionsStayReturned() {
+    checkOut(10);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+    for (int i = 0; i < 5; i++) {
+      monitor.connectionCheckedIn(new ConnectionCheckedInEvent(connectionId));
+    }
+
+    assertEquals(Duration.ofSeconds(20), monitor.stats().get(0).saturatedFor());
+
+    clock.addAndGet(MongoPoolMonitor.RECOVERY.toNanos());
+
+    assertEquals(Duration.ZERO, monitor.stats().get(0).saturatedFor());
+  }
+
+  @Test
+  void stats_ShouldNotResetSaturationOnABriefDipBelowTheThreshold() {
+    checkOut(9);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+    monitor.connectionCheckedIn(new ConnectionCheckedInEvent(connectionId));
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+    monitor.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId, 100));
+    monitor.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId, 100, 0));
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+
+    assertEquals(Duration.ofMillis(40_010), monitor.stats().get(0).saturatedFor());
+  }
+
+  @Test
+  void stats_ShouldTreatWaitingThreadsAsSaturation() {
+    checkOut(10);
+    monitor.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId, 100));
+    for (int i = 0; i < 5; i++) {
+      monitor.connectionCheckedIn(new ConnectionCheckedInEvent(connectionId));
+    }
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+    assertEquals(Duration.ofSeconds(5), monitor.stats().get(0).saturatedFor());
+  }
+
+  @Test
+  void poolClosed_ShouldDropPool() {
+    monitor.connectionPoolClosed(new ConnectionPoolClosedEvent(serverId));
+
+    assertEquals(List.of(), monitor.stats());
+  }
+
+  private void checkOut(int connections) {
+    for (int i = 0; i < connections; i++) {
+      monitor.connectionCheckOutStarted(new ConnectionCheckOutStartedEvent(serverId, i));
+      monitor.connectionCheckedOut(new ConnectionCheckedOutEvent(connectionId, i, 0));
+    }
+  }
+}
@@ -0,0 +1,225 @@
+package com.example.kitchensink.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.model.MemberStats;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class MemberStatisticsTest {
+
+  private static final Instant CREATED = Instant.parse("2026-03-04T23:30:00Z");
+
+  @Mock
+  private MongoTemplate mongoTemplate;
+
+  private MemberStatistics statistics;
+
+  @AfterEach
+  void tearDown() {
+    statistics.shutdown();
+  }
+
+  @Test
+  void created_ShouldIncrementTotalRoleDayAndMissingPassword() {
+    statistics = new MemberStatistics(mongoTemplate);
+
+    statistics.created(member("1", "ROLE_USER", null));
+
+    assertThat(increments()).isEqualTo(new Document("total", 1)
+        .append("byRole.ROLE_USER", 1)
+        .append("signupsPerDay.2026-03-04", 1)
+        .append("withoutPassword", 1)
+        .append("writes", 1));
+  }
+
+  @Test
+  void deleted_ShouldDecrementWhatTheMemberWasCountedIn() {
+    statistics = new MemberStatistics(mongoTemplate);
+
+    statistics.deleted(member("1", "ROLE_ADMIN", "hash"));
+
+    assertThat(increments()).isEqualTo(new Document("total", -1)
+        .append("byRole.ROLE_ADMIN", -1)
+        .append("signupsPerDay.2026-03-04", -1)
+        .append("writes", 1));
+  }
+
+  @Test
+  void roleChanged_ShouldMoveTheMemberBetweenRoles() {
+    statistics = new MemberStatistics(mongoTemplate);
+
+    statistics.roleChanged("ROLE_USER", "ROLE_ADMIN");
+
+    assertThat(increments())
+        .isEqualTo(new Document("byRole.ROLE_USER", -1).append("byRole.ROLE_ADMIN", 1)
+            .append("writes", 1));
+  }
+
+  @Test
+  void roleChanged_ShouldEscapeRolesThatAreNotPlainNames() {
+    statistics = new MemberStatistics(mongoTemplate);
+
+    statistics.roleChanged(null, "ROLE_a.b$c");
+
+    assertThat(increments()).isEqualTo(new Document("byRole.(none)", -1)
+        .append("byRole.ROLE_a%2Eb%24c", 1).append("writes", 1));
+  }
+
+  @Test
+  void increment_WhenMongoFails_ShouldNotFailTheMemberWrite() {
+    statistics = new MemberStatistics(mongoTemplate);
+    when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(MemberStatistics.COLLECTION)))
+        .thenThrow(new DataAccessResourceFailureException("down"));
+
+    statistics.passwordSet();
+  }
+
+  @Test
+  void read_ShouldLeaveOutEmptyCounts() {
+    statistics = new MemberStatistics(mongoTemplate);
+    when(mongoTemplate.findById(MemberStatistics.ID, Document.class, MemberStatistics.COLLECTION))
+        .thenReturn(new Document("_id", MemberStatistics.ID)
+            .append("total", 2L)
+            .append("byRole", new Document("ROLE_USER", 2L).append("ROLE_ADMIN", 0)
+                .append("ROLE_a%2Eb", 1).append("(none)", 1))
+            .append("withoutPassword", 1)
+            .append("signupsPerDay", new Document("2026-03-05", 1).append("2026-03-04", 1L))
+            .append("reconciledAt", Date.from(CREATED)));
+
+    MemberStats stats = statistics.read();
+
+    assertThat(stats.getTotal()).isEqualTo(2);
+    assertThat(stats.getByRole())
+        .isEqualTo(Map.of("ROLE_USER", 2L, "ROLE_a.b", 1L, "(none)", 1L));
+    assertThat(stats.getWithoutPassword()).isEqualTo(1);
+    assertThat(stats.getSignupsPerDay().keySet()).containsExactly("2026-03-04", "2026-03-05");
+    assertThat(stats.getReconciledAt()).isEqualTo(CREATED);
+  }
+
+  @Test
+  void read_BeforeAnyCounts_ShouldReturnZeros() {
+    statistics = new MemberStatistics(mongoTemplate);
+
+    MemberStats stats = statistics.read();
+
+    assertThat(stats.getTotal()).isZero();
+    assertThat(stats.getByRole()).isEmpty();
+  }
+
+  @Test
+  void reconcile_ShouldCountEveryBatchAndReplaceTheStoredCounts() {
+    statistics = new MemberStatistics(mongoTemplate);
+    ReflectionTestUtils.setField(statistics, "batchSize", 2);
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class))).thenReturn(
+        List.of(member("1", "ROLE_ADMIN", "hash"), member("2", "ROLE_USER", null)),
+        List.of(member("3", "ROLE_USER", "hash"), member("4", "ROLE_x.y", "hash")),
+        List.of());
+
+    statistics.reconcile();
+
+    ArgumentCaptor<Query> batches = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate, times(3))
+        .find(batches.capture(), eq(MemberDocument.class));
+    assertThat(batches.getAllValues().get(0).getQueryObject()).isEmpty();
+    assertThat(batches.getAllValues().get(1).getQueryObject())
+        .isEqualTo(new Document("id", new Document("$gt", "2")));
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(MemberStatistics.COLLECTION));
+    Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+    assertThat(set.get("total")).isEqualTo(4L);
+    assertThat(set.get("withoutPassword")).isEqualTo(1L);
+    assertThat(set.get("byRole", Document.class))
+        .isEqualTo(new Document("ROLE_ADMIN", 1L).append("ROLE_USER", 2L)
+            .append("ROLE_x%2Ey", 1L));
+    assertThat(set.get("signupsPerDay", Document.class))
+        .isEqualTo(new Document("2026-03-04", 4L));
+  }
+
+  @Test
+  void reconcile_ShouldOnlyReplaceCountsNoIncrementHasTouchedSinceTheScanBegan() {
+    statistics = new MemberStatistics(mongoTemplate);
+    when(mongoTemplate.findById(MemberStatistics.ID, Document.class, MemberStatistics.COLLECTION))
+        .thenReturn(new Document("_id", MemberStatistics.ID).append("writes", 41));
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class)))
+        .thenReturn(List.of(member("1", "ROLE_USER", "hash")));
+
+    statistics.reconcile();
+
+    ArgumentCaptor<Query> fence = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).upsert(fence.capture(), any(Update.class),
+        eq(MemberStatistics.COLLECTION));
+    assertThat(fence.getValue().getQueryObject()).isEqualTo(new Document("_id", MemberStatistics.ID)
+        .append("$and", List.of(new Document("writes", 41L))));
+  }
+
+  @Test
+  void reconcile_WhenIncrementedDuringTheScan_ShouldScanAgainAndGiveUpAfterAFewTries() {
+    statistics = new MemberStatistics(mongoTemplate);
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class)))
+        .thenReturn(List.of(member("1", "ROLE_USER", "hash")));
+    doThrow(new DuplicateKeyException("writes moved")).when(mongoTemplate)
+        .upsert(any(Query.class), any(Update.class), eq(MemberStatistics.COLLECTION));
+
+    statistics.reconcile();
+
+    verify(mongoTemplate, times(MemberStatistics.RECONCILE_ATTEMPTS))
+        .find(any(Query.class), eq(MemberDocument.class));
+    verify(mongoTemplate, times(MemberStatistics.RECONCILE_ATTEMPTS))
+        .upsert(any(Query.class), any(Update.class), eq(MemberStatistics.COLLECTION));
+  }
+
+  @Test
+  void flush_ShouldFinishARecountQueuedByABulkChange() throws Exception {
+    statistics = new MemberStatistics(mongoTemplate);
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class)))
+        .thenReturn(List.of(member("1", "ROLE_USER", "hash")));
+
+    statistics.onMemberChanged(MemberChangedEvent.bulk());
+
+    assertThat(statistics.flush(Duration.ofSeconds(5))).isTrue();
+    verify(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(MemberStatistics.COLLECTION));
+
+    // Changes during the rest of the drain are counted at the next startup's recount instead
+    statistics.onMemberChanged(MemberChangedEvent.bulk());
+    verify(mongoTemplate).find(any(Query.class), eq(MemberDocument.class));
+  }
+
+  private Document increments() {
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(MemberStatistics.COLLECTION));
+    return update.getValue().getUpdateObject().get("$inc", Document.class);
+  }
+
+  private static MemberDocument member(String id, String role, String password) {
+    MemberDocument member = new MemberDocument(id, null, null, null, password, role);
+    member.setCreatedAt(CREATED);
+    return member;
+  }
+}
@@ -0,0 +1,179 @@
+package com.example.kitchensink.security;
+
+import com.example.kitchensink.security.Hs256TokenCodec.TokenClaims;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.CompressionCodecs;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential tests against JJWT: the codec must mint the same bytes JJWT does, accept every
+ * token JJWT accepts from this application, and hand back (null) everything else.
+ */
+class Hs256TokenCodecTest {
+
+    private static final String SECRET = "Srgl71VAmMhSVI+8Bb5eQB6HFr3HdUbidBb/xoTWZAM=";
+
+    private static final long NOW = 1_767_225_600_000L;
+
+    private final Key key = Keys.hmacShaKeyFor(SECRET.getBytes());
+
+    private final Hs256TokenCodec codec = new Hs256TokenCodec(key.getEncoded());
+
+    @Test
+    void encode_ShouldMatchJjwtByteForByte() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            String subject = randomAscii(random, 1 + random.nextInt(60));
+            String role = random.nextBoolean() ? null : "ROLE_" + randomAscii(random, random.nextInt(12));
+            if (!Hs256TokenCodec.canEncode(subject, role)) {
+                continue;
+            }
+            long issuedAt = NOW / 1000 + random.nextInt(1_000_000);
+            long expiresAt = issuedAt + random.nextInt(1_000_000);
+
+            String minted = codec.encode(subject, role, issuedAt, expiresAt);
+
+            assertEquals(jjwt(subject, role, issuedAt, expiresAt), minted);
+        }
+    }
+
+    @Test
+    void decode_ShouldAgreeWithJjwtOnItsTokens() {
+        Random random = new Random(7);
+        for (int i = 0; i < 2_000; i++) {
+            String subject = randomAscii(random, 1 + random.nextInt(60));
+            String role = random.nextBoolean() ? null : "ROLE_ADMIN";
+            long issuedAt = NOW / 1000;
+            long expiresAt = issuedAt + 900;
+            String token = jjwt(subject, role, issuedAt, expiresAt);
+
+            TokenClaims claims = codec.decode(token, NOW);
+
+            if (Hs256TokenCodec.canEncode(subject, role)) {
+                Claims expected = parse(token);
+                assertNotNull(claims, token);
+                assertEquals(expected.getSubject(), claims.subject());
+                assertEquals(expected.get("role", String.class), claims.role());
+                assertEquals(expected.getExpiration().getTime(), claims.expiresAt() * 1000);
+                assertEquals(expected.getIssuedAt().getTime(), claims.issuedAt() * 1000);
+            } else {
+                // Escaped or non-ASCII values are left to JJWT
+                assertNull(claims, token);
+            }
+        }
+    }
+
+    @Test
+    void mintedTokens_ShouldVerifyWithJjwt() {
+        String token = codec.encode("user@example.com", "ROLE_USER", NOW / 1000, NOW / 1000 + 900);
+
+        Claims claims = Jwts.parserBuilder().setSigningKey(key)
+                .setClock(() -> new Date(NOW)).build().parseClaimsJws(token).getBody();
+
+        assertEquals("user@example.com", claims.getSubject());
+        assertEquals("ROLE_USER", claims.get("role", String.class));
+    }
+
+    @Test
+    void decode_ShouldRejectTamperedAndForeignTokens() {
+        String token = codec.encode("user@example.com", "ROLE_USER", NOW / 1000, NOW / 1000 + 900);
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + base64("{\"role\":\"ROLE_ADMIN\",\"sub\":\"user@example.com\",\"iat\":"
+                + NOW / 1000 + ",\"exp\":" + (NOW / 1000 + 900) + "}") + "." + parts[2];
+        Hs256TokenCodec otherKey = new Hs256TokenCodec(
+                Keys.hmacShaKeyFor("another-secret-that-is-long-enough-32b".getBytes()).getEncoded());
+
+        assertNull(codec.decode(forged, NOW));
+        assertNull(otherKey.decode(token, NOW));
+        assertNull(codec.decode(token.substring(0, token.length() - 1), NOW));
+        assertNull(codec.decode(token + "A", NOW));
+        assertNull(codec.decode(null, NOW));
+        assertNull(codec.decode("", NOW));
+        assertNull(codec.decode("not.a.token", NOW));
+    }
+
+    @Test
+    void decode_ShouldLeaveExpiredTokensToJjwt() {
+        String token = codec.encode("user@example.com", null, NOW / 1000 - 900, NOW / 1000);
+
+        assertNotNull(codec.decode(token, NOW));
+        assertNull(codec.decode(token, NOW + 1));
+    }
+
+    @Test
+    void decode_ShouldLeaveOtherShapesToJjwt() {
+        Date expiration = new Date(NOW + 900_000);
+        String extraClaim = Jwts.builder().setSubject("user@example.com").claim("scope", "all")
+                .setExpiration(expiration).signWith(key, SignatureAlgorithm.HS256).compact();
+        String notBefore = Jwts.builder().setSubject("user@example.com").setNotBefore(new Date(NOW))
+                .setExpiration(expiration).signWith(key, SignatureAlgorithm.HS256).compact();
+        String noExpiry = Jwts.builder().setSubject("user@example.com")
+                .signWith(key, SignatureAlgorithm.HS256).compact();
+        String typedHeader = Jwts.builder().setHeaderParam("typ", "JWT").setSubject("user@example.com")
+                .setExpiration(expiration).signWith(key, SignatureAlgorithm.HS256).compact();
+        String compressed = Jwts.builder().setSubject("user@example.com").setExpiration(expiration)
+                .compressWith(CompressionCodecs.DEFLATE).signWith(key, SignatureAlgorithm.HS256).compact();
+        String hs384 = Jwts.builder().setSubject("user@example.com").setExpiration(expiration)
+                .signWith(Keys.hmacShaKeyFor(new byte[48]), SignatureAlgorithm.HS384).compact();
+
+        for (String token : new String[] {extraClaim, notBefore, noExpiry, typedHeader, compressed, hs384}) {
+            assertNull(codec.decode(token, NOW), token);
+        }
+    }
+
+    @Test
+    void canEncode_ShouldRefuseValuesThatNeedEscaping() {
+        assertTrue(Hs256TokenCodec.canEncode("user@example.com", null));
+        assertFalse(Hs256TokenCodec.canEncode(null, "ROLE_USER"));
+        assertFalse(Hs256TokenCodec.canEncode("quote\"user", null));
+        assertFalse(Hs256TokenCodec.canEncode("back\\slash", null));
+        assertFalse(Hs256TokenCodec.canEncode("tab\tuser", null));
+        assertFalse(Hs256TokenCodec.canEncode("josé@example.com", null));
+    }
+
+    private String jjwt(String subject, String role, long issuedAt, long expiresAt) {
+        Map<String, Object> claims = new HashMap<>();
+        if (role != null) {
+            claims.put("role", role);
+        }
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(subject)
+                .setIssuedAt(new Date(issuedAt * 1000))
+                .setExpiration(new Date(expiresAt * 1000))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private Claims parse(String token) {
+        return Jwts.parserBuilder().setSigningKey(key).setClock(() -> new Date(NOW)).build()
+                .parseClaimsJws(token).getBody();
+    }
+
+    private static String base64(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes());
+    }
+
+    /** Mostly printable ASCII, with the occasional quote, backslash, control or accented character. */
+    private static String randomAscii(Random random, int length) {
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            int pick = random.nextInt(200);
+            value.append(pick == 0 ? '"' : pick == 1 ? '\\' : pick == 2 ? '\n' : pick == 3 ? 'é'
+                    : (char) (0x20 + random.nextInt(0x5f)));
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.kitchensink.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.security.Key;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares minting and verifying an access token with JJWT (a new key, claims map, Jackson
+ * serialization and {@code Mac} per call, as {@code JwtTokenService} used to) and with
+ * {@link Hs256TokenCodec}, single-threaded. Prints operations per second and bytes allocated per
+ * operation. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JwtCodecBenchmark {
+
+    private static final String SECRET = "Srgl71VAmMhSVI+8Bb5eQB6HFr3HdUbidBb/xoTWZAM=";
+    private static final long WARMUP_MILLIS = 2_000;
+    private static final long MEASURE_MILLIS = 5_000;
+
+    private final Hs256TokenCodec codec =
+            new Hs256TokenCodec(Keys.hmacShaKeyFor(SECRET.getBytes()).getEncoded());
+
+    @Test
+    void compareJjwtAndCodec() {
+        long now = System.currentTimeMillis();
+        String token = jjwtMint(now);
+        assertEquals(token, codec.encode("member@example.com", "ROLE_USER", now / 1000, now / 1000 + 900));
+
+        Result jjwtMint = run(() -> jjwtMint(now).length());
+        Result codecMint = run(() -> codec.encode("member@example.com", "ROLE_USER", now / 1000,
+                now / 1000 + 900).length());
+        Result jjwtVerify = run(() -> Jwts.parserBuilder().setSigningKey(key()).build()
+                .parseClaimsJws(token).getBody().getSubject().length());
+        Result codecVerify = run(() -> codec.decode(token, now).subject().length());
+
+        System.out.printf("%-14s %14s %16s%n", "operation", "ops/s", "bytes/op");
+        print("jjwt mint", jjwtMint);
+        print("codec mint", codecMint);
+        print("jjwt verify", jjwtVerify);
+        print("codec verify", codecVerify);
+    }
+
+    private static String jjwtMint(long now) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("role", "ROLE_USER");
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject("member@example.com")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 900_000))
+                .signWith(key(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static Key key() {
+        return Keys.hmacShaKeyFor(SECRET.getBytes());
+    }
+
+    private static Result run(IntSupplier operation) {
+        measure(operation, WARMUP_MILLIS);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long operations = measure(operation, MEASURE_MILLIS);
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Result(operations * 1000.0 / MEASURE_MILLIS, (double) allocated / operations);
+    }
+
+    private static long measure(IntSupplier operation, long millis) {
+        long deadline = System.nanoTime() + millis * 1_000_000;
+        long operations = 0;
+        int sink = 0;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 100; i++) {
+                sink += operation.getAsInt();
+            }
+            operations += 100;
+        }
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return operations;
+    }
+
+    private static void print(String name, Result result) {
+        System.out.printf("%-14s %,14.0f %,16.1f%n", name, result.opsPerSecond, result.bytesPerOp);
+    }
+
+    private record Result(double opsPerSecond, double bytesPerOp) {
+    }
+}
@@ -264,6 +264,30 @@ class JwtTokenServiceTest {
         assertEquals(username, extractedUsername);
     }
 
+    @Test
+    void verify_WithValidToken_ShouldReturnItsClaims() {
+        String token = jwtTokenService.generateAccessToken("test@example.com", "ROLE_ADMIN");
+
+        VerifiedToken verified = jwtTokenService.verify(token);
+
+        assertNotNull(verified);
+        assertEquals("test@example.com", verified.subject());
+        assertEquals("ROLE_ADMIN", verified.role());
+        assertEquals(jwtTokenService.extractExpiration(token).toInstant(), verified.expiresAt());
+    }
+
+    @Test
+    void verify_WithInvalidOrExpiredToken_ShouldReturnNull() {
+        ReflectionTestUtils.setField(jwtTokenService, "accessTokenExpiration", -1000L);
+        String expired = jwtTokenService.generateAccessToken("test@example.com", "ROLE_USER");
+        String forged = expired.substring(0, expired.length() - 2) + "xx";
+
+        assertNull(jwtTokenService.verify(expired));
+        assertNull(jwtTokenService.verify(forged));
+        assertNull(jwtTokenService.verify("not-a-token"));
+        assertNull(jwtTokenService.verify(null));
+    }
+
     @Test
     void getAccessTokenExpiration_ShouldReturnConfiguredValue() {
         // When
@@ -1,23 +1,36 @@
 package com.example.kitchensink.service;
 
 import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.event.MemberChangedEvent;
 import com.example.kitchensink.model.AuthResponse;
 import com.example.kitchensink.model.SignupRequest;
 import com.example.kitchensink.repository.MemberRepository;
+import com.example.kitchensink.repository.MemberSequence;
+import com.example.kitchensink.repository.MemberStatistics;
 import com.example.kitchensink.security.JwtTokenService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.bson.Document;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,12 +39,24 @@ class AuthServiceTest {
     @Mock
     private MemberRepository memberRepository;
 
+    @Mock
+    private MongoTemplate mongoTemplate;
+
     @Mock
     private PasswordEncoder passwordEncoder;
 
     @Mock
     private JwtTokenService jwtTokenService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private MemberSequence memberSequence;
+
+    @Mock
+    private MemberStatistics memberStatistics;
+
     @InjectMocks
     private AuthService authService;
 
@@ -60,9 +85,8 @@ class AuthServiceTest {
     @Test
     void registerUser_WithValidData_ShouldReturnAuthResponse() {
         // Given
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        stubUpsertInserts();
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(memberRepository.save(any(MemberDocument.class))).thenReturn(memberDocument);
         when(jwtTokenService.generateAccessToken(anyString(), anyString())).thenReturn("accessToken");
         when(jwtTokenService.generateRefreshToken(anyString())).thenReturn("refreshToken");
         when(jwtTokenService.getAccessTokenExpiration()).thenReturn(900000L);
@@ -79,25 +103,70 @@ class AuthServiceTest {
         assertEquals("test@example.com", response.getEmail());
         assertEquals("ROLE_USER", response.getRole());
 
-        verify(memberRepository).findByEmail("test@example.com");
         verify(passwordEncoder).encode("Password123!");
-        verify(memberRepository).save(any(MemberDocument.class));
+        verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(MemberDocument.class));
+        verify(memberRepository, never()).findByEmail(anyString());
         verify(jwtTokenService).generateAccessToken("test@example.com", "ROLE_USER");
         verify(jwtTokenService).generateRefreshToken("test@example.com");
+        verify(eventPublisher).publishEvent(any(MemberChangedEvent.class));
+        verify(memberStatistics).created(any(MemberDocument.class));
     }
 
     @Test
     void registerUser_WithExistingEmail_ShouldThrowException() {
-        // Given
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.of(memberDocument));
+        // Given: the upsert matched the existing member instead of inserting
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(MemberDocument.class))).thenReturn(memberDocument);
 
         // When & Then
         RuntimeException exception = assertThrows(RuntimeException.class, 
             () -> authService.registerUser(signupRequest));
         assertEquals("User with this email already exists", exception.getMessage());
 
-        verify(memberRepository).findByEmail("test@example.com");
-        verify(memberRepository, never()).save(any(MemberDocument.class));
+        verify(eventPublisher, never()).publishEvent(any());
+        verify(jwtTokenService, never()).generateAccessToken(anyString(), anyString());
+        verify(memberStatistics, never()).created(any());
+    }
+
+    @Test
+    void registerUser_WhenConcurrentSignupInsertsFirst_ShouldThrowException() {
+        // Given
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(MemberDocument.class))).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+            () -> authService.registerUser(signupRequest));
+        assertEquals("User with this email already exists", exception.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void registerUser_ShouldInsertOnlyWhenEmailIsAbsent() {
+        // Given
+        stubUpsertInserts();
+        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+
+        // When
+        authService.registerUser(signupRequest);
+
+        // Then
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(),
+                eq(MemberDocument.class));
+        assertEquals(new Document("email", "test@example.com"), query.getValue().getQueryObject());
+        Document updateObject = update.getValue().getUpdateObject();
+        assertEquals(Set.of("$setOnInsert"), updateObject.keySet());
+        Document inserted = updateObject.get("$setOnInsert", Document.class);
+        assertEquals("encodedPassword", inserted.get("password"));
+        assertEquals("ROLE_USER", inserted.get("role"));
+        assertEquals(0L, inserted.get("version"));
+        assertTrue(options.getValue().isUpsert());
     }
 
     @Test
@@ -105,19 +174,9 @@ class AuthServiceTest {
         // Given
         signupRequest.setRole("ADMIN");
         signupRequest.setEmail("admin@example.com");
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        stubUpsertInserts();
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         
-        // Create admin member document
-        MemberDocument adminMember = new MemberDocument();
-        adminMember.setId("2");
-        adminMember.setName("Admin User");
-        adminMember.setEmail("admin@example.com");
-        adminMember.setPassword("encodedPassword");
-        adminMember.setRole("ROLE_ADMIN");
-        adminMember.setPhoneNumber("1234567890");
-        
-        when(memberRepository.save(any(MemberDocument.class))).thenReturn(adminMember);
         when(jwtTokenService.generateAccessToken(anyString(), anyString())).thenReturn("accessToken");
         when(jwtTokenService.generateRefreshToken(anyString())).thenReturn("refreshToken");
         when(jwtTokenService.getAccessTokenExpiration()).thenReturn(900000L);
@@ -134,9 +193,8 @@ class AuthServiceTest {
     void registerUser_WithNullRole_ShouldSetDefaultUserRole() {
         // Given
         signupRequest.setRole(null);
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        stubUpsertInserts();
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(memberRepository.save(any(MemberDocument.class))).thenReturn(memberDocument);
         when(jwtTokenService.generateAccessToken(anyString(), anyString())).thenReturn("accessToken");
         when(jwtTokenService.generateRefreshToken(anyString())).thenReturn("refreshToken");
         when(jwtTokenService.getAccessTokenExpiration()).thenReturn(900000L);
@@ -153,9 +211,8 @@ class AuthServiceTest {
     void registerUser_WithEmptyRole_ShouldSetDefaultUserRole() {
         // Given
         signupRequest.setRole("");
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        stubUpsertInserts();
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(memberRepository.save(any(MemberDocument.class))).thenReturn(memberDocument);
         when(jwtTokenService.generateAccessToken(anyString(), anyString())).thenReturn("accessToken");
         when(jwtTokenService.generateRefreshToken(anyString())).thenReturn("refreshToken");
         when(jwtTokenService.getAccessTokenExpiration()).thenReturn(900000L);
@@ -172,9 +229,8 @@ class AuthServiceTest {
     void registerUser_WithLowerCaseRole_ShouldConvertToUpperCase() {
         // Given
         signupRequest.setRole("user");
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        stubUpsertInserts();
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(memberRepository.save(any(MemberDocument.class))).thenReturn(memberDocument);
         when(jwtTokenService.generateAccessToken(anyString(), anyString())).thenReturn("accessToken");
         when(jwtTokenService.generateRefreshToken(anyString())).thenReturn("refreshToken");
         when(jwtTokenService.getAccessTokenExpiration()).thenReturn(900000L);
@@ -192,18 +248,9 @@ class AuthServiceTest {
         // Given
         signupRequest.setRole("AdMiN");
         signupRequest.setEmail("admin@example.com");
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        stubUpsertInserts();
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
         
-        MemberDocument adminMember = new MemberDocument();
-        adminMember.setId("2");
-        adminMember.setName("Admin User");
-        adminMember.setEmail("admin@example.com");
-        adminMember.setPassword("encodedPassword");
-        adminMember.setRole("ROLE_ADMIN");
-        adminMember.setPhoneNumber("1234567890");
-        
-        when(memberRepository.save(any(MemberDocument.class))).thenReturn(adminMember);
         when(jwtTokenService.generateAccessToken(anyString(), anyString())).thenReturn("accessToken");
         when(jwtTokenService.generateRefreshToken(anyString())).thenReturn("refreshToken");
         when(jwtTokenService.getAccessTokenExpiration()).thenReturn(900000L);
@@ -220,9 +267,8 @@ class AuthServiceTest {
     void registerUser_WithoutPhoneNumber_ShouldRegisterSuccessfully() {
         // Given
         signupRequest.setPhoneNumber(null);
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        stubUpsertInserts();
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(memberRepository.save(any(MemberDocument.class))).thenReturn(memberDocument);
         when(jwtTokenService.generateAccessToken(anyString(), anyString())).thenReturn("accessToken");
         when(jwtTokenService.generateRefreshToken(anyString())).thenReturn("refreshToken");
         when(jwtTokenService.getAccessTokenExpiration()).thenReturn(900000L);
@@ -233,16 +279,16 @@ class AuthServiceTest {
         // Then
         assertNotNull(response);
         assertEquals("ROLE_USER", response.getRole());
-        verify(memberRepository).save(any(MemberDocument.class));
+        verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(MemberDocument.class));
     }
 
     @Test
     void registerUser_WithEmptyPhoneNumber_ShouldRegisterSuccessfully() {
         // Given
         signupRequest.setPhoneNumber("");
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        stubUpsertInserts();
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(memberRepository.save(any(MemberDocument.class))).thenReturn(memberDocument);
         when(jwtTokenService.generateAccessToken(anyString(), anyString())).thenReturn("accessToken");
         when(jwtTokenService.generateRefreshToken(anyString())).thenReturn("refreshToken");
         when(jwtTokenService.getAccessTokenExpiration()).thenReturn(900000L);
@@ -253,16 +299,16 @@ class AuthServiceTest {
         // Then
         assertNotNull(response);
         assertEquals("ROLE_USER", response.getRole());
-        verify(memberRepository).save(any(MemberDocument.class));
+        verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(MemberDocument.class));
     }
 
     @Test
     void registerUser_WithNullName_ShouldRegisterSuccessfully() {
         // Given
         signupRequest.setName(null);
-        when(memberRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        stubUpsertInserts();
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
-        when(memberRepository.save(any(MemberDocument.class))).thenReturn(memberDocument);
         when(jwtTokenService.generateAccessToken(anyString(), anyString())).thenReturn("accessToken");
         when(jwtTokenService.generateRefreshToken(anyString())).thenReturn("refreshToken");
         when(jwtTokenService.getAccessTokenExpiration()).thenReturn(900000L);
@@ -273,7 +319,19 @@ class AuthServiceTest {
         // Then
         assertNotNull(response);
         assertEquals("ROLE_USER", response.getRole());
-        verify(memberRepository).save(any(MemberDocument.class));
+        verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(MemberDocument.class));
+    }
+
+    private void stubUpsertInserts() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(MemberDocument.class))).thenAnswer(invocation -> {
+                    Document inserted = invocation.<Update>getArgument(1).getUpdateObject()
+                            .get("$setOnInsert", Document.class);
+                    String email = invocation.<Query>getArgument(0).getQueryObject().getString("email");
+                    return new MemberDocument(inserted.get("_id").toString(), inserted.getString("name"), email,
+                            null, inserted.getString("password"), inserted.getString("role"));
+                });
     }
 
     @Test
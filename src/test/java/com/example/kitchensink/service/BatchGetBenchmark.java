@@ -0,0 +1,113 @@
+package com.example.kitchensink.service;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.example.kitchensink.cache.MemberCaches;
+import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.model.Member;
+import com.example.kitchensink.repository.MemberRepository;
+import com.example.kitchensink.repository.MemberSequence;
+import com.example.kitchensink.repository.MemberStatistics;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Compares resolving 500 members with one batch-get query against 500 sequential single-member
+ * lookups (uncached), against a real MongoDB. Only database round trips are measured; the HTTP
+ * and security-filter cost of 500 separate requests comes on top. Run with
+ * {@code mvn test -Pbenchmark}; skipped when no MongoDB is reachable at
+ * {@code kitchensink.test.mongodb-uri}.
+ */
+@Tag("benchmark")
+class BatchGetBenchmark {
+
+  private static final int KEYS = 500;
+
+  private static final int ROUNDS = 20;
+
+  private static MongoClient client;
+  private static MongoTemplate mongoTemplate;
+
+  @BeforeAll
+  static void connect() {
+    String uri = System.getProperty("kitchensink.test.mongodb-uri", "mongodb://localhost:27017");
+    client = MongoClients.create(MongoClientSettings.builder()
+        .applyConnectionString(new ConnectionString(uri))
+        .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(2, TimeUnit.SECONDS))
+        .build());
+    boolean reachable;
+    try {
+      client.getDatabase("admin").runCommand(new Document("ping", 1));
+      reachable = true;
+    } catch (MongoException e) {
+      reachable = false;
+    }
+    assumeTrue(reachable, "MongoDB not reachable at " + uri);
+    mongoTemplate = new MongoTemplate(client, "kitchensink-batch-get");
+  }
+
+  @AfterAll
+  static void disconnect() {
+    if (mongoTemplate != null) {
+      mongoTemplate.getDb().drop();
+    }
+    client.close();
+  }
+
+  @Test
+  void batchGetVersusSequentialLookups() {
+    mongoTemplate.dropCollection(MemberDocument.class);
+    List<MemberDocument> documents = new ArrayList<>();
+    for (int i = 0; i < KEYS; i++) {
+      documents.add(new MemberDocument(null, "Member " + i, "member" + i + "@example.com",
+          "1234567890", "$2a$10$abcdefghijklmnopqrstuuKfP4xKNMWCPsBLXrQ8PV1yKz0c9VlFe", "ROLE_USER"));
+    }
+    List<String> ids = mongoTemplate.insertAll(documents).stream().map(MemberDocument::getId).toList();
+    MemberRepository memberRepository = new MongoRepositoryFactory(mongoTemplate)
+        .getRepository(MemberRepository.class);
+    MemberService memberService = new MemberService(memberRepository, mongoTemplate,
+        new BCryptPasswordEncoder(4), event -> { }, MemberCaches.disabled(),
+        new MemberSequence(mongoTemplate),
+        new MemberStatistics(mongoTemplate));
+
+    long sequential = 0;
+    long batched = 0;
+    for (int round = 0; round < ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (String id : ids) {
+        memberService.lookupById(id);
+      }
+      long middle = System.nanoTime();
+      Map<String, Member> members = memberService.findAllByIds(ids);
+      long end = System.nanoTime();
+      if (members.size() != KEYS) {
+        throw new IllegalStateException("batch-get found " + members.size() + " members");
+      }
+      // First rounds warm up the JIT and connection pool
+      if (round >= ROUNDS / 2) {
+        sequential += middle - start;
+        batched += end - middle;
+      }
+    }
+
+    int measured = ROUNDS - ROUNDS / 2;
+    System.out.printf("keys per call:              %,d%n", KEYS);
+    System.out.printf("%d sequential lookups:     %.2f ms%n", KEYS, sequential / 1e6 / measured);
+    System.out.printf("one batch-get:              %.2f ms%n", batched / 1e6 / measured);
+  }
+}
@@ -0,0 +1,179 @@
+package com.example.kitchensink.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+import com.example.kitchensink.cache.MemberCaches;
+import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.model.Member;
+import com.example.kitchensink.model.SignupRequest;
+import com.example.kitchensink.repository.MemberRepository;
+import com.example.kitchensink.repository.MemberSequence;
+import com.example.kitchensink.repository.MemberStatistics;
+import com.example.kitchensink.security.JwtTokenService;
+import com.example.kitchensink.service.MemberService.RegistrationOutcome;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Races many registrations for the same email against a real MongoDB and checks that the
+ * single-round-trip upserts let exactly one of them through. Skipped when no MongoDB is
+ * reachable at {@code kitchensink.test.mongodb-uri} (default {@code mongodb://localhost:27017}).
+ */
+class ConcurrentSignupStressTest {
+
+  private static final int THREADS = 32;
+
+  private static MongoClient client;
+  private static MongoTemplate mongoTemplate;
+
+  private final Queue<Object> events = new ConcurrentLinkedQueue<>();
+  private AuthService authService;
+  private MemberService memberService;
+
+  @BeforeAll
+  static void connect() {
+    String uri = System.getProperty("kitchensink.test.mongodb-uri", "mongodb://localhost:27017");
+    client = MongoClients.create(MongoClientSettings.builder()
+        .applyConnectionString(new ConnectionString(uri))
+        .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(2, TimeUnit.SECONDS))
+        .build());
+    boolean reachable;
+    try {
+      client.getDatabase("admin").runCommand(new Document("ping", 1));
+      reachable = true;
+    } catch (MongoException e) {
+      reachable = false;
+    }
+    assumeTrue(reachable, "MongoDB not reachable at " + uri);
+    mongoTemplate = new MongoTemplate(client, "kitchensink-stress");
+  }
+
+  @AfterAll
+  static void disconnect() {
+    if (mongoTemplate != null) {
+      mongoTemplate.getDb().drop();
+    }
+    client.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.dropCollection(MemberDocument.class);
+    mongoTemplate.indexOps(MemberDocument.class)
+        .ensureIndex(new Index("email", Sort.Direction.ASC).unique());
+
+    MemberRepository memberRepository = new MongoRepositoryFactory(mongoTemplate)
+        .getRepository(MemberRepository.class);
+    BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    ApplicationEventPublisher eventPublisher = events::add;
+    authService = new AuthService(memberRepository, mongoTemplate, passwordEncoder,
+        mock(JwtTokenService.class), eventPublisher, new MemberSequence(mongoTemplate),
+        new MemberStatistics(mongoTemplate));
+    memberService = new MemberService(memberRepository, mongoTemplate, passwordEncoder, eventPublisher,
+        MemberCaches.disabled(), new MemberSequence(mongoTemplate),
+        new MemberStatistics(mongoTemplate));
+  }
+
+  @Test
+  void concurrentSignups_ForSameEmail_ShouldCreateExactlyOneMember() throws Exception {
+    List<Object> results = race(() -> {
+      SignupRequest request = new SignupRequest();
+      request.setName("Racer");
+      request.setEmail("race@example.com");
+      request.setPassword("Password123!");
+      try {
+        return authService.registerUser(request);
+      } catch (RuntimeException e) {
+        return e.getMessage();
+      }
+    });
+
+    assertThat(results).filteredOn(result -> !(result instanceof String)).hasSize(1);
+    assertThat(results).filteredOn("User with this email already exists"::equals).hasSize(THREADS - 1);
+    assertThat(countByEmail("race@example.com")).isEqualTo(1);
+    assertThat(events).hasSize(1);
+  }
+
+  @Test
+  void concurrentRegistrations_ForNewEmail_ShouldCreateOnce() throws Exception {
+    List<Object> results = race(() -> memberService.registerOrSetPassword(
+        new Member(null, "Racer", "new-race@example.com", "Password123!", null, "USER")));
+
+    assertThat(results).filteredOn(RegistrationOutcome.CREATED::equals).hasSize(1);
+    assertThat(results).filteredOn(RegistrationOutcome.ALREADY_REGISTERED::equals).hasSize(THREADS - 1);
+    assertThat(countByEmail("new-race@example.com")).isEqualTo(1);
+    assertThat(events).hasSize(1);
+  }
+
+  @Test
+  void concurrentRegistrations_ForMemberWithoutPassword_ShouldSetPasswordOnce() throws Exception {
+    MemberDocument provisioned = new MemberDocument(null, "Provisioned", "provisioned@example.com",
+        "1234567890", null, "ROLE_USER");
+    mongoTemplate.insert(provisioned);
+
+    List<Object> results = race(() -> memberService.registerOrSetPassword(
+        new Member(null, "Racer", "provisioned@example.com", "Password123!", null, "USER")));
+
+    assertThat(results).filteredOn(RegistrationOutcome.PASSWORD_SET::equals).hasSize(1);
+    assertThat(results).filteredOn(RegistrationOutcome.ALREADY_REGISTERED::equals).hasSize(THREADS - 1);
+    MemberDocument stored = mongoTemplate.findById(provisioned.getId(), MemberDocument.class);
+    assertThat(stored.getPassword()).isNotNull();
+    assertThat(stored.getName()).isEqualTo("Provisioned");
+    assertThat(stored.getVersion()).isEqualTo(provisioned.getVersion() + 1);
+    assertThat(countByEmail("provisioned@example.com")).isEqualTo(1);
+  }
+
+  private List<Object> race(Supplier<Object> registration) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Object>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return registration.get();
+        }));
+      }
+      start.countDown();
+      List<Object> results = new ArrayList<>();
+      for (Future<Object> future : futures) {
+        results.add(future.get(30, TimeUnit.SECONDS));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private long countByEmail(String email) {
+    return mongoTemplate.count(Query.query(Criteria.where("email").is(email)), MemberDocument.class);
+  }
+}
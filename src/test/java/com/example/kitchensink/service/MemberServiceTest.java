@@ -1,41 +1,106 @@
 package com.example.kitchensink.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.example.kitchensink.cache.MemberCaches;
 import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.entity.MemberTombstone;
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.exception.CursorExpiredException;
 import com.example.kitchensink.mapper.MemberMapper;
+import com.example.kitchensink.model.BulkMutateRequest;
+import com.example.kitchensink.model.BulkMutateResult;
 import com.example.kitchensink.model.Member;
+import com.example.kitchensink.model.MemberChange;
+import com.example.kitchensink.model.MemberChanges;
+import com.example.kitchensink.repository.MemberCollectionVersion;
 import com.example.kitchensink.repository.MemberRepository;
+import com.example.kitchensink.repository.MemberSequence;
+import com.example.kitchensink.repository.MemberStatistics;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.bson.BsonDocument;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 class MemberServiceTest {
 
+  private static final ReadPreference SECONDARY_READS =
+      ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS);
+
   @Mock
   private MemberRepository memberRepository;
 
+  @Mock
+  private MongoTemplate mongoTemplate;
+
   @Mock
   private MemberMapper memberMapper;
 
   @Mock
   private BCryptPasswordEncoder passwordEncoder;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Spy
+  private MemberCaches memberCaches = MemberCaches.disabled();
+
+  @Mock
+  private MemberSequence memberSequence;
+
+  @Mock
+  private MemberStatistics memberStatistics;
+
   @InjectMocks
   private MemberService memberService;
 
@@ -48,6 +113,7 @@ class MemberServiceTest {
 
     // Mock password encoder
     when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+    when(memberSequence.next()).thenReturn(42L);
 
     // Initialize sample data
     member = new Member();
@@ -75,37 +141,269 @@ class MemberServiceTest {
 
     Member result = memberService.registerMember(member);
 
+    memberDocument.setSeq(42L);
     verify(memberRepository, times(1)).save(memberDocument);
     verify(passwordEncoder, times(1)).encode(anyString());
     assertThat(result).isNotNull();
     assertThat(result.getEmail()).isEqualTo(member.getEmail());
+
+    ArgumentCaptor<MemberChangedEvent> event = ArgumentCaptor.forClass(MemberChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertThat(event.getValue().getType()).isEqualTo(MemberChangedEvent.Type.CREATED);
+    assertThat(event.getValue().getMemberId()).isEqualTo("1");
+    assertThat(event.getValue().getMember().getPassword()).isNull();
+  }
+
+  @Test
+  void testGetMembersPage_ShouldSortByNameThenId() {
+    when(memberRepository.findAll(any(Pageable.class)))
+        .thenAnswer(invocation -> new PageImpl<>(List.of(memberDocument), invocation.getArgument(0), 41));
+
+    Page<Member> page = memberService.getMembersPage(2, 20);
+
+    ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+    verify(memberRepository).findAll(pageable.capture());
+    assertThat(pageable.getValue()).isEqualTo(PageRequest.of(2, 20,
+        Sort.by(Sort.Direction.ASC, "name").and(Sort.by(Sort.Direction.ASC, "id"))));
+    assertThat(page.getTotalElements()).isEqualTo(41);
+    assertThat(page.getContent()).extracting(Member::getEmail).containsExactly("john.doe@example.com");
   }
 
   @Test
   void testGetAllMembers() {
-    when(memberRepository.findAllOrderedByName()).thenReturn(
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class))).thenReturn(
         Collections.singletonList(memberDocument));
-    when(memberMapper.memberEntityListToMemberList(anyList())).thenReturn(
-        Collections.singletonList(member));
 
     List<Member> result = memberService.getAllMembers();
 
-    verify(memberRepository, times(1)).findAllOrderedByName();
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate, times(1)).find(query.capture(), eq(MemberDocument.class));
+    assertThat(query.getValue().getSortObject()).isEqualTo(new Document("name", 1));
+    assertThat(query.getValue().getReadPreference()).isEqualTo(SECONDARY_READS);
+    verifyNoInteractions(memberRepository);
     assertThat(result).isNotNull().hasSize(1);
     assertThat(result.get(0).getName()).isEqualTo("John Doe");
   }
 
   @Test
   void testGetAllMembers_EmptyList() {
-    when(memberRepository.findAllOrderedByName()).thenReturn(Collections.emptyList());
-    when(memberMapper.memberEntityListToMemberList(anyList())).thenReturn(Collections.emptyList());
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class))).thenReturn(Collections.emptyList());
 
     List<Member> result = memberService.getAllMembers();
 
-    verify(memberRepository, times(1)).findAllOrderedByName();
     assertThat(result).isEmpty();
   }
 
+  @Test
+  void testGetCollectionVersion_ShouldAggregateOnSecondary() {
+    MemberCollectionVersion version = new MemberCollectionVersion(2, 7, null);
+    when(mongoTemplate.aggregate(any(Aggregation.class), eq(MemberDocument.class),
+        eq(MemberCollectionVersion.class)))
+        .thenReturn(new AggregationResults<>(List.of(version), new Document()));
+
+    MemberCollectionVersion result = memberService.getCollectionVersion();
+
+    ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+    verify(mongoTemplate).aggregate(aggregation.capture(), eq(MemberDocument.class),
+        eq(MemberCollectionVersion.class));
+    assertThat(aggregation.getValue().getOptions().getReadPreference()).isEqualTo(SECONDARY_READS);
+    assertThat(result).isSameAs(version);
+  }
+
+  @Test
+  void testGetCollectionVersion_AfterANewerDelete_ShouldTakeItsTime() {
+    Instant updatedAt = Instant.parse("2024-05-01T10:00:00Z");
+    Instant deletedAt = Instant.parse("2024-05-01T11:00:00Z");
+    when(mongoTemplate.aggregate(any(Aggregation.class), eq(MemberDocument.class),
+        eq(MemberCollectionVersion.class)))
+        .thenReturn(new AggregationResults<>(List.of(new MemberCollectionVersion(1, 3, updatedAt)),
+            new Document()));
+    when(mongoTemplate.findOne(any(Query.class), eq(MemberTombstone.class)))
+        .thenReturn(new MemberTombstone("2", 9L, deletedAt));
+
+    MemberCollectionVersion result = memberService.getCollectionVersion();
+
+    assertThat(result.getLastModified()).isEqualTo(deletedAt);
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).findOne(query.capture(), eq(MemberTombstone.class));
+    assertThat(query.getValue().getSortObject()).isEqualTo(new Document("deletedAt", -1));
+  }
+
+  @Test
+  void testGetCollectionVersion_WhenEveryMemberWasDeleted_ShouldStillCarryTheDeleteTime() {
+    Instant deletedAt = Instant.parse("2024-05-01T11:00:00Z");
+    when(mongoTemplate.aggregate(any(Aggregation.class), eq(MemberDocument.class),
+        eq(MemberCollectionVersion.class)))
+        .thenReturn(new AggregationResults<>(List.of(), new Document()));
+    when(mongoTemplate.findOne(any(Query.class), eq(MemberTombstone.class)))
+        .thenReturn(new MemberTombstone("2", 9L, deletedAt));
+
+    assertThat(memberService.getCollectionVersion())
+        .isEqualTo(new MemberCollectionVersion(0, 0, deletedAt));
+  }
+
+  @Test
+  void testFindMemberByEmail_ShouldPreferSecondary() {
+    when(mongoTemplate.findOne(any(Query.class), eq(MemberDocument.class))).thenReturn(memberDocument);
+
+    Member result = memberService.findMemberByEmail("john.doe@example.com");
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).findOne(query.capture(), eq(MemberDocument.class));
+    assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("email", "john.doe@example.com"));
+    assertThat(query.getValue().getReadPreference()).isEqualTo(SECONDARY_READS);
+    verifyNoInteractions(memberRepository);
+    assertThat(result.getEmail()).isEqualTo("john.doe@example.com");
+  }
+
+  @Test
+  void testLookupById_ShouldPreferSecondary() {
+    when(mongoTemplate.findOne(any(Query.class), eq(MemberDocument.class))).thenReturn(memberDocument);
+
+    Member result = memberService.lookupById("1");
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).findOne(query.capture(), eq(MemberDocument.class));
+    assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("id", "1"));
+    assertThat(query.getValue().getReadPreference()).isEqualTo(SECONDARY_READS);
+    verifyNoInteractions(memberRepository);
+    assertThat(result.getId()).isEqualTo("1");
+  }
+
+  @Test
+  void testLookupById_AfterAWrite_ShouldReadThePrimary() {
+    when(mongoTemplate.findAndRemove(any(Query.class), eq(MemberDocument.class))).thenReturn(memberDocument);
+    memberService.deleteById("1");
+
+    memberService.lookupById("1");
+    memberService.findMemberByEmail("john.doe@example.com");
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate, times(2)).findOne(query.capture(), eq(MemberDocument.class));
+    assertThat(query.getAllValues())
+        .allSatisfy(q -> assertThat(q.getReadPreference()).isEqualTo(ReadPreference.primary()));
+  }
+
+  @Test
+  void testFindAllByIds_ShouldUseOneInQueryWithoutPassword() {
+    MemberDocument other = new MemberDocument("2", "Jane Doe", "jane@example.com", null, null, "ROLE_USER");
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class)))
+        .thenReturn(List.of(memberDocument, other));
+
+    Map<String, Member> result = memberService.findAllByIds(List.of("2", "1", "2", "404"));
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).find(query.capture(), eq(MemberDocument.class));
+    assertThat(query.getValue().getQueryObject().get("id", Document.class).getList("$in", String.class))
+        .containsExactlyInAnyOrder("1", "2", "404");
+    assertThat(query.getValue().getFieldsObject()).isEqualTo(new Document("password", 0));
+    assertThat(query.getValue().getReadPreference()).isEqualTo(SECONDARY_READS);
+    assertThat(result).containsOnlyKeys("1", "2");
+    assertThat(result.get("2").getName()).isEqualTo("Jane Doe");
+  }
+
+  @Test
+  void testFindAllByEmails_ShouldKeyResultsByEmail() {
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class))).thenReturn(List.of(memberDocument));
+
+    Map<String, Member> result = memberService.findAllByEmails(List.of("john.doe@example.com"));
+
+    assertThat(result).containsOnlyKeys("john.doe@example.com");
+  }
+
+  @Test
+  void testFindAllByIds_WithNoIds_ShouldNotQuery() {
+    assertThat(memberService.findAllByIds(List.of())).isEmpty();
+
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void testBulkMutate_ShouldSendOneBulkWriteAndPublishOneEvent() {
+    BulkOperations bulk = mock(BulkOperations.class);
+    when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, MemberDocument.class)).thenReturn(bulk);
+    when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 7, 2, 6, List.of(), List.of()));
+    BulkMutateRequest request = new BulkMutateRequest(true, List.of(
+        new BulkMutateRequest.Operation(BulkMutateRequest.Action.SET_ROLE, null,
+            new BulkMutateRequest.Filter("ADMIN", null), "user", null),
+        new BulkMutateRequest.Operation(BulkMutateRequest.Action.DELETE, List.of("1", "2", "1"),
+            null, null, null)));
+
+    BulkMutateResult result = memberService.bulkMutate(request, "admin@admin.com");
+
+    ArgumentCaptor<Query> update = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> changes = ArgumentCaptor.forClass(Update.class);
+    verify(bulk).updateMulti(update.capture(), changes.capture());
+    assertThat(update.getValue().getQueryObject()).isEqualTo(new Document("$and", List.of(
+        new Document("role", "ROLE_ADMIN"),
+        new Document("email", new Document("$ne", "admin@admin.com")))));
+    assertThat(changes.getValue().getUpdateObject().get("$set", Document.class))
+        .isEqualTo(new Document("role", "ROLE_USER").append("seq", 42L));
+    assertThat(changes.getValue().getUpdateObject().get("$inc", Document.class))
+        .isEqualTo(new Document("version", 1));
+    ArgumentCaptor<Query> delete = ArgumentCaptor.forClass(Query.class);
+    verify(bulk).remove(delete.capture());
+    assertThat(delete.getValue().getQueryObject().get("$and", List.class)).hasSize(2);
+    verify(bulk, times(1)).execute();
+
+    assertThat(result.getMatched()).isEqualTo(7);
+    assertThat(result.getModified()).isEqualTo(6);
+    assertThat(result.getDeleted()).isEqualTo(2);
+    assertThat(result.isComplete()).isTrue();
+    ArgumentCaptor<MemberChangedEvent> event = ArgumentCaptor.forClass(MemberChangedEvent.class);
+    verify(eventPublisher, times(1)).publishEvent(event.capture());
+    assertThat(event.getValue().getType()).isEqualTo(MemberChangedEvent.Type.BULK);
+  }
+
+  @Test
+  void testBulkMutate_WhenOrderedOperationFails_ShouldSkipTheRest() {
+    BulkOperations bulk = mock(BulkOperations.class);
+    when(mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, MemberDocument.class)).thenReturn(bulk);
+    BulkWriteResult partial = BulkWriteResult.acknowledged(0, 3, 0, 3, List.of(), List.of());
+    when(bulk.execute()).thenThrow(new BulkOperationException("failed", new MongoBulkWriteException(
+        partial, List.of(new BulkWriteError(121, "Document failed validation", new BsonDocument(), 1)),
+        null, new ServerAddress(), Set.of())));
+    BulkMutateRequest.Operation setPhone = new BulkMutateRequest.Operation(
+        BulkMutateRequest.Action.SET_PHONE, null, new BulkMutateRequest.Filter(null, "partner.com"),
+        null, "1234567890");
+    BulkMutateRequest request = new BulkMutateRequest(true, List.of(setPhone, setPhone, setPhone));
+
+    BulkMutateResult result = memberService.bulkMutate(request, null);
+
+    assertThat(result.getOperations()).extracting(BulkMutateResult.OperationResult::getStatus)
+        .containsExactly(BulkMutateResult.Status.APPLIED, BulkMutateResult.Status.FAILED,
+            BulkMutateResult.Status.SKIPPED);
+    assertThat(result.getOperations().get(1).getError()).isEqualTo("Document failed validation");
+    assertThat(result.getModified()).isEqualTo(3);
+    verify(eventPublisher).publishEvent(MemberChangedEvent.bulk());
+  }
+
+  @Test
+  void testBulkMutate_ByEmailDomain_ShouldMatchTheDomainSuffix() {
+    BulkOperations bulk = mock(BulkOperations.class);
+    when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MemberDocument.class)).thenReturn(bulk);
+    when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+    BulkMutateRequest request = new BulkMutateRequest(false, List.of(new BulkMutateRequest.Operation(
+        BulkMutateRequest.Action.DELETE, null, new BulkMutateRequest.Filter(null, "partner.com"),
+        null, null)));
+
+    memberService.bulkMutate(request, null);
+
+    ArgumentCaptor<Query> target = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).find(target.capture(), eq(MemberDocument.class));
+    Pattern pattern = target.getValue().getQueryObject().get("email", Pattern.class);
+    assertThat(pattern.matcher("jane@Partner.com").find()).isTrue();
+    assertThat(pattern.matcher("jane@partner.com.evil.io").find()).isFalse();
+    assertThat(pattern.matcher("jane@partnerxcom").find()).isFalse();
+  }
+
+  @Test
+  void testLookupById_WhenMemberDoesNotExist() {
+    when(mongoTemplate.findOne(any(Query.class), eq(MemberDocument.class))).thenReturn(null);
+
+    assertNull(memberService.lookupById("1"));
+  }
+
   @Test
   void testFindByEmail() {
     when(memberRepository.findByEmail(anyString())).thenReturn(Optional.of(memberDocument));
@@ -150,79 +448,312 @@ class MemberServiceTest {
     assertNull(result);
   }
 
+  @Test
+  void testRegisterOrSetPassword_WhenEmailIsNew_ShouldCreateMember() {
+    Member member = new Member(null, "New User", "new@example.com", "secret123", "1234567890", "USER");
+    when(passwordEncoder.encode("secret123")).thenReturn("encodedSecret");
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+        eq(MemberDocument.class))).thenAnswer(invocation -> {
+          Document inserted = invocation.<Update>getArgument(1).getUpdateObject().get("$setOnInsert", Document.class);
+          return new MemberDocument(inserted.get("_id").toString(), "New User", "new@example.com",
+              "1234567890", "encodedSecret", "ROLE_USER");
+        });
+
+    MemberService.RegistrationOutcome outcome = memberService.registerOrSetPassword(member);
+
+    assertThat(outcome).isEqualTo(MemberService.RegistrationOutcome.CREATED);
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+    verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(),
+        eq(MemberDocument.class));
+    assertThat(query.getValue().getQueryObject())
+        .isEqualTo(new Document("email", "new@example.com").append("password", null));
+    Document updateObject = update.getValue().getUpdateObject();
+    assertThat(updateObject.get("$set", Document.class))
+        .isEqualTo(new Document("password", "encodedSecret").append("seq", 42L));
+    assertThat(updateObject.get("$setOnInsert", Document.class).get("role")).isEqualTo("ROLE_USER");
+    assertThat(options.getValue().isUpsert()).isTrue();
+    verify(eventPublisher).publishEvent(any(MemberChangedEvent.class));
+    verify(memberRepository, never()).findByEmail(anyString());
+    verify(memberStatistics).created(any(MemberDocument.class));
+    verify(memberStatistics, never()).passwordSet();
+  }
+
+  @Test
+  void testRegisterOrSetPassword_WhenMemberHasNoPassword_ShouldSetIt() {
+    Member member = new Member(null, "John Doe", "john.doe@example.com", "secret123", null, "USER");
+    when(passwordEncoder.encode("secret123")).thenReturn("encodedSecret");
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+        eq(MemberDocument.class))).thenReturn(memberDocument);
+
+    MemberService.RegistrationOutcome outcome = memberService.registerOrSetPassword(member);
+
+    assertThat(outcome).isEqualTo(MemberService.RegistrationOutcome.PASSWORD_SET);
+    ArgumentCaptor<MemberChangedEvent> event = ArgumentCaptor.forClass(MemberChangedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertThat(event.getValue().getType()).isEqualTo(MemberChangedEvent.Type.UPDATED);
+    verify(memberStatistics).passwordSet();
+    verify(memberStatistics, never()).created(any());
+  }
+
+  @Test
+  void testRegisterOrSetPassword_WhenMemberHasPassword_ShouldReportAlreadyRegistered() {
+    Member member = new Member(null, "John Doe", "john.doe@example.com", "secret123", null, "USER");
+    when(passwordEncoder.encode("secret123")).thenReturn("encodedSecret");
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+        eq(MemberDocument.class))).thenThrow(new DuplicateKeyException("E11000 duplicate key"));
+
+    MemberService.RegistrationOutcome outcome = memberService.registerOrSetPassword(member);
+
+    assertThat(outcome).isEqualTo(MemberService.RegistrationOutcome.ALREADY_REGISTERED);
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
   @Test
   void testUpdateMember_Success() {
-    // Create the existing member that should be found in the database
-    Member existingMember = new Member("1", "John Doe", "john.doe@example.com", "1234567890", null, "USER");
-    
-    // Create the updated member with new details
-    Member updatedMember = new Member("1", "Jane Doe", "jane.doe@example.com", "0987654321", null, "ADMIN");
-    
-    // Create the existing document that should be returned from database
-    MemberDocument existingDocument = new MemberDocument();
-    existingDocument.setId("1");
-    existingDocument.setName("John Doe");
-    existingDocument.setEmail("john.doe@example.com");
-    existingDocument.setPassword("encodedPassword");
-    existingDocument.setPhoneNumber("1234567890");
-    existingDocument.setRole("ROLE_USER");
-    
-    // Create the updated document that should be saved
-    MemberDocument updatedDocument = new MemberDocument();
-    updatedDocument.setId("1");
-    updatedDocument.setName("Jane Doe");
-    updatedDocument.setEmail("jane.doe@example.com");
-    updatedDocument.setPassword("encodedPassword");
-    updatedDocument.setPhoneNumber("0987654321");
-    updatedDocument.setRole("ROLE_ADMIN");
-
-    // Mock the repository to return the existing member when findById is called
-    when(memberRepository.findById("1")).thenReturn(Optional.of(existingDocument));
-    
-    // Mock the mapper to return the updated document when converting
-    when(memberMapper.memberToMemberEntity(any(Member.class))).thenReturn(updatedDocument);
-    
-    // Mock the repository to return the updated document when saving
-    when(memberRepository.save(any(MemberDocument.class))).thenReturn(updatedDocument);
-    
-    // Mock the mapper to return the updated member when converting back
-    when(memberMapper.memberEntityToMember(any(MemberDocument.class))).thenReturn(updatedMember);
+    Member existingMember = new Member("1", "John Doe", "john.doe@example.com", null, "1234567890", "ROLE_USER");
+    existingMember.setVersion(3L);
+    Member updatedMember = new Member("1", "Jane Doe", "jane.doe@example.com", null, "0987654321", "ADMIN");
+
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+        eq(MemberDocument.class))).thenReturn(memberDocument);
 
     Member result = memberService.updateMember(existingMember, updatedMember);
 
-    verify(memberRepository, times(1)).findById("1");
-    verify(memberRepository, times(1)).save(any(MemberDocument.class));
-    assertThat(result).isNotNull();
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    ArgumentCaptor<FindAndModifyOptions> options = ArgumentCaptor.forClass(FindAndModifyOptions.class);
+    verify(mongoTemplate).findAndModify(query.capture(), update.capture(), options.capture(),
+        eq(MemberDocument.class));
+    assertThat(query.getValue().getQueryObject())
+        .isEqualTo(new Document("id", "1").append("version", 3L));
+    // Only the previous password comes back; the rest of the result is known from the request
+    assertThat(query.getValue().getFieldsObject()).isEqualTo(new Document("password", 1));
+    assertThat(options.getValue().isReturnNew()).isFalse();
+    Document updateObject = update.getValue().getUpdateObject();
+    assertThat(updateObject.get("$set", Document.class)).isEqualTo(new Document("name", "Jane Doe")
+        .append("email", "jane.doe@example.com")
+        .append("phoneNumber", "0987654321")
+        .append("role", "ROLE_ADMIN")
+        .append("seq", 42L));
+    assertThat(updateObject.get("$inc", Document.class)).isEqualTo(new Document("version", 1));
+    assertThat(updateObject).containsKey("$currentDate");
+    verify(memberRepository, never()).findById(anyString());
+    verify(memberRepository, never()).save(any(MemberDocument.class));
+
     assertThat(result.getName()).isEqualTo("Jane Doe");
-    assertThat(result.getEmail()).isEqualTo("jane.doe@example.com");
     assertThat(result.getRole()).isEqualTo("ROLE_ADMIN");
+    assertThat(result.getVersion()).isEqualTo(4L);
+    assertThat(result.getPassword()).isNull();
+    verify(eventPublisher).publishEvent(MemberChangedEvent.updated(result));
+    verify(memberStatistics).roleChanged("ROLE_USER", "ROLE_ADMIN");
+    verify(memberStatistics, never()).passwordSet();
+  }
+
+  @Test
+  void testUpdateMember_ShouldSetOnlyChangedFields() {
+    Member existingMember = new Member("1", "John Doe", "john.doe@example.com", null, "1234567890", "ROLE_USER");
+    existingMember.setVersion(0L);
+    Member updatedMember = new Member("1", "John Doe", "john.doe@example.com", null, "5555555555", "USER");
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+        eq(MemberDocument.class))).thenReturn(memberDocument);
+
+    memberService.updateMember(existingMember, updatedMember);
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+        eq(MemberDocument.class));
+    assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+        .isEqualTo(new Document("phoneNumber", "5555555555").append("seq", 42L));
+    verifyNoInteractions(memberStatistics);
   }
 
   @Test
-  void testUpdateMember_MemberNotFound() {
-    Member existingMember = new Member("1", "John Doe", "john.doe@example.com", "1234567890", null, "USER");
-    Member updatedMember = new Member("1", "Jane Doe", "jane.doe@example.com", "0987654321", null, "ADMIN");
+  void testUpdateMember_WithNewPassword_ShouldSetEncodedPassword() {
+    Member existingMember = new Member("1", "John Doe", "john.doe@example.com", null, "1234567890", "ROLE_USER");
+    Member updatedMember = new Member("1", "John Doe", "john.doe@example.com", "newSecret1", "1234567890", "USER");
+    when(passwordEncoder.encode("newSecret1")).thenReturn("encodedNewSecret");
+    memberDocument.setPassword(null);
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+        eq(MemberDocument.class))).thenReturn(memberDocument);
+
+    memberService.updateMember(existingMember, updatedMember);
+
+    ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+    verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class),
+        eq(MemberDocument.class));
+    assertThat(update.getValue().getUpdateObject().get("$set", Document.class))
+        .isEqualTo(new Document("password", "encodedNewSecret").append("seq", 42L));
+    // The member had no password at the version the update matched
+    verify(memberStatistics).passwordSet();
+  }
 
-    // Mock the repository to return empty when findById is called
-    when(memberRepository.findById("1")).thenReturn(Optional.empty());
+  @Test
+  void testUpdateMember_ReplacingPassword_ShouldNotCountAFirstPassword() {
+    Member existingMember = new Member("1", "John Doe", "john.doe@example.com", null, "1234567890", "ROLE_USER");
+    existingMember.setVersion(2L);
+    Member updatedMember = new Member("1", "John Doe", "john.doe@example.com", "newSecret1", "1234567890", "USER");
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+        eq(MemberDocument.class))).thenReturn(memberDocument);
 
-    // Test that RuntimeException is thrown
-    assertThrows(RuntimeException.class, () -> {
-      memberService.updateMember(existingMember, updatedMember);
-    });
+    Member result = memberService.updateMember(existingMember, updatedMember);
 
-    verify(memberRepository, times(1)).findById("1");
-    verify(memberRepository, times(0)).save(any(MemberDocument.class));
+    // The previous password comes back from the write itself
+    verify(mongoTemplate, never()).exists(any(Query.class), eq(MemberDocument.class));
+    verifyNoInteractions(memberStatistics);
+    assertThat(result.getVersion()).isEqualTo(3L);
+    assertThat(result.getPassword()).isNull();
+  }
+
+  @Test
+  void testUpdateMember_WithoutChanges_ShouldNotWrite() {
+    Member existingMember = new Member("1", "John Doe", "john.doe@example.com", null, "1234567890", "ROLE_USER");
+    Member updatedMember = new Member("1", "John Doe", "john.doe@example.com", "", "1234567890", "USER");
+
+    Member result = memberService.updateMember(existingMember, updatedMember);
+
+    assertThat(result).isSameAs(existingMember);
+    verifyNoInteractions(mongoTemplate, eventPublisher);
+  }
+
+  @Test
+  void testUpdateMember_WhenVersionIsStale_ShouldThrowOptimisticLockingFailure() {
+    Member existingMember = new Member("1", "John Doe", "john.doe@example.com", null, "1234567890", "ROLE_USER");
+    existingMember.setVersion(2L);
+    Member updatedMember = new Member("1", "Jane Doe", "john.doe@example.com", null, "1234567890", "USER");
+    when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+        eq(MemberDocument.class))).thenReturn(null);
+
+    assertThrows(OptimisticLockingFailureException.class,
+        () -> memberService.updateMember(existingMember, updatedMember));
+
+    verify(eventPublisher, never()).publishEvent(any());
   }
 
   @Test
   void testDeleteById_Success() {
-    when(memberRepository.findById("1")).thenReturn(Optional.of(memberDocument));
-    doNothing().when(memberRepository).deleteById("1");
+    when(mongoTemplate.findAndRemove(any(Query.class), eq(MemberDocument.class))).thenReturn(memberDocument);
+
+    memberService.deleteById("1");
+
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).findAndRemove(query.capture(), eq(MemberDocument.class));
+    assertThat(query.getValue().getQueryObject()).isEqualTo(new Document("id", "1"));
+    verify(memberStatistics).deleted(memberDocument);
+    ArgumentCaptor<MemberTombstone> tombstone = ArgumentCaptor.forClass(MemberTombstone.class);
+    verify(mongoTemplate).save(tombstone.capture());
+    assertThat(tombstone.getValue().getId()).isEqualTo("1");
+    assertThat(tombstone.getValue().getSeq()).isEqualTo(42L);
+    assertThat(query.getValue().getFieldsObject()).containsKey("email");
+    verify(eventPublisher).publishEvent(MemberChangedEvent.deleted("1", "john.doe@example.com"));
+  }
 
+  @Test
+  void testDeleteById_WhenMemberDoesNotExist_ShouldRecordNothing() {
     memberService.deleteById("1");
 
-    verify(memberRepository, times(1)).deleteById("1");
+    verify(memberStatistics, never()).deleted(any());
+    verify(mongoTemplate, never()).save(any(MemberTombstone.class));
+    verify(memberSequence, never()).next();
+    verifyNoInteractions(eventPublisher);
+  }
+
+  @Test
+  void testBulkMutate_Delete_ShouldTombstoneOnlyTheMembersItDeleted() {
+    BulkOperations bulk = mock(BulkOperations.class);
+    BulkOperations tombstones = mock(BulkOperations.class);
+    when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MemberDocument.class)).thenReturn(bulk);
+    when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MemberTombstone.class))
+        .thenReturn(tombstones);
+    when(bulk.execute()).thenReturn(BulkWriteResult.acknowledged(0, 0, 1, 0, List.of(), List.of()));
+    // Found before the delete, then still present afterwards
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class)))
+        .thenReturn(List.of(document("1", 1L), document("2", 2L)))
+        .thenReturn(List.of(document("2", 2L)));
+    when(memberSequence.reserve(1)).thenReturn(100L);
+    BulkMutateRequest request = new BulkMutateRequest(false, List.of(new BulkMutateRequest.Operation(
+        BulkMutateRequest.Action.DELETE, null, new BulkMutateRequest.Filter("USER", null), null, null)));
+
+    memberService.bulkMutate(request, null);
+
+    ArgumentCaptor<Query> tombstone = ArgumentCaptor.forClass(Query.class);
+    ArgumentCaptor<Update> stamp = ArgumentCaptor.forClass(Update.class);
+    verify(tombstones).upsert(tombstone.capture(), stamp.capture());
+    assertThat(tombstone.getValue().getQueryObject()).isEqualTo(new Document("id", "1"));
+    assertThat(stamp.getValue().getUpdateObject().get("$set", Document.class).get("seq"))
+        .isEqualTo(100L);
+    verify(tombstones).execute();
+  }
+
+  @Test
+  void testGetChanges_ShouldMergeMembersAndTombstonesInSequenceOrder() {
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class)))
+        .thenReturn(List.of(document("a", 11L), document("b", 13L), document("c", 14L)));
+    when(mongoTemplate.find(any(Query.class), eq(MemberTombstone.class)))
+        .thenReturn(List.of(new MemberTombstone("d", 12L, Instant.now().minusSeconds(3600))));
+    String since = new ChangeCursor(10, "z", Instant.now()).encode();
+
+    MemberChanges page = memberService.getChanges(since, 3);
+
+    assertThat(page.getChanges()).extracting(MemberChange::getType, MemberChange::getId)
+        .containsExactly(tuple(MemberChange.Type.UPSERT, "a"), tuple(MemberChange.Type.DELETE, "d"),
+            tuple(MemberChange.Type.UPSERT, "b"));
+    assertThat(page.getChanges().get(0).getMember().getName()).isEqualTo("Member a");
+    assertThat(page.isHasMore()).isTrue();
+    ChangeCursor next = ChangeCursor.parse(page.getCursor());
+    assertThat(next.seq()).isEqualTo(13L);
+    assertThat(next.id()).isEqualTo("b");
+  }
+
+  @Test
+  void testGetChanges_WithoutCursor_ShouldReturnMembersOnly() {
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class)))
+        .thenReturn(List.of(document("a", 1L)));
+
+    MemberChanges page = memberService.getChanges(null, 100);
+
+    assertThat(page.getChanges()).hasSize(1);
+    assertThat(page.isHasMore()).isFalse();
+    ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+    verify(mongoTemplate).find(query.capture(), eq(MemberDocument.class));
+    assertThat(query.getValue().getFieldsObject()).isEqualTo(new Document("password", 0));
+    verify(mongoTemplate, never()).find(any(Query.class), eq(MemberTombstone.class));
+  }
+
+  @Test
+  void testGetChanges_ShouldStopBeforeChangesThatMayNotHaveSettled() {
+    MemberDocument recent = document("b", 12L);
+    recent.setUpdatedAt(Instant.now());
+    when(mongoTemplate.find(any(Query.class), eq(MemberDocument.class)))
+        .thenReturn(List.of(document("a", 11L), recent));
+
+    MemberChanges page = memberService.getChanges(null, 100);
+
+    assertThat(page.getChanges()).extracting(MemberChange::getId).containsExactly("a");
+    assertThat(page.isHasMore()).isFalse();
+    assertThat(ChangeCursor.parse(page.getCursor()).seq()).isEqualTo(11L);
+  }
+
+  @Test
+  void testGetChanges_WithExpiredCursor_ShouldThrow() {
+    String since = new ChangeCursor(10, "a", Instant.now().minus(Duration.ofDays(31))).encode();
+
+    assertThrows(CursorExpiredException.class, () -> memberService.getChanges(since, 100));
+    verifyNoInteractions(mongoTemplate);
+  }
+
+  @Test
+  void testGetChanges_WithMalformedCursor_ShouldThrow() {
+    assertThrows(IllegalArgumentException.class, () -> memberService.getChanges("not-a-cursor", 100));
+  }
+
+  private static MemberDocument document(String id, Long seq) {
+    MemberDocument document = new MemberDocument(id, "Member " + id, id + "@example.com", null, null,
+        "ROLE_USER");
+    document.setSeq(seq);
+    document.setUpdatedAt(Instant.now().minusSeconds(3600));
+    return document;
   }
 
   @Test
@@ -0,0 +1,168 @@
+package com.example.kitchensink.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.example.kitchensink.cache.MemberCaches;
+import com.example.kitchensink.entity.MemberDocument;
+import com.example.kitchensink.model.Member;
+import com.example.kitchensink.repository.MemberRepository;
+import com.example.kitchensink.repository.MemberSequence;
+import com.example.kitchensink.repository.MemberStatistics;
+import com.example.kitchensink.security.CustomUserDetailsService;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.connection.ServerDescription;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Checks which replica set member serves each read path, against a real multi-member replica set
+ * (start one locally with {@code ./replica-set.sh}). The client's default read preference is
+ * {@code secondaryPreferred}, so reads that land on the primary prove they are pinned there.
+ * Skipped when no replica set with a secondary is reachable at
+ * {@code kitchensink.test.replica-set-uri}.
+ */
+class ReadRoutingReplicaSetTest {
+
+  private static final Set<String> READ_COMMANDS = Set.of("find", "aggregate", "count");
+
+  private static final Queue<CommandStartedEvent> commands = new ConcurrentLinkedQueue<>();
+
+  private static MongoClient client;
+  private static MongoTemplate mongoTemplate;
+
+  private MemberService memberService;
+  private CustomUserDetailsService userDetailsService;
+  private Member stored;
+
+  @BeforeAll
+  static void connect() throws InterruptedException {
+    String uri = System.getProperty("kitchensink.test.replica-set-uri",
+        "mongodb://localhost:27117,localhost:27118,localhost:27119/?replicaSet=rs0");
+    client = MongoClients.create(MongoClientSettings.builder()
+        .applyConnectionString(new ConnectionString(uri))
+        .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(2, TimeUnit.SECONDS))
+        .readPreference(ReadPreference.secondaryPreferred())
+        .addCommandListener(new CommandListener() {
+          @Override
+          public void commandStarted(CommandStartedEvent event) {
+            commands.add(event);
+          }
+        })
+        .build());
+    boolean reachable;
+    try {
+      client.getDatabase("admin").runCommand(new Document("ping", 1));
+      reachable = awaitSecondary();
+    } catch (MongoException e) {
+      reachable = false;
+    }
+    assumeTrue(reachable, "No replica set with a secondary reachable at " + uri);
+    mongoTemplate = new MongoTemplate(client, "kitchensink-routing");
+  }
+
+  @AfterAll
+  static void disconnect() {
+    if (mongoTemplate != null) {
+      mongoTemplate.getDb().drop();
+    }
+    client.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    mongoTemplate.dropCollection(MemberDocument.class);
+    MemberRepository memberRepository = new MongoRepositoryFactory(mongoTemplate)
+        .getRepository(MemberRepository.class);
+    memberService = new MemberService(memberRepository, mongoTemplate, new BCryptPasswordEncoder(4),
+        event -> { }, MemberCaches.disabled(), new MemberSequence(mongoTemplate),
+        new MemberStatistics(mongoTemplate));
+    userDetailsService = new CustomUserDetailsService(memberRepository);
+    stored = memberService.registerMember(
+        new Member(null, "Routed", "routed@example.com", "Password123!", "1234567890", "ROLE_USER"));
+    commands.clear();
+  }
+
+  @Test
+  void stalenessTolerantReads_ShouldBeServedBySecondaries() {
+    memberService.getAllMembers();
+    memberService.getCollectionVersion();
+    memberService.findMemberByEmail("routed@example.com");
+    memberService.lookupById(stored.getId());
+
+    assertThat(readServers()).hasSize(4).doesNotContain(primary());
+  }
+
+  @Test
+  void authenticationAndReadYourWriteReads_ShouldBeServedByPrimary() {
+    userDetailsService.loadUserByUsername("routed@example.com");
+    memberService.findByEmail("routed@example.com");
+    memberService.findById(stored.getId());
+    memberService.getMembersPage(0, 20);
+
+    assertThat(readServers()).isNotEmpty().containsOnly(primary());
+  }
+
+  @Test
+  void profileView_RightAfterUpdate_ShouldSeeTheUpdate() {
+    Member current = memberService.findById(stored.getId());
+    for (int i = 0; i < 20; i++) {
+      Member changes = new Member(null, "Routed " + i, current.getEmail(), null,
+          current.getPhoneNumber(), current.getRole());
+      current = memberService.updateMember(current, changes);
+
+      assertThat(memberService.findByEmail("routed@example.com"))
+          .get().extracting(MemberDocument::getName).isEqualTo("Routed " + i);
+    }
+  }
+
+  private static List<ServerAddress> readServers() {
+    return commands.stream()
+        .filter(event -> READ_COMMANDS.contains(event.getCommandName()))
+        .filter(event -> "kitchensink-routing".equals(event.getDatabaseName()))
+        .map(event -> event.getConnectionDescription().getServerAddress())
+        .toList();
+  }
+
+  private static ServerAddress primary() {
+    return client.getClusterDescription().getServerDescriptions().stream()
+        .filter(ServerDescription::isPrimary)
+        .map(ServerDescription::getAddress)
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private static boolean awaitSecondary() throws InterruptedException {
+    for (int i = 0; i < 50; i++) {
+      Set<Boolean> roles = client.getClusterDescription().getServerDescriptions().stream()
+          .filter(ServerDescription::isOk)
+          .map(ServerDescription::isPrimary)
+          .collect(Collectors.toSet());
+      if (roles.contains(true) && roles.contains(false)) {
+        return true;
+      }
+      Thread.sleep(100);
+    }
+    return false;
+  }
+}
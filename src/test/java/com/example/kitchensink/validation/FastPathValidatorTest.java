@@ -0,0 +1,192 @@
+package com.example.kitchensink.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.example.kitchensink.model.AuthRequest;
+import com.example.kitchensink.model.Member;
+import com.example.kitchensink.model.SignupRequest;
+import com.example.kitchensink.model.ValidationGroups;
+import jakarta.validation.Validation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+/**
+ * Differential tests: the fast path must report exactly what Bean Validation reports.
+ */
+class FastPathValidatorTest {
+
+  private static final String[] NAMES = {
+      null, "", " ", "John Doe", "José", "O'Connor", "John123", "1", "A",
+      "abcdefghijklmnopqrstuvwxy", "abcdefghijklmnopqrstuvwxyz", "abcdefghijklmnopqrstuvwxy1",
+      "Line\nBreak", "٣ Arabic digit", " "
+  };
+
+  private static final String[] EMAILS = {
+      null, "", " ", "john@example.com", "John.Doe@Example.COM", "a+b@sub.example.co.uk",
+      "user@localhost", "x@a-b.c", "plainaddress", "@example.com", "john@", "john@.com",
+      "john.@example.com", ".john@example.com", "jo..hn@example.com", "john@example..com",
+      "john@example.com.", "john@-example.com", "john@example-.com", "john@ex--ample.com",
+      "john doe@example.com", "john@exa mple.com", "a@b@example.com", "john!#$%&'*+/=?^_`{|}~@x.y",
+      "john@x!y.z", "john(comment)@example.com", "\"quoted\"@example.com", "john@[127.0.0.1]",
+      "jöhn@example.com", "john@exämple.com", "john@example.com\n",
+      "a".repeat(64) + "@example.com", "a".repeat(65) + "@example.com",
+      "john@" + "a".repeat(63) + ".com", "john@" + "a".repeat(64) + ".com",
+      "john@" + ("a".repeat(60) + ".").repeat(4) + "com", "john@" + ("a".repeat(62) + ".").repeat(4) + "com"
+  };
+
+  private static final String[] PASSWORDS = {
+      null, "", "        ", "short", "password", "Password123!", "MyPass@word1", "password123!",
+      "PASSWORD123!", "Password!", "Password123", "Pass1!", "Password#123", "Password 123!",
+      "Pässword123!", "Abcdef1$"
+  };
+
+  private static final String[] PHONES = {
+      null, "", "1234567890", "123456789012", "123456789", "1234567890123", "123-456-7890",
+      "123456789a", "١٢٣٤٥٦٧٨٩٠", "1234567890\n"
+  };
+
+  private static Locale previousLocale;
+
+  private SpringValidatorAdapter beanValidator;
+  private FastPathValidator fastPathValidator;
+
+  @BeforeAll
+  static void useEnglishMessages() {
+    previousLocale = Locale.getDefault();
+    Locale.setDefault(Locale.ENGLISH);
+  }
+
+  @AfterAll
+  static void restoreLocale() {
+    Locale.setDefault(previousLocale);
+  }
+
+  @BeforeEach
+  void setUp() {
+    beanValidator = new SpringValidatorAdapter(
+        Validation.buildDefaultValidatorFactory().getValidator());
+    fastPathValidator = new FastPathValidator(beanValidator);
+  }
+
+  @Test
+  void member_ShouldReportSameErrorsAsBeanValidation() {
+    for (String name : NAMES) {
+      for (String email : EMAILS) {
+        assertSameErrors(new Member("1", name, email, "Password123!", "1234567890", "USER"));
+      }
+    }
+    for (String password : PASSWORDS) {
+      for (String phone : PHONES) {
+        assertSameErrors(new Member("1", "John Doe", "john@example.com", password, phone, "USER"));
+        assertSameErrors(new Member("1", "John1", "john@example.com", password, phone, "USER"));
+      }
+    }
+  }
+
+  @Test
+  void signupRequest_ShouldReportSameErrorsAsBeanValidation() {
+    for (String name : NAMES) {
+      for (String email : EMAILS) {
+        assertSameErrors(new SignupRequest(name, email, "Password123!", "1234567890", "USER"));
+      }
+    }
+    for (String password : PASSWORDS) {
+      for (String phone : PHONES) {
+        assertSameErrors(new SignupRequest("John Doe", "john@example.com", password, phone, "USER"));
+      }
+    }
+  }
+
+  @Test
+  void authRequest_ShouldReportSameErrorsAsBeanValidation() {
+    for (String email : EMAILS) {
+      for (String password : PASSWORDS) {
+        assertSameErrors(new AuthRequest(email, password));
+      }
+    }
+  }
+
+  @Test
+  void validMember_ShouldNotConsultDelegate() {
+    SmartValidator delegate = mock(SmartValidator.class);
+    FastPathValidator validator = new FastPathValidator(delegate);
+    Member member = new Member("1", "John Doe", "john@example.com", "Password123!", "1234567890", "USER");
+
+    Errors errors = new BeanPropertyBindingResult(member, "member");
+    validator.validate(member, errors);
+
+    assertFalse(errors.hasErrors());
+    verify(delegate, never()).validate(any(), any());
+  }
+
+  @Test
+  void validationHints_ShouldBeHandledByDelegate() {
+    SmartValidator delegate = mock(SmartValidator.class);
+    FastPathValidator validator = new FastPathValidator(delegate);
+    Member member = new Member();
+    Errors errors = new BeanPropertyBindingResult(member, "member");
+
+    validator.validate(member, errors, ValidationGroups.Create.class);
+
+    verify(delegate).validate(member, errors, ValidationGroups.Create.class);
+  }
+
+  @Test
+  void otherTypes_ShouldBeHandledByDelegate() {
+    SmartValidator delegate = mock(SmartValidator.class);
+    FastPathValidator validator = new FastPathValidator(delegate);
+    Object target = new Object();
+    Errors errors = new BeanPropertyBindingResult(target, "target");
+
+    validator.validate(target, errors);
+
+    verify(delegate).validate(target, errors);
+  }
+
+  @Test
+  void emailCheck_ShouldLeaveQuotedLiteralAndInternationalAddressesUndecided() {
+    assertEquals(FastPathValidator.EmailCheck.UNDECIDED, FastPathValidator.checkEmail("\"a b\"@example.com"));
+    assertEquals(FastPathValidator.EmailCheck.UNDECIDED, FastPathValidator.checkEmail("john@[127.0.0.1]"));
+    assertEquals(FastPathValidator.EmailCheck.UNDECIDED, FastPathValidator.checkEmail("john@exämple.com"));
+    assertEquals(FastPathValidator.EmailCheck.VALID, FastPathValidator.checkEmail("jöhn@example.com"));
+  }
+
+  @Test
+  void supports_ShouldCoverFastPathTypes() {
+    assertTrue(fastPathValidator.supports(Member.class));
+    assertTrue(fastPathValidator.supports(SignupRequest.class));
+    assertTrue(fastPathValidator.supports(AuthRequest.class));
+  }
+
+  private void assertSameErrors(Object target) {
+    Errors expected = new BeanPropertyBindingResult(target, "target");
+    beanValidator.validate(target, expected);
+    Errors actual = new BeanPropertyBindingResult(target, "target");
+    fastPathValidator.validate(target, actual);
+
+    assertEquals(describe(expected), describe(actual), () -> "Mismatch for " + target);
+  }
+
+  private static List<String> describe(Errors errors) {
+    List<String> described = new ArrayList<>();
+    errors.getFieldErrors().forEach(error ->
+        described.add(error.getField() + "|" + error.getCode() + "|" + error.getDefaultMessage()));
+    return described.stream().sorted().collect(Collectors.toList());
+  }
+}
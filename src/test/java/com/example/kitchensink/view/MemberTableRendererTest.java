@@ -0,0 +1,137 @@
+package com.example.kitchensink.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.kitchensink.event.MemberChangedEvent;
+import com.example.kitchensink.model.Member;
+import com.example.kitchensink.service.MemberService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+@ExtendWith(MockitoExtension.class)
+class MemberTableRendererTest {
+
+  @Mock
+  private MemberService memberService;
+
+  private MemberTableRenderer renderer;
+
+  private final AtomicLong clock = new AtomicLong();
+
+  private final Member john = new Member("1", "John Doe", "john@example.com", null, "1234567890", "ROLE_ADMIN");
+
+  @BeforeEach
+  void setUp() {
+    ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+    resolver.setPrefix("templates/");
+    resolver.setSuffix(".html");
+    SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+    templateEngine.setTemplateResolver(resolver);
+
+    MockServletContext servletContext = new MockServletContext();
+    servletContext.setContextPath("/app");
+    renderer = new MemberTableRenderer(memberService, templateEngine, servletContext,
+        Duration.ofSeconds(30), clock::get);
+  }
+
+  @Test
+  void render_ShouldRenderRowsAndPager() {
+    when(memberService.getMembersPage(1, 1)).thenReturn(page(1, 1, 3, john));
+
+    String html = renderer.render(1, 1);
+
+    assertThat(html).contains("id=\"membersTable\"");
+    assertThat(html).contains("data-url=\"/app/admin/members/1\"");
+    assertThat(html).contains("value=\"John Doe\"");
+    assertThat(html).contains("Page 2 of 3 (3 members)");
+    assertThat(html).contains("href=\"/app/admin/home?page=0&amp;size=1\"");
+    assertThat(html).contains("href=\"/app/admin/home?page=2&amp;size=1\"");
+  }
+
+  @Test
+  void render_WithNoMembers_ShouldRenderEmptyState() {
+    when(memberService.getMembersPage(0, 20)).thenReturn(page(0, 20, 0));
+
+    String html = renderer.render(0, 20);
+
+    assertThat(html).contains("No registered members found.");
+    assertThat(html).doesNotContain("<table");
+  }
+
+  @Test
+  void render_ShouldServeRepeatedRequestsFromCache() {
+    when(memberService.getMembersPage(0, 20)).thenReturn(page(0, 20, 1, john));
+
+    String first = renderer.render(0, 20);
+    String second = renderer.render(0, 20);
+
+    assertThat(second).isSameAs(first);
+    verify(memberService, times(1)).getMembersPage(0, 20);
+  }
+
+  @Test
+  void onMemberChanged_ShouldInvalidateCachedPages() {
+    when(memberService.getMembersPage(0, 20)).thenReturn(page(0, 20, 1, john));
+    renderer.render(0, 20);
+
+    renderer.onMemberChanged(MemberChangedEvent.deleted("2"));
+    renderer.render(0, 20);
+
+    assertThat(renderer.cachedPageCount()).isEqualTo(1);
+    verify(memberService, times(2)).getMembersPage(0, 20);
+  }
+
+  @Test
+  void render_AfterTheTtl_ShouldRenderAgain() {
+    when(memberService.getMembersPage(0, 20)).thenReturn(page(0, 20, 1, john));
+    renderer.render(0, 20);
+
+    clock.addAndGet(Duration.ofSeconds(29).toNanos());
+    renderer.render(0, 20);
+    verify(memberService, times(1)).getMembersPage(0, 20);
+
+    // A write on another node never reaches this one's cache
+    clock.addAndGet(Duration.ofSeconds(1).toNanos());
+    renderer.render(0, 20);
+    verify(memberService, times(2)).getMembersPage(0, 20);
+    assertThat(renderer.cachedPageCount()).isEqualTo(1);
+  }
+
+  @Test
+  void render_PastLastPage_ShouldRenderLastPage() {
+    when(memberService.getMembersPage(5, 20)).thenReturn(new PageImpl<>(List.of(), PageRequest.of(5, 20), 21));
+    when(memberService.getMembersPage(1, 20)).thenReturn(page(1, 20, 21, john));
+
+    String html = renderer.render(5, 20);
+
+    assertThat(html).contains("Page 2 of 2 (21 members)");
+  }
+
+  @Test
+  void render_ShouldClampPageSize() {
+    when(memberService.getMembersPage(anyInt(), anyInt())).thenReturn(page(0, 100, 1, john));
+
+    renderer.render(-3, 10_000);
+
+    verify(memberService).getMembersPage(0, MemberTableRenderer.MAX_PAGE_SIZE);
+  }
+
+  private static PageImpl<Member> page(int page, int size, long total, Member... members) {
+    return new PageImpl<>(List.of(members), PageRequest.of(page, size), total);
+  }
+}